@@ -0,0 +1,127 @@
+package com.example.ecommerce.benchmarks;
+
+import com.example.ecommerce.customerservice.config.MongoIndexConfig;
+import com.example.ecommerce.customerservice.entities.Customer;
+import com.example.ecommerce.customerservice.repository.CustomerRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Benchmark for looking up a customer by email in MongoDB, through the unique email index and with a forced
+ * collection scan (the cost of the lookup without the index).
+ * Unlike the other benchmarks it needs a running MongoDB, given by the BENCHMARK_MONGODB_URI environment variable
+ * (default mongodb://localhost:27017). A stand-in customer collection of the given size is seeded once in the
+ * separate "customer-benchmark" database and kept for later runs, e.g.:
+ * BENCHMARK_MONGODB_URI=mongodb://localhost:27017 java -jar target/benchmarks.jar CustomerEmailLookupBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerEmailLookupBenchmark {
+
+    private static final String DATABASE = "customer-benchmark";
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final int LOOKUP_KEYS = 1024;
+
+    @Param({"10000000"})
+    private int documents;
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private CustomerRepository customerRepository;
+    private String[] emails;
+    private int next;
+
+    @Setup
+    public void setup() {
+        var uri = Optional.ofNullable(System.getenv("BENCHMARK_MONGODB_URI")).orElse("mongodb://localhost:27017");
+        mongoClient = MongoClients.create(uri);
+        mongoTemplate = new MongoTemplate(mongoClient, DATABASE);
+
+        var collectionName = mongoTemplate.getCollectionName(Customer.class);
+        if (mongoTemplate.getCollection(collectionName).countDocuments() != documents) {
+            mongoTemplate.dropCollection(collectionName);
+            seed(collectionName);
+        }
+        // Indexes are built after seeding, the same way the service creates them at startup
+        new MongoIndexConfig(mongoTemplate).createIndexes(Customer.class);
+        customerRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(CustomerRepository.class);
+
+        var random = new Random(42);
+        emails = new String[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            emails[i] = email(random.nextInt(documents));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public Optional<Customer> findByEmailIndexed() {
+        return customerRepository.findByEmail(nextEmail());
+    }
+
+    @Benchmark
+    public Customer findByEmailCollectionScan() {
+        return mongoTemplate.findOne(
+                new Query(where("email").is(nextEmail())).withHint(new Document("$natural", 1)),
+                Customer.class
+        );
+    }
+
+    private String nextEmail() {
+        return emails[next++ & (LOOKUP_KEYS - 1)];
+    }
+
+    /**
+     * Inserts the stand-in customers in unordered batches, without the indexes so the load stays fast.
+     *
+     * @param collectionName The name of the customer collection.
+     */
+    private void seed(String collectionName) {
+        var collection = mongoTemplate.getCollection(collectionName);
+        var batch = new ArrayList<Document>(SEED_BATCH_SIZE);
+        for (int i = 0; i < documents; i++) {
+            batch.add(
+                    new Document("_id", new ObjectId())
+                            .append("firstName", "First" + i)
+                            .append("lastName", "Last" + (i % 100_000))
+                            .append("email", email(i))
+                            .append("address", new Document("street", "Main Street")
+                                    .append("houseNumber", String.valueOf(i % 1000))
+                                    .append("zipCode", String.format("%05d", i % 100_000)))
+            );
+            if (batch.size() == SEED_BATCH_SIZE) {
+                collection.insertMany(batch, new InsertManyOptions().ordered(false));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            collection.insertMany(batch, new InsertManyOptions().ordered(false));
+        }
+    }
+
+    private static String email(int i) {
+        return "customer" + i + "@example.com";
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ecommerce.benchmarks;
+
+import com.example.ecommerce.notification_service.models.EmailTemplates;
+import com.example.ecommerce.notification_service.models.ProductDTO;
+import com.example.ecommerce.notification_service.services.impl.EmailTemplateRendererImpl;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for rendering the notification service's email templates, which is done once per email.
+ * Compares rendering without the template cache, with a fresh Context and variables map per email,
+ * and through the EmailTemplateRenderer, which reuses the Context and output buffer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailRenderBenchmark {
+
+    @Param({"PAYMENT_CONFIRMATION", "ORDER_CONFIRMATION"})
+    private EmailTemplates template;
+
+    private SpringTemplateEngine uncachedEngine;
+    private SpringTemplateEngine cachedEngine;
+    private EmailTemplateRendererImpl templateRenderer;
+
+    private List<ProductDTO> productDTOs;
+
+    private static SpringTemplateEngine templateEngine(boolean cacheable) {
+        var templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCacheable(cacheable);
+
+        var templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setEnableSpringELCompiler(true);
+        return templateEngine;
+    }
+
+    @Setup
+    public void setup() {
+        uncachedEngine = templateEngine(false);
+        cachedEngine = templateEngine(true);
+        templateRenderer = new EmailTemplateRendererImpl(templateEngine(true));
+
+        productDTOs = List.of(
+                new ProductDTO(1, "Keyboard", "Mechanical keyboard", new BigDecimal("79.99"), 1.0),
+                new ProductDTO(2, "Mouse", "Wireless mouse", new BigDecimal("29.99"), 2.0),
+                new ProductDTO(3, "Monitor", "27 inch monitor", new BigDecimal("249.99"), 1.0),
+                new ProductDTO(4, "Headset", "Noise cancelling headset", new BigDecimal("149.99"), 1.0),
+                new ProductDTO(5, "Webcam", "1080p webcam", new BigDecimal("59.99"), 3.0)
+        );
+    }
+
+    private Map<String, Object> variables() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("customerName", "John Doe");
+        variables.put("amount", new BigDecimal("809.91"));
+        variables.put("orderReference", "ORD-0001");
+        variables.put("productDTOs", productDTOs);
+        return variables;
+    }
+
+    /**
+     * Parses the template on every render, as with the template cache disabled.
+     */
+    @Benchmark
+    public String renderUncached() {
+        var context = new Context();
+        context.setVariables(variables());
+        return uncachedEngine.process(template.getTemplate(), context);
+    }
+
+    /**
+     * Uses the cached template but allocates a Context and variables map per email.
+     */
+    @Benchmark
+    public String renderFreshContext() {
+        var context = new Context();
+        context.setVariables(variables());
+        return cachedEngine.process(template.getTemplate(), context);
+    }
+
+    /**
+     * Renders through the EmailTemplateRenderer used by the notification service.
+     */
+    @Benchmark
+    public String renderReusedContext() {
+        return templateRenderer.render(
+                template,
+                context -> {
+                    context.setVariable("customerName", "John Doe");
+                    context.setVariable("amount", new BigDecimal("809.91"));
+                    context.setVariable("orderReference", "ORD-0001");
+                    context.setVariable("productDTOs", productDTOs);
+                }
+        );
+    }
+}
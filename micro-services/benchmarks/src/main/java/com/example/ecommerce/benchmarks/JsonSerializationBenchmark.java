@@ -0,0 +1,96 @@
+package com.example.ecommerce.benchmarks;
+
+import com.example.ecommerce.order_service.models.CustomerResponseDTO;
+import com.example.ecommerce.order_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.order_service.models.ProductPurchaseResponseDTO;
+import com.example.ecommerce.payment_service.models.PaymentNotificationRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the Jackson serialization of the Kafka payloads sent by the order and payment services.
+ * The order confirmation is measured with a growing number of purchased products.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int purchases;
+
+    private ObjectWriter orderConfirmationWriter;
+    private ObjectReader orderConfirmationReader;
+    private ObjectWriter paymentNotificationWriter;
+    private ObjectReader paymentNotificationReader;
+
+    private OrderConfirmationDTO orderConfirmation;
+    private byte[] orderConfirmationJson;
+    private PaymentNotificationRequestDTO paymentNotification;
+    private byte[] paymentNotificationJson;
+
+    @Setup
+    public void setup() throws IOException {
+        var objectMapper = new ObjectMapper();
+        orderConfirmationWriter = objectMapper.writerFor(OrderConfirmationDTO.class);
+        orderConfirmationReader = objectMapper.readerFor(OrderConfirmationDTO.class);
+        paymentNotificationWriter = objectMapper.writerFor(PaymentNotificationRequestDTO.class);
+        paymentNotificationReader = objectMapper.readerFor(PaymentNotificationRequestDTO.class);
+
+        var products = new ArrayList<ProductPurchaseResponseDTO>(purchases);
+        for (int i = 0; i < purchases; i++) {
+            products.add(
+                    new ProductPurchaseResponseDTO(i, "Product " + i, "Description of product " + i, new BigDecimal("19.99"), 2)
+            );
+        }
+        orderConfirmation = new OrderConfirmationDTO(
+                "ORD-0001",
+                new BigDecimal("39.98").multiply(BigDecimal.valueOf(purchases)),
+                com.example.ecommerce.order_service.models.PaymentMethod.CREDIT_CARD,
+                new CustomerResponseDTO("customer-1", "John", "Doe", "john.doe@example.com"),
+                products
+        );
+        orderConfirmationJson = orderConfirmationWriter.writeValueAsBytes(orderConfirmation);
+
+        paymentNotification = new PaymentNotificationRequestDTO(
+                "ORD-0001",
+                new BigDecimal("39.98"),
+                com.example.ecommerce.payment_service.models.PaymentMethod.CREDIT_CARD,
+                "John",
+                "Doe",
+                "john.doe@example.com",
+                "customer-1"
+        );
+        paymentNotificationJson = paymentNotificationWriter.writeValueAsBytes(paymentNotification);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderConfirmation() throws IOException {
+        return orderConfirmationWriter.writeValueAsBytes(orderConfirmation);
+    }
+
+    @Benchmark
+    public OrderConfirmationDTO deserializeOrderConfirmation() throws IOException {
+        return orderConfirmationReader.readValue(orderConfirmationJson);
+    }
+
+    @Benchmark
+    public byte[] serializePaymentNotification() throws IOException {
+        return paymentNotificationWriter.writeValueAsBytes(paymentNotification);
+    }
+
+    @Benchmark
+    public PaymentNotificationRequestDTO deserializePaymentNotification() throws IOException {
+        return paymentNotificationReader.readValue(paymentNotificationJson);
+    }
+}
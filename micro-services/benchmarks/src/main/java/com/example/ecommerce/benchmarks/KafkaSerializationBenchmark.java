@@ -0,0 +1,173 @@
+package com.example.ecommerce.benchmarks;
+
+import com.example.ecommerce.notification_service.serialization.OrderConfirmationAvroDeserializer;
+import com.example.ecommerce.notification_service.serialization.PaymentConfirmationAvroDeserializer;
+import com.example.ecommerce.order_service.models.CustomerResponseDTO;
+import com.example.ecommerce.order_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.order_service.models.ProductPurchaseResponseDTO;
+import com.example.ecommerce.order_service.serialization.OrderConfirmationAvroSerializer;
+import com.example.ecommerce.payment_service.models.PaymentNotificationRequestDTO;
+import com.example.ecommerce.payment_service.serialization.PaymentNotificationAvroSerializer;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Kafka value serializers of the order confirmation and payment notification events:
+ * the Spring JSON serializers with type headers and type mapping, as configured before, against the Avro serializers.
+ * The encoded payload sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KafkaSerializationBenchmark {
+
+    public enum Format {
+        JSON,
+        AVRO
+    }
+
+    @Param({"JSON", "AVRO"})
+    private Format format;
+
+    @Param({"1", "10", "50"})
+    private int purchases;
+
+    private Serializer<Object> orderConfirmationSerializer;
+    private Deserializer<Object> orderConfirmationDeserializer;
+    private Serializer<Object> paymentNotificationSerializer;
+    private Deserializer<Object> paymentNotificationDeserializer;
+
+    private OrderConfirmationDTO orderConfirmation;
+    private Headers orderConfirmationHeaders;
+    private byte[] orderConfirmationBytes;
+    private PaymentNotificationRequestDTO paymentNotification;
+    private Headers paymentNotificationHeaders;
+    private byte[] paymentNotificationBytes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        switch (format) {
+            case JSON -> {
+                // The producer and consumer settings of order-service.yml, payment-service.yml and notification-service.yml
+                orderConfirmationSerializer = jsonSerializer(
+                        "orderConfirmationDTO:" + OrderConfirmationDTO.class.getName()
+                );
+                paymentNotificationSerializer = jsonSerializer(
+                        "paymentNotificationRequestDTO:" + PaymentNotificationRequestDTO.class.getName()
+                );
+                orderConfirmationDeserializer = jsonDeserializer();
+                paymentNotificationDeserializer = jsonDeserializer();
+            }
+            case AVRO -> {
+                orderConfirmationSerializer = (Serializer<Object>) (Serializer<?>) new OrderConfirmationAvroSerializer();
+                paymentNotificationSerializer = (Serializer<Object>) (Serializer<?>) new PaymentNotificationAvroSerializer();
+                orderConfirmationDeserializer = (Deserializer<Object>) (Deserializer<?>) new OrderConfirmationAvroDeserializer();
+                paymentNotificationDeserializer = (Deserializer<Object>) (Deserializer<?>) new PaymentConfirmationAvroDeserializer();
+            }
+        }
+
+        var products = new ArrayList<ProductPurchaseResponseDTO>(purchases);
+        for (int i = 0; i < purchases; i++) {
+            products.add(
+                    new ProductPurchaseResponseDTO(i, "Product " + i, "Description of product " + i, new BigDecimal("19.99"), 2)
+            );
+        }
+        orderConfirmation = new OrderConfirmationDTO(
+                "ORD-0001",
+                new BigDecimal("39.98").multiply(BigDecimal.valueOf(purchases)),
+                com.example.ecommerce.order_service.models.PaymentMethod.CREDIT_CARD,
+                new CustomerResponseDTO("customer-1", "John", "Doe", "john.doe@example.com"),
+                products
+        );
+        orderConfirmationHeaders = new RecordHeaders();
+        orderConfirmationBytes = orderConfirmationSerializer.serialize("order-topic", orderConfirmationHeaders, orderConfirmation);
+
+        paymentNotification = new PaymentNotificationRequestDTO(
+                "ORD-0001",
+                new BigDecimal("39.98"),
+                com.example.ecommerce.payment_service.models.PaymentMethod.CREDIT_CARD,
+                "John",
+                "Doe",
+                "john.doe@example.com",
+                "customer-1"
+        );
+        paymentNotificationHeaders = new RecordHeaders();
+        paymentNotificationBytes = paymentNotificationSerializer.serialize("payment-topic", paymentNotificationHeaders, paymentNotification);
+
+        System.out.printf(
+                "%n%s payload sizes with %d purchases: order confirmation %d bytes (+%d header bytes), payment notification %d bytes (+%d header bytes)%n",
+                format, purchases,
+                orderConfirmationBytes.length, headerBytes(orderConfirmationHeaders),
+                paymentNotificationBytes.length, headerBytes(paymentNotificationHeaders)
+        );
+    }
+
+    @Benchmark
+    public byte[] serializeOrderConfirmation() {
+        return orderConfirmationSerializer.serialize("order-topic", new RecordHeaders(), orderConfirmation);
+    }
+
+    @Benchmark
+    public Object deserializeOrderConfirmation() {
+        return orderConfirmationDeserializer.deserialize("order-topic", copy(orderConfirmationHeaders), orderConfirmationBytes);
+    }
+
+    @Benchmark
+    public byte[] serializePaymentNotification() {
+        return paymentNotificationSerializer.serialize("payment-topic", new RecordHeaders(), paymentNotification);
+    }
+
+    @Benchmark
+    public Object deserializePaymentNotification() {
+        return paymentNotificationDeserializer.deserialize("payment-topic", copy(paymentNotificationHeaders), paymentNotificationBytes);
+    }
+
+    private static Serializer<Object> jsonSerializer(String typeMapping) {
+        var serializer = new JsonSerializer<>();
+        serializer.configure(Map.of(JsonSerializer.TYPE_MAPPINGS, typeMapping), false);
+        return serializer;
+    }
+
+    private static Deserializer<Object> jsonDeserializer() {
+        var deserializer = new JsonDeserializer<>();
+        deserializer.configure(
+                Map.of(
+                        JsonDeserializer.TRUSTED_PACKAGES, "*",
+                        JsonDeserializer.TYPE_MAPPINGS,
+                        "orderConfirmationDTO:" + com.example.ecommerce.notification_service.models.OrderConfirmationDTO.class.getName()
+                                + ", paymentNotificationRequestDTO:" + com.example.ecommerce.notification_service.models.PaymentConfirmationDTO.class.getName()
+                ),
+                false
+        );
+        return deserializer;
+    }
+
+    /**
+     * Copies the record headers; the JSON deserializer removes the type headers it has read.
+     */
+    private static Headers copy(Headers headers) {
+        return new RecordHeaders(headers.toArray());
+    }
+
+    private static int headerBytes(Headers headers) {
+        var size = 0;
+        for (var header : headers) {
+            size += header.key().length() + header.value().length;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.ecommerce.benchmarks;
+
+import com.example.ecommerce.customerservice.entities.Address;
+import com.example.ecommerce.customerservice.entities.Customer;
+import com.example.ecommerce.customerservice.mapper.CustomerMapper;
+import com.example.ecommerce.customerservice.model.CustomerRequestDTO;
+import com.example.ecommerce.customerservice.model.CustomerResponseDTO;
+import com.example.ecommerce.order_service.entities.CustomerOrder;
+import com.example.ecommerce.order_service.mappers.OrderMapper;
+import com.example.ecommerce.order_service.models.OrderRequestDTO;
+import com.example.ecommerce.order_service.models.OrderResponseDTO;
+import com.example.ecommerce.order_service.models.ProductPurchaseRequestDTO;
+import com.example.ecommerce.payment_service.entities.Payment;
+import com.example.ecommerce.payment_service.mappers.PaymentMapper;
+import com.example.ecommerce.payment_service.models.CustomerDTO;
+import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
+import com.example.ecommerce.product_service.entities.Category;
+import com.example.ecommerce.product_service.entities.Product;
+import com.example.ecommerce.product_service.mapper.ProductMapper;
+import com.example.ecommerce.product_service.model.ProductPurchaseResponseDTO;
+import com.example.ecommerce.product_service.model.ProductRequestDTO;
+import com.example.ecommerce.product_service.model.ProductResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the entity/DTO mappers of the product, order, customer and payment services.
+ * Every request passes through at least one of them, so their cost adds to each call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private final OrderMapper orderMapper = new OrderMapper();
+    private final CustomerMapper customerMapper = new CustomerMapper();
+    private final PaymentMapper paymentMapper = new PaymentMapper();
+
+    private Product product;
+    private ProductRequestDTO productRequestDTO;
+    private CustomerOrder order;
+    private OrderRequestDTO orderRequestDTO;
+    private Customer customer;
+    private CustomerRequestDTO customerRequestDTO;
+    private PaymentRequestDTO paymentRequestDTO;
+
+    @Setup
+    public void setup() {
+        product = Product.builder()
+                .id(1)
+                .name("Smartphone")
+                .description("Latest model smartphone")
+                .availableQuantity(50)
+                .price(new BigDecimal("699.99"))
+                .category(
+                        Category.builder()
+                                .id(1)
+                                .name("Electronics")
+                                .description("Electronic devices and gadgets")
+                                .build()
+                )
+                .build();
+        productRequestDTO = new ProductRequestDTO(
+                null, "Smartphone", "Latest model smartphone", 50, new BigDecimal("699.99"), 1
+        );
+        order = CustomerOrder.builder()
+                .id(1)
+                .reference("ORD-0001")
+                .totalAmount(new BigDecimal("1399.98"))
+                .paymentMethod(com.example.ecommerce.order_service.models.PaymentMethod.CREDIT_CARD)
+                .customerId("customer-1")
+                .build();
+        orderRequestDTO = new OrderRequestDTO(
+                null,
+                "ORD-0001",
+                new BigDecimal("1399.98"),
+                com.example.ecommerce.order_service.models.PaymentMethod.CREDIT_CARD,
+                "customer-1",
+                List.of(new ProductPurchaseRequestDTO(1, 2))
+        );
+        var address = Address.builder()
+                .street("Main Street")
+                .houseNumber("42")
+                .zipCode("12345")
+                .build();
+        customer = Customer.builder()
+                .id("customer-1")
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .address(address)
+                .build();
+        customerRequestDTO = new CustomerRequestDTO(
+                null, "John", "Doe", "john.doe@example.com", address
+        );
+        paymentRequestDTO = new PaymentRequestDTO(
+                null,
+                new BigDecimal("1399.98"),
+                1,
+                com.example.ecommerce.payment_service.models.PaymentMethod.CREDIT_CARD,
+                "ORD-0001",
+                new CustomerDTO("customer-1", "John", "Doe", "john.doe@example.com")
+        );
+    }
+
+    @Benchmark
+    public ProductResponseDTO productToProductResponseDTO() {
+        return productMapper.productToProductResponseDTO(product);
+    }
+
+    @Benchmark
+    public Product productRequestDTOtoProduct() {
+        return productMapper.productRequestDTOtoProduct(productRequestDTO);
+    }
+
+    @Benchmark
+    public ProductPurchaseResponseDTO productToProductPurchaseResponseDTO() {
+        return productMapper.productToProductPurchaseResponseDTO(product, 2);
+    }
+
+    @Benchmark
+    public CustomerOrder orderRequestDTOToOrder() {
+        return orderMapper.orderRequestDTOToOrder(orderRequestDTO);
+    }
+
+    @Benchmark
+    public OrderResponseDTO orderToOrderResponseDTO() {
+        return orderMapper.orderToOrderResponseDTO(order);
+    }
+
+    @Benchmark
+    public Customer customerRequestDTOToCustomer() {
+        return customerMapper.customerRequestDTOToCustomer(customerRequestDTO);
+    }
+
+    @Benchmark
+    public CustomerResponseDTO customerToCustomerResponseDTO() {
+        return customerMapper.customerToCustomerResponseDTO(customer);
+    }
+
+    @Benchmark
+    public Payment paymentRequestDTOToPayment() {
+        return paymentMapper.paymentRequestDTOToPayment(paymentRequestDTO);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ecommerce.benchmarks;
+
+import com.example.ecommerce.product_service.cache.ProductCatalogCache;
+import com.example.ecommerce.product_service.entities.Category;
+import com.example.ecommerce.product_service.entities.Product;
+import com.example.ecommerce.product_service.mapper.ProductMapper;
+import com.example.ecommerce.product_service.model.ProductPurchaseRequestDTO;
+import com.example.ecommerce.product_service.model.ProductPurchaseResponseDTO;
+import com.example.ecommerce.product_service.repository.ProductRepository;
+import com.example.ecommerce.product_service.services.impl.ProductServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the in-memory part of ProductServiceImpl.performPurchaseProducts:
+ * request validation, summing quantities per product, the found-products check and response mapping.
+ * The repository is replaced by an in-memory stub, so database time is not part of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductPurchaseBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int cartSize;
+
+    private ProductServiceImpl productService;
+    private List<ProductPurchaseRequestDTO> purchases;
+
+    @Setup
+    public void setup() {
+        var products = new ArrayList<Product>(cartSize);
+        purchases = new ArrayList<>(cartSize);
+        var category = Category.builder().id(1).name("Electronics").build();
+        // Requests arrive unsorted, so the ordering step is part of the measurement
+        for (int id = cartSize; id >= 1; id--) {
+            purchases.add(new ProductPurchaseRequestDTO(id, 1));
+        }
+        for (int id = 1; id <= cartSize; id++) {
+            products.add(
+                    Product.builder()
+                            .id(id)
+                            .name("Product " + id)
+                            .description("Description of product " + id)
+                            .availableQuantity(Double.MAX_VALUE)
+                            .price(new BigDecimal("19.99"))
+                            .category(category)
+                            .build()
+            );
+        }
+
+        var productRepository = stubRepository(products);
+        // No stock reservation repository: only the order-keyed purchase uses it
+        productService = new ProductServiceImpl(
+                productRepository, new ProductMapper(), new ProductCatalogCache(productRepository), null
+        );
+    }
+
+    @Benchmark
+    public List<ProductPurchaseResponseDTO> performPurchaseProducts() {
+        return productService.performPurchaseProducts(purchases);
+    }
+
+    /**
+     * Creates a repository that always finds the given products and accepts every stock reservation.
+     *
+     * @param products The products returned by the lookup.
+     * @return An in-memory ProductRepository stub.
+     */
+    private static ProductRepository stubRepository(List<Product> products) {
+        return (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllByIdInOrderById" -> products;
+                    case "reserveStock", "releaseStock" -> 1;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "ProductRepositoryStub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ecommerce.customerservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Configuration class for Kafka topics related to the Customer Service.
+ * Defines the topics used for customer change events.
+ * The partition and replica counts default to the shared `application.kafka.topics` settings and can be overridden
+ * per topic.
+ */
+@Configuration
+public class KafkaCustomerTopicConfig {
+
+    /**
+     * Creates a Kafka topic named "customer-topic".
+     * This topic is used for announcing updated and deleted customers, e.g. to invalidate cached copies in other services.
+     * Messages are keyed by customer ID, so the changes of one customer are delivered in order.
+     *
+     * @param partitions the number of partitions of the topic
+     * @param replicas   the number of replicas of each partition; acks=all writes must reach all but one of them
+     * @return a {@link NewTopic} object representing the "customer-topic".
+     */
+    @Bean
+    public NewTopic customerTopic(
+            @Value("${application.kafka.topics.customer-topic.partitions:${application.kafka.topics.partitions:6}}") int partitions,
+            @Value("${application.kafka.topics.customer-topic.replicas:${application.kafka.topics.replicas:1}}") int replicas
+    ) {
+        return TopicBuilder
+                .name("customer-topic")
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(Math.max(1, replicas - 1)))
+                .build();
+    }
+}
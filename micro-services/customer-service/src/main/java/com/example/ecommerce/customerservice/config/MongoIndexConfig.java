@@ -0,0 +1,46 @@
+package com.example.ecommerce.customerservice.config;
+
+import com.example.ecommerce.customerservice.entities.Customer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+/**
+ * Configuration class for the MongoDB indexes of the customer service.
+ * The indexes declared on the documents (e.g. with @Indexed and @CompoundIndex) are created at startup,
+ * so lookups that rely on them never fall back to collection scans.
+ */
+@Configuration
+@Slf4j
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Creates the indexes of the customer documents once the application context is ready.
+     * Creating an index that already exists is a no-op; a unique index that the existing data violates
+     * fails the startup instead of leaving the constraint unenforced.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void createIndexes() {
+        createIndexes(Customer.class);
+    }
+
+    /**
+     * Creates the indexes declared on the given document type.
+     *
+     * @param documentType the document class whose index annotations are resolved
+     */
+    public void createIndexes(Class<?> documentType) {
+        IndexResolver indexResolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        var indexOperations = mongoTemplate.indexOps(documentType);
+        indexResolver.resolveIndexFor(documentType)
+                .forEach(index -> log.info("Ensured index {} on {}", indexOperations.createIndex(index), documentType.getSimpleName()));
+    }
+}
@@ -1,14 +1,23 @@
 package com.example.ecommerce.customerservice.controllers;
 
+import com.example.ecommerce.customerservice.model.CursorPageResponseDTO;
+import com.example.ecommerce.customerservice.model.CustomerBatchRequestDTO;
+import com.example.ecommerce.customerservice.model.CustomerProjection;
 import com.example.ecommerce.customerservice.model.CustomerRequestDTO;
 import com.example.ecommerce.customerservice.model.CustomerResponseDTO;
 import com.example.ecommerce.customerservice.services.CustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller class for managing customer-related operations.
@@ -20,6 +29,7 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Retrieves a list of all customers.
@@ -31,6 +41,47 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.findAllCustomers());
     }
 
+    /**
+     * Retrieves a page of customers.
+     * Pages are ordered by customer ID and the ID of the last customer seen is used as the cursor.
+     *
+     * @param after The ID of the last customer of the previous page; omit for the first page.
+     * @param size  The maximum number of customers to return.
+     * @param view  The fields to return: FULL for all fields, SUMMARY for the ID and email only.
+     * @return ResponseEntity containing the page and the cursor for the next page (null on the last page).
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponseDTO<?>> findPage(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "50") int size,
+            @RequestParam(value = "view", defaultValue = "FULL") CustomerProjection view
+    ) {
+        return ResponseEntity.ok(customerService.findCustomersPage(after, size, view.getType()));
+    }
+
+    /**
+     * Streams all customers as newline-delimited JSON, writing each customer as soon as it is read.
+     *
+     * @param view The fields to return: FULL for all fields, SUMMARY for the ID and email only.
+     * @return ResponseEntity whose body streams one customer per line.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomers(
+            @RequestParam(value = "view", defaultValue = "FULL") CustomerProjection view
+    ) {
+        StreamingResponseBody body = outputStream -> customerService.streamCustomers(view.getType(), customer -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(customer));
+                outputStream.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Retrieves a customer by their ID.
      *
@@ -44,6 +95,19 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.findCustomerById(customerId));
     }
 
+    /**
+     * Retrieves a customer by their email address.
+     *
+     * @param email The email address of the customer to retrieve.
+     * @return ResponseEntity containing the CustomerResponseDTO object.
+     */
+    @GetMapping("/by-email")
+    public ResponseEntity<CustomerResponseDTO> findByEmail(
+            @RequestParam("email") String email
+    ) {
+        return ResponseEntity.ok(customerService.findCustomerByEmail(email));
+    }
+
     /**
      * Creates a new customer.
      *
@@ -84,6 +148,32 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.existsCustomerById(customerId));
     }
 
+    /**
+     * Retrieves the customers with the given IDs in one request.
+     *
+     * @param customerBatchRequestDTO The IDs of the customers to retrieve.
+     * @return ResponseEntity containing the CustomerResponseDTO objects of the customers found; unknown IDs are skipped.
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<CustomerResponseDTO>> findByIds(
+            @RequestBody @Valid CustomerBatchRequestDTO customerBatchRequestDTO
+    ) {
+        return ResponseEntity.ok(customerService.findCustomersByIds(customerBatchRequestDTO.ids()));
+    }
+
+    /**
+     * Checks which of the given customer IDs exist in one request.
+     *
+     * @param customerBatchRequestDTO The IDs of the customers to check.
+     * @return ResponseEntity containing a map from each ID to a boolean indicating existence.
+     */
+    @PostMapping("/batch-exists")
+    public ResponseEntity<Map<String, Boolean>> existsByIds(
+            @RequestBody @Valid CustomerBatchRequestDTO customerBatchRequestDTO
+    ) {
+        return ResponseEntity.ok(customerService.existsCustomersByIds(customerBatchRequestDTO.ids()));
+    }
+
     /**
      * Deletes a customer by their ID.
      *
@@ -2,6 +2,8 @@ package com.example.ecommerce.customerservice.entities;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Getter
@@ -10,6 +12,8 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @AllArgsConstructor
 @Builder
 @Document
+// Supports looking customers up by name, e.g. in support workflows; the indexes are created by MongoIndexConfig.
+@CompoundIndex(name = "lastName_firstName", def = "{ 'lastName': 1, 'firstName': 1 }")
 public class Customer {
 
     @Id
@@ -17,7 +21,11 @@ public class Customer {
 
     private String firstName;
     private String lastName;
+
+    // An email address identifies at most one customer.
+    @Indexed(name = "email_unique", unique = true)
     private String email;
+
     private Address address;
 
 }
@@ -0,0 +1,10 @@
+package com.example.ecommerce.customerservice.exceptions;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CustomerAlreadyExistsException extends RuntimeException {
+    private final String message;
+}
@@ -30,6 +30,19 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    /**
+     * Handles CustomerAlreadyExistsException.
+     *
+     * @param ex the exception thrown when another customer already has the email address
+     * @return a ResponseEntity containing the error message and HTTP status CONFLICT
+     */
+    @ExceptionHandler(CustomerAlreadyExistsException.class)
+    public ResponseEntity<String> handleCustomerAlreadyExistsException(CustomerAlreadyExistsException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ex.getMessage());
+    }
+
     /**
      * Handles MethodArgumentNotValidException.
      * This exception is thrown when validation on an argument annotated with @Valid fails.
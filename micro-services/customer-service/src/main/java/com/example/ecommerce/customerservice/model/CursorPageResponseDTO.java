@@ -0,0 +1,9 @@
+package com.example.ecommerce.customerservice.model;
+
+import java.util.List;
+
+public record CursorPageResponseDTO<T>(
+        List<T> content,
+        String nextCursor
+) {
+}
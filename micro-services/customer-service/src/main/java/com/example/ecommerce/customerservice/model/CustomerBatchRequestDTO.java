@@ -0,0 +1,14 @@
+package com.example.ecommerce.customerservice.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CustomerBatchRequestDTO(
+        @NotEmpty(message = "Customer ids are required")
+        @Size(max = 5000, message = "At most 5000 customer ids are allowed per request")
+        List<@NotBlank(message = "Customer id must not be blank") String> ids
+) {
+}
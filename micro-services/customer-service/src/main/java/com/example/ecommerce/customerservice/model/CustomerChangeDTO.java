@@ -0,0 +1,7 @@
+package com.example.ecommerce.customerservice.model;
+
+public record CustomerChangeDTO(
+        String customerId,
+        CustomerChangeType changeType
+) {
+}
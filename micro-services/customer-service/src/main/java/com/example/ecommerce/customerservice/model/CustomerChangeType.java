@@ -0,0 +1,6 @@
+package com.example.ecommerce.customerservice.model;
+
+public enum CustomerChangeType {
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.customerservice.model;
+
+/**
+ * Common view of the customer DTOs that can be paged, exposing the ID used as the page cursor.
+ */
+public interface CustomerIdentity {
+
+    String id();
+}
@@ -0,0 +1,21 @@
+package com.example.ecommerce.customerservice.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The fields read from MongoDB when listing customers.
+ * Only the fields of the chosen DTO are fetched from the database.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CustomerProjection {
+
+    // All customer fields, including the embedded address.
+    FULL(CustomerResponseDTO.class),
+
+    // Only the customer ID and email.
+    SUMMARY(CustomerSummaryDTO.class);
+
+    private final Class<? extends CustomerIdentity> type;
+}
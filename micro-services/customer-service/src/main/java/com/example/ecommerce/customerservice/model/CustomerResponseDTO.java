@@ -8,5 +8,5 @@ public record CustomerResponseDTO(
         String lastName,
         String email,
         Address address
-) {
+) implements CustomerIdentity {
 }
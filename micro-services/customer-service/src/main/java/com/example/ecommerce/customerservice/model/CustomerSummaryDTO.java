@@ -0,0 +1,7 @@
+package com.example.ecommerce.customerservice.model;
+
+public record CustomerSummaryDTO(
+        String id,
+        String email
+) implements CustomerIdentity {
+}
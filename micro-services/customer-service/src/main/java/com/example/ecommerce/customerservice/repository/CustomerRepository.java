@@ -1,7 +1,63 @@
 package com.example.ecommerce.customerservice.repository;
 
 import com.example.ecommerce.customerservice.entities.Customer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerRepository extends MongoRepository<Customer, String> {
+
+    /**
+     * Finds a customer by email address, using the unique `email` index.
+     *
+     * @param email The email address of the customer.
+     * @return The customer, or an empty Optional if no customer has this email address.
+     */
+    Optional<Customer> findByEmail(String email);
+
+    /**
+     * Loads the customers with the given IDs in a single `$in` query, reading only the fields of the customer response.
+     *
+     * @param ids The IDs of the customers to load.
+     * @return The customers found; unknown IDs are skipped.
+     */
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'firstName': 1, 'lastName': 1, 'email': 1, 'address': 1 }")
+    List<Customer> findAllByIdIn(Collection<String> ids);
+
+    /**
+     * Loads only the IDs of the customers with the given IDs in a single `$in` query.
+     * The query is covered by the `_id` index, so no customer document has to be read.
+     *
+     * @param ids The IDs of the customers to check.
+     * @return Customers holding only their ID; unknown IDs are skipped.
+     */
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ '_id': 1 }")
+    List<Customer> findIdsByIdIn(Collection<String> ids);
+
+    /**
+     * Loads the customers following the given ID in `_id` order, reading only the fields of the projection type.
+     * The query walks the `_id` index from the cursor, so its cost does not depend on how deep the client has paged.
+     *
+     * @param after The ID of the last customer of the previous page.
+     * @param limit The maximum number of customers to load.
+     * @param type  The DTO the customers are projected to.
+     * @return The projected customers.
+     */
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(String after, Limit limit, Class<T> type);
+
+    /**
+     * Streams all customers in `_id` order from a MongoDB cursor, reading only the fields of the projection type.
+     * Documents are fetched in batches as the stream is consumed; the stream must be closed to release the cursor.
+     *
+     * @param type The DTO the customers are projected to.
+     * @return A stream of the projected customers.
+     */
+    @Meta(cursorBatchSize = 500)
+    <T> Stream<T> streamAllByOrderByIdAsc(Class<T> type);
 }
@@ -0,0 +1,7 @@
+package com.example.ecommerce.customerservice.services;
+
+import com.example.ecommerce.customerservice.model.CustomerChangeDTO;
+
+public interface CustomerProducerService {
+    void sendCustomerChange(CustomerChangeDTO customerChangeDTO);
+}
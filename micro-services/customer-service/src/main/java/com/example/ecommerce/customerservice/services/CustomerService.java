@@ -1,19 +1,34 @@
 package com.example.ecommerce.customerservice.services;
 
 import com.example.ecommerce.customerservice.entities.Customer;
+import com.example.ecommerce.customerservice.model.CursorPageResponseDTO;
+import com.example.ecommerce.customerservice.model.CustomerIdentity;
 import com.example.ecommerce.customerservice.model.CustomerRequestDTO;
 import com.example.ecommerce.customerservice.model.CustomerResponseDTO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface CustomerService {
 
     List<CustomerResponseDTO> findAllCustomers();
 
+    <T extends CustomerIdentity> CursorPageResponseDTO<T> findCustomersPage(String after, int size, Class<T> type);
+
+    <T> void streamCustomers(Class<T> type, Consumer<? super T> consumer);
+
     CustomerResponseDTO findCustomerById(String id);
 
+    CustomerResponseDTO findCustomerByEmail(String email);
+
     Boolean existsCustomerById(String id);
 
+    List<CustomerResponseDTO> findCustomersByIds(Collection<String> ids);
+
+    Map<String, Boolean> existsCustomersByIds(Collection<String> ids);
+
     String createCustomer(CustomerRequestDTO customerRequestDTO);
 
     void updateCustomer(CustomerRequestDTO customerRequestDTO);
@@ -0,0 +1,50 @@
+package com.example.ecommerce.customerservice.services.impl;
+
+import com.example.ecommerce.customerservice.model.CustomerChangeDTO;
+import com.example.ecommerce.customerservice.services.CustomerProducerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of the CustomerProducerService interface.
+ * Publishes customer change events to the "customer-topic" Kafka topic, keyed by the customer ID
+ * so all changes of one customer are delivered in order.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CustomerProducerServiceImpl implements CustomerProducerService {
+
+    private final KafkaTemplate<String, CustomerChangeDTO> kafkaTemplate;
+
+    /**
+     * Publishes a customer change event without waiting for the broker.
+     * A failed send is only logged: consumers treat the event as a cache invalidation hint,
+     * and their cache entries expire on their own.
+     *
+     * @param customerChangeDTO the change to publish
+     * @throws IllegalArgumentException if the provided payload is null
+     */
+    @Override
+    public void sendCustomerChange(CustomerChangeDTO customerChangeDTO) {
+        if (customerChangeDTO == null) {
+            throw new IllegalArgumentException("Payload must not be null");
+        }
+
+        var message = MessageBuilder
+                .withPayload(customerChangeDTO)
+                .setHeader(KafkaHeaders.TOPIC, "customer-topic")
+                .setHeader(KafkaHeaders.KEY, customerChangeDTO.customerId())
+                .build();
+
+        kafkaTemplate.send(message).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.warn("Failed to publish {} event for customer {}", customerChangeDTO.changeType(), customerChangeDTO.customerId(), ex);
+            }
+        });
+    }
+}
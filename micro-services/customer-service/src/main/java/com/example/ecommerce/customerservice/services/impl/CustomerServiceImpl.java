@@ -1,17 +1,30 @@
 package com.example.ecommerce.customerservice.services.impl;
 
 import com.example.ecommerce.customerservice.entities.Customer;
+import com.example.ecommerce.customerservice.exceptions.CustomerAlreadyExistsException;
 import com.example.ecommerce.customerservice.exceptions.CustomerNotFoundException;
 import com.example.ecommerce.customerservice.mapper.CustomerMapper;
+import com.example.ecommerce.customerservice.model.CursorPageResponseDTO;
+import com.example.ecommerce.customerservice.model.CustomerChangeDTO;
+import com.example.ecommerce.customerservice.model.CustomerChangeType;
+import com.example.ecommerce.customerservice.model.CustomerIdentity;
 import com.example.ecommerce.customerservice.model.CustomerRequestDTO;
 import com.example.ecommerce.customerservice.model.CustomerResponseDTO;
 import com.example.ecommerce.customerservice.repository.CustomerRepository;
+import com.example.ecommerce.customerservice.services.CustomerProducerService;
 import com.example.ecommerce.customerservice.services.CustomerService;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang.StringUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +37,13 @@ public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final CustomerProducerService customerProducerService;
+
+    // Upper bound for the size of a keyset page.
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Cursor of the first page: the smallest ObjectId, which precedes every generated customer ID.
+    private static final String FIRST_PAGE_CURSOR = "000000000000000000000000";
 
     /**
      * Retrieves all customers from the repository.
@@ -38,6 +58,43 @@ public class CustomerServiceImpl implements CustomerService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a page of customers, using keyset pagination on the customer ID.
+     * Only the fields of the requested projection are read, and the cost of a page does not depend on how deep
+     * the client has paged.
+     *
+     * @param after the ID of the last customer of the previous page, or null for the first page
+     * @param size  the requested page size, clamped to between 1 and {@value #MAX_PAGE_SIZE}
+     * @param type  the DTO the customers are projected to
+     * @return the page content and the cursor for the next page, or a null cursor if this is the last page
+     */
+    @Override
+    public <T extends CustomerIdentity> CursorPageResponseDTO<T> findCustomersPage(String after, int size, Class<T> type) {
+        var pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        var content = customerRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? FIRST_PAGE_CURSOR : after,
+                Limit.of(pageSize),
+                type
+        );
+        var nextCursor = content.size() < pageSize ? null : content.getLast().id();
+        return new CursorPageResponseDTO<>(content, nextCursor);
+    }
+
+    /**
+     * Streams all customers to the given consumer, one at a time.
+     * Documents are read from a MongoDB cursor in batches and never collected, so memory use does not grow with
+     * the number of customers.
+     *
+     * @param type     the DTO the customers are projected to
+     * @param consumer the consumer receiving each customer
+     */
+    @Override
+    public <T> void streamCustomers(Class<T> type, Consumer<? super T> consumer) {
+        try (var customers = customerRepository.streamAllByOrderByIdAsc(type)) {
+            customers.forEach(consumer);
+        }
+    }
+
     /**
      * Finds a customer by their ID.
      *
@@ -54,6 +111,22 @@ public class CustomerServiceImpl implements CustomerService {
                 );
     }
 
+    /**
+     * Finds a customer by their email address.
+     *
+     * @param email the email address of the customer to find
+     * @return a CustomerResponseDTO object representing the customer
+     * @throws CustomerNotFoundException if no customer is found with the given email address
+     */
+    @Override
+    public CustomerResponseDTO findCustomerByEmail(String email) {
+        return customerRepository.findByEmail(email)
+                .map(customerMapper::customerToCustomerResponseDTO)
+                .orElseThrow(
+                        () -> new CustomerNotFoundException(String.format("Customer not found with email: %s", email))
+                );
+    }
+
     /**
      * Checks if a customer exists by their ID.
      *
@@ -65,24 +138,58 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.existsById(id);
     }
 
+    /**
+     * Finds the customers with the given IDs in a single query.
+     *
+     * @param ids the IDs of the customers to find; duplicates are looked up once
+     * @return a list of CustomerResponseDTO objects for the customers found; unknown IDs are skipped
+     */
+    @Override
+    public List<CustomerResponseDTO> findCustomersByIds(Collection<String> ids) {
+        return customerRepository.findAllByIdIn(new LinkedHashSet<>(ids))
+                .stream()
+                .map(customerMapper::customerToCustomerResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks in a single query which of the given customer IDs exist.
+     *
+     * @param ids the IDs of the customers to check
+     * @return a map from each requested ID, in request order, to true if the customer exists, false otherwise
+     */
+    @Override
+    public Map<String, Boolean> existsCustomersByIds(Collection<String> ids) {
+        var existingIds = customerRepository.findIdsByIdIn(new LinkedHashSet<>(ids))
+                .stream()
+                .map(Customer::getId)
+                .collect(Collectors.toSet());
+
+        var result = new LinkedHashMap<String, Boolean>();
+        ids.forEach(id -> result.put(id, existingIds.contains(id)));
+        return result;
+    }
+
     /**
      * Creates a new customer in the repository.
      *
      * @param customerRequestDTO the data transfer object containing customer details
      * @return the ID of the newly created customer
+     * @throws CustomerAlreadyExistsException if another customer already has the given email address
      */
     @Override
     public String createCustomer(CustomerRequestDTO customerRequestDTO) {
-        return customerRepository.save(
+        return saveCustomer(
                 customerMapper.customerRequestDTOToCustomer(customerRequestDTO)
         ).getId();
     }
 
     /**
-     * Updates an existing customer in the repository.
+     * Updates an existing customer in the repository and announces the change.
      *
      * @param customerRequestDTO the data transfer object containing updated customer details
-     * @throws CustomerNotFoundException if no customer is found with the given ID
+     * @throws CustomerNotFoundException      if no customer is found with the given ID
+     * @throws CustomerAlreadyExistsException if another customer already has the new email address
      */
     @Override
     public void updateCustomer(CustomerRequestDTO customerRequestDTO) {
@@ -91,9 +198,27 @@ public class CustomerServiceImpl implements CustomerService {
                         () -> new CustomerNotFoundException(String.format("Customer not found with id: %s", customerRequestDTO.id()))
                 );
         // Merge updated details into the existing customer entity
-        customerRepository.save(
+        saveCustomer(
                 mergeCustomer(customer, customerRequestDTO)
         );
+        customerProducerService.sendCustomerChange(
+                new CustomerChangeDTO(customer.getId(), CustomerChangeType.UPDATED)
+        );
+    }
+
+    /**
+     * Saves a customer, translating a violation of the unique email index into a conflict.
+     *
+     * @param customer the customer to save
+     * @return the saved customer
+     * @throws CustomerAlreadyExistsException if another customer already has the customer's email address
+     */
+    private Customer saveCustomer(Customer customer) {
+        try {
+            return customerRepository.save(customer);
+        } catch (DuplicateKeyException ex) {
+            throw new CustomerAlreadyExistsException(String.format("Customer already exists with email: %s", customer.getEmail()));
+        }
     }
 
     /**
@@ -124,7 +249,7 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     /**
-     * Deletes a customer by their ID.
+     * Deletes a customer by their ID and announces the deletion.
      *
      * @param id the ID of the customer to delete
      * @throws CustomerNotFoundException if no customer is found with the given ID
@@ -135,5 +260,8 @@ public class CustomerServiceImpl implements CustomerService {
             throw new CustomerNotFoundException(String.format("Customer not found with id: %s", id));
         }
         customerRepository.deleteById(id);
+        customerProducerService.sendCustomerChange(
+                new CustomerChangeDTO(id, CustomerChangeType.DELETED)
+        );
     }
 }
\ No newline at end of file
@@ -4,11 +4,13 @@ import com.example.ecommerce.customerservice.entities.Address;
 import com.example.ecommerce.customerservice.exceptions.CustomerNotFoundException;
 import com.example.ecommerce.customerservice.model.CustomerRequestDTO;
 import com.example.ecommerce.customerservice.repository.CustomerRepository;
+import com.example.ecommerce.customerservice.services.CustomerProducerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -27,6 +29,10 @@ class CustomerControllerIT {
     @Autowired
     private CustomerRepository customerRepository;
 
+    // Customer change events are not published to a broker in these tests.
+    @MockitoBean
+    private CustomerProducerService customerProducerService;
+
     /**
      * Sets up the test environment by clearing the customer repository before each test.
      */
@@ -1,7 +1,11 @@
 package com.example.ecommerce.customerservice.controllers;
 
+import com.example.ecommerce.customerservice.exceptions.CustomerAlreadyExistsException;
+import com.example.ecommerce.customerservice.model.CursorPageResponseDTO;
+import com.example.ecommerce.customerservice.model.CustomerBatchRequestDTO;
 import com.example.ecommerce.customerservice.model.CustomerRequestDTO;
 import com.example.ecommerce.customerservice.model.CustomerResponseDTO;
+import com.example.ecommerce.customerservice.model.CustomerSummaryDTO;
 import com.example.ecommerce.customerservice.services.CustomerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,10 +17,16 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -68,6 +78,58 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$[0].firstName", is("John")));
     }
 
+    /**
+     * Tests the retrieval of a page of customers with the summary view.
+     * Verifies that the controller returns the projected customers and the next cursor.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void findPage_SummaryView_ReturnsPage() throws Exception {
+        when(customerService.findCustomersPage("a1", 20, CustomerSummaryDTO.class))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(new CustomerSummaryDTO("b2", "john@email.com")), "b2"));
+
+        mockMvc.perform(
+                        get("/api/v1/customers/page")
+                                .param("after", "a1")
+                                .param("size", "20")
+                                .param("view", "SUMMARY")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].email", is("john@email.com")))
+                .andExpect(jsonPath("$.content[0].firstName").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor", is("b2")));
+    }
+
+    /**
+     * Tests streaming all customers as newline-delimited JSON.
+     * Verifies that the controller writes one customer per line.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamCustomers_WritesOneCustomerPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Object> consumer = invocation.getArgument(1);
+            consumer.accept(customerResponseDTO);
+            consumer.accept(new CustomerResponseDTO("2", "Jane", "Doe", "jane@email.com", null));
+            return null;
+        }).when(customerService).streamCustomers(eq(CustomerResponseDTO.class), any(Consumer.class));
+
+        var result = mockMvc.perform(get("/api/v1/customers/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(customerResponseDTO) + "\n"
+                                + objectMapper.writeValueAsString(new CustomerResponseDTO("2", "Jane", "Doe", "jane@email.com", null)) + "\n"
+                ));
+    }
+
     /**
      * Tests the retrieval of a customer by ID.
      * Verifies that the controller returns the correct customer details.
@@ -83,6 +145,67 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$.firstName", is("John")));
     }
 
+    /**
+     * Tests the batch retrieval of customers by ID.
+     * Verifies that the controller returns the customers found.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void findByIds_ReturnsCustomers() throws Exception {
+        when(customerService.findCustomersByIds(List.of("1", "2"))).thenReturn(List.of(customerResponseDTO));
+
+        mockMvc.perform(
+                        post("/api/v1/customers/batch-get")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new CustomerBatchRequestDTO(List.of("1", "2"))))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is("1")));
+    }
+
+    /**
+     * Tests the batch retrieval of customers without IDs.
+     * Verifies that the controller rejects the request before querying.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void findByIds_EmptyIds_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(
+                        post("/api/v1/customers/batch-get")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new CustomerBatchRequestDTO(List.of())))
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(customerService);
+    }
+
+    /**
+     * Tests the batch existence check for customers by ID.
+     * Verifies that the controller returns the existence of every requested ID.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void existsByIds_ReturnsExistencePerId() throws Exception {
+        var existence = new LinkedHashMap<String, Boolean>();
+        existence.put("1", true);
+        existence.put("2", false);
+        when(customerService.existsCustomersByIds(List.of("1", "2"))).thenReturn(existence);
+
+        mockMvc.perform(
+                        post("/api/v1/customers/batch-exists")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new CustomerBatchRequestDTO(List.of("1", "2"))))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.1", is(true)))
+                .andExpect(jsonPath("$.2", is(false)));
+    }
+
     /**
      * Tests the creation of a customer.
      * Verifies that the controller returns the ID of the newly created customer.
@@ -102,6 +225,41 @@ class CustomerControllerTest {
                 .andExpect(content().string("1"));
     }
 
+    /**
+     * Tests the retrieval of a customer by email.
+     * Verifies that the controller returns the correct customer details.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void findByEmail_ReturnsCustomer() throws Exception {
+        when(customerService.findCustomerByEmail("john@email.com")).thenReturn(customerResponseDTO);
+
+        mockMvc.perform(get("/api/v1/customers/by-email").param("email", "john@email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is("1")));
+    }
+
+    /**
+     * Tests the creation of a customer whose email address is already taken.
+     * Verifies that the controller returns an HTTP status of Conflict.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void createCustomer_DuplicateEmail_ReturnsConflict() throws Exception {
+        when(customerService.createCustomer(any(CustomerRequestDTO.class)))
+                .thenThrow(new CustomerAlreadyExistsException("Customer already exists with email: john@email.com"));
+
+        mockMvc.perform(
+                        post("/api/v1/customers")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(customerRequestDTO))
+                )
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Customer already exists with email: john@email.com"));
+    }
+
     /**
      * Tests the update of a customer.
      * Verifies that the controller returns an HTTP status of Accepted.
@@ -0,0 +1,71 @@
+package com.example.ecommerce.customerservice.services.impl;
+
+import com.example.ecommerce.customerservice.model.CustomerChangeDTO;
+import com.example.ecommerce.customerservice.model.CustomerChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CustomerProducerServiceImpl class.
+ * These tests verify that customer change events are published to the customer topic.
+ */
+class CustomerProducerServiceImplTest {
+
+    @Mock
+    private KafkaTemplate<String, CustomerChangeDTO> kafkaTemplate;
+
+    @InjectMocks
+    private CustomerProducerServiceImpl customerProducerService;
+
+    /**
+     * Initializes mocks before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * Tests publishing a customer change.
+     * Verifies that the event is sent to the customer topic, keyed by the customer ID.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendCustomerChange_SendsKeyedMessage() {
+        var change = new CustomerChangeDTO("1", CustomerChangeType.UPDATED);
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(new CompletableFuture<>());
+
+        customerProducerService.sendCustomerChange(change);
+
+        ArgumentCaptor<Message<CustomerChangeDTO>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(kafkaTemplate).send(captor.capture());
+        assertThat(captor.getValue().getPayload()).isEqualTo(change);
+        assertThat(captor.getValue().getHeaders().get(KafkaHeaders.TOPIC)).isEqualTo("customer-topic");
+        assertThat(captor.getValue().getHeaders().get(KafkaHeaders.KEY)).isEqualTo("1");
+    }
+
+    /**
+     * Tests publishing a null change.
+     * Verifies that an IllegalArgumentException is thrown and nothing is sent.
+     */
+    @Test
+    void sendCustomerChange_Null() {
+        assertThatThrownBy(() -> customerProducerService.sendCustomerChange(null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(kafkaTemplate);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.ecommerce.customerservice.entities.Address;
 import com.example.ecommerce.customerservice.exceptions.CustomerNotFoundException;
 import com.example.ecommerce.customerservice.model.CustomerRequestDTO;
 import com.example.ecommerce.customerservice.repository.CustomerRepository;
+import com.example.ecommerce.customerservice.services.CustomerProducerService;
 import com.example.ecommerce.customerservice.services.CustomerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,10 @@ import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -30,6 +35,10 @@ class CustomerServiceImplIT {
     @Autowired
     private CustomerRepository customerRepository;
 
+    // Customer change events are not published to a broker in these tests.
+    @MockitoBean
+    private CustomerProducerService customerProducerService;
+
     /**
      * Cleans the database by deleting all records before each test.
      */
@@ -157,4 +166,24 @@ class CustomerServiceImplIT {
         assertThat(customerService.existsCustomerById("fakeid")).isFalse();
     }
 
+    /**
+     * Tests the batch retrieval and existence check of customers by ID.
+     * Verifies that the projected `$in` queries return the customer fields and skip unknown IDs.
+     */
+    @Test
+    void findAndExistsCustomersByIds_Works() {
+        var id1 = customerService.createCustomer(buildCustomerRequest("Frodo", "Baggins", "frodo@email.com"));
+        var id2 = customerService.createCustomer(buildCustomerRequest("Bilbo", "Baggins", "bilbo@email.com"));
+
+        var found = customerService.findCustomersByIds(List.of(id1, id2, "fakeid"));
+
+        assertThat(found).hasSize(2);
+        assertThat(found).allSatisfy(customer -> {
+            assertThat(customer.lastName()).isEqualTo("Baggins");
+            assertThat(customer.address().getStreet()).isEqualTo("123 Main St");
+        });
+        assertThat(customerService.existsCustomersByIds(List.of(id1, "fakeid")))
+                .containsExactly(Map.entry(id1, true), Map.entry("fakeid", false));
+    }
+
 }
\ No newline at end of file
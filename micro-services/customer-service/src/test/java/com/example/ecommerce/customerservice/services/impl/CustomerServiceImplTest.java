@@ -1,19 +1,31 @@
 package com.example.ecommerce.customerservice.services.impl;
 
 import com.example.ecommerce.customerservice.entities.Customer;
+import com.example.ecommerce.customerservice.exceptions.CustomerAlreadyExistsException;
 import com.example.ecommerce.customerservice.exceptions.CustomerNotFoundException;
 import com.example.ecommerce.customerservice.mapper.CustomerMapper;
+import com.example.ecommerce.customerservice.model.CustomerChangeDTO;
+import com.example.ecommerce.customerservice.model.CustomerChangeType;
 import com.example.ecommerce.customerservice.model.CustomerRequestDTO;
+import com.example.ecommerce.customerservice.model.CustomerSummaryDTO;
 import com.example.ecommerce.customerservice.model.CustomerResponseDTO;
 import com.example.ecommerce.customerservice.repository.CustomerRepository;
+import com.example.ecommerce.customerservice.services.CustomerProducerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -32,6 +44,9 @@ class CustomerServiceImplTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private CustomerProducerService customerProducerService;
+
     @InjectMocks
     private CustomerServiceImpl customerService;
 
@@ -67,6 +82,57 @@ class CustomerServiceImplTest {
         assertThat(result.get(0).firstName()).isEqualTo("John");
     }
 
+    /**
+     * Tests the retrieval of the first page of customers.
+     * Verifies that the page starts before every generated ID and that a full page yields a cursor.
+     */
+    @Test
+    void findCustomersPage_FirstPage_ReturnsCursor() {
+        var summaries = List.of(new CustomerSummaryDTO("a1", "a@email.com"), new CustomerSummaryDTO("b2", "b@email.com"));
+
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc("000000000000000000000000", Limit.of(2), CustomerSummaryDTO.class))
+                .thenReturn(summaries);
+
+        var result = customerService.findCustomersPage(null, 2, CustomerSummaryDTO.class);
+
+        assertThat(result.content()).isEqualTo(summaries);
+        assertThat(result.nextCursor()).isEqualTo("b2");
+    }
+
+    /**
+     * Tests the retrieval of the last page of customers.
+     * Verifies that the page size is clamped and a partial page yields no cursor.
+     */
+    @Test
+    void findCustomersPage_LastPage_ReturnsNoCursor() {
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc("b2", Limit.of(500), CustomerSummaryDTO.class))
+                .thenReturn(List.of(new CustomerSummaryDTO("c3", "c@email.com")));
+
+        var result = customerService.findCustomersPage("b2", 10_000, CustomerSummaryDTO.class);
+
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    /**
+     * Tests streaming all customers.
+     * Verifies that every customer is passed to the consumer and the cursor is closed.
+     */
+    @Test
+    void streamCustomers_PassesEachCustomerAndClosesCursor() {
+        var closed = new boolean[1];
+        var summaries = Stream.of(new CustomerSummaryDTO("a1", "a@email.com"), new CustomerSummaryDTO("b2", "b@email.com"))
+                .onClose(() -> closed[0] = true);
+
+        when(customerRepository.streamAllByOrderByIdAsc(CustomerSummaryDTO.class)).thenReturn(summaries);
+
+        var received = new ArrayList<CustomerSummaryDTO>();
+        customerService.streamCustomers(CustomerSummaryDTO.class, received::add);
+
+        assertThat(received).extracting(CustomerSummaryDTO::id).containsExactly("a1", "b2");
+        assertThat(closed[0]).isTrue();
+    }
+
     /**
      * Tests the retrieval of a customer by ID when the customer exists.
      * Verifies that the service returns the correct customer details.
@@ -100,6 +166,50 @@ class CustomerServiceImplTest {
                 .isInstanceOf(CustomerNotFoundException.class);
     }
 
+    /**
+     * Tests the retrieval of a customer by email when the customer exists.
+     * Verifies that the service returns the correct customer details.
+     */
+    @Test
+    void findCustomerByEmail_Found() {
+        var customer = Customer.builder().id("1").email("john@email.com").build();
+        var dto = new CustomerResponseDTO("1", "John", "Doe", "john@email.com", null);
+
+        when(customerRepository.findByEmail("john@email.com")).thenReturn(Optional.of(customer));
+        when(customerMapper.customerToCustomerResponseDTO(customer)).thenReturn(dto);
+
+        assertThat(customerService.findCustomerByEmail("john@email.com")).isEqualTo(dto);
+    }
+
+    /**
+     * Tests the retrieval of a customer by email when the customer does not exist.
+     * Verifies that a CustomerNotFoundException is thrown.
+     */
+    @Test
+    void findCustomerByEmail_NotFound() {
+        when(customerRepository.findByEmail("nobody@email.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> customerService.findCustomerByEmail("nobody@email.com"))
+                .isInstanceOf(CustomerNotFoundException.class);
+    }
+
+    /**
+     * Tests the creation of a customer whose email address is already taken.
+     * Verifies that the duplicate key error is reported as a CustomerAlreadyExistsException.
+     */
+    @Test
+    void createCustomer_DuplicateEmail_Throws() {
+        var dto = new CustomerRequestDTO(null, "John", "Doe", "john@email.com", null);
+        var customer = Customer.builder().firstName("John").lastName("Doe").email("john@email.com").build();
+
+        when(customerMapper.customerRequestDTOToCustomer(dto)).thenReturn(customer);
+        when(customerRepository.save(customer)).thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertThatThrownBy(() -> customerService.createCustomer(dto))
+                .isInstanceOf(CustomerAlreadyExistsException.class)
+                .hasMessageContaining("john@email.com");
+    }
+
     /**
      * Tests the existence check for a customer by ID when the customer exists.
      * Verifies that the service returns true.
@@ -122,6 +232,42 @@ class CustomerServiceImplTest {
         assertThat(customerService.existsCustomerById("1")).isFalse();
     }
 
+    /**
+     * Tests the batch retrieval of customers by ID.
+     * Verifies that duplicate IDs are queried once and the found customers are mapped.
+     */
+    @Test
+    void findCustomersByIds_ReturnsFoundCustomers() {
+        var customer = Customer.builder()
+                .id("1")
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@email.com")
+                .build();
+        var dto = new CustomerResponseDTO("1", "John", "Doe", "john@email.com", null);
+
+        when(customerRepository.findAllByIdIn(Set.of("1", "2"))).thenReturn(List.of(customer));
+        when(customerMapper.customerToCustomerResponseDTO(customer)).thenReturn(dto);
+
+        var result = customerService.findCustomersByIds(List.of("1", "2", "1"));
+
+        assertThat(result).containsExactly(dto);
+        verify(customerRepository).findAllByIdIn(Set.of("1", "2"));
+    }
+
+    /**
+     * Tests the batch existence check for customers by ID.
+     * Verifies that every requested ID is answered in request order.
+     */
+    @Test
+    void existsCustomersByIds_ReturnsExistencePerId() {
+        when(customerRepository.findIdsByIdIn(Set.of("2", "1"))).thenReturn(List.of(Customer.builder().id("1").build()));
+
+        var result = customerService.existsCustomersByIds(List.of("2", "1"));
+
+        assertThat(result).containsExactly(Map.entry("2", false), Map.entry("1", true));
+    }
+
     /**
      * Tests the creation of a customer.
      * Verifies that the service returns the ID of the newly created customer.
@@ -145,7 +291,7 @@ class CustomerServiceImplTest {
 
     /**
      * Tests the update of a customer when the customer exists.
-     * Verifies that the service updates the customer details correctly.
+     * Verifies that the service updates the customer details correctly and announces the change.
      */
     @Test
     void updateCustomer_UpdatesFields() {
@@ -163,6 +309,7 @@ class CustomerServiceImplTest {
         customerService.updateCustomer(dto);
 
         verify(customerRepository).save(customer);
+        verify(customerProducerService).sendCustomerChange(new CustomerChangeDTO("1", CustomerChangeType.UPDATED));
     }
 
     /**
@@ -177,6 +324,7 @@ class CustomerServiceImplTest {
 
         assertThatThrownBy(() -> customerService.updateCustomer(dto))
                 .isInstanceOf(CustomerNotFoundException.class);
+        verifyNoInteractions(customerProducerService);
     }
 
     /**
@@ -0,0 +1,39 @@
+package com.example.ecommerce.notification_service.actuator;
+
+import com.example.ecommerce.notification_service.services.DeadLetterReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint replaying the dead-letter topics, e.g. POST /actuator/deadletters/email-topic-dlt.
+ * It is served by the management server, which listens on the loopback address unless configured otherwise,
+ * so it is not reachable through the service port.
+ */
+@Component
+@Endpoint(id = "deadletters")
+@RequiredArgsConstructor
+public class DeadLetterEndpoint {
+
+    private final DeadLetterReplayService deadLetterReplayService;
+
+    /**
+     * Replays the records of a dead-letter topic that have not been replayed yet.
+     *
+     * @param topic The name of the dead-letter topic.
+     * @return The number of replayed records.
+     * @throws InvalidEndpointRequestException if the topic is not a dead-letter topic of this service, answered with 400.
+     */
+    @WriteOperation
+    public int replay(@Selector String topic) {
+        try {
+            return deadLetterReplayService.replay(topic);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidEndpointRequestException(ex.getMessage(), ex.getMessage());
+        }
+    }
+
+}
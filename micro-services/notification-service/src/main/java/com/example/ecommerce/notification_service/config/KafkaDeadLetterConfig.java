@@ -0,0 +1,165 @@
+package com.example.ecommerce.notification_service.config;
+
+import com.example.ecommerce.notification_service.serialization.AvroDeserializer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Configuration of the error handling of the Kafka listeners.
+ * Records that cannot be read are moved to a dead-letter topic named after their topic with the "-dlt" suffix,
+ * with their original bytes, so they can be replayed once the cause is fixed.
+ * A record that MongoDB rejects, e.g. as too large or invalid, would be rejected on every attempt, so it is
+ * dead-lettered on its own right away instead of pinning its partition while it is retried.
+ * Failures of a whole batch, e.g. while MongoDB is unavailable, are retried in place with a growing delay, and once the
+ * retries are exhausted every record of the batch is dead-lettered, so a partition is never blocked for good.
+ */
+@Configuration
+public class KafkaDeadLetterConfig {
+
+    /**
+     * The suffix of the dead-letter topics, shared with the retry topics of the email topic.
+     */
+    public static final String DLT_SUFFIX = "-dlt";
+
+    // The topics whose unreadable or unstorable records are dead-lettered by the DeadLetterPublishingRecoverer
+    public static final String ORDER_TOPIC = "order-topic";
+    public static final String PAYMENT_TOPIC = "payment-topic";
+
+    /**
+     * Publishes records to the dead-letter topic of their topic.
+     * The partition is left to the producer, so the dead-letter topics do not need as many partitions as their topics.
+     *
+     * @param kafkaTemplate The KafkaTemplate writing raw bytes.
+     * @return The DeadLetterPublishingRecoverer.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(KafkaTemplate<String, byte[]> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(
+                kafkaTemplate,
+                (consumerRecord, exception) -> new TopicPartition(consumerRecord.topic() + DLT_SUFFIX, -1)
+        );
+    }
+
+    /**
+     * Retries failed listener invocations with an exponential backoff of up to one minute between attempts,
+     * and dead-letters the failed records once the retries took longer than the given time.
+     * The batch listeners dead-letter unreadable records themselves, so what reaches this handler is either a record
+     * that cannot be stored, named by a BatchListenerFailedException, or a failure of the whole batch.
+     * A record that cannot be stored fails the same way on every attempt, so it is dead-lettered without retries;
+     * only failures of the whole batch are retried.
+     *
+     * @param deadLetterPublishingRecoverer The recoverer publishing to the dead-letter topics.
+     * @param maxElapsedMs                  How long a failure is retried before its records are dead-lettered, in milliseconds.
+     * @return The error handler of the listener containers.
+     */
+    @Bean
+    public CommonErrorHandler kafkaErrorHandler(
+            DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+            @Value("${application.kafka.error-handler.max-elapsed-ms:600000}") long maxElapsedMs
+    ) {
+        var backOff = new ExponentialBackOff(1000, 2.0);
+        backOff.setMaxInterval(60_000);
+        backOff.setMaxElapsedTime(maxElapsedMs);
+        var errorHandler = new DefaultErrorHandler(withRawValue(deadLetterPublishingRecoverer), backOff);
+        // Rejected writes of single documents; the causes of a BatchListenerFailedException are classified as well
+        errorHandler.addNotRetryableExceptions(BulkOperationException.class, DuplicateKeyException.class);
+        return errorHandler;
+    }
+
+    /**
+     * Restores the message bytes of deserialized records before they are recovered.
+     * The dead-letter topics are written as raw bytes, so a record whose value was deserialized is published with the
+     * bytes kept by AvroDeserializer; records without those bytes are passed on unchanged.
+     *
+     * @param recoverer The recoverer to delegate to.
+     * @return The recoverer publishing the original bytes.
+     */
+    static ConsumerRecordRecoverer withRawValue(ConsumerRecordRecoverer recoverer) {
+        return (consumerRecord, exception) -> {
+            var rawValue = consumerRecord.headers().lastHeader(AvroDeserializer.RAW_VALUE_HEADER);
+            if (rawValue == null) {
+                recoverer.accept(consumerRecord, exception);
+                return;
+            }
+            var headers = new RecordHeaders(consumerRecord.headers().toArray());
+            headers.remove(AvroDeserializer.RAW_VALUE_HEADER);
+            recoverer.accept(
+                    new ConsumerRecord<>(
+                            consumerRecord.topic(),
+                            consumerRecord.partition(),
+                            consumerRecord.offset(),
+                            consumerRecord.timestamp(),
+                            consumerRecord.timestampType(),
+                            consumerRecord.serializedKeySize(),
+                            consumerRecord.serializedValueSize(),
+                            consumerRecord.key(),
+                            rawValue.value(),
+                            headers,
+                            consumerRecord.leaderEpoch()
+                    ),
+                    exception
+            );
+        };
+    }
+
+    /**
+     * Schedules the delayed redelivery of the retry topics.
+     * A dedicated scheduler is used since the service does not enable scheduling otherwise.
+     *
+     * @return The scheduler wrapper used by the retry topics.
+     */
+    @Bean
+    public RetryTopicSchedulerWrapper retryTopicSchedulerWrapper() {
+        var scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("retry-topic-");
+        return new RetryTopicSchedulerWrapper(scheduler);
+    }
+
+    /**
+     * Creates the dead-letter topic of the "order-topic" topic.
+     *
+     * @param replicas The number of replicas of each partition.
+     * @return A NewTopic object representing the "order-topic-dlt".
+     */
+    @Bean
+    public NewTopic orderDeadLetterTopic(@Value("${application.kafka.topics.replicas:1}") int replicas) {
+        return deadLetterTopic(ORDER_TOPIC, replicas);
+    }
+
+    /**
+     * Creates the dead-letter topic of the "payment-topic" topic.
+     *
+     * @param replicas The number of replicas of each partition.
+     * @return A NewTopic object representing the "payment-topic-dlt".
+     */
+    @Bean
+    public NewTopic paymentDeadLetterTopic(@Value("${application.kafka.topics.replicas:1}") int replicas) {
+        return deadLetterTopic(PAYMENT_TOPIC, replicas);
+    }
+
+    private static NewTopic deadLetterTopic(String topic, int replicas) {
+        return TopicBuilder
+                .name(topic + DLT_SUFFIX)
+                .partitions(1)
+                .replicas(replicas)
+                .config(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(Math.max(1, replicas - 1)))
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ecommerce.notification_service.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives the number of consumer threads of a Kafka listener from the partition count of its topic.
+ * A partition is consumed by at most one consumer of the group, so the partitions are spread over all instances
+ * of the service; threads beyond that would only stay idle.
+ * Used by the listeners through SpEL, e.g. {@code concurrency = "#{@kafkaListenerConcurrency.forTopic('order-topic')}"}.
+ */
+@Component
+@RequiredArgsConstructor
+public class KafkaListenerConcurrency {
+
+    private final Environment environment; // Environment for reading the per-topic partition overrides
+
+    /**
+     * The default number of partitions per topic, shared with the producing services.
+     */
+    @Value("${application.kafka.topics.partitions:6}")
+    private int partitions;
+
+    /**
+     * The number of instances of this service sharing the consumer group.
+     */
+    @Value("${application.kafka.instances:1}")
+    private int instances;
+
+    /**
+     * Returns the number of consumer threads for the given topic on this instance.
+     *
+     * @param topic The name of the topic.
+     * @return The partitions of the topic divided by the number of instances, rounded up, at least one.
+     */
+    public int forTopic(String topic) {
+        int topicPartitions = environment.getProperty(
+                "application.kafka.topics." + topic + ".partitions", Integer.class, partitions);
+        return Math.max(1, Math.ceilDiv(topicPartitions, Math.max(1, instances)));
+    }
+}
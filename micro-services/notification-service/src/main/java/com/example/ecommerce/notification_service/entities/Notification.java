@@ -17,6 +17,7 @@ import java.time.LocalDateTime;
 @Document
 public class Notification {
 
+    // Derived from the topic, partition and offset of the Kafka record, so a redelivered record is stored only once
     @Id
     private String id;
 
@@ -0,0 +1,11 @@
+package com.example.ecommerce.notification_service.repositories;
+
+import com.example.ecommerce.notification_service.entities.Notification;
+
+import java.util.List;
+
+public interface NotificationRepositoryCustom {
+
+    void upsertAll(List<Notification> notifications);
+
+}
@@ -0,0 +1,46 @@
+package com.example.ecommerce.notification_service.repositories;
+
+import com.example.ecommerce.notification_service.entities.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+/**
+ * Implementation of the NotificationRepositoryCustom interface.
+ * Stores notifications with one ordered bulk write of upserts, so a redelivered batch replaces the notifications it
+ * already stored instead of adding them again.
+ */
+@RequiredArgsConstructor
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate; // MongoTemplate for the bulk write
+
+    /**
+     * Inserts the notifications, or replaces the ones with the same ID.
+     * The write stops at the first failing notification; the ones before it are stored.
+     *
+     * @param notifications The notifications to store; their IDs must be set.
+     * @throws org.springframework.data.mongodb.BulkOperationException if a notification cannot be stored,
+     *                                                                  with the index of the failing notification.
+     */
+    @Override
+    public void upsertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        var bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Notification.class);
+        for (var notification : notifications) {
+            bulkOperations.replaceOne(
+                    Query.query(Criteria.where("_id").is(notification.getId())),
+                    notification,
+                    FindAndReplaceOptions.options().upsert()
+            );
+        }
+        bulkOperations.execute();
+    }
+}
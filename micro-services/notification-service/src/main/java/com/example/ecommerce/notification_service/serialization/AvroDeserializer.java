@@ -0,0 +1,155 @@
+package com.example.ecommerce.notification_service.serialization;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base class for Kafka deserializers reading payloads written with the Avro single-object encoding.
+ * The fingerprint in the message header selects the writer schema among the known schema versions bundled with the
+ * service, and the record is resolved against the newest version; this local schema store replaces a schema registry.
+ * Subclasses map the record field by field, so no type headers or reflective type mapping are needed.
+ * Avro's BinaryMessageDecoder is not used: it reads byte by byte from a synchronized stream, whereas this class
+ * decodes the same format directly from the message bytes.
+ * The message bytes are kept in the {@value #RAW_VALUE_HEADER} header of the consumed record, so a record that fails
+ * later on can still be dead-lettered with its original bytes.
+ *
+ * @param <T> The payload type.
+ */
+public abstract class AvroDeserializer<T> implements Deserializer<T> {
+
+    /**
+     * The header holding the message bytes of a deserialized record; it only exists on the consumer side.
+     */
+    public static final String RAW_VALUE_HEADER = "notification-service.raw-value";
+
+    private static final int HEADER_LENGTH = 10; // The marker bytes 0xC3 0x01 and the 8-byte schema fingerprint
+
+    private final Map<Long, DatumReader<GenericRecord>> readers; // Thread-safe readers by writer schema fingerprint
+
+    /**
+     * Creates a deserializer for the schema versions stored in classpath resources.
+     *
+     * @param schemaResources The classpath locations of the .avsc files, oldest first; the last one is the reader schema.
+     */
+    protected AvroDeserializer(String... schemaResources) {
+        var readerSchema = loadSchema(schemaResources[schemaResources.length - 1]);
+        var readers = new HashMap<Long, DatumReader<GenericRecord>>();
+        for (var schemaResource : schemaResources) {
+            var writerSchema = loadSchema(schemaResource);
+            readers.put(SchemaNormalization.parsingFingerprint64(writerSchema), new GenericDatumReader<>(writerSchema, readerSchema));
+        }
+        this.readers = Map.copyOf(readers);
+    }
+
+    /**
+     * Maps a record of the reader schema to the payload.
+     *
+     * @param record The decoded record.
+     * @return The payload.
+     */
+    protected abstract T fromRecord(GenericRecord record);
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        var payload = deserialize(topic, data);
+        if (payload != null) {
+            headers.add(RAW_VALUE_HEADER, data);
+        }
+        return payload;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length < HEADER_LENGTH || data[0] != (byte) 0xC3 || data[1] != (byte) 0x01) {
+            throw new SerializationException("Payload from topic " + topic + " is not an Avro single-object encoded message");
+        }
+        var fingerprint = ByteBuffer.wrap(data, 2, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        var reader = readers.get(fingerprint);
+        if (reader == null) {
+            throw new SerializationException("Payload from topic " + topic + " uses an unknown schema version " + Long.toHexString(fingerprint));
+        }
+        try {
+            var decoder = DecoderFactory.get().binaryDecoder(data, HEADER_LENGTH, data.length - HEADER_LENGTH, null);
+            return fromRecord(reader.read(null, decoder));
+        } catch (IOException | RuntimeException ex) {
+            throw new SerializationException("Cannot deserialize payload from topic " + topic, ex);
+        }
+    }
+
+    /**
+     * Reads a string field; Avro decodes strings as Utf8.
+     *
+     * @param value The field value, may be null.
+     * @return The string, or null if the value is null.
+     */
+    protected static String string(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Reads a field holding a "Decimal" record.
+     *
+     * @param value The field value, may be null.
+     * @return The amount with its original scale, or null if the value is null.
+     */
+    protected static BigDecimal decimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        var record = (GenericRecord) value;
+        var unscaled = (ByteBuffer) record.get("unscaled");
+        var bytes = new byte[unscaled.remaining()];
+        unscaled.duplicate().get(bytes);
+        return new BigDecimal(new BigInteger(bytes), (Integer) record.get("scale"));
+    }
+
+    /**
+     * Reads an enum field into the enum constant with the same name.
+     *
+     * @param value    The field value, may be null.
+     * @param enumType The enum class.
+     * @param <E>      The enum type.
+     * @return The enum constant, or null if the value is null.
+     */
+    protected static <E extends Enum<E>> E symbol(Object value, Class<E> enumType) {
+        return value == null ? null : Enum.valueOf(enumType, value.toString());
+    }
+
+    /**
+     * Parses a schema stored in a classpath resource.
+     *
+     * @param schemaResource The classpath location of the .avsc file.
+     * @return The parsed schema.
+     * @throws IllegalStateException if the resource is missing.
+     */
+    private static Schema loadSchema(String schemaResource) {
+        try (InputStream in = AvroDeserializer.class.getClassLoader().getResourceAsStream(schemaResource)) {
+            if (in == null) {
+                throw new IllegalStateException("Avro schema " + schemaResource + " not found");
+            }
+            return new Schema.Parser().parse(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read Avro schema " + schemaResource, ex);
+        }
+    }
+}
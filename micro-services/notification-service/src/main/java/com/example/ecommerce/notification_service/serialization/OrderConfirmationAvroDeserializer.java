@@ -0,0 +1,59 @@
+package com.example.ecommerce.notification_service.serialization;
+
+import com.example.ecommerce.notification_service.models.CustomerDTO;
+import com.example.ecommerce.notification_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.notification_service.models.PaymentMethod;
+import com.example.ecommerce.notification_service.models.ProductDTO;
+import org.apache.avro.generic.GenericRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kafka deserializer reading order confirmations from the "order-topic" topic.
+ * New schema versions are appended to the list of known schemas; older messages stay readable.
+ */
+public class OrderConfirmationAvroDeserializer extends AvroDeserializer<OrderConfirmationDTO> {
+
+    public OrderConfirmationAvroDeserializer() {
+        super("avro/order-confirmation-v1.avsc");
+    }
+
+    @Override
+    protected OrderConfirmationDTO fromRecord(GenericRecord record) {
+        return new OrderConfirmationDTO(
+                string(record.get("orderReference")),
+                decimal(record.get("totalAmount")),
+                symbol(record.get("paymentMethod"), PaymentMethod.class),
+                customer((GenericRecord) record.get("customer")),
+                products((List<?>) record.get("purchases"))
+        );
+    }
+
+    private static CustomerDTO customer(GenericRecord record) {
+        if (record == null) {
+            return null;
+        }
+        return new CustomerDTO(
+                string(record.get("id")),
+                string(record.get("firstName")),
+                string(record.get("lastName")),
+                string(record.get("email"))
+        );
+    }
+
+    private static List<ProductDTO> products(List<?> records) {
+        var products = new ArrayList<ProductDTO>(records.size());
+        for (var item : records) {
+            var record = (GenericRecord) item;
+            products.add(new ProductDTO(
+                    (Integer) record.get("productId"),
+                    string(record.get("name")),
+                    string(record.get("description")),
+                    decimal(record.get("price")),
+                    (Double) record.get("quantity")
+            ));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ecommerce.notification_service.serialization;
+
+import com.example.ecommerce.notification_service.models.PaymentConfirmationDTO;
+import com.example.ecommerce.notification_service.models.PaymentMethod;
+import org.apache.avro.generic.GenericRecord;
+
+/**
+ * Kafka deserializer reading payment notifications from the "payment-topic" topic.
+ * New schema versions are appended to the list of known schemas; older messages stay readable.
+ */
+public class PaymentConfirmationAvroDeserializer extends AvroDeserializer<PaymentConfirmationDTO> {
+
+    public PaymentConfirmationAvroDeserializer() {
+        super("avro/payment-notification-v1.avsc", "avro/payment-notification-v2.avsc");
+    }
+
+    @Override
+    protected PaymentConfirmationDTO fromRecord(GenericRecord record) {
+        return new PaymentConfirmationDTO(
+                string(record.get("orderReference")),
+                decimal(record.get("amount")),
+                symbol(record.get("paymentMethod"), PaymentMethod.class),
+                string(record.get("customerFirstName")),
+                string(record.get("customerLastName")),
+                string(record.get("customerEmail"))
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.ecommerce.notification_service.services;
+
+public interface DeadLetterReplayService {
+
+    int replay(String deadLetterTopic);
+
+}
@@ -0,0 +1,14 @@
+package com.example.ecommerce.notification_service.services;
+
+import jakarta.mail.internet.MimeMessage;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+public interface EmailRetryService {
+
+    void scheduleRetry(MimeMessage mimeMessage);
+
+    void retry(byte[] rawMessage);
+
+    void deadLetter(ConsumerRecord<String, byte[]> consumerRecord);
+
+}
@@ -0,0 +1,12 @@
+package com.example.ecommerce.notification_service.services;
+
+import com.example.ecommerce.notification_service.models.EmailTemplates;
+import org.thymeleaf.context.Context;
+
+import java.util.function.Consumer;
+
+public interface EmailTemplateRenderer {
+
+    String render(EmailTemplates template, Consumer<Context> variables);
+
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.notification_service.services;
+
+import jakarta.mail.internet.MimeMessage;
+
+public interface MailDispatcher {
+
+    void dispatch(MimeMessage mimeMessage);
+
+}
@@ -2,16 +2,18 @@ package com.example.ecommerce.notification_service.services;
 
 import com.example.ecommerce.notification_service.models.OrderConfirmationDTO;
 import com.example.ecommerce.notification_service.models.PaymentConfirmationDTO;
-import jakarta.mail.MessagingException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
 
 public interface NotificationsConsumerService {
 
     void consumePaymentSuccessNotifications(
-            PaymentConfirmationDTO paymentConfirmationDTO
-    ) throws MessagingException;
+            List<ConsumerRecord<String, PaymentConfirmationDTO>> records
+    );
 
     void consumeOrderConfirmationNotifications(
-            OrderConfirmationDTO orderConfirmationDTO
-    ) throws MessagingException;
+            List<ConsumerRecord<String, OrderConfirmationDTO>> records
+    );
 
 }
@@ -0,0 +1,158 @@
+package com.example.ecommerce.notification_service.services.impl;
+
+import com.example.ecommerce.notification_service.config.KafkaDeadLetterConfig;
+import com.example.ecommerce.notification_service.services.DeadLetterReplayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementation of the DeadLetterReplayService interface.
+ * Publishes the records of a dead-letter topic to the topic they came from again, e.g. after a consumer reading
+ * a new schema version has been deployed or the SMTP server is reachable again.
+ * The replayed position is committed for the "dlt-replay" consumer group, so every record is replayed once;
+ * records arriving while a replay runs are left for the next one.
+ * Only the dead-letter topics this service writes itself can be replayed.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DeadLetterReplayServiceImpl implements DeadLetterReplayService {
+
+    static final String REPLAY_GROUP = "dlt-replay";
+
+    // The topics dead-lettered by the DeadLetterPublishingRecoverer and by the email retry topics
+    static final Set<String> REPLAYABLE_TOPICS = Set.of(
+            KafkaDeadLetterConfig.ORDER_TOPIC,
+            KafkaDeadLetterConfig.PAYMENT_TOPIC,
+            EmailRetryServiceImpl.EMAIL_TOPIC
+    );
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    // The headers added by the dead-letter and retry topic handling, which would otherwise be carried into the replay
+    private static final String DLT_HEADER_PREFIX = KafkaHeaders.PREFIX + "dlt-";
+    private static final String RETRY_TOPIC_HEADER_PREFIX = "retry_topic-";
+
+    private final ConsumerFactory<String, byte[]> consumerFactory; // Creates the consumer reading the dead-letter topic
+    private final KafkaTemplate<String, byte[]> kafkaTemplate; // KafkaTemplate for publishing the replayed records
+
+    /**
+     * Replays the records of a dead-letter topic that have not been replayed yet.
+     * The records are published with their original key, value and headers to the topic named without the "-dlt" suffix.
+     * Replays are serialized, so concurrent calls do not publish the same records twice.
+     *
+     * @param deadLetterTopic The name of the dead-letter topic.
+     * @return The number of replayed records.
+     * @throws IllegalArgumentException if the topic is not the dead-letter topic of one of the topics of this service.
+     */
+    @Override
+    public synchronized int replay(String deadLetterTopic) {
+        var targetTopic = deadLetterTopic.endsWith(KafkaDeadLetterConfig.DLT_SUFFIX)
+                ? deadLetterTopic.substring(0, deadLetterTopic.length() - KafkaDeadLetterConfig.DLT_SUFFIX.length())
+                : null;
+        if (targetTopic == null || !REPLAYABLE_TOPICS.contains(targetTopic)) {
+            throw new IllegalArgumentException("Not a dead-letter topic of this service: " + deadLetterTopic);
+        }
+
+        // The records are copied as they are, whatever their schema
+        var overrides = new Properties();
+        overrides.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        overrides.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        try (var consumer = consumerFactory.createConsumer(REPLAY_GROUP, null, null, overrides)) {
+            var partitionInfos = consumer.partitionsFor(deadLetterTopic);
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return 0;
+            }
+            var partitions = partitionInfos.stream()
+                    .map(partitionInfo -> new TopicPartition(partitionInfo.topic(), partitionInfo.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            var endOffsets = consumer.endOffsets(partitions);
+
+            int replayed = 0;
+            while (!reachedEnd(consumer, endOffsets)) {
+                var sends = new ArrayList<CompletableFuture<?>>();
+                for (var consumerRecord : consumer.poll(POLL_TIMEOUT)) {
+                    var partition = new TopicPartition(consumerRecord.topic(), consumerRecord.partition());
+                    if (consumerRecord.offset() < endOffsets.get(partition)) {
+                        sends.add(kafkaTemplate.send(toReplay(targetTopic, consumerRecord)));
+                    }
+                }
+                // Waits for the batch to be written before its position is committed
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+                consumer.commitSync(replayedOffsets(consumer, endOffsets));
+                replayed += sends.size();
+            }
+
+            log.info("INFO - Replayed {} records from {} to {}", replayed, deadLetterTopic, targetTopic);
+            return replayed;
+        }
+    }
+
+    /**
+     * Checks whether the consumer has read every partition up to the end offsets taken when the replay started.
+     */
+    private static boolean reachedEnd(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (var endOffset : endOffsets.entrySet()) {
+            if (consumer.position(endOffset.getKey()) < endOffset.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the offsets to commit, never beyond the end offsets, so records skipped as too new are kept.
+     */
+    private static Map<TopicPartition, OffsetAndMetadata> replayedOffsets(
+            Consumer<?, ?> consumer,
+            Map<TopicPartition, Long> endOffsets
+    ) {
+        var offsets = new HashMap<TopicPartition, OffsetAndMetadata>(endOffsets.size());
+        endOffsets.forEach((partition, endOffset) -> offsets.put(
+                partition, new OffsetAndMetadata(Math.min(consumer.position(partition), endOffset))
+        ));
+        return offsets;
+    }
+
+    /**
+     * Copies a dead-lettered record for the target topic, without the headers describing its failures.
+     */
+    private static ProducerRecord<String, byte[]> toReplay(String targetTopic, ConsumerRecord<String, byte[]> consumerRecord) {
+        var headers = new RecordHeaders();
+        for (var header : consumerRecord.headers()) {
+            var key = header.key();
+            if (!key.startsWith(DLT_HEADER_PREFIX)
+                    && !key.startsWith(RETRY_TOPIC_HEADER_PREFIX)
+                    && !key.startsWith(SerializationUtils.DESERIALIZER_EXCEPTION_HEADER_PREFIX)) {
+                headers.add(header);
+            }
+        }
+        return new ProducerRecord<>(targetTopic, null, consumerRecord.key(), consumerRecord.value(), headers);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.ecommerce.notification_service.services.impl;
+
+import com.example.ecommerce.notification_service.config.KafkaDeadLetterConfig;
+import com.example.ecommerce.notification_service.services.EmailRetryService;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Implementation of the EmailRetryService interface.
+ * Emails the MailDispatcher could not deliver are published to the "email-topic" topic as raw MIME messages,
+ * so a retry sends exactly the rendered email and keeps its Message-ID.
+ * Each failed attempt moves the email to the next retry topic, which is only consumed once its delay has elapsed,
+ * so an unavailable SMTP server delays the affected emails without blocking the notification listeners.
+ * Emails failing every attempt end up in the "email-topic-dlt" topic, from where they can be replayed.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EmailRetryServiceImpl implements EmailRetryService {
+
+    public static final String EMAIL_TOPIC = "email-topic";
+
+    private final JavaMailSender mailSender; // JavaMailSender instance for parsing and sending the retried emails
+    private final KafkaTemplate<String, byte[]> kafkaTemplate; // KafkaTemplate for publishing the emails to retry
+
+    /**
+     * Publishes an email to the "email-topic" topic to send it again later.
+     * The email is dropped with an error if it cannot be published.
+     *
+     * @param mimeMessage The email that could not be delivered.
+     */
+    @Override
+    public void scheduleRetry(MimeMessage mimeMessage) {
+        var rawMessage = new ByteArrayOutputStream();
+        try {
+            mimeMessage.writeTo(rawMessage);
+        } catch (IOException | MessagingException ex) {
+            log.error("ERROR - Dropping email that cannot be written for a retry :", ex);
+            return;
+        }
+        kafkaTemplate.send(EMAIL_TOPIC, rawMessage.toByteArray())
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("ERROR - Dropping email that cannot be published for a retry :", ex);
+                    }
+                });
+    }
+
+    /**
+     * Sends an email consumed from the "email-topic" topic or one of its retry topics.
+     * A failure is rethrown, which moves the email to the next retry topic; emails that cannot be parsed are
+     * dead-lettered right away.
+     *
+     * @param rawMessage The raw MIME message.
+     */
+    @RetryableTopic(
+            attempts = "${application.mail.retry.attempts:5}",
+            backoff = @Backoff(
+                    delayExpression = "${application.mail.retry.delay-ms:30000}",
+                    multiplierExpression = "${application.mail.retry.multiplier:4}",
+                    maxDelayExpression = "${application.mail.retry.max-delay-ms:1800000}"
+            ),
+            kafkaTemplate = "kafkaTemplate",
+            numPartitions = "${application.kafka.topics.email-topic.partitions:${application.kafka.topics.partitions:6}}",
+            replicationFactor = "${application.kafka.topics.replicas:1}",
+            exclude = {MailParseException.class, MailPreparationException.class},
+            dltTopicSuffix = KafkaDeadLetterConfig.DLT_SUFFIX,
+            // Names the retry topics by index, so changing the delays does not create new topics
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE
+    )
+    @KafkaListener(
+            topics = EMAIL_TOPIC,
+            groupId = "emailGroup",
+            concurrency = "#{@kafkaListenerConcurrency.forTopic('email-topic')}"
+    )
+    @Override
+    public void retry(byte[] rawMessage) {
+        mailSender.send(mailSender.createMimeMessage(new ByteArrayInputStream(rawMessage)));
+        log.info("INFO - Sent retried email");
+    }
+
+    /**
+     * Logs an email that failed every attempt and was moved to the "email-topic-dlt" topic.
+     *
+     * @param consumerRecord The dead-lettered email.
+     */
+    @DltHandler
+    @Override
+    public void deadLetter(ConsumerRecord<String, byte[]> consumerRecord) {
+        var exceptionMessage = consumerRecord.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+        log.error(
+                "ERROR - Giving up on email at {}-{}@{} : {}",
+                consumerRecord.topic(),
+                consumerRecord.partition(),
+                consumerRecord.offset(),
+                exceptionMessage == null ? "unknown cause" : new String(exceptionMessage.value(), StandardCharsets.UTF_8)
+        );
+    }
+
+}
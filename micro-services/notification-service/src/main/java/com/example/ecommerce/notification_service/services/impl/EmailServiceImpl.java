@@ -1,38 +1,40 @@
 package com.example.ecommerce.notification_service.services.impl;
 
+import com.example.ecommerce.notification_service.models.EmailTemplates;
 import com.example.ecommerce.notification_service.models.ProductDTO;
 import com.example.ecommerce.notification_service.services.EmailService;
+import com.example.ecommerce.notification_service.services.EmailTemplateRenderer;
+import com.example.ecommerce.notification_service.services.MailDispatcher;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 
 import static com.example.ecommerce.notification_service.models.EmailTemplates.ORDER_CONFIRMATION;
 import static com.example.ecommerce.notification_service.models.EmailTemplates.PAYMENT_CONFIRMATION;
 
 /**
  * Implementation of the EmailService interface for sending emails.
- * This service uses Spring's JavaMailSender and Thymeleaf for email templating.
+ * This service uses Spring's JavaMailSender and Thymeleaf, through the EmailTemplateRenderer, for email templating.
+ * Rendered emails are handed to the MailDispatcher, which sends them in batches over pooled SMTP connections.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender; // JavaMailSender instance for sending emails
-    private final SpringTemplateEngine templateEngine; // Thymeleaf template engine for processing email templates
+    private final JavaMailSender mailSender; // JavaMailSender instance for creating email messages
+    private final EmailTemplateRenderer templateRenderer; // Renders the cached Thymeleaf email templates
+    private final MailDispatcher mailDispatcher; // Queues rendered emails for delivery
 
     /**
      * Sends an email using the specified template and variables.
@@ -40,46 +42,41 @@ public class EmailServiceImpl implements EmailService {
      * @param destinationEmail The recipient's email address.
      * @param mimeMessage      The MimeMessage object for the email.
      * @param messageHelper    Helper for configuring the email message.
-     * @param templateName     The name of the Thymeleaf template to use.
-     * @param variables        A map of variables to populate the template.
-     * @param templateEngine   The Thymeleaf template engine.
-     * @param mailSender       The JavaMailSender instance.
+     * @param template         The email template to use.
+     * @param variables        Populates the template variables.
+     * @param templateRenderer The email template renderer.
+     * @param mailDispatcher   The MailDispatcher that delivers the email.
+     * @throws MessagingException If the email cannot be built, e.g. for an invalid recipient address.
      */
     private static void sendEmail(
             String destinationEmail,
             MimeMessage mimeMessage,
             MimeMessageHelper messageHelper,
-            String templateName,
-            Map<String, Object> variables,
-            SpringTemplateEngine templateEngine,
-            JavaMailSender mailSender
-    ) {
-
-        var context = new Context();
-        context.setVariables(variables);
-
-        try {
-            var htmlTemplate = templateEngine.process(templateName, context);
-            messageHelper.setTo(destinationEmail);
-            messageHelper.setText(htmlTemplate, true);
-            mailSender.send(mimeMessage);
-            log.info("INFO - Sending mail to email: {} with template {}", destinationEmail, templateName);
-        } catch (MessagingException _) {
-            log.warn("WARNING - Error while sending email to {} :", destinationEmail);
-        }
+            EmailTemplates template,
+            Consumer<Context> variables,
+            EmailTemplateRenderer templateRenderer,
+            MailDispatcher mailDispatcher
+    ) throws MessagingException {
+
+        // Failures to build the email are passed to the caller; delivery failures are retried by the MailDispatcher
+        var htmlTemplate = templateRenderer.render(template, variables);
+        messageHelper.setTo(destinationEmail);
+        messageHelper.setText(htmlTemplate, true);
+        mailDispatcher.dispatch(mimeMessage);
+        log.info("INFO - Queued mail to email: {} with template {}", destinationEmail, template.getTemplate());
 
     }
 
     /**
-     * Sends a payment success email asynchronously.
+     * Sends a payment success email.
+     * The email is queued and sent asynchronously by the MailDispatcher.
      *
      * @param destinationEmail The recipient's email address.
      * @param customerName     The name of the customer.
      * @param amount           The payment amount.
      * @param orderReference   The order reference number.
-     * @throws MessagingException If an error occurs while sending the email.
+     * @throws MessagingException If an error occurs while building the email.
      */
-    @Async
     @Override
     public void sendPaymentSuccessEmail(
             String destinationEmail,
@@ -88,44 +85,39 @@ public class EmailServiceImpl implements EmailService {
             String orderReference
     ) throws MessagingException {
         var mimeMessage = mailSender.createMimeMessage();
-        var messageHelper = new MimeMessageHelper(
-                mimeMessage,
-                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                StandardCharsets.UTF_8.name()
-        );
+        // The emails are a single HTML part, so no multipart structure is built
+        var messageHelper = new MimeMessageHelper(mimeMessage, StandardCharsets.UTF_8.name());
 
-        final var templateName = PAYMENT_CONFIRMATION.getTemplate();
         messageHelper.setSubject(PAYMENT_CONFIRMATION.getSubject());
         messageHelper.setFrom("moodxmail@gmail.com");
 
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("customerName", customerName);
-        variables.put("amount", amount);
-        variables.put("orderReference", orderReference);
-
         sendEmail(
                 destinationEmail,
                 mimeMessage,
                 messageHelper,
-                templateName,
-                variables,
-                templateEngine,
-                mailSender
+                PAYMENT_CONFIRMATION,
+                context -> {
+                    context.setVariable("customerName", customerName);
+                    context.setVariable("amount", amount);
+                    context.setVariable("orderReference", orderReference);
+                },
+                templateRenderer,
+                mailDispatcher
         );
 
     }
 
     /**
-     * Sends an order confirmation email asynchronously.
+     * Sends an order confirmation email.
+     * The email is queued and sent asynchronously by the MailDispatcher.
      *
      * @param destinationEmail The recipient's email address.
      * @param customerName     The name of the customer.
      * @param amount           The total order amount.
      * @param orderReference   The order reference number.
      * @param productDTOs      A list of products included in the order.
-     * @throws MessagingException If an error occurs while sending the email.
+     * @throws MessagingException If an error occurs while building the email.
      */
-    @Async
     @Override
     public void sendOrderConfirmationEmail(
             String destinationEmail,
@@ -135,30 +127,25 @@ public class EmailServiceImpl implements EmailService {
             List<ProductDTO> productDTOs
     ) throws MessagingException {
         var mimeMessage = mailSender.createMimeMessage();
-        var messageHelper = new MimeMessageHelper(
-                mimeMessage,
-                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                StandardCharsets.UTF_8.name()
-        );
+        // The emails are a single HTML part, so no multipart structure is built
+        var messageHelper = new MimeMessageHelper(mimeMessage, StandardCharsets.UTF_8.name());
 
-        final var templateName = ORDER_CONFIRMATION.getTemplate();
         messageHelper.setSubject(ORDER_CONFIRMATION.getSubject());
         messageHelper.setFrom("moodxmail@gmail.com");
 
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("customerName", customerName);
-        variables.put("amount", amount);
-        variables.put("orderReference", orderReference);
-        variables.put("productDTOs", productDTOs);
-
         sendEmail(
                 destinationEmail,
                 mimeMessage,
                 messageHelper,
-                templateName,
-                variables,
-                templateEngine,
-                mailSender
+                ORDER_CONFIRMATION,
+                context -> {
+                    context.setVariable("customerName", customerName);
+                    context.setVariable("amount", amount);
+                    context.setVariable("orderReference", orderReference);
+                    context.setVariable("productDTOs", productDTOs);
+                },
+                templateRenderer,
+                mailDispatcher
         );
 
     }
@@ -0,0 +1,81 @@
+package com.example.ecommerce.notification_service.services.impl;
+
+import com.example.ecommerce.notification_service.models.EmailTemplates;
+import com.example.ecommerce.notification_service.services.EmailTemplateRenderer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.StringWriter;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the EmailTemplateRenderer interface.
+ * Parses every email template once at startup so that the template engine's cache is warm before the first email,
+ * and renders with a Context and an output buffer reused per thread instead of allocating them for each email.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EmailTemplateRendererImpl implements EmailTemplateRenderer {
+
+    // Output buffers larger than this are not kept for reuse, so one oversized email does not pin the memory
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final SpringTemplateEngine templateEngine; // Thymeleaf template engine for processing email templates
+
+    // Render state reused by the thread rendering an email; neither Context nor StringWriter is thread-safe
+    private final ThreadLocal<RenderState> renderState = ThreadLocal.withInitial(RenderState::new);
+
+    /**
+     * Parses all email templates, which stores them in the template engine's cache.
+     */
+    @PostConstruct
+    void warmUp() {
+        for (var template : EmailTemplates.values()) {
+            templateEngine.process(template.getTemplate(), new Context());
+            log.info("INFO - Email template {} parsed and cached", template.getTemplate());
+        }
+    }
+
+    /**
+     * Renders an email template.
+     *
+     * @param template  The email template to render.
+     * @param variables Sets the template variables on the given Context.
+     * @return The rendered HTML.
+     */
+    @Override
+    public String render(EmailTemplates template, Consumer<Context> variables) {
+        var state = renderState.get();
+        try {
+            variables.accept(state.context);
+            templateEngine.process(template.getTemplate(), state.context, state.writer);
+            return state.writer.toString();
+        } finally {
+            state.reset();
+        }
+    }
+
+    /**
+     * The Context and output buffer reused by one thread.
+     */
+    private static final class RenderState {
+
+        private final Context context = new Context();
+        private StringWriter writer = new StringWriter(8 * 1024);
+
+        private void reset() {
+            context.clearVariables();
+            var buffer = writer.getBuffer();
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                writer = new StringWriter(8 * 1024);
+            } else {
+                buffer.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.ecommerce.notification_service.services.impl;
+
+import com.example.ecommerce.notification_service.services.EmailRetryService;
+import com.example.ecommerce.notification_service.services.MailDispatcher;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the MailDispatcher interface.
+ * Decouples email delivery from the Kafka consumer with a bounded queue drained by a fixed number of worker threads.
+ * Each worker keeps its own SMTP connection open and sends the queued messages over it in batches, so the
+ * connection setup and TLS handshake are only paid again after the server closed an idle connection.
+ * When the queue is full, callers block, which slows down the consumer instead of buffering without limit.
+ * Emails that cannot be delivered, or that find the queue full for too long, are handed to the EmailRetryService,
+ * so a slow or failing SMTP server does not hold up the consumer.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MailDispatcherImpl implements MailDispatcher, SmartLifecycle {
+
+    private final JavaMailSenderImpl mailSender; // JavaMailSenderImpl providing the mail session and server settings
+    private final EmailRetryService emailRetryService; // Retries the emails that could not be sent
+
+    /**
+     * The maximum number of emails waiting to be sent.
+     */
+    @Value("${application.mail.queue-capacity:1000}")
+    private int queueCapacity;
+
+    /**
+     * The number of worker threads, i.e. the number of SMTP connections used in parallel.
+     */
+    @Value("${application.mail.parallelism:2}")
+    private int parallelism;
+
+    /**
+     * The maximum number of emails taken from the queue at once.
+     */
+    @Value("${application.mail.batch-size:50}")
+    private int batchSize;
+
+    /**
+     * The maximum time a caller waits for space in the queue before the email is handed to the retry topic.
+     */
+    @Value("${application.mail.submit-timeout-ms:5000}")
+    private long submitTimeoutMs;
+
+    /**
+     * The maximum time to wait for the queued emails to be sent on shutdown.
+     */
+    @Value("${application.mail.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    private volatile BlockingQueue<MimeMessage> queue;
+    private volatile boolean running;
+    private final List<Thread> workers = new ArrayList<>();
+
+    /**
+     * Queues an email for delivery, waiting for space in the queue if it is full.
+     * If the queue stays full for too long, the email is scheduled for a retry instead.
+     *
+     * @param mimeMessage The email to send.
+     * @throws IllegalStateException if the dispatcher is not running.
+     */
+    @Override
+    public void dispatch(MimeMessage mimeMessage) {
+        if (!running) {
+            throw new IllegalStateException("Mail dispatcher is not running");
+        }
+        try {
+            if (!queue.offer(mimeMessage, submitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("WARNING - Mail queue is still full after {} ms, scheduling email for a retry", submitTimeoutMs);
+                emailRetryService.scheduleRetry(mimeMessage);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing email", ex);
+        }
+    }
+
+    /**
+     * Creates the queue and starts the worker threads.
+     */
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(
+                    Thread.ofPlatform()
+                            .name("mail-dispatcher-" + i)
+                            .start(this::drainQueue)
+            );
+        }
+        log.info("INFO - Mail dispatcher started with {} workers, batch size {} and queue capacity {}", parallelism, batchSize, queueCapacity);
+    }
+
+    /**
+     * Stops accepting emails and waits for the queued ones to be sent.
+     */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (var worker : workers) {
+            try {
+                var remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0 || !worker.join(Duration.ofMillis(remaining))) {
+                    worker.interrupt();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                worker.interrupt();
+            }
+        }
+        workers.clear();
+        if (!queue.isEmpty()) {
+            log.warn("WARNING - Mail dispatcher stopped with {} unsent emails", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the Kafka listener containers, so no consumer submits to a stopped dispatcher.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 200;
+    }
+
+    /**
+     * Worker loop: waits for an email, collects up to a batch of queued emails and sends them together
+     * over the worker's SMTP connection.
+     * Keeps draining after stop until the queue is empty, then closes the connection.
+     */
+    private void drainQueue() {
+        var batch = new ArrayList<MimeMessage>(batchSize);
+        Transport transport = null;
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    transport = send(batch, transport);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            close(transport);
+        }
+    }
+
+    /**
+     * Sends a batch of emails over the worker's SMTP connection, connecting first if it is not connected yet
+     * or the server closed it while idle.
+     * Failed emails are scheduled for a retry; the other emails of the batch are still delivered, over a new
+     * connection if the failure closed the current one.
+     *
+     * @param batch     The emails to send.
+     * @param transport The worker's connection, or null if it has none.
+     * @return The connection to use for the next batch, or null if none could be opened.
+     */
+    private Transport send(List<MimeMessage> batch, Transport transport) {
+        var sent = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (transport == null || !transport.isConnected()) {
+                close(transport);
+                try {
+                    transport = connect();
+                } catch (MessagingException ex) {
+                    var unsent = batch.subList(i, batch.size());
+                    log.warn("WARNING - Error while connecting to the mail server, scheduling {} emails for a retry :", unsent.size(), ex);
+                    unsent.forEach(emailRetryService::scheduleRetry);
+                    return null;
+                }
+            }
+            var mimeMessage = batch.get(i);
+            try {
+                sendMessage(transport, mimeMessage);
+                sent++;
+            } catch (MessagingException ex) {
+                log.warn("WARNING - Error while sending email {}, scheduling it for a retry :", mimeMessage, ex);
+                emailRetryService.scheduleRetry(mimeMessage);
+            }
+        }
+        log.info("INFO - Sent {} emails", sent);
+        return transport;
+    }
+
+    /**
+     * Opens a new SMTP connection with the settings of the JavaMailSender.
+     *
+     * @return The connected transport.
+     * @throws MessagingException if the connection cannot be opened.
+     */
+    private Transport connect() throws MessagingException {
+        var transport = mailSender.getSession()
+                .getTransport(Objects.requireNonNullElse(mailSender.getProtocol(), JavaMailSenderImpl.DEFAULT_PROTOCOL));
+        var username = mailSender.getUsername();
+        var password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        return transport;
+    }
+
+    /**
+     * Sends one email over an open connection, preparing it the same way JavaMailSender does.
+     *
+     * @param transport   The connection to send over.
+     * @param mimeMessage The email to send.
+     * @throws MessagingException if the email cannot be sent.
+     */
+    private static void sendMessage(Transport transport, MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        var messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Keep the explicitly set message ID
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+        var recipients = mimeMessage.getAllRecipients();
+        transport.sendMessage(mimeMessage, recipients != null ? recipients : new Address[0]);
+    }
+
+    /**
+     * Closes a worker's SMTP connection, ignoring failures since the connection is not used anymore.
+     *
+     * @param transport The connection to close, or null.
+     */
+    private static void close(Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException ex) {
+            log.debug("Error while closing the mail server connection", ex);
+        }
+    }
+}
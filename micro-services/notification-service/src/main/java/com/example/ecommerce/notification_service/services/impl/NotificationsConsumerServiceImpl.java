@@ -10,96 +10,242 @@ import com.example.ecommerce.notification_service.services.NotificationsConsumer
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.data.mongodb.BulkOperationException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the NotificationsConsumerService interface for consuming notifications from Kafka topics.
- * This service listens to Kafka topics and processes payment and order confirmation notifications.
+ * This service listens to Kafka topics in batches and processes payment and order confirmation notifications.
+ * Each batch is stored with a single bulk upsert keyed by record position before the emails are handed off, so a
+ * redelivered batch does not store its notifications twice. A notification that cannot be stored fails the batch at
+ * its record: the records before it are committed, and the record is dead-lettered on its own without being retried.
+ * The number of consumer threads per listener follows the partition count of its topic, see KafkaListenerConcurrency.
+ * A failing email is logged instead of failing the batch, since redelivering the batch would send its other emails again.
+ * Records that cannot be deserialized, e.g. written with an unknown schema version, are moved to the dead-letter topic
+ * of their topic right away, so they neither block the partition nor fail the rest of the batch.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class NotificationsConsumerServiceImpl implements NotificationsConsumerService {
 
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(NotificationsConsumerServiceImpl.class);
+
     private final NotificationRepository notificationRepository; // Repository for persisting notifications
     private final EmailService emailService; // Service for sending email notifications
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer; // Publishes unreadable records to the dead-letter topics
 
     /**
-     * Consumes payment success notifications from the "payment-topic" Kafka topic.
-     * Saves the notification to the database and sends a payment success email.
+     * Consumes a batch of payment success notifications from the "payment-topic" Kafka topic.
+     * Saves all notifications of the batch at once and sends a payment success email for each of them.
      *
-     * @param paymentConfirmationDTO The DTO containing payment confirmation details.
-     * @throws MessagingException If an error occurs while sending the email.
+     * @param records The batch of records containing payment confirmation details.
      */
-    @KafkaListener(topics = "payment-topic")
+    @KafkaListener(
+            topics = "payment-topic",
+            batch = "true",
+            concurrency = "#{@kafkaListenerConcurrency.forTopic('payment-topic')}"
+    )
     @Override
     public void consumePaymentSuccessNotifications(
-            PaymentConfirmationDTO paymentConfirmationDTO
-    ) throws MessagingException {
-
-        log.info("Consuming the message from payment-topic Topic :: {}", paymentConfirmationDTO);
-
-        // Save the notification to the database
-        notificationRepository.save(
-                Notification.builder()
-                        .notificationType(NotificationType.PAYMENT_CONFIRMATION)
-                        .notificationDate(LocalDateTime.now())
-                        .paymentConfirmationDTO(paymentConfirmationDTO)
-                        .build()
-        );
-
-        // Extract customer name from the DTO
-        var customerName = paymentConfirmationDTO.customerFirstName() + " " + paymentConfirmationDTO.customerLastName();
-
-        // Send payment success email
-        emailService.sendPaymentSuccessEmail(
-                paymentConfirmationDTO.customerEmail(),
-                customerName,
-                paymentConfirmationDTO.amount(),
-                paymentConfirmationDTO.orderReference()
+            List<ConsumerRecord<String, PaymentConfirmationDTO>> records
+    ) {
+
+        log.info("Consuming {} messages from payment-topic Topic", records.size());
+
+        var readableRecords = readable(records);
+        if (readableRecords.isEmpty()) {
+            return;
+        }
+
+        // Save all notifications of the batch with a single bulk upsert
+        var notificationDate = LocalDateTime.now();
+        storeAndSend(
+                readableRecords,
+                readableRecords.stream()
+                        .map(consumerRecord -> Notification.builder()
+                                .id(notificationId(consumerRecord))
+                                .notificationType(NotificationType.PAYMENT_CONFIRMATION)
+                                .notificationDate(notificationDate)
+                                .paymentConfirmationDTO(consumerRecord.value())
+                                .build())
+                        .toList(),
+                this::sendPaymentSuccessEmail
         );
 
     }
 
     /**
-     * Consumes order confirmation notifications from the "order-topic" Kafka topic.
-     * Saves the notification to the database and sends an order confirmation email.
+     * Consumes a batch of order confirmation notifications from the "order-topic" Kafka topic.
+     * Saves all notifications of the batch at once and sends an order confirmation email for each of them.
      *
-     * @param orderConfirmationDTO The DTO containing order confirmation details.
-     * @throws MessagingException If an error occurs while sending the email.
+     * @param records The batch of records containing order confirmation details.
      */
-    @KafkaListener(topics = "order-topic")
+    @KafkaListener(
+            topics = "order-topic",
+            batch = "true",
+            concurrency = "#{@kafkaListenerConcurrency.forTopic('order-topic')}"
+    )
     @Override
     public void consumeOrderConfirmationNotifications(
-            OrderConfirmationDTO orderConfirmationDTO
-    ) throws MessagingException {
-
-        log.info("Consuming the message from order-topic Topic :: {}", orderConfirmationDTO);
-
-        // Save the notification to the database
-        notificationRepository.save(
-                Notification.builder()
-                        .notificationType(NotificationType.ORDER_CONFIRMATION)
-                        .notificationDate(LocalDateTime.now())
-                        .orderConfirmationDTO(orderConfirmationDTO)
-                        .build()
+            List<ConsumerRecord<String, OrderConfirmationDTO>> records
+    ) {
+
+        log.info("Consuming {} messages from order-topic Topic", records.size());
+
+        var readableRecords = readable(records);
+        if (readableRecords.isEmpty()) {
+            return;
+        }
+
+        // Save all notifications of the batch with a single bulk upsert
+        var notificationDate = LocalDateTime.now();
+        storeAndSend(
+                readableRecords,
+                readableRecords.stream()
+                        .map(consumerRecord -> Notification.builder()
+                                .id(notificationId(consumerRecord))
+                                .notificationType(NotificationType.ORDER_CONFIRMATION)
+                                .notificationDate(notificationDate)
+                                .orderConfirmationDTO(consumerRecord.value())
+                                .build())
+                        .toList(),
+                this::sendOrderConfirmationEmail
         );
 
+    }
+
+    /**
+     * Sends the payment success email of a notification.
+     * A failure is logged, so the other emails of the batch are still sent.
+     *
+     * @param paymentConfirmationDTO The payment confirmation details.
+     */
+    private void sendPaymentSuccessEmail(PaymentConfirmationDTO paymentConfirmationDTO) {
         // Extract customer name from the DTO
-        var customerName = orderConfirmationDTO.customerDTO().firstName() + " " + orderConfirmationDTO.customerDTO().lastName();
+        var customerName = paymentConfirmationDTO.customerFirstName() + " " + paymentConfirmationDTO.customerLastName();
 
+        // Send payment success email
+        try {
+            emailService.sendPaymentSuccessEmail(
+                    paymentConfirmationDTO.customerEmail(),
+                    customerName,
+                    paymentConfirmationDTO.amount(),
+                    paymentConfirmationDTO.orderReference()
+            );
+        } catch (MessagingException | RuntimeException ex) {
+            log.warn("WARNING - Error while preparing payment email for order {}", paymentConfirmationDTO.orderReference(), ex);
+        }
+    }
+
+    /**
+     * Sends the order confirmation email of a notification.
+     * A failure is logged, so the other emails of the batch are still sent.
+     *
+     * @param orderConfirmationDTO The order confirmation details.
+     */
+    private void sendOrderConfirmationEmail(OrderConfirmationDTO orderConfirmationDTO) {
         // Send order confirmation email
-        emailService.sendOrderConfirmationEmail(
-                orderConfirmationDTO.customerDTO().email(),
-                customerName,
-                orderConfirmationDTO.totalAmount(),
-                orderConfirmationDTO.orderReference(),
-                orderConfirmationDTO.productDTOs()
-        );
+        try {
+            // Extract customer name from the DTO
+            var customerName = orderConfirmationDTO.customerDTO().firstName() + " " + orderConfirmationDTO.customerDTO().lastName();
+
+            emailService.sendOrderConfirmationEmail(
+                    orderConfirmationDTO.customerDTO().email(),
+                    customerName,
+                    orderConfirmationDTO.totalAmount(),
+                    orderConfirmationDTO.orderReference(),
+                    orderConfirmationDTO.productDTOs()
+            );
+        } catch (MessagingException | RuntimeException ex) {
+            log.warn("WARNING - Error while preparing order email for order {}", orderConfirmationDTO.orderReference(), ex);
+        }
+    }
+
+    /**
+     * Stores the notifications of a batch, then sends the email of every stored notification.
+     * If a notification cannot be stored, the emails of the notifications before it are still sent, since the error
+     * handler commits their records, dead-letters the failing record and redelivers the batch after it.
+     *
+     * @param records       The records the notifications were built from, in the same order.
+     * @param notifications The notifications to store.
+     * @param sendEmail     Sends the email for the payload of a record.
+     * @param <T>           The payload type.
+     * @throws BatchListenerFailedException if a notification cannot be stored, naming the record it was built from.
+     */
+    private <T> void storeAndSend(
+            List<ConsumerRecord<String, T>> records,
+            List<Notification> notifications,
+            Consumer<T> sendEmail
+    ) {
+        var storedRecords = records;
+        BatchListenerFailedException failure = null;
+        try {
+            notificationRepository.upsertAll(notifications);
+        } catch (BulkOperationException ex) {
+            if (ex.getErrors().isEmpty()) {
+                // Only a write concern error, e.g. replicas unavailable, which fails the whole batch
+                throw ex;
+            }
+            var failedIndex = ex.getErrors().getFirst().getIndex();
+            var failedRecord = records.get(failedIndex);
+            storedRecords = records.subList(0, failedIndex);
+            failure = new BatchListenerFailedException("Cannot store notification " + notificationId(failedRecord), ex, failedRecord);
+        }
+
+        storedRecords.forEach(consumerRecord -> sendEmail.accept(consumerRecord.value()));
+        if (failure != null) {
+            throw failure;
+        }
+    }
 
+    /**
+     * Builds the ID of the notification stored for a record from the record's position.
+     *
+     * @param consumerRecord The record.
+     * @return The topic, partition and offset of the record.
+     */
+    private static String notificationId(ConsumerRecord<?, ?> consumerRecord) {
+        return consumerRecord.topic() + "-" + consumerRecord.partition() + "-" + consumerRecord.offset();
+    }
+
+    /**
+     * Selects the records of a batch that have a value.
+     * Records whose value could not be deserialized are dead-lettered with their original bytes.
+     *
+     * @param records The records of the batch.
+     * @param <T>     The payload type.
+     * @return The records with a non-null value, in record order.
+     */
+    private <T> List<ConsumerRecord<String, T>> readable(List<ConsumerRecord<String, T>> records) {
+        var readableRecords = new ArrayList<ConsumerRecord<String, T>>(records.size());
+        for (var consumerRecord : records) {
+            if (consumerRecord.value() == null) {
+                var deserializationException = SerializationUtils.getExceptionFromHeader(
+                        consumerRecord, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR
+                );
+                if (deserializationException != null) {
+                    log.warn("WARNING - Dead-lettering unreadable record at {}-{}@{} :", consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset(), deserializationException);
+                    deadLetterRecoverer.accept(consumerRecord, deserializationException);
+                } else {
+                    log.warn("WARNING - Skipping record without payload at {}-{}@{}", consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset());
+                }
+                continue;
+            }
+            readableRecords.add(consumerRecord);
+        }
+        return readableRecords;
     }
 
 }
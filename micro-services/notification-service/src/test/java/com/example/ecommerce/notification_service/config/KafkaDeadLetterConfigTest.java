@@ -0,0 +1,114 @@
+package com.example.ecommerce.notification_service.config;
+
+import com.example.ecommerce.notification_service.serialization.AvroDeserializer;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+class KafkaDeadLetterConfigTest {
+
+    private final ConsumerRecordRecoverer recoverer = mock(ConsumerRecordRecoverer.class);
+
+    @Test
+    void withRawValue_deserializedRecord_recoversOriginalBytes() {
+        var headers = new RecordHeaders();
+        headers.add("trace-id", new byte[]{9});
+        headers.add(AvroDeserializer.RAW_VALUE_HEADER, new byte[]{1, 2, 3});
+        var consumerRecord = new ConsumerRecord<>(
+                "payment-topic", 2, 42, 1000L, TimestampType.CREATE_TIME, 0, 3, "key", "payload", headers, Optional.empty()
+        );
+        var exception = new IllegalStateException("fail");
+
+        KafkaDeadLetterConfig.withRawValue(recoverer).accept(consumerRecord, exception);
+
+        verify(recoverer).accept(argThat(recovered -> {
+            assertEquals("payment-topic", recovered.topic());
+            assertEquals(2, recovered.partition());
+            assertEquals(42, recovered.offset());
+            assertEquals("key", recovered.key());
+            assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) recovered.value());
+            assertArrayEquals(new byte[]{9}, recovered.headers().lastHeader("trace-id").value());
+            assertNull(recovered.headers().lastHeader(AvroDeserializer.RAW_VALUE_HEADER));
+            return true;
+        }), same(exception));
+    }
+
+    @Test
+    void kafkaErrorHandler_unstorableRecord_isDeadLetteredWithoutRetry() {
+        var deadLetterRecoverer = mock(DeadLetterPublishingRecoverer.class);
+        var errorHandler = new KafkaDeadLetterConfig().kafkaErrorHandler(deadLetterRecoverer, 600_000);
+        var stored = new ConsumerRecord<String, Object>("payment-topic", 0, 0, null, "stored");
+        var rejected = new ConsumerRecord<String, Object>("payment-topic", 0, 1, null, "rejected");
+        var next = new ConsumerRecord<String, Object>("payment-topic", 0, 2, null, "next");
+        var partition = new TopicPartition("payment-topic", 0);
+        var records = new ConsumerRecords<>(Map.of(partition, List.of(stored, rejected, next)));
+        var container = mock(MessageListenerContainer.class);
+        when(container.getContainerProperties()).thenReturn(new ContainerProperties("payment-topic"));
+        var failure = new BatchListenerFailedException("Cannot store notification", bulkWriteFailure(), rejected);
+
+        var start = System.nanoTime();
+        // The records after the rejected one are redelivered by seeking to them
+        assertThrows(
+                KafkaException.class,
+                () -> errorHandler.handleBatch(failure, records, mock(Consumer.class), container, () -> { })
+        );
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+        verify(deadLetterRecoverer).accept(same(rejected), any());
+        verify(deadLetterRecoverer, never()).accept(same(next), any());
+    }
+
+    private static BulkOperationException bulkWriteFailure() {
+        return new BulkOperationException("Bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(),
+                List.of(new BulkWriteError(10334, "Document too large", new BsonDocument(), 1)),
+                null,
+                new ServerAddress(),
+                Set.of()
+        ));
+    }
+
+    @Test
+    void withRawValue_recordWithoutRawValue_isPassedOn() {
+        var consumerRecord = new ConsumerRecord<String, byte[]>("email-topic", 0, 0, null, new byte[]{1});
+
+        KafkaDeadLetterConfig.withRawValue(recoverer).accept(consumerRecord, new IllegalStateException("fail"));
+
+        verify(recoverer).accept(argThat(recovered -> {
+            assertSame(consumerRecord, recovered);
+            return true;
+        }), any());
+    }
+}
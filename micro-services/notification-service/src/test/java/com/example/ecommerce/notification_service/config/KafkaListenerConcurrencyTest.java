@@ -0,0 +1,41 @@
+package com.example.ecommerce.notification_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KafkaListenerConcurrencyTest {
+
+    private KafkaListenerConcurrency concurrency(MockEnvironment environment, int partitions, int instances) {
+        var concurrency = new KafkaListenerConcurrency(environment);
+        ReflectionTestUtils.setField(concurrency, "partitions", partitions);
+        ReflectionTestUtils.setField(concurrency, "instances", instances);
+        return concurrency;
+    }
+
+    @Test
+    void forTopic_spreadsDefaultPartitionsOverInstances() {
+        var concurrency = concurrency(new MockEnvironment(), 6, 4);
+
+        assertEquals(2, concurrency.forTopic("order-topic"));
+    }
+
+    @Test
+    void forTopic_usesPerTopicOverride() {
+        var environment = new MockEnvironment()
+                .withProperty("application.kafka.topics.payment-topic.partitions", "12");
+        var concurrency = concurrency(environment, 6, 2);
+
+        assertEquals(6, concurrency.forTopic("payment-topic"));
+        assertEquals(3, concurrency.forTopic("order-topic"));
+    }
+
+    @Test
+    void forTopic_isAtLeastOne() {
+        var concurrency = concurrency(new MockEnvironment(), 2, 5);
+
+        assertEquals(1, concurrency.forTopic("order-topic"));
+    }
+}
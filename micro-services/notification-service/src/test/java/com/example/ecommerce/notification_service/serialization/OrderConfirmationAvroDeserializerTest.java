@@ -0,0 +1,90 @@
+package com.example.ecommerce.notification_service.serialization;
+
+import com.example.ecommerce.notification_service.models.CustomerDTO;
+import com.example.ecommerce.notification_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.notification_service.models.PaymentMethod;
+import com.example.ecommerce.notification_service.models.ProductDTO;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the OrderConfirmationAvroDeserializer class.
+ * The messages are written with the bundled schema, the way the order service writes them.
+ */
+class OrderConfirmationAvroDeserializerTest {
+
+    private final OrderConfirmationAvroDeserializer deserializer = new OrderConfirmationAvroDeserializer();
+
+    @Test
+    void deserialize_readsSingleObjectEncodedRecord() throws IOException {
+        Schema schema;
+        try (var in = getClass().getClassLoader().getResourceAsStream("avro/order-confirmation-v1.avsc")) {
+            schema = new Schema.Parser().parse(in);
+        }
+        var decimalSchema = schema.getField("totalAmount").schema().getTypes().get(1);
+        var customerSchema = schema.getField("customer").schema().getTypes().get(1);
+        var purchaseSchema = schema.getField("purchases").schema().getElementType();
+
+        var customer = new GenericData.Record(customerSchema);
+        customer.put("id", "customer-1");
+        customer.put("firstName", "John");
+        customer.put("lastName", "Doe");
+        customer.put("email", "john.doe@example.com");
+        var purchase = new GenericData.Record(purchaseSchema);
+        purchase.put("productId", 7);
+        purchase.put("name", "Product");
+        purchase.put("price", decimal(decimalSchema, new BigDecimal("19.99")));
+        purchase.put("quantity", 2.0);
+        var record = new GenericData.Record(schema);
+        record.put("orderReference", "ORD-0001");
+        record.put("totalAmount", decimal(decimalSchema, new BigDecimal("39.98")));
+        record.put("paymentMethod", new GenericData.EnumSymbol(schema.getField("paymentMethod").schema().getTypes().get(1), "VISA"));
+        record.put("customer", customer);
+        record.put("purchases", List.of(purchase));
+        var bytes = new BinaryMessageEncoder<GenericRecord>(GenericData.get(), schema).encode(record).array();
+
+        var orderConfirmation = deserializer.deserialize("order-topic", bytes);
+
+        assertEquals(
+                new OrderConfirmationDTO(
+                        "ORD-0001",
+                        new BigDecimal("39.98"),
+                        PaymentMethod.VISA,
+                        new CustomerDTO("customer-1", "John", "Doe", "john.doe@example.com"),
+                        List.of(new ProductDTO(7, "Product", null, new BigDecimal("19.99"), 2.0))
+                ),
+                orderConfirmation
+        );
+    }
+
+    @Test
+    void deserialize_jsonPayload_throwsSerializationException() {
+        var json = "{\"orderReference\":\"ORD-0001\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("order-topic", json));
+    }
+
+    @Test
+    void deserialize_nullPayload_returnsNull() {
+        assertNull(deserializer.deserialize("order-topic", null));
+    }
+
+    private static GenericRecord decimal(Schema schema, BigDecimal value) {
+        var record = new GenericData.Record(schema);
+        record.put("unscaled", ByteBuffer.wrap(value.unscaledValue().toByteArray()));
+        record.put("scale", value.scale());
+        return record;
+    }
+}
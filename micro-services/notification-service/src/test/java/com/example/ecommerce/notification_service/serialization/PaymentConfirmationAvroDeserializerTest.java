@@ -0,0 +1,102 @@
+package com.example.ecommerce.notification_service.serialization;
+
+import com.example.ecommerce.notification_service.models.PaymentConfirmationDTO;
+import com.example.ecommerce.notification_service.models.PaymentMethod;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the PaymentConfirmationAvroDeserializer class.
+ * The messages are written with the bundled schema, the way the payment service writes them.
+ */
+class PaymentConfirmationAvroDeserializerTest {
+
+    private final PaymentConfirmationAvroDeserializer deserializer = new PaymentConfirmationAvroDeserializer();
+
+    @Test
+    void deserialize_readsVersion1Record() throws IOException {
+        var bytes = encode("avro/payment-notification-v1.avsc", null);
+
+        var paymentConfirmation = deserializer.deserialize("payment-topic", bytes);
+
+        assertEquals(
+                new PaymentConfirmationDTO("ORD-0001", new BigDecimal("100.50"), PaymentMethod.PAYPAL, "John", "Doe", "john.doe@example.com"),
+                paymentConfirmation
+        );
+    }
+
+    @Test
+    void deserialize_readsVersion2Record() throws IOException {
+        var bytes = encode("avro/payment-notification-v2.avsc", "customer-1");
+
+        var paymentConfirmation = deserializer.deserialize("payment-topic", bytes);
+
+        assertEquals(
+                new PaymentConfirmationDTO("ORD-0001", new BigDecimal("100.50"), PaymentMethod.PAYPAL, "John", "Doe", "john.doe@example.com"),
+                paymentConfirmation
+        );
+    }
+
+    @Test
+    void deserialize_withHeaders_keepsMessageBytes() throws IOException {
+        var bytes = encode("avro/payment-notification-v2.avsc", "customer-1");
+        var headers = new RecordHeaders();
+
+        deserializer.deserialize("payment-topic", headers, bytes);
+
+        assertSame(bytes, headers.lastHeader(AvroDeserializer.RAW_VALUE_HEADER).value());
+    }
+
+    @Test
+    void deserialize_unknownSchemaVersion_throwsSerializationException() throws IOException {
+        var unknownSchema = SchemaBuilder.record("PaymentNotification").namespace("com.example.ecommerce.avro")
+                .fields().requiredString("orderReference").endRecord();
+        var record = new GenericData.Record(unknownSchema);
+        record.put("orderReference", "ORD-0001");
+        var bytes = new BinaryMessageEncoder<GenericRecord>(GenericData.get(), unknownSchema).encode(record).array();
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("payment-topic", bytes));
+    }
+
+    /**
+     * Writes a payment notification with one of the bundled schema versions, the way the payment service writes it.
+     *
+     * @param schemaResource The schema version to write with.
+     * @param customerId     The customer ID, only written from version 2 on.
+     * @return The single-object encoded message.
+     */
+    private byte[] encode(String schemaResource, String customerId) throws IOException {
+        Schema schema;
+        try (var in = getClass().getClassLoader().getResourceAsStream(schemaResource)) {
+            schema = new Schema.Parser().parse(in);
+        }
+        var amount = new GenericData.Record(schema.getField("amount").schema().getTypes().get(1));
+        amount.put("unscaled", ByteBuffer.wrap(new BigDecimal("100.50").unscaledValue().toByteArray()));
+        amount.put("scale", 2);
+        var record = new GenericData.Record(schema);
+        record.put("orderReference", "ORD-0001");
+        record.put("amount", amount);
+        record.put("paymentMethod", new GenericData.EnumSymbol(schema.getField("paymentMethod").schema().getTypes().get(1), "PAYPAL"));
+        record.put("customerFirstName", "John");
+        record.put("customerLastName", "Doe");
+        record.put("customerEmail", "john.doe@example.com");
+        if (schema.getField("customerId") != null) {
+            record.put("customerId", customerId);
+        }
+        return new BinaryMessageEncoder<GenericRecord>(GenericData.get(), schema).encode(record).array();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.ecommerce.notification_service.services.impl;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the DeadLetterReplayServiceImpl class.
+ * These tests replay a dead-letter topic held by a MockConsumer.
+ */
+class DeadLetterReplayServiceImplTest {
+
+    private static final TopicPartition DLT_PARTITION = new TopicPartition("payment-topic-dlt", 0);
+
+    private MockConsumer<String, byte[]> consumer;
+
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private DeadLetterReplayServiceImpl deadLetterReplayService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        consumer = spy(new MockConsumer<>(OffsetResetStrategy.EARLIEST));
+        consumer.updatePartitions(
+                DLT_PARTITION.topic(), List.of(new PartitionInfo(DLT_PARTITION.topic(), 0, null, null, null))
+        );
+        consumer.updateBeginningOffsets(Map.of(DLT_PARTITION, 0L));
+
+        ConsumerFactory<String, byte[]> consumerFactory = mock(ConsumerFactory.class);
+        when(consumerFactory.createConsumer(eq(DeadLetterReplayServiceImpl.REPLAY_GROUP), isNull(), isNull(), any(Properties.class)))
+                .thenReturn(consumer);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        deadLetterReplayService = new DeadLetterReplayServiceImpl(consumerFactory, kafkaTemplate);
+    }
+
+    /**
+     * Creates a dead-lettered record carrying the headers added by the dead-letter handling and an own header.
+     */
+    private static ConsumerRecord<String, byte[]> deadLetter(long offset, String key) {
+        var headers = new RecordHeaders();
+        headers.add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, "Unknown schema".getBytes(StandardCharsets.UTF_8));
+        headers.add("retry_topic-attempts", new byte[]{0, 0, 0, 5});
+        headers.add("b3", "trace".getBytes(StandardCharsets.UTF_8));
+        return new ConsumerRecord<>(
+                DLT_PARTITION.topic(), 0, offset, 0L, TimestampType.CREATE_TIME, 0, 0, key, new byte[]{1, 2},
+                headers, Optional.empty()
+        );
+    }
+
+    /**
+     * Tests that the records up to the end offset are published to the original topic without the failure headers,
+     * and that the replayed position is committed.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_publishesRecordsToOriginalTopic() {
+        consumer.updateEndOffsets(Map.of(DLT_PARTITION, 2L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(deadLetter(0, "customer-1"));
+            consumer.addRecord(deadLetter(1, "customer-2"));
+            // Arrives while the replay runs and is left for the next one
+            consumer.addRecord(deadLetter(2, "customer-3"));
+        });
+
+        var replayed = deadLetterReplayService.replay("payment-topic-dlt");
+
+        assertEquals(2, replayed);
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(captor.capture());
+        var first = captor.getAllValues().getFirst();
+        assertEquals("payment-topic", first.topic());
+        assertNull(first.partition());
+        assertEquals("customer-1", first.key());
+        assertArrayEquals(new byte[]{1, 2}, first.value());
+        assertEquals(1, first.headers().toArray().length);
+        assertNotNull(first.headers().lastHeader("b3"));
+        assertEquals("customer-2", captor.getAllValues().get(1).key());
+
+        ArgumentCaptor<Map<TopicPartition, OffsetAndMetadata>> offsets = ArgumentCaptor.forClass(Map.class);
+        verify(consumer, atLeastOnce()).commitSync(offsets.capture());
+        assertEquals(2L, offsets.getValue().get(DLT_PARTITION).offset());
+    }
+
+    /**
+     * Tests that replaying an empty dead-letter topic publishes nothing.
+     */
+    @Test
+    void replay_emptyTopic_returnsZero() {
+        consumer.updateEndOffsets(Map.of(DLT_PARTITION, 0L));
+
+        assertEquals(0, deadLetterReplayService.replay("payment-topic-dlt"));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    /**
+     * Tests that a topic without the dead-letter suffix is rejected.
+     */
+    @Test
+    void replay_notADeadLetterTopic_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> deadLetterReplayService.replay("payment-topic"));
+        assertThrows(IllegalArgumentException.class, () -> deadLetterReplayService.replay("-dlt"));
+    }
+
+    /**
+     * Tests that the dead-letter topic of a topic this service does not dead-letter is rejected without reading it.
+     */
+    @Test
+    void replay_foreignDeadLetterTopic_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> deadLetterReplayService.replay("customer-topic-dlt"));
+        assertThrows(IllegalArgumentException.class, () -> deadLetterReplayService.replay("email-topic-retry-0-dlt"));
+        verifyNoInteractions(kafkaTemplate);
+        verify(consumer, never()).assign(any());
+    }
+}
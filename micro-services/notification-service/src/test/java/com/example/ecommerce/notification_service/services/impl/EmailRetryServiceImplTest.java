@@ -0,0 +1,111 @@
+package com.example.ecommerce.notification_service.services.impl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the EmailRetryServiceImpl class.
+ * These tests verify that emails are published as raw MIME messages and sent again from them.
+ */
+class EmailRetryServiceImplTest {
+
+    private JavaMailSenderImpl mailSender;
+
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private EmailRetryServiceImpl emailRetryService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mailSender = spy(new JavaMailSenderImpl());
+        kafkaTemplate = mock(KafkaTemplate.class);
+        emailRetryService = new EmailRetryServiceImpl(mailSender, kafkaTemplate);
+    }
+
+    /**
+     * Creates a simple email addressed to the given recipient.
+     */
+    private MimeMessage message(String to) throws MessagingException {
+        var mimeMessage = mailSender.createMimeMessage();
+        var messageHelper = new MimeMessageHelper(mimeMessage);
+        messageHelper.setFrom("moodxmail@gmail.com");
+        messageHelper.setTo(to);
+        messageHelper.setSubject("Order confirmation");
+        messageHelper.setText("Body");
+        return mimeMessage;
+    }
+
+    /**
+     * Tests that an email scheduled for a retry is published to the email topic as a parseable MIME message.
+     *
+     * @throws MessagingException if an error occurs while creating or parsing the email
+     */
+    @Test
+    void scheduleRetry_publishesRawMessage() throws MessagingException {
+        when(kafkaTemplate.send(eq(EmailRetryServiceImpl.EMAIL_TOPIC), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        emailRetryService.scheduleRetry(message("user@example.com"));
+
+        var captor = ArgumentCaptor.forClass(byte[].class);
+        verify(kafkaTemplate, times(1)).send(eq(EmailRetryServiceImpl.EMAIL_TOPIC), captor.capture());
+        var published = mailSender.createMimeMessage(new ByteArrayInputStream(captor.getValue()));
+        assertEquals("Order confirmation", published.getSubject());
+        assertEquals("user@example.com", published.getAllRecipients()[0].toString());
+    }
+
+    /**
+     * Tests that a retried email is sent with the subject and recipient it was published with.
+     *
+     * @throws Exception if an error occurs while creating or writing the email
+     */
+    @Test
+    void retry_sendsRawMessage() throws Exception {
+        doNothing().when(mailSender).send(any(MimeMessage.class));
+
+        emailRetryService.retry(raw(message("user@example.com")));
+
+        var captor = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailSender, times(1)).send(captor.capture());
+        assertEquals("Order confirmation", captor.getValue().getSubject());
+        assertEquals("user@example.com", captor.getValue().getAllRecipients()[0].toString());
+    }
+
+    /**
+     * Tests that a failure to send a retried email is rethrown, so the email moves on to the next retry topic.
+     *
+     * @throws Exception if an error occurs while creating or writing the email
+     */
+    @Test
+    void retry_sendFails_rethrowsException() throws Exception {
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage.class));
+        var rawMessage = raw(message("user@example.com"));
+
+        assertThrows(MailSendException.class, () -> emailRetryService.retry(rawMessage));
+    }
+
+    private static byte[] raw(MimeMessage mimeMessage) throws IOException, MessagingException {
+        var rawMessage = new ByteArrayOutputStream();
+        mimeMessage.writeTo(rawMessage);
+        return rawMessage.toByteArray();
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.ecommerce.notification_service.services.impl;
 
+import com.example.ecommerce.notification_service.models.EmailTemplates;
 import com.example.ecommerce.notification_service.models.ProductDTO;
+import com.example.ecommerce.notification_service.services.EmailTemplateRenderer;
+import com.example.ecommerce.notification_service.services.MailDispatcher;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,8 +13,6 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -20,7 +21,6 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
@@ -33,7 +33,10 @@ class EmailServiceImplTest {
     private JavaMailSender javaMailSender;
 
     @Mock
-    private SpringTemplateEngine templateEngine;
+    private EmailTemplateRenderer templateRenderer;
+
+    @Mock
+    private MailDispatcher mailDispatcher;
 
     @InjectMocks
     private EmailServiceImpl emailService;
@@ -52,18 +55,16 @@ class EmailServiceImplTest {
 
     /**
      * Tests the sendPaymentSuccessEmail method with valid input.
-     * Verifies that the email is sent successfully without throwing exceptions.
+     * Verifies that the email is queued for delivery without throwing exceptions.
      *
      * @throws MessagingException if an error occurs during email sending
      */
     @Test
     void sendPaymentSuccessEmail_validInput_sendsEmail() throws MessagingException {
         when(
-                templateEngine.process(anyString(), any(Context.class))
+                templateRenderer.render(any(EmailTemplates.class), any())
         ).thenReturn("Email Body");
 
-        doNothing().when(javaMailSender).send((MimeMessage) any());
-
         assertDoesNotThrow(
                 () -> emailService.sendPaymentSuccessEmail(
                         "test@example.com", "John Doe", BigDecimal.TEN, "ORDER123"
@@ -71,10 +72,10 @@ class EmailServiceImplTest {
         );
 
         verify(
-                javaMailSender,
+                mailDispatcher,
                 times(1)
-        ).send(
-                (MimeMessage) any()
+        ).dispatch(
+                any(MimeMessage.class)
         );
     }
 
@@ -90,20 +91,35 @@ class EmailServiceImplTest {
         );
     }
 
+    /**
+     * Tests the sendPaymentSuccessEmail method with an invalid email address.
+     * Verifies that the MessagingException reaches the caller and nothing is queued.
+     */
+    @Test
+    void sendPaymentSuccessEmail_invalidEmail_throwsMessagingException() {
+        when(
+                templateRenderer.render(any(EmailTemplates.class), any())
+        ).thenReturn("Email Body");
+
+        assertThrows(
+                MessagingException.class,
+                () -> emailService.sendPaymentSuccessEmail("<broken", "John Doe", BigDecimal.TEN, "ORDER123")
+        );
+        verifyNoInteractions(mailDispatcher);
+    }
+
     /**
      * Tests the sendOrderConfirmationEmail method with valid input.
-     * Verifies that the email is sent successfully without throwing exceptions.
+     * Verifies that the email is queued for delivery without throwing exceptions.
      *
      * @throws MessagingException if an error occurs during email sending
      */
     @Test
     void sendOrderConfirmationEmail_validInput_sendsEmail() throws MessagingException {
         when(
-                templateEngine.process(anyString(), any(Context.class))
+                templateRenderer.render(any(EmailTemplates.class), any())
         ).thenReturn("Order Confirmation Body");
 
-        doNothing().when(javaMailSender).send((MimeMessage) any());
-
         List<ProductDTO> products = Collections.emptyList();
 
         assertDoesNotThrow(
@@ -111,34 +127,31 @@ class EmailServiceImplTest {
         );
 
         verify(
-                javaMailSender,
+                mailDispatcher,
                 times(1)
-        ).send(
-                (MimeMessage) any()
+        ).dispatch(
+                any(MimeMessage.class)
         );
     }
 
     /**
      * Tests the sendOrderConfirmationEmail method with an empty product list.
-     * Verifies that the email is sent successfully without throwing exceptions.
+     * Verifies that the email is queued for delivery without throwing exceptions.
      *
      * @throws MessagingException if an error occurs during email sending
      */
     @Test
     void sendOrderConfirmationEmail_emptyProductList_sendsEmail() throws MessagingException {
         when(
-                templateEngine.process(anyString(), any(Context.class))
+                templateRenderer.render(any(EmailTemplates.class), any())
         ).thenReturn("Order Confirmation Body");
-        doNothing().when(javaMailSender).send(
-                (MimeMessage) any()
-        );
 
         List<ProductDTO> products = Collections.emptyList();
 
         assertDoesNotThrow(
                 () -> emailService.sendOrderConfirmationEmail("test@example.com", "John Doe", BigDecimal.TEN, "ORDER123", products)
         );
-        verify(javaMailSender, times(1)).send((MimeMessage) any());
+        verify(mailDispatcher, times(1)).dispatch(any(MimeMessage.class));
     }
 
     /**
@@ -0,0 +1,141 @@
+package com.example.ecommerce.notification_service.services.impl;
+
+import com.example.ecommerce.notification_service.models.ProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.example.ecommerce.notification_service.models.EmailTemplates.ORDER_CONFIRMATION;
+import static com.example.ecommerce.notification_service.models.EmailTemplates.PAYMENT_CONFIRMATION;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the EmailTemplateRendererImpl class.
+ * These tests render the real email templates with a template engine configured like the application's.
+ */
+class EmailTemplateRendererImplTest {
+
+    private SpringTemplateEngine templateEngine;
+
+    private EmailTemplateRendererImpl templateRenderer;
+
+    /**
+     * Sets up a template engine that resolves the templates from the classpath with caching enabled.
+     */
+    @BeforeEach
+    void setUp() {
+        var templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        templateRenderer = new EmailTemplateRendererImpl(templateEngine);
+    }
+
+    /**
+     * Tests that warming up stores every email template in the template engine's cache.
+     */
+    @Test
+    void warmUp_parsesAllTemplates() {
+        templateRenderer.warmUp();
+
+        assertEquals(
+                2,
+                templateEngine.getCacheManager().getTemplateCache().keySet().size()
+        );
+    }
+
+    /**
+     * Tests that the payment confirmation template is rendered with the given variables.
+     */
+    @Test
+    void render_paymentConfirmation_rendersVariables() {
+        var html = templateRenderer.render(
+                PAYMENT_CONFIRMATION,
+                context -> {
+                    context.setVariable("customerName", "John Doe");
+                    context.setVariable("amount", new BigDecimal("10.50"));
+                    context.setVariable("orderReference", "ORDER123");
+                }
+        );
+
+        assertTrue(html.contains("John Doe"));
+        assertTrue(html.contains("10.50"));
+        assertTrue(html.contains("ORDER123"));
+    }
+
+    /**
+     * Tests that the order confirmation template renders one row per product.
+     */
+    @Test
+    void render_orderConfirmation_rendersProducts() {
+        var html = templateRenderer.render(
+                ORDER_CONFIRMATION,
+                context -> {
+                    context.setVariable("customerName", "John Doe");
+                    context.setVariable("amount", BigDecimal.TEN);
+                    context.setVariable("orderReference", "ORDER123");
+                    context.setVariable("productDTOs", List.of(
+                            new ProductDTO(1, "Keyboard", "desc", BigDecimal.ONE, 2.0),
+                            new ProductDTO(2, "Mouse", "desc", BigDecimal.ONE, 1.0)
+                    ));
+                }
+        );
+
+        assertTrue(html.contains("Keyboard"));
+        assertTrue(html.contains("Mouse"));
+    }
+
+    /**
+     * Tests that the reused context and buffer do not carry anything over to the next render.
+     */
+    @Test
+    void render_consecutiveCalls_doNotLeakState() {
+        var first = templateRenderer.render(
+                PAYMENT_CONFIRMATION,
+                context -> {
+                    context.setVariable("customerName", "Alice Smith");
+                    context.setVariable("orderReference", "ORDER123");
+                }
+        );
+        var second = templateRenderer.render(
+                PAYMENT_CONFIRMATION,
+                context -> context.setVariable("customerName", "Jane Roe")
+        );
+
+        assertTrue(first.contains("ORDER123"));
+        assertFalse(second.contains("Alice Smith"));
+        assertFalse(second.contains("ORDER123"));
+        assertTrue(second.contains("Jane Roe"));
+    }
+
+    /**
+     * Tests that the context is cleared when rendering fails, so the failure does not affect later emails.
+     */
+    @Test
+    void render_variablesThrow_resetsState() {
+        assertThrows(
+                IllegalStateException.class,
+                () -> templateRenderer.render(
+                        PAYMENT_CONFIRMATION,
+                        context -> {
+                            context.setVariable("orderReference", "ORDER123");
+                            throw new IllegalStateException("boom");
+                        }
+                )
+        );
+
+        var html = templateRenderer.render(PAYMENT_CONFIRMATION, context -> { });
+
+        assertFalse(html.contains("ORDER123"));
+    }
+}
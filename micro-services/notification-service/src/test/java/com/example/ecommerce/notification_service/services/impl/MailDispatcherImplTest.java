@@ -0,0 +1,272 @@
+package com.example.ecommerce.notification_service.services.impl;
+
+import com.example.ecommerce.notification_service.services.EmailRetryService;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the MailDispatcherImpl class.
+ * These tests send through a real SMTP client against an in-memory GreenMail server.
+ */
+class MailDispatcherImplTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final EmailRetryService emailRetryService = mock(EmailRetryService.class);
+
+    private MailDispatcherImpl mailDispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (mailDispatcher != null) {
+            mailDispatcher.stop();
+        }
+    }
+
+    /**
+     * Creates a dispatcher sending with the given JavaMailSender and settings.
+     */
+    private MailDispatcherImpl dispatcher(
+            JavaMailSenderImpl mailSender,
+            int queueCapacity,
+            int parallelism,
+            int batchSize,
+            long submitTimeoutMs
+    ) {
+        var dispatcher = new MailDispatcherImpl(mailSender, emailRetryService);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(dispatcher, "parallelism", parallelism);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", batchSize);
+        ReflectionTestUtils.setField(dispatcher, "submitTimeoutMs", submitTimeoutMs);
+        ReflectionTestUtils.setField(dispatcher, "shutdownTimeoutMs", 10_000L);
+        return dispatcher;
+    }
+
+    /**
+     * Creates a JavaMailSender pointing to the GreenMail SMTP server.
+     */
+    private static JavaMailSenderImpl greenMailSender() {
+        var mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(greenMail.getSmtp().getBindTo());
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        return mailSender;
+    }
+
+    /**
+     * Creates a JavaMailSender whose connections are the given transport.
+     */
+    private static JavaMailSenderImpl mockSender(Transport transport) throws MessagingException {
+        var session = mock(Session.class);
+        when(session.getTransport(JavaMailSenderImpl.DEFAULT_PROTOCOL)).thenReturn(transport);
+        var mailSender = spy(new JavaMailSenderImpl());
+        doReturn(session).when(mailSender).getSession();
+        return mailSender;
+    }
+
+    /**
+     * Creates a simple email addressed to the given recipient.
+     */
+    private static MimeMessage message(JavaMailSenderImpl mailSender, String to) throws MessagingException {
+        var mimeMessage = mailSender.createMimeMessage();
+        var messageHelper = new MimeMessageHelper(mimeMessage);
+        messageHelper.setFrom("moodxmail@gmail.com");
+        messageHelper.setTo(to);
+        messageHelper.setSubject("Test");
+        messageHelper.setText("Body");
+        return mimeMessage;
+    }
+
+    /**
+     * Tests that every dispatched email is delivered when several workers send in batches.
+     *
+     * @throws MessagingException if an error occurs while creating the emails
+     */
+    @Test
+    void dispatch_manyEmails_allDelivered() throws MessagingException {
+        var mailSender = greenMailSender();
+        mailDispatcher = dispatcher(mailSender, 100, 2, 5, 1_000);
+        mailDispatcher.start();
+
+        for (int i = 0; i < 40; i++) {
+            mailDispatcher.dispatch(message(mailSender, "user" + i + "@example.com"));
+        }
+
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 40));
+        assertEquals(40, greenMail.getReceivedMessages().length);
+    }
+
+    /**
+     * Tests that stopping the dispatcher sends the emails still in the queue.
+     *
+     * @throws MessagingException if an error occurs while creating the emails
+     */
+    @Test
+    void stop_pendingEmails_drainsQueue() throws MessagingException {
+        var mailSender = greenMailSender();
+        mailDispatcher = dispatcher(mailSender, 100, 1, 10, 1_000);
+        mailDispatcher.start();
+
+        for (int i = 0; i < 25; i++) {
+            mailDispatcher.dispatch(message(mailSender, "user" + i + "@example.com"));
+        }
+        mailDispatcher.stop();
+
+        assertFalse(mailDispatcher.isRunning());
+        assertEquals(25, greenMail.getReceivedMessages().length);
+    }
+
+    /**
+     * Tests that a full queue blocks the caller and schedules the email for a retry once the submit timeout elapses.
+     *
+     * @throws Exception if an error occurs while creating the emails or waiting for the worker
+     */
+    @Test
+    void dispatch_queueFull_schedulesRetryAfterTimeout() throws Exception {
+        var sending = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var transport = mock(Transport.class);
+        when(transport.isConnected()).thenReturn(true);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(transport).sendMessage(any(), any());
+        mailDispatcher = dispatcher(mockSender(transport), 1, 1, 1, 100);
+        mailDispatcher.start();
+
+        // The worker takes the first email and blocks on it, the second one fills the queue
+        var mailSender = new JavaMailSenderImpl();
+        mailDispatcher.dispatch(message(mailSender, "first@example.com"));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        mailDispatcher.dispatch(message(mailSender, "second@example.com"));
+
+        var third = message(mailSender, "third@example.com");
+        var start = System.nanoTime();
+        mailDispatcher.dispatch(third);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        verify(emailRetryService, times(1)).scheduleRetry(third);
+
+        release.countDown();
+    }
+
+    /**
+     * Tests that emails the SMTP server did not accept are scheduled for a retry, and only those.
+     *
+     * @throws MessagingException if an error occurs while creating the emails
+     */
+    @Test
+    void send_failedEmails_schedulesRetry() throws MessagingException {
+        var failing = message(new JavaMailSenderImpl(), "rejected@example.com");
+        var transport = mock(Transport.class);
+        when(transport.isConnected()).thenReturn(true);
+        doThrow(new SendFailedException("Recipient rejected")).when(transport).sendMessage(eq(failing), any());
+        mailDispatcher = dispatcher(mockSender(transport), 10, 1, 10, 100);
+        mailDispatcher.start();
+
+        mailDispatcher.dispatch(failing);
+        mailDispatcher.dispatch(message(new JavaMailSenderImpl(), "user@example.com"));
+
+        verify(emailRetryService, timeout(5_000).times(1)).scheduleRetry(failing);
+        mailDispatcher.stop();
+        verify(emailRetryService, times(1)).scheduleRetry(any());
+        verify(transport, times(2)).sendMessage(any(), any(Address[].class));
+    }
+
+    /**
+     * Tests that a worker keeps its SMTP connection open across batches and closes it on stop.
+     *
+     * @throws MessagingException if an error occurs while creating the emails
+     */
+    @Test
+    void send_severalBatches_reusesConnection() throws MessagingException {
+        var transport = mock(Transport.class);
+        when(transport.isConnected()).thenReturn(true);
+        mailDispatcher = dispatcher(mockSender(transport), 10, 1, 1, 100);
+        mailDispatcher.start();
+
+        for (int i = 0; i < 3; i++) {
+            mailDispatcher.dispatch(message(new JavaMailSenderImpl(), "user" + i + "@example.com"));
+            verify(transport, timeout(5_000).times(i + 1)).sendMessage(any(), any());
+        }
+        mailDispatcher.stop();
+
+        verify(transport, times(1)).connect(any(), anyInt(), any(), any());
+        verify(transport, times(1)).close();
+    }
+
+    /**
+     * Tests that a worker opens a new SMTP connection when the server closed the previous one while idle.
+     *
+     * @throws MessagingException if an error occurs while creating the emails
+     */
+    @Test
+    void send_idleConnectionClosed_reconnects() throws MessagingException {
+        var transport = mock(Transport.class);
+        when(transport.isConnected()).thenReturn(true);
+        mailDispatcher = dispatcher(mockSender(transport), 10, 1, 1, 100);
+        mailDispatcher.start();
+
+        mailDispatcher.dispatch(message(new JavaMailSenderImpl(), "first@example.com"));
+        verify(transport, timeout(5_000).times(1)).sendMessage(any(), any());
+        when(transport.isConnected()).thenReturn(false);
+        mailDispatcher.dispatch(message(new JavaMailSenderImpl(), "second@example.com"));
+        verify(transport, timeout(5_000).times(2)).sendMessage(any(), any());
+
+        verify(transport, times(2)).connect(any(), anyInt(), any(), any());
+        verifyNoInteractions(emailRetryService);
+    }
+
+    /**
+     * Tests that the emails of a batch are scheduled for a retry when the mail server cannot be reached.
+     *
+     * @throws MessagingException if an error occurs while creating the emails
+     */
+    @Test
+    void send_connectionFailed_schedulesRetry() throws MessagingException {
+        var transport = mock(Transport.class);
+        doThrow(new MessagingException("Connection refused")).when(transport).connect(any(), anyInt(), any(), any());
+        mailDispatcher = dispatcher(mockSender(transport), 10, 1, 10, 100);
+        mailDispatcher.start();
+
+        var mimeMessage = message(new JavaMailSenderImpl(), "user@example.com");
+        mailDispatcher.dispatch(mimeMessage);
+
+        verify(emailRetryService, timeout(5_000).times(1)).scheduleRetry(mimeMessage);
+        verify(transport, never()).sendMessage(any(), any());
+    }
+
+    /**
+     * Tests that dispatching before the dispatcher is started throws an IllegalStateException.
+     *
+     * @throws MessagingException if an error occurs while creating the email
+     */
+    @Test
+    void dispatch_notRunning_throwsException() throws MessagingException {
+        var mailSender = greenMailSender();
+        var notStarted = dispatcher(mailSender, 10, 1, 10, 100);
+        var mimeMessage = message(mailSender, "user@example.com");
+
+        assertThrows(IllegalStateException.class, () -> notStarted.dispatch(mimeMessage));
+    }
+}
@@ -4,24 +4,44 @@ import com.example.ecommerce.notification_service.entities.Notification;
 import com.example.ecommerce.notification_service.models.*;
 import com.example.ecommerce.notification_service.repositories.NotificationRepository;
 import com.example.ecommerce.notification_service.services.EmailService;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
 import jakarta.mail.MessagingException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.bson.BsonDocument;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for the NotificationsConsumerServiceImpl class.
- * These tests verify the behavior of notification consumption methods using mocked dependencies.
+ * These tests verify the behavior of the batch notification consumption methods using mocked dependencies.
  */
 class NotificationsConsumerServiceImplTest {
 
@@ -31,6 +51,9 @@ class NotificationsConsumerServiceImplTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private DeadLetterPublishingRecoverer deadLetterRecoverer;
+
     @InjectMocks
     private NotificationsConsumerServiceImpl notificationsConsumerService;
 
@@ -44,13 +67,88 @@ class NotificationsConsumerServiceImplTest {
     }
 
     /**
-     * Tests the consumption of payment success notifications with valid input.
-     * Verifies that the notification is saved and an email is sent.
+     * Wraps payloads into consumer records of the given topic.
+     *
+     * @param topic    The topic of the records.
+     * @param payloads The record values.
+     * @return The consumer records, with consecutive offsets.
+     */
+    @SafeVarargs
+    private static <T> List<ConsumerRecord<String, T>> records(String topic, T... payloads) {
+        var records = new ArrayList<ConsumerRecord<String, T>>();
+        for (int i = 0; i < payloads.length; i++) {
+            records.add(new ConsumerRecord<>(topic, 0, i, null, payloads[i]));
+        }
+        return records;
+    }
+
+    /**
+     * Tests the consumption of a batch of payment success notifications with valid input.
+     * Verifies that all notifications are stored with one bulk upsert and an email is sent for each.
      *
      * @throws MessagingException if an error occurs during email sending
      */
     @Test
-    void consumePaymentSuccessNotifications_validInput_savesNotificationAndSendsEmail() throws MessagingException {
+    @SuppressWarnings("unchecked")
+    void consumePaymentSuccessNotifications_validBatch_upsertsNotificationsAndSendsEmails() throws MessagingException {
+        var dto1 = new PaymentConfirmationDTO(
+                "ORDER123",
+                BigDecimal.TEN,
+                PaymentMethod.VISA,
+                "John",
+                "Doe",
+                "test@example.com"
+        );
+        var dto2 = new PaymentConfirmationDTO(
+                "ORDER456",
+                BigDecimal.ONE,
+                PaymentMethod.PAYPAL,
+                "Jane",
+                "Roe",
+                "jane@example.com"
+        );
+
+        notificationsConsumerService.consumePaymentSuccessNotifications(records("payment-topic", dto1, dto2));
+
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository, times(1)).upsertAll(captor.capture());
+        verify(notificationRepository, never()).save(any(Notification.class));
+        assertEquals(2, captor.getValue().size());
+        assertEquals(NotificationType.PAYMENT_CONFIRMATION, captor.getValue().get(0).getNotificationType());
+        assertEquals(dto2, captor.getValue().get(1).getPaymentConfirmationDTO());
+        assertEquals("payment-topic-0-0", captor.getValue().get(0).getId());
+        assertEquals("payment-topic-0-1", captor.getValue().get(1).getId());
+
+        verify(emailService, times(1)).sendPaymentSuccessEmail(
+                eq("test@example.com"), eq("John Doe"), eq(BigDecimal.TEN), eq("ORDER123")
+        );
+        verify(emailService, times(1)).sendPaymentSuccessEmail(
+                eq("jane@example.com"), eq("Jane Roe"), eq(BigDecimal.ONE), eq("ORDER456")
+        );
+    }
+
+    /**
+     * Tests the consumption of a batch that only contains records without payload.
+     * Verifies that nothing is stored and no email is sent.
+     */
+    @Test
+    void consumePaymentSuccessNotifications_nullPayloads_areSkipped() {
+        notificationsConsumerService.consumePaymentSuccessNotifications(
+                records("payment-topic", (PaymentConfirmationDTO) null)
+        );
+
+        verifyNoInteractions(notificationRepository, emailService, deadLetterRecoverer);
+    }
+
+    /**
+     * Tests the consumption of a batch containing a record that could not be deserialized.
+     * Verifies that the record is dead-lettered and the rest of the batch is still processed.
+     *
+     * @throws MessagingException if an error occurs during email sending
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void consumePaymentSuccessNotifications_unreadableRecord_isDeadLettered() throws MessagingException {
         var dto = new PaymentConfirmationDTO(
                 "ORDER123",
                 BigDecimal.TEN,
@@ -59,36 +157,117 @@ class NotificationsConsumerServiceImplTest {
                 "Doe",
                 "test@example.com"
         );
+        var headers = new RecordHeaders();
+        SerializationUtils.deserializationException(
+                headers,
+                new byte[]{1, 2, 3},
+                new DeserializationException("Unknown schema", new byte[]{1, 2, 3}, false, new IllegalStateException()),
+                false
+        );
+        var unreadable = new ConsumerRecord<String, PaymentConfirmationDTO>(
+                "payment-topic", 0, 0, 0L, TimestampType.CREATE_TIME, 0, 3, null, null, headers, Optional.empty()
+        );
+        var records = new ArrayList<ConsumerRecord<String, PaymentConfirmationDTO>>();
+        records.add(unreadable);
+        records.addAll(records("payment-topic", dto));
+
+        notificationsConsumerService.consumePaymentSuccessNotifications(records);
+
+        verify(deadLetterRecoverer, times(1)).accept(eq(unreadable), any(DeserializationException.class));
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository, times(1)).upsertAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        verify(emailService, times(1)).sendPaymentSuccessEmail(
+                eq("test@example.com"), eq("John Doe"), eq(BigDecimal.TEN), eq("ORDER123")
+        );
+    }
+
+    /**
+     * Tests the consumption of a batch in which one notification cannot be stored.
+     * Verifies that the batch fails at that record, and that the emails of the records stored before it are still sent.
+     *
+     * @throws MessagingException if an error occurs during email sending
+     */
+    @Test
+    void consumePaymentSuccessNotifications_upsertFails_failsBatchAtFailingRecord() throws MessagingException {
+        var stored = new PaymentConfirmationDTO(
+                "ORDER123",
+                BigDecimal.TEN,
+                PaymentMethod.VISA,
+                "John",
+                "Doe",
+                "test@example.com"
+        );
+        var notStored = new PaymentConfirmationDTO(
+                "ORDER456",
+                BigDecimal.ONE,
+                PaymentMethod.PAYPAL,
+                "Jane",
+                "Roe",
+                "jane@example.com"
+        );
+        var records = records("payment-topic", stored, notStored);
+        doThrow(new BulkOperationException("Bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(),
+                List.of(new BulkWriteError(10334, "Document too large", new BsonDocument(), 1)),
+                null,
+                new ServerAddress(),
+                Set.of()
+        ))).when(notificationRepository).upsertAll(anyList());
 
-        notificationsConsumerService.consumePaymentSuccessNotifications(dto);
+        var exception = assertThrows(
+                BatchListenerFailedException.class,
+                () -> notificationsConsumerService.consumePaymentSuccessNotifications(records)
+        );
 
-        verify(notificationRepository, times(1)).save(any(Notification.class));
+        assertSame(records.get(1), exception.getRecord());
         verify(emailService, times(1)).sendPaymentSuccessEmail(
                 eq("test@example.com"), eq("John Doe"), eq(BigDecimal.TEN), eq("ORDER123")
         );
+        verify(emailService, never()).sendPaymentSuccessEmail(eq("jane@example.com"), any(), any(), any());
     }
 
     /**
-     * Tests the consumption of payment success notifications with a null DTO.
-     * Verifies that a NullPointerException is thrown.
+     * Tests the consumption of a batch whose bulk upsert fails without naming a notification, e.g. on a write concern error.
+     * Verifies that the whole batch fails and no email is sent.
+     *
+     * @throws MessagingException if an error occurs during email sending
      */
     @Test
-    void consumePaymentSuccessNotifications_nullDTO_throwsException() {
+    void consumePaymentSuccessNotifications_writeConcernError_failsWholeBatch() throws MessagingException {
+        var dto = new PaymentConfirmationDTO(
+                "ORDER123",
+                BigDecimal.TEN,
+                PaymentMethod.VISA,
+                "John",
+                "Doe",
+                "test@example.com"
+        );
+        doThrow(new BulkOperationException("Write concern failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(),
+                List.of(),
+                null,
+                new ServerAddress(),
+                Set.of()
+        ))).when(notificationRepository).upsertAll(anyList());
+
         assertThrows(
-                NullPointerException.class,
-                () -> notificationsConsumerService.consumePaymentSuccessNotifications(null)
+                BulkOperationException.class,
+                () -> notificationsConsumerService.consumePaymentSuccessNotifications(records("payment-topic", dto))
         );
+
+        verify(emailService, never()).sendPaymentSuccessEmail(any(), any(), any(), any());
     }
 
     /**
      * Tests the consumption of payment success notifications when the email service throws an exception.
-     * Verifies that the exception propagates.
+     * Verifies that the batch is stored once and the remaining emails are still sent.
      *
      * @throws MessagingException if an error occurs during email sending
      */
     @Test
-    void consumePaymentSuccessNotifications_emailServiceThrows_exceptionPropagates() throws MessagingException {
-        var dto = new PaymentConfirmationDTO(
+    void consumePaymentSuccessNotifications_emailServiceThrows_continuesWithBatch() throws MessagingException {
+        var failing = new PaymentConfirmationDTO(
                 "45435sdf",
                 BigDecimal.TEN,
                 PaymentMethod.VISA,
@@ -96,27 +275,36 @@ class NotificationsConsumerServiceImplTest {
                 "ORDER123",
                 "test@testd.ds"
         );
+        var succeeding = new PaymentConfirmationDTO(
+                "ORDER456",
+                BigDecimal.ONE,
+                PaymentMethod.PAYPAL,
+                "Jane",
+                "Roe",
+                "jane@example.com"
+        );
 
         doThrow(new MessagingException("fail")).when(emailService).sendPaymentSuccessEmail(
-                any(), any(), any(), any()
+                eq("test@testd.ds"), any(), any(), any()
         );
 
-        assertThrows(
-                MessagingException.class,
-                () -> notificationsConsumerService.consumePaymentSuccessNotifications(dto)
-        );
+        notificationsConsumerService.consumePaymentSuccessNotifications(records("payment-topic", failing, succeeding));
 
-        verify(notificationRepository, times(1)).save(any(Notification.class));
+        verify(notificationRepository, times(1)).upsertAll(anyList());
+        verify(emailService, times(1)).sendPaymentSuccessEmail(
+                eq("jane@example.com"), eq("Jane Roe"), eq(BigDecimal.ONE), eq("ORDER456")
+        );
     }
 
     /**
-     * Tests the consumption of order confirmation notifications with valid input.
-     * Verifies that the notification is saved and an email is sent.
+     * Tests the consumption of a batch of order confirmation notifications with valid input.
+     * Verifies that all notifications are stored with one bulk upsert and an email is sent for each.
      *
      * @throws MessagingException if an error occurs during email sending
      */
     @Test
-    void consumeOrderConfirmationNotifications_validInput_savesNotificationAndSendsEmail() throws MessagingException {
+    @SuppressWarnings("unchecked")
+    void consumeOrderConfirmationNotifications_validBatch_upsertsNotificationsAndSendsEmails() throws MessagingException {
         var customer = new CustomerDTO("54", "John", "Doe", "test@example.com");
         List<ProductDTO> products = Collections.emptyList();
         var dto = new OrderConfirmationDTO(
@@ -127,34 +315,40 @@ class NotificationsConsumerServiceImplTest {
                 products
         );
 
-        notificationsConsumerService.consumeOrderConfirmationNotifications(dto);
+        notificationsConsumerService.consumeOrderConfirmationNotifications(records("order-topic", dto));
+
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository, times(1)).upsertAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(NotificationType.ORDER_CONFIRMATION, captor.getValue().get(0).getNotificationType());
+        assertEquals(dto, captor.getValue().get(0).getOrderConfirmationDTO());
 
-        verify(notificationRepository, times(1)).save(any(Notification.class));
         verify(emailService, times(1)).sendOrderConfirmationEmail(
                 eq("test@example.com"), eq("John Doe"), eq(BigDecimal.TEN), eq("ORDER123"), eq(products)
         );
     }
 
     /**
-     * Tests the consumption of order confirmation notifications with a null DTO.
-     * Verifies that a NullPointerException is thrown.
+     * Tests the consumption of a batch that only contains records without payload.
+     * Verifies that nothing is stored and no email is sent.
      */
     @Test
-    void consumeOrderConfirmationNotifications_nullDTO_throwsException() {
-        assertThrows(
-                NullPointerException.class,
-                () -> notificationsConsumerService.consumeOrderConfirmationNotifications(null)
+    void consumeOrderConfirmationNotifications_nullPayloads_areSkipped() {
+        notificationsConsumerService.consumeOrderConfirmationNotifications(
+                records("order-topic", (OrderConfirmationDTO) null)
         );
+
+        verifyNoInteractions(notificationRepository, emailService, deadLetterRecoverer);
     }
 
     /**
      * Tests the consumption of order confirmation notifications when the email service throws an exception.
-     * Verifies that the exception propagates.
+     * Verifies that the exception does not fail the batch after it was stored.
      *
      * @throws MessagingException if an error occurs during email sending
      */
     @Test
-    void consumeOrderConfirmationNotifications_emailServiceThrows_exceptionPropagates() throws MessagingException {
+    void consumeOrderConfirmationNotifications_emailServiceThrows_batchIsNotFailed() throws MessagingException {
         var customer = new CustomerDTO("98", "John", "Doe", "test@example.com");
         List<ProductDTO> products = Collections.emptyList();
         var dto = new OrderConfirmationDTO(
@@ -169,28 +363,32 @@ class NotificationsConsumerServiceImplTest {
                 any(), any(), any(), any(), any()
         );
 
-        assertThrows(
-                MessagingException.class,
-                () -> notificationsConsumerService.consumeOrderConfirmationNotifications(dto)
-        );
+        notificationsConsumerService.consumeOrderConfirmationNotifications(records("order-topic", dto));
 
-        verify(notificationRepository, times(1)).save(any(Notification.class));
+        verify(notificationRepository, times(1)).upsertAll(anyList());
     }
 
     /**
      * Tests the consumption of order confirmation notifications with a missing customer.
-     * Verifies that a NullPointerException is thrown.
+     * Verifies that the notification is stored, no email is sent and the following records are still processed.
+     *
+     * @throws MessagingException if an error occurs during email sending
      */
     @Test
-    void consumeOrderConfirmationNotifications_missingCustomer_throwsException() {
-        var dto = new OrderConfirmationDTO(
+    void consumeOrderConfirmationNotifications_missingCustomer_skipsEmailOnly() throws MessagingException {
+        var withoutCustomer = new OrderConfirmationDTO(
                 "654", BigDecimal.TEN, PaymentMethod.VISA, null, Collections.emptyList()
         );
+        var withCustomer = new OrderConfirmationDTO(
+                "655", BigDecimal.TEN, PaymentMethod.VISA, new CustomerDTO("1", "John", "Doe", "test@example.com"), Collections.emptyList()
+        );
 
-        assertThrows(
-                NullPointerException.class,
-                () -> notificationsConsumerService.consumeOrderConfirmationNotifications(dto)
+        notificationsConsumerService.consumeOrderConfirmationNotifications(records("order-topic", withoutCustomer, withCustomer));
+
+        verify(notificationRepository, times(1)).upsertAll(anyList());
+        verify(emailService, times(1)).sendOrderConfirmationEmail(
+                eq("test@example.com"), eq("John Doe"), eq(BigDecimal.TEN), eq("655"), any()
         );
     }
 
-}
\ No newline at end of file
+}
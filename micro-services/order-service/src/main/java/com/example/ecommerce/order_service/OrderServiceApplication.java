@@ -2,15 +2,19 @@ package com.example.ecommerce.order_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main class for the Order Service application.
  * This class serves as the entry point for the Spring Boot application.
  */
 @EnableFeignClients // Enables Feign clients for declarative REST client functionality.
+@EnableCaching // Enables the in-process customer cache.
 @EnableJpaAuditing // Enables JPA auditing features such as @CreatedDate and @LastModifiedDate.
+@EnableScheduling // Enables scheduled tasks such as the outbox relay.
 @SpringBootApplication // Marks this class as a Spring Boot application.
 public class OrderServiceApplication {
 
@@ -0,0 +1,45 @@
+package com.example.ecommerce.order_service.cache;
+
+import com.example.ecommerce.order_service.feign_client.CustomerFeignClient;
+import com.example.ecommerce.order_service.models.CustomerResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Near-cache of the customers looked up by the order flow, backed by the bounded Caffeine cache "customers".
+ * Entries expire after a fixed time and are evicted early when the customer service announces a change.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerCache {
+
+    public static final String CUSTOMERS_CACHE = "customers";
+
+    private final CustomerFeignClient customerFeignClient;
+
+    /**
+     * Retrieves a customer, calling the customer service on a cache miss.
+     * Missing customers are not cached, so a customer created later is found immediately.
+     *
+     * @param id The ID of the customer.
+     * @return The customer, or an empty Optional if the customer does not exist.
+     */
+    @Cacheable(cacheNames = CUSTOMERS_CACHE, unless = "#result == null")
+    public Optional<CustomerResponseDTO> findById(String id) {
+        return customerFeignClient.findCustomerById(id);
+    }
+
+    /**
+     * Invalidates the cached copy of a customer.
+     *
+     * @param id The ID of the customer that was changed or deleted.
+     */
+    @CacheEvict(cacheNames = CUSTOMERS_CACHE, key = "#id")
+    public void evict(String id) {
+        // Eviction is performed by the cache annotation.
+    }
+}
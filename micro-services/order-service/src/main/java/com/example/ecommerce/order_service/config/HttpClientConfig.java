@@ -0,0 +1,106 @@
+package com.example.ecommerce.order_service.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the HTTP client shared by all outgoing calls of the order service.
+ * The RestTemplate and the Feign clients send their requests through the same pooled Apache HttpClient,
+ * so connections to the other services are kept alive and reused instead of being opened per request.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Creates the connection pool shared by all outgoing calls.
+     * The pool only blocks on locks (no monitors), so callers running on virtual threads are not pinned while waiting
+     * for a connection.
+     *
+     * @param maxConnections         The maximum number of open connections in total.
+     * @param maxConnectionsPerRoute The maximum number of open connections to one host.
+     * @param connectTimeoutMs       The maximum time to establish a connection.
+     * @param readTimeoutMs          The maximum time to wait for data on an established connection.
+     * @param timeToLiveMs           How long a connection is reused before it is closed and reopened.
+     * @param validateAfterIdleMs    How long a connection may be idle before it is checked for staleness on lease.
+     * @return A PoolingHttpClientConnectionManager.
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(
+            @Value("${application.http-client.max-connections:200}") int maxConnections,
+            @Value("${application.http-client.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${application.http-client.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${application.http-client.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${application.http-client.time-to-live-ms:300000}") long timeToLiveMs,
+            @Value("${application.http-client.validate-after-idle-ms:2000}") long validateAfterIdleMs
+    ) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                // Reuse the most recently used connection first, so surplus connections go idle and get evicted.
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(
+                        ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                                .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterIdleMs))
+                                .build()
+                )
+                .build();
+    }
+
+    /**
+     * Creates the HTTP client used by the RestTemplate and, through Spring Cloud OpenFeign, by all Feign clients.
+     *
+     * @param connectionManager          The shared connection pool.
+     * @param readTimeoutMs              The maximum time to wait for a response.
+     * @param connectionRequestTimeoutMs The maximum time to wait for a free connection when the pool is exhausted.
+     * @param maxIdleMs                  How long an idle connection is kept before the background evictor closes it.
+     * @return A CloseableHttpClient backed by the shared pool; closed with the application context.
+     */
+    @Bean
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${application.http-client.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${application.http-client.connection-request-timeout-ms:2000}") long connectionRequestTimeoutMs,
+            @Value("${application.http-client.max-idle-ms:30000}") long maxIdleMs
+    ) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(
+                        RequestConfig.custom()
+                                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                                .build()
+                )
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(maxIdleMs))
+                .build();
+    }
+
+    /**
+     * Publishes the pool usage (leased, available and pending connections) as httpcomponents.httpclient.pool.* metrics.
+     * Pending requests mean the pool is too small for the load; a growing number of connections means they are not reused.
+     *
+     * @param connectionManager The shared connection pool.
+     * @return A MeterBinder registered with the application's MeterRegistry.
+     */
+    @Bean
+    public MeterBinder httpClientConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "order-service");
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ecommerce.order_service.config;
+
+import com.example.ecommerce.order_service.entities.OrderLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Raises the id sequence of the order lines above the ids already stored.
+ * Order lines used IDENTITY ids before, and ddl-auto creates the table emulating order_line_seq with next_val 1,
+ * so on an existing database the first ids taken from the sequence would collide with stored order lines.
+ * Runs once Hibernate has updated the schema and before the web server and the Kafka listeners start.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate; // JdbcTemplate for updating the sequence table
+
+    @Override
+    public void afterPropertiesSet() {
+        seed("order_line_seq", "order_line", OrderLine.ID_ALLOCATION_SIZE);
+    }
+
+    /**
+     * Raises the next value of a table-emulated sequence, never lowering it.
+     * The pooled optimizer hands out the block ending at the value it reads, so the value is kept at least one
+     * allocation above the largest stored id.
+     *
+     * @param sequenceTable  The table emulating the sequence.
+     * @param entityTable    The table whose ids come from the sequence.
+     * @param allocationSize The allocation size of the sequence.
+     */
+    void seed(String sequenceTable, String entityTable, int allocationSize) {
+        jdbcTemplate.update(
+                "UPDATE " + sequenceTable + " SET next_val = GREATEST(next_val, "
+                        + "(SELECT COALESCE(MAX(id), 0) FROM " + entityTable + ") + ?)",
+                allocationSize
+        );
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.ecommerce.order_service.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
@@ -8,6 +10,8 @@ import org.springframework.kafka.config.TopicBuilder;
 /**
  * Configuration class for defining Kafka topics related to the order service.
  * This class provides beans for creating and configuring Kafka topics.
+ * The partition and replica counts default to the shared `application.kafka.topics` settings and can be overridden
+ * per topic; with more than one replica, writes acknowledged with acks=all must reach all but one of them.
  */
 @Configuration
 public class KafkaOrderTopicConfig {
@@ -15,13 +19,44 @@ public class KafkaOrderTopicConfig {
     /**
      * Creates a Kafka topic named "order-topic".
      * This topic is used for handling order-related events in the system.
+     * Messages are keyed by customer ID, so the partition count bounds the consumer threads of the notification service.
      *
+     * @param partitions The number of partitions of the topic.
+     * @param replicas   The number of replicas of each partition.
      * @return A NewTopic object representing the "order-topic".
      */
     @Bean
-    public NewTopic orderTopic() {
+    public NewTopic orderTopic(
+            @Value("${application.kafka.topics.order-topic.partitions:${application.kafka.topics.partitions:6}}") int partitions,
+            @Value("${application.kafka.topics.order-topic.replicas:${application.kafka.topics.replicas:1}}") int replicas
+    ) {
         return TopicBuilder
                 .name("order-topic") // Specifies the name of the Kafka topic.
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(Math.max(1, replicas - 1)))
                 .build(); // Builds and returns the topic configuration.
     }
+
+    /**
+     * Creates a Kafka topic named "order-saga-topic".
+     * This topic carries the steps of the sagas completing asynchronously accepted orders.
+     * Messages are keyed by order ID, so the steps of one saga are executed in order.
+     *
+     * @param partitions The number of partitions of the topic.
+     * @param replicas   The number of replicas of each partition.
+     * @return A NewTopic object representing the "order-saga-topic".
+     */
+    @Bean
+    public NewTopic orderSagaTopic(
+            @Value("${application.kafka.topics.order-saga-topic.partitions:${application.kafka.topics.partitions:6}}") int partitions,
+            @Value("${application.kafka.topics.order-saga-topic.replicas:${application.kafka.topics.replicas:1}}") int replicas
+    ) {
+        return TopicBuilder
+                .name("order-saga-topic")
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(Math.max(1, replicas - 1)))
+                .build();
+    }
 }
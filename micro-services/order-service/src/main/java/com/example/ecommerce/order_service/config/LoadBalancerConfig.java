@@ -0,0 +1,50 @@
+package com.example.ecommerce.order_service.config;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Configuration class for the client-side load balancing of the calls to the other services.
+ * The order service resolves its peers through Eureka and calls a selected instance directly,
+ * instead of sending every call through the gateway service.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.PeerInstanceListSupplierConfiguration.class)
+public class LoadBalancerConfig {
+
+    /**
+     * Instance selection applied to every peer service.
+     * Not a @Configuration on purpose: it is only instantiated in the per-service load balancer contexts.
+     */
+    static class PeerInstanceListSupplierConfiguration {
+
+        /**
+         * Creates the list of instances the load balancer chooses from.
+         * Instances registered in Eureka are health-checked periodically, so an instance that stops answering is
+         * ejected before its Eureka lease expires; the healthy instances in the caller's zone are preferred,
+         * and the other zones are only used if none is left.
+         *
+         * @param context    The load balancer context of the peer service.
+         * @param httpClient The shared pooled HTTP client, used for the health checks.
+         * @return A ServiceInstanceListSupplier.
+         */
+        @Bean
+        public ServiceInstanceListSupplier serviceInstanceListSupplier(
+                ConfigurableApplicationContext context,
+                CloseableHttpClient httpClient
+        ) {
+            return ServiceInstanceListSupplier.builder()
+                    .withBlockingDiscoveryClient()
+                    // Not load balanced itself: health checks go to the instance addresses.
+                    .withBlockingHealthChecks(new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)))
+                    .withZonePreference()
+                    .build(context);
+        }
+    }
+}
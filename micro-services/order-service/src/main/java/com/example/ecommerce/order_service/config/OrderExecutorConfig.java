@@ -0,0 +1,32 @@
+package com.example.ecommerce.order_service.config;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration class for the executors used by the order service.
+ * This class provides the executor that runs independent remote calls of the order flow concurrently.
+ */
+@Configuration
+public class OrderExecutorConfig {
+
+    /**
+     * Creates an executor that starts a new virtual thread per task.
+     * Remote calls block on I/O, so virtual threads keep the fan-out cheap without a sized pool.
+     * The executor is wrapped to propagate the caller's context (e.g. tracing) to the spawned tasks.
+     *
+     * @return An ExecutorService backed by virtual threads.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService orderTaskExecutor() {
+        return ContextExecutorService.wrap(
+                Executors.newVirtualThreadPerTaskExecutor(),
+                ContextSnapshotFactory.builder().build()::captureAll
+        );
+    }
+}
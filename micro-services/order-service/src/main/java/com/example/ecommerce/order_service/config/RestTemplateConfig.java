@@ -1,7 +1,10 @@
 package com.example.ecommerce.order_service.config;
 
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -13,12 +16,16 @@ public class RestTemplateConfig {
 
     /**
      * Creates and configures a RestTemplate bean.
-     * RestTemplate is used for client-side HTTP communication.
+     * RestTemplate is used for client-side HTTP communication; its requests go through the shared pooled HTTP client,
+     * which also applies the connect and read timeouts.
+     * It is load balanced, so URLs name a service registered in Eureka (e.g. http://product-service) instead of a host.
      *
+     * @param httpClient The HTTP client shared with the Feign clients.
      * @return A RestTemplate instance.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @LoadBalanced
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,22 @@
 package com.example.ecommerce.order_service.controllers;
 
+import com.example.ecommerce.order_service.models.CursorPageResponseDTO;
 import com.example.ecommerce.order_service.models.OrderRequestDTO;
 import com.example.ecommerce.order_service.models.OrderResponseDTO;
+import com.example.ecommerce.order_service.models.OrderStatusResponseDTO;
+import com.example.ecommerce.order_service.services.OrderIdempotencyService;
 import com.example.ecommerce.order_service.services.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -21,17 +30,47 @@ public class OrderController {
 
     private final OrderService orderService; // Service layer for handling order-related operations
 
+    private final OrderIdempotencyService orderIdempotencyService; // Deduplicates retried order creation requests
+
+    private final ObjectMapper objectMapper; // Serializes the orders written to the streaming response
+
     /**
      * Creates a new order based on the provided order request data.
+     * Retries with the same Idempotency-Key header (or, without the header, the same order reference)
+     * return the ID of the order created by the first request instead of creating it again.
      *
+     * @param idempotencyKey  The client supplied idempotency key; optional.
      * @param orderRequestDTO The DTO containing order request details.
      * @return A ResponseEntity containing the ID of the created order.
      */
     @PostMapping
     public ResponseEntity<Integer> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid OrderRequestDTO orderRequestDTO
+    ) {
+        return ResponseEntity.ok(orderIdempotencyService.createOrder(idempotencyKey, orderRequestDTO));
+    }
+
+    /**
+     * Accepts a new order and completes it in the background.
+     * The order is stored as PENDING and the response is returned without waiting for the customer,
+     * product and payment services, which are called by the order saga; the Location header points to the order's status.
+     * Retries are deduplicated like {@link #createOrder}; a replayed request gets the current status of the existing order.
+     *
+     * @param idempotencyKey  The client supplied idempotency key; optional.
+     * @param orderRequestDTO The DTO containing order request details.
+     * @return A 202 Accepted ResponseEntity containing the status of the accepted order.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<OrderStatusResponseDTO> createOrderAsync(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody @Valid OrderRequestDTO orderRequestDTO
     ) {
-        return ResponseEntity.ok(orderService.createOrder(orderRequestDTO));
+        var orderId = orderIdempotencyService.acceptOrder(idempotencyKey, orderRequestDTO);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/orders/" + orderId + "/status"))
+                .body(orderService.findOrderStatus(orderId));
     }
 
     /**
@@ -44,6 +83,43 @@ public class OrderController {
         return ResponseEntity.ok(orderService.findAllOrders());
     }
 
+    /**
+     * Retrieves a page of orders ordered by ID, using the ID of the last order seen as the cursor.
+     *
+     * @param after The ID of the last order of the previous page; omit for the first page.
+     * @param size  The maximum number of orders to return.
+     * @return A ResponseEntity containing the page and the cursor for the next page (null on the last page).
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponseDTO<OrderResponseDTO>> getOrdersPage(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "size", defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(orderService.findOrdersPage(after, size));
+    }
+
+    /**
+     * Streams all orders as newline-delimited JSON, writing each order as soon as it is read.
+     *
+     * @return A ResponseEntity whose body streams one OrderResponseDTO per line.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        StreamingResponseBody body = outputStream -> {
+            orderService.streamAllOrders(order -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(order));
+                    outputStream.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Retrieves a specific order by its ID.
      *
@@ -57,4 +133,17 @@ public class OrderController {
         return ResponseEntity.ok(orderService.findOrderById(orderId));
     }
 
+    /**
+     * Retrieves the processing status of an order, e.g. to poll an order accepted asynchronously.
+     *
+     * @param orderId The ID of the order.
+     * @return A ResponseEntity containing the OrderStatusResponseDTO for the specified order.
+     */
+    @GetMapping("/{order-id}/status")
+    public ResponseEntity<OrderStatusResponseDTO> getOrderStatus(
+            @PathVariable("order-id") Integer orderId
+    ) {
+        return ResponseEntity.ok(orderService.findOrderStatus(orderId));
+    }
+
 }
\ No newline at end of file
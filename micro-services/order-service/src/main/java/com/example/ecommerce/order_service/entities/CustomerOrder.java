@@ -1,5 +1,6 @@
 package com.example.ecommerce.order_service.entities;
 
+import com.example.ecommerce.order_service.models.OrderStatus;
 import com.example.ecommerce.order_service.models.PaymentMethod;
 import jakarta.persistence.*;
 import lombok.*;
@@ -35,6 +36,11 @@ public class CustomerOrder {
 
     private String customerId;
 
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private String failureReason;
+
     @OneToMany(mappedBy = "order")
     private Set<OrderLine> orderLines = new HashSet<>();
 
@@ -0,0 +1,60 @@
+package com.example.ecommerce.order_service.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an order creation request, stored under the client's idempotency key.
+ * A retried request with the same key gets the stored order ID back instead of creating the order again.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = @Index(name = "idx_idempotency_record_created_date", columnList = "createdDate"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    // SHA-256 of the request body, to detect a key reused for a different request
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Integer orderId;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    // The key is assigned by the client, so new records are flagged explicitly to be inserted without a prior select
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        isNew = false;
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.example.ecommerce.order_service.entities;
+
+import com.example.ecommerce.order_service.models.SagaStatus;
+import com.example.ecommerce.order_service.models.SagaStep;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the saga completing an asynchronously accepted order.
+ * One row per order; the current step is executed by the saga listener and retried until it succeeds or is compensated.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        @Index(name = "idx_order_saga_next_attempt_at", columnList = "nextAttemptAt"),
+        @Index(name = "idx_order_saga_lease_until", columnList = "leaseUntil")
+})
+public class OrderSaga {
+
+    @Id
+    private Integer orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SagaStep step;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SagaStatus status;
+
+    // Attempts of the current step
+    private int attempts;
+
+    // When the current step is due again after a failure; null while no retry is scheduled
+    private LocalDateTime nextAttemptAt;
+
+    // Until when a worker owns the current step; an expired lease means the worker died and the step is redispatched
+    private LocalDateTime leaseUntil;
+
+    private boolean stockReserved;
+
+    private boolean paymentRequested;
+
+    // JSON of the customer and the reserved products, needed by the payment request and the confirmation
+    @Column(columnDefinition = "TEXT")
+    private String reservation;
+
+    private String lastError;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    @LastModifiedDate
+    @Column(insertable = false)
+    private LocalDateTime lastModifiedDate;
+
+    // Also makes Spring Data insert new sagas without a prior select, as the ID is assigned
+    @Version
+    private Long version;
+
+}
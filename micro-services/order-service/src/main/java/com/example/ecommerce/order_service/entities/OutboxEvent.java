@@ -0,0 +1,58 @@
+package com.example.ecommerce.order_service.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event waiting to be published to Kafka.
+ * Rows are written in the same transaction as the business data they describe and drained by the outbox relay.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String aggregateId;
+
+    // The Kafka record key; events with the same key go to the same partition and keep their order.
+    private String messageKey;
+
+    @Column(nullable = false)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    // Set while a relay run sends the event; other runs skip it until then, so a crashed run only delays it.
+    private LocalDateTime claimedUntil;
+
+    // The number of failed sends; the event is parked once it reaches the configured maximum.
+    @Column(nullable = false, columnDefinition = "int not null default 0")
+    private int attempts;
+
+    // Set when the payload cannot be restored or every send failed; parked events are skipped by the relay and kept for inspection.
+    private LocalDateTime parkedDate;
+
+    @Column(columnDefinition = "TEXT")
+    private String failureReason;
+
+}
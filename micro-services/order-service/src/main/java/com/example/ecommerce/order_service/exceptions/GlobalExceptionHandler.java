@@ -71,4 +71,18 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    /**
+     * Handles exceptions of type IdempotencyConflictException.
+     * Returns a 409 Conflict response with the exception message.
+     *
+     * @param ex The IdempotencyConflictException instance.
+     * @return A ResponseEntity containing the exception message.
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<String> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ex.getMessage());
+    }
+
 }
\ No newline at end of file
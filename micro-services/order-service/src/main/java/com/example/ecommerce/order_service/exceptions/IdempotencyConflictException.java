@@ -0,0 +1,7 @@
+package com.example.ecommerce.order_service.exceptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.ecommerce.order_service.feign_client;
 
+import com.example.ecommerce.order_service.models.CustomerBatchRequestDTO;
 import com.example.ecommerce.order_service.models.CustomerResponseDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -12,8 +17,8 @@ import java.util.Optional;
  * Provides methods for retrieving customer information via REST API calls.
  */
 @FeignClient(
-        name = "customer-service", // Specifies the name of the customer service.
-        url = "${application.config.customer-url}" // Configures the base URL for the customer service.
+        name = "customer-service", // Specifies the name of the customer service, as registered in Eureka.
+        path = "/api/v1/customers" // Resolved through Eureka and load balanced, without going through the gateway.
 )
 public interface CustomerFeignClient {
 
@@ -28,6 +33,28 @@ public interface CustomerFeignClient {
             @PathVariable("customer-id") String customerId // Maps the customer ID path variable.
     );
 
+    /**
+     * Retrieves the details of many customers in one request (at most 5000 IDs).
+     *
+     * @param customerBatchRequestDTO The IDs of the customers to retrieve.
+     * @return The CustomerResponseDTO objects of the customers found; unknown IDs are skipped.
+     */
+    @PostMapping("/batch-get")
+    List<CustomerResponseDTO> findCustomersByIds(
+            @RequestBody CustomerBatchRequestDTO customerBatchRequestDTO
+    );
+
+    /**
+     * Checks which of many customer IDs exist in one request (at most 5000 IDs).
+     *
+     * @param customerBatchRequestDTO The IDs of the customers to check.
+     * @return A map from each requested ID to true if the customer exists, false otherwise.
+     */
+    @PostMapping("/batch-exists")
+    Map<String, Boolean> existsCustomersByIds(
+            @RequestBody CustomerBatchRequestDTO customerBatchRequestDTO
+    );
+
 }
 
 // Starting with Spring Framework 6.1 and Spring Boot 3.2, you can use the @HttpExchange, @GetExchange and HTTP interfaces as an alternative
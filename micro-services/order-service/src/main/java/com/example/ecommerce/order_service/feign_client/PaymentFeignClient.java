@@ -2,16 +2,17 @@ package com.example.ecommerce.order_service.feign_client;
 
 import com.example.ecommerce.order_service.models.PaymentRequestDTO;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 /**
  * Feign client interface for interacting with the payment service.
- * Provides methods for initiating payment requests via REST API calls.
+ * Provides methods for initiating and voiding payment requests via REST API calls.
  */
 @FeignClient(
-        name = "payment-service", // Specifies the name of the payment service.
-        url = "${application.config.payment-url}" // Configures the base URL for the payment service.
+        name = "payment-service", // Specifies the name of the payment service, as registered in Eureka.
+        path = "/api/v1/payments" // Resolved through Eureka and load balanced, without going through the gateway.
 )
 public interface PaymentFeignClient {
 
@@ -25,4 +26,16 @@ public interface PaymentFeignClient {
     Integer requestOrderPayment(
             @RequestBody PaymentRequestDTO paymentRequestDTO // Maps the payment request body.
     );
+
+    /**
+     * Voids the captured payments of an order, compensating a payment request of a failed order.
+     * Voiding is idempotent: calling it again, or for an order without payments, voids nothing.
+     *
+     * @param orderId The ID of the order whose payments should be voided.
+     * @return The number of payments voided by this call.
+     */
+    @PostMapping("/order/{order-id}/void")
+    Integer voidOrderPayments(
+            @PathVariable("order-id") Integer orderId // Maps the order ID path variable.
+    );
 }
@@ -4,6 +4,7 @@ import com.example.ecommerce.order_service.entities.CustomerOrder;
 import com.example.ecommerce.order_service.entities.OrderLine;
 import com.example.ecommerce.order_service.models.OrderLineRequestDTO;
 import com.example.ecommerce.order_service.models.OrderLineResponseDTO;
+import com.example.ecommerce.order_service.models.ProductPurchaseRequestDTO;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -29,4 +30,11 @@ public class OrderLineMapper {
         );
     }
 
+    public ProductPurchaseRequestDTO orderLineToProductPurchaseRequestDTO(OrderLine orderLine) {
+        return new ProductPurchaseRequestDTO(
+                orderLine.getProductId(),
+                orderLine.getQuantity()
+        );
+    }
+
 }
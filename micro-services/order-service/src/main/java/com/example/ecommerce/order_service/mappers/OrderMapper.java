@@ -16,6 +16,7 @@ public class OrderMapper {
         return CustomerOrder.builder()
                 .id(orderRequestDTO.id())
                 .reference(orderRequestDTO.reference())
+                .totalAmount(orderRequestDTO.amount())
                 .paymentMethod(orderRequestDTO.paymentMethod())
                 .customerId(orderRequestDTO.customerId())
                 .build();
@@ -0,0 +1,9 @@
+package com.example.ecommerce.order_service.models;
+
+import java.util.List;
+
+public record CursorPageResponseDTO<T>(
+        List<T> content,
+        Integer nextCursor
+) {
+}
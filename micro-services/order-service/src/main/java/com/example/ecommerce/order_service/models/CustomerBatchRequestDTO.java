@@ -0,0 +1,8 @@
+package com.example.ecommerce.order_service.models;
+
+import java.util.List;
+
+public record CustomerBatchRequestDTO(
+        List<String> ids
+) {
+}
@@ -0,0 +1,7 @@
+package com.example.ecommerce.order_service.models;
+
+public record CustomerChangeDTO(
+        String customerId,
+        CustomerChangeType changeType
+) {
+}
@@ -0,0 +1,6 @@
+package com.example.ecommerce.order_service.models;
+
+public enum CustomerChangeType {
+    UPDATED,
+    DELETED
+}
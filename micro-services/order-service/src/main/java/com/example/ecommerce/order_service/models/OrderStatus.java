@@ -0,0 +1,8 @@
+package com.example.ecommerce.order_service.models;
+
+public enum OrderStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,12 @@
+package com.example.ecommerce.order_service.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderStatusResponseDTO(
+        Integer id,
+        String reference,
+        OrderStatus status,
+        String failureReason
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.order_service.models;
+
+public enum SagaStatus {
+    RUNNING,
+    COMPENSATING,
+    COMPLETED,
+    COMPENSATED,
+    FAILED
+}
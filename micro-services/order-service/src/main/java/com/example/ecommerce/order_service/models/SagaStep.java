@@ -0,0 +1,10 @@
+package com.example.ecommerce.order_service.models;
+
+public enum SagaStep {
+    // Forward steps
+    RESERVE_STOCK,
+    REQUEST_PAYMENT,
+    // Compensating steps
+    VOID_PAYMENT,
+    RELEASE_STOCK
+}
@@ -0,0 +1,19 @@
+package com.example.ecommerce.order_service.repositories;
+
+import com.example.ecommerce.order_service.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Removes expired records in a single statement instead of loading and deleting them one by one.
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdDate < :cutoff")
+    int deleteAllCreatedBefore(LocalDateTime cutoff);
+
+}
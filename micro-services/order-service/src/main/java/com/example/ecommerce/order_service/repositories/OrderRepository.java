@@ -1,8 +1,47 @@
 package com.example.ecommerce.order_service.repositories;
 
 import com.example.ecommerce.order_service.entities.CustomerOrder;
+import com.example.ecommerce.order_service.models.OrderResponseDTO;
+import com.example.ecommerce.order_service.models.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<CustomerOrder, Integer> {
-    // Additional query methods can be defined here if needed
+
+    // Keyset page: walks the primary key index from the cursor instead of skipping rows with an offset.
+    @Query("""
+            select new com.example.ecommerce.order_service.models.OrderResponseDTO(
+                o.id, o.reference, o.totalAmount, o.paymentMethod, o.customerId)
+            from CustomerOrder o
+            where o.id > :after
+            order by o.id asc""")
+    List<OrderResponseDTO> findPageAfter(Integer after, Limit limit);
+
+    // Streams all orders as DTOs; the fetch size makes the driver read rows in chunks (needs useCursorFetch on MySQL).
+    @Query("""
+            select new com.example.ecommerce.order_service.models.OrderResponseDTO(
+                o.id, o.reference, o.totalAmount, o.paymentMethod, o.customerId)
+            from CustomerOrder o
+            order by o.id asc""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<OrderResponseDTO> streamAll();
+
+    // Conditional status transition; returns 0 if the order is no longer in the expected status, so only one worker wins.
+    @Transactional
+    @Modifying
+    @Query("""
+            update CustomerOrder o
+            set o.status = :to, o.failureReason = :failureReason, o.lastModifiedDate = local datetime
+            where o.id = :id and o.status = :from""")
+    int updateStatus(Integer id, OrderStatus from, OrderStatus to, String failureReason);
+
 }
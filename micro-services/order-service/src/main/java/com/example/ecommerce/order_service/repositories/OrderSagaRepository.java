@@ -0,0 +1,21 @@
+package com.example.ecommerce.order_service.repositories;
+
+import com.example.ecommerce.order_service.entities.OrderSaga;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderSagaRepository extends JpaRepository<OrderSaga, Integer> {
+
+    // Active sagas whose retry is due or whose worker lease expired, oldest first.
+    @Query("""
+            select s.orderId
+            from OrderSaga s
+            where s.nextAttemptAt <= :now or s.leaseUntil <= :now
+            order by s.orderId asc""")
+    List<Integer> findDueOrderIds(LocalDateTime now, Limit limit);
+
+}
@@ -0,0 +1,40 @@
+package com.example.ecommerce.order_service.repositories;
+
+import com.example.ecommerce.order_service.entities.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Locks the oldest pending events no relay run is sending, and skips rows already locked by another relay instance
+    // (lock timeout -2 = SKIP LOCKED). Parked events are left out, so they cannot fill the batch.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from OutboxEvent e
+            where e.parkedDate is null and (e.claimedUntil is null or e.claimedUntil < :now)
+            order by e.id""")
+    List<OutboxEvent> findClaimable(LocalDateTime now, Limit limit);
+
+    // Returns the keys that have a pending event before the given ones which is not among them, e.g. one another relay run is sending.
+    @Query("""
+            select distinct e.messageKey from OutboxEvent e
+            where e.parkedDate is null and e.messageKey in :keys and e.id < :before and e.id not in :ids""")
+    List<String> findKeysWithEarlierPendingEvents(Collection<String> keys, Collection<Long> ids, Long before);
+
+    // Marks the events as being sent by a relay run until the given time.
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :until where e.id in :ids")
+    int claim(Collection<Long> ids, LocalDateTime until);
+
+}
@@ -0,0 +1,57 @@
+package com.example.ecommerce.order_service.serialization;
+
+import com.example.ecommerce.order_service.models.CustomerResponseDTO;
+import com.example.ecommerce.order_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.order_service.models.ProductPurchaseResponseDTO;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Encoder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Kafka serializer writing order confirmations for the "order-topic" topic with the OrderConfirmation Avro schema.
+ * The fields are written in the order of avro/order-confirmation-v1.avsc.
+ */
+public class OrderConfirmationAvroSerializer extends AvroSerializer<OrderConfirmationDTO> {
+
+    // The current version of the OrderConfirmation schema, shared with the notification service.
+    public static final String SCHEMA = "avro/order-confirmation-v1.avsc";
+
+    public OrderConfirmationAvroSerializer() {
+        super(SCHEMA);
+    }
+
+    @Override
+    protected void write(Schema schema, OrderConfirmationDTO payload, Encoder encoder) throws IOException {
+        encoder.writeString(payload.orderReference());
+        writeNullableDecimal(encoder, payload.totalAmount());
+        writeNullableEnum(encoder, schema.getField("paymentMethod").schema(), payload.paymentMethod());
+        writeCustomer(encoder, payload.customer());
+        writePurchases(encoder, payload.purchases());
+    }
+
+    private static void writeCustomer(Encoder encoder, CustomerResponseDTO customer) throws IOException {
+        if (writeNullIndex(encoder, customer)) {
+            writeNullableString(encoder, customer.id());
+            writeNullableString(encoder, customer.firstName());
+            writeNullableString(encoder, customer.lastName());
+            writeNullableString(encoder, customer.email());
+        }
+    }
+
+    private static void writePurchases(Encoder encoder, List<ProductPurchaseResponseDTO> purchases) throws IOException {
+        var items = purchases == null ? List.<ProductPurchaseResponseDTO>of() : purchases;
+        encoder.writeArrayStart();
+        encoder.setItemCount(items.size());
+        for (var purchase : items) {
+            encoder.startItem();
+            writeNullableInt(encoder, purchase.productId());
+            writeNullableString(encoder, purchase.name());
+            writeNullableString(encoder, purchase.description());
+            writeNullableDecimal(encoder, purchase.price());
+            encoder.writeDouble(purchase.quantity());
+        }
+        encoder.writeArrayEnd();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.order_service.services;
+
+import com.example.ecommerce.order_service.models.CustomerChangeDTO;
+
+public interface CustomerChangeConsumerService {
+
+    void consumeCustomerChange(CustomerChangeDTO customerChangeDTO);
+
+}
@@ -0,0 +1,13 @@
+package com.example.ecommerce.order_service.services;
+
+import com.example.ecommerce.order_service.models.OrderRequestDTO;
+
+public interface OrderIdempotencyService {
+
+    Integer createOrder(String idempotencyKey, OrderRequestDTO orderRequestDTO);
+
+    Integer acceptOrder(String idempotencyKey, OrderRequestDTO orderRequestDTO);
+
+    int purgeExpiredRecords();
+
+}
@@ -2,6 +2,7 @@ package com.example.ecommerce.order_service.services;
 
 import com.example.ecommerce.order_service.models.OrderLineRequestDTO;
 import com.example.ecommerce.order_service.models.OrderLineResponseDTO;
+import com.example.ecommerce.order_service.models.ProductPurchaseRequestDTO;
 
 import java.util.List;
 
@@ -9,6 +10,10 @@ public interface OrderLineService {
 
     Integer saveOrderLine(OrderLineRequestDTO orderLineRequestDTO);
 
+    List<Integer> saveAllOrderLines(List<OrderLineRequestDTO> orderLineRequestDTOs);
+
     List<OrderLineResponseDTO> findAllByOrderId(Integer orderId);
 
+    List<ProductPurchaseRequestDTO> findPurchasesByOrderId(Integer orderId);
+
 }
@@ -1,7 +1,10 @@
 package com.example.ecommerce.order_service.services;
 
 import com.example.ecommerce.order_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.order_service.models.OrderSagaCommand;
 
 public interface OrderProducerService {
     void sendOrderConfirmation(OrderConfirmationDTO orderConfirmationDTO);
+
+    void sendSagaCommand(OrderSagaCommand orderSagaCommand);
 }
@@ -0,0 +1,13 @@
+package com.example.ecommerce.order_service.services;
+
+import com.example.ecommerce.order_service.models.OrderSagaCommand;
+
+public interface OrderSagaService {
+
+    void start(Integer orderId);
+
+    void handle(OrderSagaCommand orderSagaCommand);
+
+    int redispatchDueSteps();
+
+}
@@ -1,16 +1,27 @@
 package com.example.ecommerce.order_service.services;
 
+import com.example.ecommerce.order_service.models.CursorPageResponseDTO;
 import com.example.ecommerce.order_service.models.OrderRequestDTO;
 import com.example.ecommerce.order_service.models.OrderResponseDTO;
+import com.example.ecommerce.order_service.models.OrderStatusResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
     Integer createOrder(OrderRequestDTO orderRequestDTO);
 
+    Integer acceptOrder(OrderRequestDTO orderRequestDTO);
+
     List<OrderResponseDTO> findAllOrders();
 
+    CursorPageResponseDTO<OrderResponseDTO> findOrdersPage(Integer after, int size);
+
+    void streamAllOrders(Consumer<OrderResponseDTO> consumer);
+
     OrderResponseDTO findOrderById(Integer id);
 
+    OrderStatusResponseDTO findOrderStatus(Integer id);
+
 }
@@ -0,0 +1,7 @@
+package com.example.ecommerce.order_service.services;
+
+public interface OutboxRelayService {
+
+    int relayPendingEvents();
+
+}
@@ -9,4 +9,10 @@ public interface ProductService {
 
     List<ProductPurchaseResponseDTO> executePurchaseProducts(List<ProductPurchaseRequestDTO> requestBody);
 
+    void releasePurchasedProducts(List<ProductPurchaseRequestDTO> requestBody);
+
+    List<ProductPurchaseResponseDTO> executeOrderPurchase(Integer orderId, List<ProductPurchaseRequestDTO> requestBody);
+
+    void releaseOrderPurchase(Integer orderId, List<ProductPurchaseRequestDTO> requestBody);
+
 }
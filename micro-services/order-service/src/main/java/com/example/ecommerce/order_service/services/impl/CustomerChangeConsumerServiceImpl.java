@@ -0,0 +1,40 @@
+package com.example.ecommerce.order_service.services.impl;
+
+import com.example.ecommerce.order_service.cache.CustomerCache;
+import com.example.ecommerce.order_service.models.CustomerChangeDTO;
+import com.example.ecommerce.order_service.services.CustomerChangeConsumerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of the CustomerChangeConsumerService interface.
+ * Keeps the customer cache in line with the customer service by evicting customers announced on the "customer-topic".
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CustomerChangeConsumerServiceImpl implements CustomerChangeConsumerService {
+
+    // Cache of the customers looked up by the order flow.
+    private final CustomerCache customerCache;
+
+    /**
+     * Evicts a changed or deleted customer from the cache.
+     * Every instance has its own consumer group, because every instance holds its own cache and must see every change;
+     * a new group starts at the latest offset, as its cache is empty anyway.
+     *
+     * @param customerChangeDTO The change announced by the customer service.
+     */
+    @KafkaListener(
+            topics = "customer-topic",
+            groupId = "orderCustomerCacheGroup-${random.uuid}",
+            properties = "auto.offset.reset=latest"
+    )
+    @Override
+    public void consumeCustomerChange(CustomerChangeDTO customerChangeDTO) {
+        log.debug("Evicting customer {} after {}", customerChangeDTO.customerId(), customerChangeDTO.changeType());
+        customerCache.evict(customerChangeDTO.customerId());
+    }
+}
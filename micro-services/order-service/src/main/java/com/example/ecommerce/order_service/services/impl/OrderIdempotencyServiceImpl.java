@@ -0,0 +1,195 @@
+package com.example.ecommerce.order_service.services.impl;
+
+import com.example.ecommerce.order_service.entities.IdempotencyRecord;
+import com.example.ecommerce.order_service.exceptions.BusinessException;
+import com.example.ecommerce.order_service.exceptions.IdempotencyConflictException;
+import com.example.ecommerce.order_service.models.OrderRequestDTO;
+import com.example.ecommerce.order_service.repositories.IdempotencyRecordRepository;
+import com.example.ecommerce.order_service.services.OrderIdempotencyService;
+import com.example.ecommerce.order_service.services.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * Implementation of the OrderIdempotencyService interface.
+ * Makes order creation safe to retry: the first request for an idempotency key creates the order,
+ * later requests with the same key get the stored order ID back without repeating the stock reservation,
+ * the payment request or the confirmation event.
+ * Orders accepted for asynchronous processing share the same records, so a retried accept does not store a second order.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderIdempotencyServiceImpl implements OrderIdempotencyService {
+
+    // Upper bound for the length of a client supplied idempotency key, matching the key column.
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Repository for storing the outcome of order creation requests.
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    // Service performing the actual order creation.
+    private final OrderService orderService;
+
+    // Runs the record insert and the order creation in one transaction.
+    private final TransactionTemplate transactionTemplate;
+
+    // ObjectMapper for computing the request fingerprint.
+    private final ObjectMapper objectMapper;
+
+    /**
+     * How long a stored outcome is replayed for duplicates.
+     */
+    @Value("${application.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    /**
+     * Creates an order at most once per idempotency key.
+     * If no key is given, the order reference is used as the key; without either, the order is created unconditionally.
+     * <p>
+     * The record is inserted in the same transaction as the order, so it only becomes visible once the order is committed.
+     * A concurrent duplicate blocks on the record's primary key until the first request finishes, then either replays
+     * the committed outcome or, if the first request failed and rolled back, creates the order itself.
+     *
+     * @param idempotencyKey  The client supplied idempotency key, or null.
+     * @param orderRequestDTO The DTO containing order details.
+     * @return The ID of the created order, or of the order created by an earlier request with the same key.
+     * @throws IdempotencyConflictException if the key was already used for a different request,
+     *                                      or the earlier request is still running.
+     */
+    @Override
+    public Integer createOrder(String idempotencyKey, OrderRequestDTO orderRequestDTO) {
+        return executeOnce(idempotencyKey, orderRequestDTO, orderService::createOrder);
+    }
+
+    /**
+     * Accepts an order for asynchronous processing at most once per idempotency key.
+     * Uses the same keys as {@link #createOrder}: without a header, the order reference is the key.
+     *
+     * @param idempotencyKey  The client supplied idempotency key, or null.
+     * @param orderRequestDTO The DTO containing order details.
+     * @return The ID of the accepted order, or of the order stored by an earlier request with the same key.
+     * @throws IdempotencyConflictException if the key was already used for a different request,
+     *                                      or the earlier request is still running.
+     */
+    @Override
+    public Integer acceptOrder(String idempotencyKey, OrderRequestDTO orderRequestDTO) {
+        return executeOnce(idempotencyKey, orderRequestDTO, orderService::acceptOrder);
+    }
+
+    /**
+     * Runs the given order operation unless a request with the same key already completed it.
+     *
+     * @param idempotencyKey  The client supplied idempotency key, or null.
+     * @param orderRequestDTO The DTO containing order details.
+     * @param operation       Stores the order and returns its ID.
+     * @return The ID returned by the operation, or the stored ID of an earlier request with the same key.
+     */
+    private Integer executeOnce(
+            String idempotencyKey,
+            OrderRequestDTO orderRequestDTO,
+            Function<OrderRequestDTO, Integer> operation
+    ) {
+        var key = idempotencyKey != null ? idempotencyKey : orderRequestDTO.reference();
+        if (key == null || key.isBlank()) {
+            return operation.apply(orderRequestDTO);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency key must not be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+
+        var requestHash = requestHash(orderRequestDTO);
+
+        // Fast path: a completed duplicate is answered with a primary key lookup only.
+        var existing = idempotencyRecordRepository.findById(key);
+        if (existing.isPresent()) {
+            return replay(existing.get(), requestHash);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                var record = idempotencyRecordRepository.saveAndFlush(
+                        IdempotencyRecord.builder()
+                                .key(key)
+                                .requestHash(requestHash)
+                                .build()
+                );
+                var orderId = operation.apply(orderRequestDTO);
+                record.setOrderId(orderId);
+                return orderId;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent request with the same key committed first; the violation may also come from the order itself.
+            return idempotencyRecordRepository.findById(key)
+                    .map(record -> replay(record, requestHash))
+                    .orElseThrow(() -> ex);
+        } catch (PessimisticLockingFailureException ex) {
+            throw new IdempotencyConflictException("A request with idempotency key " + key + " is still being processed");
+        }
+    }
+
+    /**
+     * Deletes the records older than the retention period.
+     *
+     * @return The number of records deleted.
+     */
+    @Scheduled(fixedDelayString = "${application.idempotency.purge-interval-ms:3600000}")
+    @Override
+    public int purgeExpiredRecords() {
+        var deleted = idempotencyRecordRepository.deleteAllCreatedBefore(
+                LocalDateTime.now().minusHours(retentionHours)
+        );
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency records", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the stored outcome of an earlier request.
+     *
+     * @param record      The stored record.
+     * @param requestHash The fingerprint of the current request.
+     * @return The ID of the order created by the earlier request.
+     * @throws IdempotencyConflictException if the earlier request had a different body.
+     */
+    private static Integer replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(
+                    "Idempotency key " + record.getKey() + " was already used for a different order request"
+            );
+        }
+        log.info("Replaying order {} for idempotency key {}", record.getOrderId(), record.getKey());
+        return record.getOrderId();
+    }
+
+    /**
+     * Computes a fingerprint of the request body.
+     *
+     * @param orderRequestDTO The DTO containing order details.
+     * @return The hex encoded SHA-256 of the JSON representation of the request.
+     */
+    private String requestHash(OrderRequestDTO orderRequestDTO) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderRequestDTO))
+            );
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Failed to compute the order request fingerprint", ex);
+        }
+    }
+}
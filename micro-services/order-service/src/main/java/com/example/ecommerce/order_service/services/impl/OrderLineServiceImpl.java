@@ -1,8 +1,10 @@
 package com.example.ecommerce.order_service.services.impl;
 
+import com.example.ecommerce.order_service.entities.OrderLine;
 import com.example.ecommerce.order_service.mappers.OrderLineMapper;
 import com.example.ecommerce.order_service.models.OrderLineRequestDTO;
 import com.example.ecommerce.order_service.models.OrderLineResponseDTO;
+import com.example.ecommerce.order_service.models.ProductPurchaseRequestDTO;
 import com.example.ecommerce.order_service.repositories.OrderLineRepository;
 import com.example.ecommerce.order_service.services.OrderLineService;
 import lombok.RequiredArgsConstructor;
@@ -40,6 +42,30 @@ public class OrderLineServiceImpl implements OrderLineService {
         ).getId();
     }
 
+    /**
+     * Saves a list of order lines to the database in a single batch.
+     * The ids come from a pooled sequence, so the inserts are grouped into JDBC batches
+     * instead of one round-trip per order line.
+     *
+     * @param orderLineRequestDTOs The DTOs containing order line data to be saved.
+     * @return The IDs of the saved order lines, in the order of the request.
+     * Returns an empty list if no order lines are given.
+     */
+    @Override
+    public List<Integer> saveAllOrderLines(List<OrderLineRequestDTO> orderLineRequestDTOs) {
+        if (orderLineRequestDTOs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return orderLineRepository.saveAll(
+                        orderLineRequestDTOs.stream()
+                                .map(orderLineMapper::orderRequestDTOToOrderLine)
+                                .toList()
+                )
+                .stream()
+                .map(OrderLine::getId)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Retrieves all order lines associated with a specific order ID.
      *
@@ -59,4 +85,19 @@ public class OrderLineServiceImpl implements OrderLineService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves the products and quantities purchased by a specific order.
+     *
+     * @param orderId The ID of the order whose purchases are to be retrieved.
+     * @return A list of ProductPurchaseRequestDTOs, one per order line.
+     * Returns an empty list if no order lines are found.
+     */
+    @Override
+    public List<ProductPurchaseRequestDTO> findPurchasesByOrderId(Integer orderId) {
+        return orderLineRepository.findAllByOrderId(orderId)
+                .stream()
+                .map(orderLineMapper::orderLineToProductPurchaseRequestDTO)
+                .toList();
+    }
+
 }
@@ -1,47 +1,105 @@
 package com.example.ecommerce.order_service.services.impl;
 
+import com.example.ecommerce.order_service.entities.OutboxEvent;
 import com.example.ecommerce.order_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.order_service.models.OrderSagaCommand;
+import com.example.ecommerce.order_service.repositories.OutboxEventRepository;
 import com.example.ecommerce.order_service.services.OrderProducerService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementation of the OrderProducerService interface.
- * Responsible for sending order confirmation messages to a Kafka topic.
+ * Responsible for queueing order confirmation messages for the "order-topic" Kafka topic
+ * and order saga commands for the "order-saga-topic" Kafka topic.
+ * Messages are written to the transactional outbox and published by the outbox relay.
+ * Order confirmations are keyed by customer ID and saga commands by order ID, so the messages of one customer
+ * or one saga land on the same partition and are consumed in order.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class OrderProducerServiceImpl implements OrderProducerService {
 
-    // KafkaTemplate for sending messages to Kafka.
-    private final KafkaTemplate<String, OrderConfirmationDTO> kafkaTemplate;
+    // Repository for the transactional outbox.
+    private final OutboxEventRepository outboxEventRepository;
+
+    // ObjectMapper for serializing the payload into the outbox.
+    private final ObjectMapper objectMapper;
 
     /**
-     * Sends an order confirmation message to the Kafka topic.
+     * Queues an order confirmation message for the Kafka topic.
+     * Joins the caller's transaction, so the message is only published if the order is committed.
      *
      * @param orderConfirmationDTO The DTO containing order confirmation details.
      * @throws IllegalArgumentException if the provided payload is null.
      */
+    @Transactional
     @Override
     public void sendOrderConfirmation(OrderConfirmationDTO orderConfirmationDTO) {
         if (orderConfirmationDTO == null) {
             throw new IllegalArgumentException("Payload must not be null");
         }
-        log.info("Sending order confirmation.....");
+        log.info("Queueing order confirmation.....");
+
+        // Store the message in the outbox; the relay sends it to the topic after commit.
+        outboxEventRepository.save(
+                OutboxEvent.builder()
+                        .topic("order-topic")
+                        .aggregateId(orderConfirmationDTO.orderReference())
+                        .messageKey(
+                                orderConfirmationDTO.customer() != null
+                                        ? orderConfirmationDTO.customer().id()
+                                        : orderConfirmationDTO.orderReference()
+                        )
+                        .payloadType(OrderConfirmationDTO.class.getName())
+                        .payload(writePayload(orderConfirmationDTO))
+                        .build()
+        );
+    }
+
+    /**
+     * Queues a command executing the next step of an order saga.
+     * Joins the caller's transaction, so the step is only executed if the saga state change is committed.
+     *
+     * @param orderSagaCommand The command naming the order and the step to execute.
+     * @throws IllegalArgumentException if the provided payload is null.
+     */
+    @Transactional
+    @Override
+    public void sendSagaCommand(OrderSagaCommand orderSagaCommand) {
+        if (orderSagaCommand == null) {
+            throw new IllegalArgumentException("Payload must not be null");
+        }
+        log.debug("Queueing saga step {} for order {}", orderSagaCommand.step(), orderSagaCommand.orderId());
 
-        // Build a Kafka message with the payload and topic header.
-        Message<OrderConfirmationDTO> message = MessageBuilder
-                .withPayload(orderConfirmationDTO)
-                .setHeader(KafkaHeaders.TOPIC, "order-topic")
-                .build();
+        outboxEventRepository.save(
+                OutboxEvent.builder()
+                        .topic("order-saga-topic")
+                        .aggregateId(String.valueOf(orderSagaCommand.orderId()))
+                        .messageKey(String.valueOf(orderSagaCommand.orderId()))
+                        .payloadType(OrderSagaCommand.class.getName())
+                        .payload(writePayload(orderSagaCommand))
+                        .build()
+        );
+    }
 
-        // Send the message to the Kafka topic.
-        kafkaTemplate.send(message);
+    /**
+     * Serializes the payload for storage in the outbox.
+     *
+     * @param payload The payload to serialize.
+     * @return The JSON representation of the payload.
+     * @throws IllegalArgumentException if the payload cannot be serialized.
+     */
+    private String writePayload(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Payload cannot be serialized", ex);
+        }
     }
 }
@@ -0,0 +1,503 @@
+package com.example.ecommerce.order_service.services.impl;
+
+import com.example.ecommerce.order_service.cache.CustomerCache;
+import com.example.ecommerce.order_service.entities.CustomerOrder;
+import com.example.ecommerce.order_service.entities.OrderSaga;
+import com.example.ecommerce.order_service.exceptions.BusinessException;
+import com.example.ecommerce.order_service.feign_client.PaymentFeignClient;
+import com.example.ecommerce.order_service.models.*;
+import com.example.ecommerce.order_service.repositories.OrderRepository;
+import com.example.ecommerce.order_service.repositories.OrderSagaRepository;
+import com.example.ecommerce.order_service.services.OrderLineService;
+import com.example.ecommerce.order_service.services.OrderProducerService;
+import com.example.ecommerce.order_service.services.OrderSagaService;
+import com.example.ecommerce.order_service.services.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementation of the OrderSagaService interface.
+ * Completes asynchronously accepted orders as a saga: the stock is reserved in the product service, then the payment
+ * is requested in the payment service. Every step is a Kafka command executed outside of any database transaction;
+ * the saga state is persisted between steps, so a step that fails is retried with exponential backoff, and an order
+ * that cannot be completed is compensated by voiding its payment and releasing its stock.
+ * The product and payment services deduplicate by order ID, so a step whose response was lost can be retried safely.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderSagaServiceImpl implements OrderSagaService {
+
+    // Upper bound for the stored error and failure reason, matching the column length.
+    private static final int MAX_REASON_LENGTH = 255;
+
+    // Repository for the persisted saga state.
+    private final OrderSagaRepository orderSagaRepository;
+
+    // Repository for the orders completed by the sagas.
+    private final OrderRepository orderRepository;
+
+    // Service for reading the order lines of an order.
+    private final OrderLineService orderLineService;
+
+    // Cache in front of the Customer microservice.
+    private final CustomerCache customerCache;
+
+    // Feign client for interacting with the Payment microservice.
+    private final PaymentFeignClient paymentFeignClient;
+
+    // Service for reserving and releasing stock in the Product microservice.
+    private final ProductService productService;
+
+    // Service for queueing saga commands and order confirmations in the outbox.
+    private final OrderProducerService orderProducerService;
+
+    // Runs the short transactions around each remote step.
+    private final TransactionTemplate transactionTemplate;
+
+    // ObjectMapper for storing the reservation of a saga.
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The maximum number of attempts of a forward step before the order is given up and compensated.
+     */
+    @Value("${application.saga.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * The maximum number of attempts of a compensating step before the saga is marked FAILED.
+     */
+    @Value("${application.saga.max-compensation-attempts:20}")
+    private int maxCompensationAttempts;
+
+    /**
+     * The delay before the first retry of a step; doubled for every further attempt.
+     */
+    @Value("${application.saga.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    /**
+     * The upper bound of the retry delay.
+     */
+    @Value("${application.saga.max-backoff-ms:60000}")
+    private long maxBackoffMs;
+
+    /**
+     * How long a dispatched or running step may take before it is considered lost and dispatched again.
+     */
+    @Value("${application.saga.lease-ms:60000}")
+    private long leaseMs;
+
+    /**
+     * The maximum number of sagas dispatched again per run.
+     */
+    @Value("${application.saga.redispatch-batch-size:100}")
+    private int redispatchBatchSize;
+
+    /**
+     * Starts the saga of an accepted order by queueing its first step.
+     * Joins the caller's transaction, so the saga only starts if the order is committed.
+     *
+     * @param orderId The ID of the accepted order.
+     */
+    @Transactional
+    @Override
+    public void start(Integer orderId) {
+        var saga = OrderSaga.builder()
+                .orderId(orderId)
+                .status(SagaStatus.RUNNING)
+                .build();
+        dispatch(saga, SagaStep.RESERVE_STOCK);
+        orderSagaRepository.save(saga);
+    }
+
+    /**
+     * Executes one step of a saga.
+     * The step is claimed first, so a duplicated or outdated command is ignored; the remote call then runs without
+     * holding a database connection, and its outcome is recorded in a second short transaction.
+     *
+     * @param orderSagaCommand The command naming the order and the step to execute.
+     */
+    @KafkaListener(
+            topics = "order-saga-topic",
+            groupId = "orderSagaGroup",
+            concurrency = "${application.saga.concurrency:3}"
+    )
+    @Override
+    public void handle(OrderSagaCommand orderSagaCommand) {
+        var saga = claim(orderSagaCommand);
+        if (saga == null) {
+            log.debug("Ignoring saga step {} for order {}", orderSagaCommand.step(), orderSagaCommand.orderId());
+            return;
+        }
+
+        String reservation;
+        try {
+            reservation = execute(saga);
+        } catch (RuntimeException ex) {
+            record(orderSagaCommand, () -> onStepFailed(orderSagaCommand, ex));
+            return;
+        }
+        record(orderSagaCommand, () -> onStepSucceeded(orderSagaCommand, reservation));
+    }
+
+    /**
+     * Dispatches the steps whose retry is due, or whose lease expired because the worker running them died.
+     *
+     * @return The number of steps dispatched again.
+     */
+    @Scheduled(fixedDelayString = "${application.saga.redispatch-interval-ms:1000}")
+    @Override
+    public int redispatchDueSteps() {
+        var orderIds = orderSagaRepository.findDueOrderIds(LocalDateTime.now(), Limit.of(redispatchBatchSize));
+
+        var dispatched = 0;
+        for (var orderId : orderIds) {
+            try {
+                var redispatched = transactionTemplate.execute(status -> orderSagaRepository.findById(orderId)
+                        .filter(saga -> isActive(saga) && isDue(saga, LocalDateTime.now()))
+                        .map(saga -> {
+                            dispatch(saga, saga.getStep());
+                            return true;
+                        })
+                        .orElse(false));
+                if (Boolean.TRUE.equals(redispatched)) {
+                    dispatched++;
+                }
+            } catch (OptimisticLockingFailureException ex) {
+                log.debug("Saga of order {} changed concurrently, not dispatching it again", orderId);
+            }
+        }
+        if (dispatched > 0) {
+            log.info("Dispatched {} due saga steps again", dispatched);
+        }
+        return dispatched;
+    }
+
+    /**
+     * Claims the step named by a command for this worker.
+     * The version check makes sure only one worker wins if the same step is delivered twice.
+     *
+     * @param command The command to claim.
+     * @return The claimed saga, or null if the step is not the current one, or is already running.
+     */
+    private OrderSaga claim(OrderSagaCommand command) {
+        try {
+            return transactionTemplate.execute(status -> {
+                var saga = orderSagaRepository.findById(command.orderId()).orElse(null);
+                var now = LocalDateTime.now();
+                if (saga == null
+                        || !isActive(saga)
+                        || saga.getStep() != command.step()
+                        || saga.getLeaseUntil() != null && saga.getLeaseUntil().isAfter(now)) {
+                    return null;
+                }
+
+                if (saga.getStep() == SagaStep.RESERVE_STOCK) {
+                    orderRepository.updateStatus(saga.getOrderId(), OrderStatus.PENDING, OrderStatus.PROCESSING, null);
+                    // From now on stock may be reserved, even if the response is lost; releasing unreserved stock is a no-op.
+                    saga.setStockReserved(true);
+                }
+                if (saga.getStep() == SagaStep.REQUEST_PAYMENT) {
+                    // From now on a payment may exist, even if the request fails on the way back.
+                    saga.setPaymentRequested(true);
+                }
+                saga.setAttempts(saga.getAttempts() + 1);
+                saga.setNextAttemptAt(null);
+                saga.setLeaseUntil(now.plus(Duration.ofMillis(leaseMs)));
+                return orderSagaRepository.saveAndFlush(saga);
+            });
+        } catch (OptimisticLockingFailureException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs the remote call of the current step of a saga.
+     *
+     * @param saga The claimed saga.
+     * @return The JSON of the customer and the reserved products for the RESERVE_STOCK step, otherwise null.
+     * @throws BusinessException if the customer is not found.
+     */
+    private String execute(OrderSaga saga) {
+        var orderId = saga.getOrderId();
+        switch (saga.getStep()) {
+            case RESERVE_STOCK -> {
+                var order = findOrder(orderId);
+                var customer = customerCache.findById(order.getCustomerId())
+                        .orElseThrow(() -> new BusinessException("Cannot create order :: Customer not found with id: " + order.getCustomerId()));
+                var purchasedProducts = productService.executeOrderPurchase(orderId, orderLineService.findPurchasesByOrderId(orderId));
+                return writeReservation(new SagaReservation(customer, purchasedProducts));
+            }
+            case REQUEST_PAYMENT -> {
+                var order = findOrder(orderId);
+                paymentFeignClient.requestOrderPayment(
+                        new PaymentRequestDTO(
+                                order.getTotalAmount(),
+                                order.getPaymentMethod(),
+                                orderId,
+                                order.getReference(),
+                                readReservation(saga).customer()
+                        )
+                );
+            }
+            case VOID_PAYMENT -> paymentFeignClient.voidOrderPayments(orderId);
+            case RELEASE_STOCK -> productService.releaseOrderPurchase(orderId, orderLineService.findPurchasesByOrderId(orderId));
+        }
+        return null;
+    }
+
+    /**
+     * Records a successful step and moves the saga on.
+     *
+     * @param command     The executed command.
+     * @param reservation The reservation returned by the RESERVE_STOCK step, otherwise null.
+     */
+    private void onStepSucceeded(OrderSagaCommand command, String reservation) {
+        var saga = findClaimedSaga(command);
+        if (saga == null) {
+            return;
+        }
+
+        switch (command.step()) {
+            case RESERVE_STOCK -> {
+                saga.setReservation(reservation);
+                dispatch(saga, SagaStep.REQUEST_PAYMENT);
+            }
+            case REQUEST_PAYMENT -> {
+                var order = findOrder(saga.getOrderId());
+                var sagaReservation = readReservation(saga);
+                orderRepository.updateStatus(saga.getOrderId(), OrderStatus.PROCESSING, OrderStatus.COMPLETED, null);
+                orderProducerService.sendOrderConfirmation(
+                        new OrderConfirmationDTO(
+                                order.getReference(),
+                                order.getTotalAmount(),
+                                order.getPaymentMethod(),
+                                sagaReservation.customer(),
+                                sagaReservation.purchasedProducts()
+                        )
+                );
+                finish(saga, SagaStatus.COMPLETED);
+                log.info("Order completed successfully with id: {}", saga.getOrderId());
+            }
+            case VOID_PAYMENT -> {
+                saga.setPaymentRequested(false);
+                compensateNext(saga);
+            }
+            case RELEASE_STOCK -> {
+                saga.setStockReserved(false);
+                compensateNext(saga);
+            }
+        }
+    }
+
+    /**
+     * Records a failed step.
+     * The step is retried with backoff until its attempts are used up; a forward step that fails for good, or with a
+     * non-retryable error, fails the order and starts the compensation. A compensating step that fails for good
+     * leaves the saga FAILED for manual cleanup.
+     *
+     * @param command The executed command.
+     * @param ex      The failure of the step.
+     */
+    private void onStepFailed(OrderSagaCommand command, RuntimeException ex) {
+        var saga = findClaimedSaga(command);
+        if (saga == null) {
+            return;
+        }
+
+        var reason = reason(ex);
+        saga.setLastError(reason);
+        saga.setLeaseUntil(null);
+
+        if (saga.getStatus() == SagaStatus.COMPENSATING) {
+            if (saga.getAttempts() < maxCompensationAttempts) {
+                scheduleRetry(saga);
+                return;
+            }
+            log.error("Compensation of order {} failed at step {}, manual cleanup required", saga.getOrderId(), saga.getStep(), ex);
+            finish(saga, SagaStatus.FAILED);
+            return;
+        }
+
+        if (isRetryable(ex) && saga.getAttempts() < maxAttempts) {
+            scheduleRetry(saga);
+            return;
+        }
+        log.warn("Order {} failed at step {}: {}", saga.getOrderId(), saga.getStep(), reason);
+        orderRepository.updateStatus(saga.getOrderId(), OrderStatus.PROCESSING, OrderStatus.FAILED, reason);
+        saga.setStatus(SagaStatus.COMPENSATING);
+        compensateNext(saga);
+    }
+
+    /**
+     * Runs a state change of a saga in its own transaction.
+     * A concurrent change, e.g. the step being dispatched again after its lease expired, wins over this one.
+     *
+     * @param command The executed command.
+     * @param action  The state change.
+     */
+    private void record(OrderSagaCommand command, Runnable action) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> action.run());
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Saga of order {} changed while step {} was running", command.orderId(), command.step());
+        }
+    }
+
+    /**
+     * Queues the next compensating step, or finishes the compensation once nothing is left to undo.
+     *
+     * @param saga The compensating saga.
+     */
+    private void compensateNext(OrderSaga saga) {
+        if (saga.isPaymentRequested()) {
+            dispatch(saga, SagaStep.VOID_PAYMENT);
+        } else if (saga.isStockReserved()) {
+            dispatch(saga, SagaStep.RELEASE_STOCK);
+        } else {
+            finish(saga, SagaStatus.COMPENSATED);
+            log.info("Order {} compensated", saga.getOrderId());
+        }
+    }
+
+    /**
+     * Makes a step the current step of a saga and queues its command.
+     * The step is due again after the lease, in case the command is lost before a worker claims it.
+     *
+     * @param saga The saga.
+     * @param step The step to execute.
+     */
+    private void dispatch(OrderSaga saga, SagaStep step) {
+        if (saga.getStep() != step) {
+            saga.setAttempts(0);
+        }
+        saga.setStep(step);
+        saga.setLeaseUntil(null);
+        saga.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(leaseMs)));
+        orderProducerService.sendSagaCommand(new OrderSagaCommand(saga.getOrderId(), step));
+    }
+
+    /**
+     * Schedules the next attempt of the current step, doubling the delay with every attempt.
+     *
+     * @param saga The saga whose step failed.
+     */
+    private void scheduleRetry(OrderSaga saga) {
+        var backoffMs = initialBackoffMs << Math.min(saga.getAttempts() - 1, 20);
+        saga.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(Math.min(backoffMs, maxBackoffMs))));
+        log.info("Saga step {} of order {} failed (attempt {}), retrying: {}",
+                saga.getStep(), saga.getOrderId(), saga.getAttempts(), saga.getLastError());
+    }
+
+    /**
+     * Ends a saga.
+     *
+     * @param saga   The saga.
+     * @param status The final status.
+     */
+    private static void finish(OrderSaga saga, SagaStatus status) {
+        saga.setStatus(status);
+        saga.setLeaseUntil(null);
+        saga.setNextAttemptAt(null);
+    }
+
+    /**
+     * Loads a saga to record the outcome of its claimed step.
+     *
+     * @param command The executed command.
+     * @return The saga, or null if it has moved on in the meantime.
+     */
+    private OrderSaga findClaimedSaga(OrderSagaCommand command) {
+        return orderSagaRepository.findById(command.orderId())
+                .filter(saga -> isActive(saga) && saga.getStep() == command.step())
+                .orElse(null);
+    }
+
+    private CustomerOrder findOrder(Integer orderId) {
+        return orderRepository.findById(orderId)
+                .orElseThrow(
+                        () -> new EntityNotFoundException("Order not found with id: " + orderId)
+                );
+    }
+
+    private static boolean isActive(OrderSaga saga) {
+        return saga.getStatus() == SagaStatus.RUNNING || saga.getStatus() == SagaStatus.COMPENSATING;
+    }
+
+    private static boolean isDue(OrderSaga saga, LocalDateTime now) {
+        return saga.getNextAttemptAt() != null && !saga.getNextAttemptAt().isAfter(now)
+                || saga.getLeaseUntil() != null && !saga.getLeaseUntil().isAfter(now);
+    }
+
+    /**
+     * Decides whether a failed step may succeed when retried.
+     * Business errors and client errors (other than timeouts and throttling) fail the same way on every attempt.
+     *
+     * @param ex The failure of the step.
+     * @return true if the step should be retried.
+     */
+    private static boolean isRetryable(RuntimeException ex) {
+        if (ex instanceof BusinessException || ex instanceof EntityNotFoundException) {
+            return false;
+        }
+        if (ex instanceof HttpClientErrorException clientError) {
+            return isRetryableStatus(clientError.getStatusCode().value());
+        }
+        if (ex instanceof FeignException feignException && feignException.status() >= 400 && feignException.status() < 500) {
+            return isRetryableStatus(feignException.status());
+        }
+        return true;
+    }
+
+    private static boolean isRetryableStatus(int status) {
+        return status == 408 || status == 429;
+    }
+
+    private static String reason(RuntimeException ex) {
+        var reason = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        return reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+    }
+
+    private String writeReservation(SagaReservation reservation) {
+        try {
+            return objectMapper.writeValueAsString(reservation);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Reservation cannot be serialized", ex);
+        }
+    }
+
+    private SagaReservation readReservation(OrderSaga saga) {
+        try {
+            return objectMapper.readValue(saga.getReservation(), SagaReservation.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot restore reservation of order " + saga.getOrderId(), ex);
+        }
+    }
+
+    /**
+     * The customer and the reserved products of an order, kept between the steps of its saga.
+     */
+    record SagaReservation(
+            CustomerResponseDTO customer,
+            List<ProductPurchaseResponseDTO> purchasedProducts
+    ) {
+    }
+}
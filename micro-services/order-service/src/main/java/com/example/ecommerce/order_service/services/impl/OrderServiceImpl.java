@@ -1,22 +1,30 @@
 package com.example.ecommerce.order_service.services.impl;
 
+import com.example.ecommerce.order_service.cache.CustomerCache;
+import com.example.ecommerce.order_service.entities.CustomerOrder;
 import com.example.ecommerce.order_service.exceptions.BusinessException;
-import com.example.ecommerce.order_service.feign_client.CustomerFeignClient;
 import com.example.ecommerce.order_service.feign_client.PaymentFeignClient;
 import com.example.ecommerce.order_service.mappers.OrderMapper;
 import com.example.ecommerce.order_service.models.*;
 import com.example.ecommerce.order_service.repositories.OrderRepository;
 import com.example.ecommerce.order_service.services.OrderLineService;
 import com.example.ecommerce.order_service.services.OrderProducerService;
+import com.example.ecommerce.order_service.services.OrderSagaService;
 import com.example.ecommerce.order_service.services.OrderService;
 import com.example.ecommerce.order_service.services.ProductService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -34,8 +42,8 @@ public class OrderServiceImpl implements OrderService {
     // Repository for accessing order data from the database.
     private final OrderRepository orderRepository;
 
-    // Feign client for interacting with the Customer microservice.
-    private final CustomerFeignClient customerFeignClient;
+    // Cache in front of the Customer microservice.
+    private final CustomerCache customerCache;
 
     // Feign client for interacting with the Payment microservice.
     private final PaymentFeignClient paymentFeignClient;
@@ -49,8 +57,21 @@ public class OrderServiceImpl implements OrderService {
     // Service for sending order confirmation messages.
     private final OrderProducerService orderProducerService;
 
+    // Service for completing asynchronously accepted orders.
+    private final OrderSagaService orderSagaService;
+
+    // Executor running the independent remote calls of the order flow concurrently.
+    private final ExecutorService orderTaskExecutor;
+
+    // Upper bound for the size of a keyset page.
+    private static final int MAX_PAGE_SIZE = 500;
+
     /**
      * Creates a new order.
+     * The customer lookup and the stock reservation do not depend on each other, so both remote calls
+     * run concurrently and the order waits for the slowest of them instead of their sum.
+     * If any step fails after the stock has been reserved, the reservation is released before the failure is rethrown.
+     * If the failure happens once the payment has been requested, the payments of the order are voided as well.
      *
      * @param orderRequestDTO The DTO containing order details.
      * @return The ID of the created order.
@@ -59,56 +80,228 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     @Override
     public Integer createOrder(OrderRequestDTO orderRequestDTO) {
-        var customer = customerFeignClient.findCustomerById(orderRequestDTO.customerId())
-                .orElseThrow(() -> new BusinessException("Cannot create order :: Customer not found with id: " + orderRequestDTO.customerId()));
-        var purchasedProducts = productService.executePurchaseProducts(
-                orderRequestDTO.purchases()
+        var reservation = reserveOrder(orderRequestDTO.customerId(), orderRequestDTO.purchases());
+
+        // Set before the payment request, since a request that timed out may still have been captured
+        Integer paidOrderId = null;
+        try {
+            var order = orderMapper.orderRequestDTOToOrder(orderRequestDTO);
+            order.setStatus(OrderStatus.COMPLETED);
+            var savedOrder = orderRepository.save(order);
+
+            saveOrderLines(savedOrder.getId(), orderRequestDTO.purchases());
+
+            paidOrderId = savedOrder.getId();
+            requestPayment(
+                    savedOrder,
+                    orderRequestDTO.amount(),
+                    orderRequestDTO.paymentMethod(),
+                    reservation
+            );
+            sendConfirmation(
+                    orderRequestDTO.reference(),
+                    orderRequestDTO.amount(),
+                    orderRequestDTO.paymentMethod(),
+                    reservation
+            );
+
+            log.info("Order created successfully with id: {}", savedOrder.getId());
+            return savedOrder.getId();
+        } catch (RuntimeException ex) {
+            if (paidOrderId != null) {
+                voidOrderPayments(paidOrderId, ex);
+            }
+            releasePurchasedProducts(orderRequestDTO.purchases(), ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Accepts a new order without contacting any other service.
+     * The order and its order lines are stored in the PENDING status, and the saga completing the order
+     * (stock reservation, payment and confirmation) is started in the same transaction.
+     *
+     * @param orderRequestDTO The DTO containing order details.
+     * @return The ID of the accepted order.
+     */
+    @Transactional
+    @Override
+    public Integer acceptOrder(OrderRequestDTO orderRequestDTO) {
+        var order = orderMapper.orderRequestDTOToOrder(orderRequestDTO);
+        order.setStatus(OrderStatus.PENDING);
+        var savedOrder = orderRepository.save(order);
+
+        saveOrderLines(savedOrder.getId(), orderRequestDTO.purchases());
+        orderSagaService.start(savedOrder.getId());
+
+        log.info("Order accepted with id: {}", savedOrder.getId());
+        return savedOrder.getId();
+    }
+
+    /**
+     * Verifies the customer and reserves the stock of an order concurrently.
+     * If the customer lookup fails while the reservation succeeded, the reservation is released.
+     *
+     * @param customerId The ID of the ordering customer.
+     * @param purchases  The products and quantities to reserve.
+     * @return The customer and the reserved products.
+     * @throws BusinessException if the customer is not found.
+     */
+    private OrderReservation reserveOrder(String customerId, List<ProductPurchaseRequestDTO> purchases) {
+        var customerFuture = CompletableFuture.supplyAsync(
+                () -> customerCache.findById(customerId)
+                        .orElseThrow(() -> new BusinessException("Cannot create order :: Customer not found with id: " + customerId)),
+                orderTaskExecutor
         );
-        var order = orderRepository.save(
-                orderMapper.orderRequestDTOToOrder(orderRequestDTO)
+        var purchaseFuture = CompletableFuture.supplyAsync(
+                () -> productService.executePurchaseProducts(purchases),
+                orderTaskExecutor
         );
 
-        for (var purchaseRequest : orderRequestDTO.purchases()) {
-            orderLineService.saveOrderLine(
-                    new OrderLineRequestDTO(
-                            null,
-                            order.getId(),
-                            purchaseRequest.productId(),
-                            purchaseRequest.quantity()
-                    )
+        try {
+            CompletableFuture.allOf(customerFuture, purchaseFuture).join();
+        } catch (CompletionException ex) {
+            var cause = unwrapCompletionException(ex);
+            // The reservation succeeded while the customer lookup failed, so the stock has to be given back.
+            if (!purchaseFuture.isCompletedExceptionally()) {
+                releasePurchasedProducts(purchases, cause);
+            }
+            throw cause;
+        }
+
+        return new OrderReservation(customerFuture.join(), purchaseFuture.join());
+    }
+
+    /**
+     * Persists all order lines of an order in one batch instead of one insert per line.
+     *
+     * @param orderId   The ID of the order.
+     * @param purchases The purchased products and quantities.
+     */
+    private void saveOrderLines(Integer orderId, List<ProductPurchaseRequestDTO> purchases) {
+        if (!purchases.isEmpty()) {
+            orderLineService.saveAllOrderLines(
+                    purchases.stream()
+                            .map(purchaseRequest -> new OrderLineRequestDTO(
+                                    null,
+                                    orderId,
+                                    purchaseRequest.productId(),
+                                    purchaseRequest.quantity()
+                            ))
+                            .toList()
             );
         }
+    }
 
+    /**
+     * Requests the payment of an order.
+     *
+     * @param order         The persisted order.
+     * @param amount        The total amount to pay.
+     * @param paymentMethod The payment method.
+     * @param reservation   The customer and the reserved products.
+     */
+    private void requestPayment(
+            CustomerOrder order,
+            BigDecimal amount,
+            PaymentMethod paymentMethod,
+            OrderReservation reservation
+    ) {
         // Create a payment request for the order.
         // This will trigger the payment process in the Payment microservice.
         var paymentRequest = new PaymentRequestDTO(
-                orderRequestDTO.amount(),
-                orderRequestDTO.paymentMethod(),
+                amount,
+                paymentMethod,
                 order.getId(),
                 order.getReference(),
-                customer
+                reservation.customer()
         );
 
         paymentFeignClient.requestOrderPayment(paymentRequest);
+    }
 
+    /**
+     * Publishes the confirmation of a paid order.
+     *
+     * @param reference     The order reference sent in the confirmation.
+     * @param amount        The total amount paid.
+     * @param paymentMethod The payment method.
+     * @param reservation   The customer and the reserved products.
+     */
+    private void sendConfirmation(
+            String reference,
+            BigDecimal amount,
+            PaymentMethod paymentMethod,
+            OrderReservation reservation
+    ) {
         // Send an order confirmation message to the Order Producer Service.
         // This will typically be used to notify other services or systems about the order creation.
         orderProducerService.sendOrderConfirmation(
                 new OrderConfirmationDTO(
-                        orderRequestDTO.reference(),
-                        orderRequestDTO.amount(),
-                        orderRequestDTO.paymentMethod(),
-                        customer,
-                        purchasedProducts
+                        reference,
+                        amount,
+                        paymentMethod,
+                        reservation.customer(),
+                        reservation.purchasedProducts()
                 )
         );
+    }
 
-        log.info("Order created successfully with id: {}", order.getId());
-        return order.getId();
+    /**
+     * Voids the payments of an order that could not be completed.
+     * Voiding is idempotent, so it is safe when the payment request itself failed.
+     * A failing void is logged and attached to the original failure instead of replacing it.
+     *
+     * @param orderId The ID of the order whose payments should be voided.
+     * @param cause   The failure that aborted the order.
+     */
+    private void voidOrderPayments(Integer orderId, RuntimeException cause) {
+        try {
+            paymentFeignClient.voidOrderPayments(orderId);
+        } catch (RuntimeException voidException) {
+            log.error("Failed to void the payments of order {} after order failure", orderId, voidException);
+            cause.addSuppressed(voidException);
+        }
+    }
+
+    /**
+     * Releases the stock reserved for an order that could not be completed.
+     * A failing release is logged and attached to the original failure instead of replacing it.
+     *
+     * @param purchases The purchases whose stock should be released.
+     * @param cause     The failure that aborted the order.
+     */
+    private void releasePurchasedProducts(List<ProductPurchaseRequestDTO> purchases, RuntimeException cause) {
+        try {
+            productService.releasePurchasedProducts(purchases);
+        } catch (RuntimeException releaseException) {
+            log.error("Failed to release reserved stock after order failure", releaseException);
+            cause.addSuppressed(releaseException);
+        }
+    }
+
+    /**
+     * Extracts the original runtime exception thrown by a concurrent step.
+     *
+     * @param ex The CompletionException raised while waiting for the step.
+     * @return The original exception, or the CompletionException itself if the cause is not a runtime exception.
+     */
+    private static RuntimeException unwrapCompletionException(CompletionException ex) {
+        return ex.getCause() instanceof RuntimeException cause ? cause : ex;
+    }
+
+    /**
+     * The customer and the reserved products of an order.
+     */
+    private record OrderReservation(
+            CustomerResponseDTO customer,
+            List<ProductPurchaseResponseDTO> purchasedProducts
+    ) {
     }
 
     /**
      * Retrieves all orders.
+     * Loads the whole table into memory; prefer {@link #findOrdersPage} or {@link #streamAllOrders} for large tables.
      *
      * @return A list of OrderResponseDTOs representing all orders.
      */
@@ -120,6 +313,60 @@ public class OrderServiceImpl implements OrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a page of orders using keyset pagination on the order ID.
+     * The cost of a page does not depend on how deep the client has paged, unlike offset pagination.
+     *
+     * @param after The ID of the last order of the previous page, or null for the first page.
+     * @param size  The requested page size, clamped to between 1 and {@value #MAX_PAGE_SIZE}.
+     * @return The page content and the cursor for the next page, or a null cursor if this is the last page.
+     */
+    @Override
+    public CursorPageResponseDTO<OrderResponseDTO> findOrdersPage(Integer after, int size) {
+        var pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        var content = orderRepository.findPageAfter(
+                after == null ? 0 : after,
+                Limit.of(pageSize)
+        );
+        var nextCursor = content.size() < pageSize ? null : content.getLast().id();
+        return new CursorPageResponseDTO<>(content, nextCursor);
+    }
+
+    /**
+     * Streams all orders to the given consumer, one at a time.
+     * Rows are read from a database cursor in chunks and never collected, so memory use does not grow with the table.
+     *
+     * @param consumer The consumer receiving each order.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void streamAllOrders(Consumer<OrderResponseDTO> consumer) {
+        try (var orders = orderRepository.streamAll()) {
+            orders.forEach(consumer);
+        }
+    }
+
+    /**
+     * Retrieves the processing status of an order.
+     *
+     * @param id The ID of the order.
+     * @return The OrderStatusResponseDTO representing the status of the order.
+     * @throws EntityNotFoundException if the order is not found.
+     */
+    @Override
+    public OrderStatusResponseDTO findOrderStatus(Integer id) {
+        return orderRepository.findById(id)
+                .map(order -> new OrderStatusResponseDTO(
+                        order.getId(),
+                        order.getReference(),
+                        order.getStatus(),
+                        order.getFailureReason()
+                ))
+                .orElseThrow(
+                        () -> new EntityNotFoundException("Order not found with id: " + id)
+                );
+    }
+
     /**
      * Retrieves an order by its ID.
      *
@@ -70,4 +70,86 @@ public class ProductServiceImpl implements ProductService {
         // Return the response body containing the purchase results
         return responseEntity.getBody();
     }
+
+    /**
+     * Releases stock previously reserved by {@link #executePurchaseProducts(List)}.
+     * Used as the compensating action when a later step of the order flow fails.
+     *
+     * @param requestBody A list of ProductPurchaseRequestDTO objects containing the quantities to release.
+     * @throws BusinessException If the response indicates a failure.
+     */
+    @Override
+    public void releasePurchasedProducts(List<ProductPurchaseRequestDTO> requestBody) {
+        var headers = new HttpHeaders();
+        headers.set("Content-Type", "application/json");
+
+        ResponseEntity<Void> responseEntity = restTemplate
+                .exchange(
+                        productUrl + "/purchase/release",
+                        HttpMethod.POST,
+                        new HttpEntity<>(requestBody, headers),
+                        Void.class
+                );
+
+        if (responseEntity.getStatusCode().isError()) {
+            throw new BusinessException("An error occurred while releasing the purchased products: " + responseEntity.getStatusCode());
+        }
+    }
+
+    /**
+     * Executes the purchase of the products of an order.
+     * The product service reserves the stock once per order, so the request can be retried after a timeout.
+     *
+     * @param orderId     The ID of the order the stock is reserved for.
+     * @param requestBody A list of ProductPurchaseRequestDTO objects containing the purchase details.
+     * @return A list of ProductPurchaseResponseDTO objects containing the response from the product service.
+     * @throws BusinessException If the response indicates a failure.
+     */
+    @Override
+    public List<ProductPurchaseResponseDTO> executeOrderPurchase(Integer orderId, List<ProductPurchaseRequestDTO> requestBody) {
+        var headers = new HttpHeaders();
+        headers.set("Content-Type", "application/json");
+
+        ResponseEntity<List<ProductPurchaseResponseDTO>> responseEntity = restTemplate
+                .exchange(
+                        productUrl + "/purchase/orders/" + orderId,
+                        HttpMethod.POST,
+                        new HttpEntity<>(requestBody, headers),
+                        new ParameterizedTypeReference<>() {
+                        }
+                );
+
+        if (responseEntity.getStatusCode().isError()) {
+            throw new BusinessException("An error occurred while processing the product purchase request: " + responseEntity.getStatusCode());
+        }
+
+        return responseEntity.getBody();
+    }
+
+    /**
+     * Releases the stock reserved by {@link #executeOrderPurchase(Integer, List)}.
+     * The product service releases the stock of an order once, and records the release if nothing was reserved,
+     * so the request can be retried and is safe when the purchase never arrived.
+     *
+     * @param orderId     The ID of the order whose stock is released.
+     * @param requestBody A list of ProductPurchaseRequestDTO objects containing the quantities to release.
+     * @throws BusinessException If the response indicates a failure.
+     */
+    @Override
+    public void releaseOrderPurchase(Integer orderId, List<ProductPurchaseRequestDTO> requestBody) {
+        var headers = new HttpHeaders();
+        headers.set("Content-Type", "application/json");
+
+        ResponseEntity<Void> responseEntity = restTemplate
+                .exchange(
+                        productUrl + "/purchase/orders/" + orderId + "/release",
+                        HttpMethod.POST,
+                        new HttpEntity<>(requestBody, headers),
+                        Void.class
+                );
+
+        if (responseEntity.getStatusCode().isError()) {
+            throw new BusinessException("An error occurred while releasing the purchased products: " + responseEntity.getStatusCode());
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.ecommerce.order_service.cache;
+
+import com.example.ecommerce.order_service.feign_client.CustomerFeignClient;
+import com.example.ecommerce.order_service.models.CustomerResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CustomerCache class.
+ * This class tests caching and eviction of customer lookups with a real cache manager and a mocked Feign client.
+ */
+@SpringJUnitConfig(CustomerCacheTest.CacheTestConfig.class)
+class CustomerCacheTest {
+
+    @MockitoBean
+    private CustomerFeignClient customerFeignClient;
+
+    @Autowired
+    private CustomerCache customerCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private CustomerResponseDTO customer;
+
+    /**
+     * Sets up the test environment before each test.
+     * Clears the cache and initializes test data.
+     */
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CustomerCache.CUSTOMERS_CACHE).clear();
+        customer = new CustomerResponseDTO("customer1", "John", "Doe", "john@example.com");
+    }
+
+    /**
+     * Tests that a found customer is served from the cache on subsequent lookups.
+     */
+    @Test
+    void findById_CachesFoundCustomer() {
+        when(customerFeignClient.findCustomerById("customer1")).thenReturn(Optional.of(customer));
+
+        assertEquals(Optional.of(customer), customerCache.findById("customer1"));
+        assertEquals(Optional.of(customer), customerCache.findById("customer1"));
+
+        verify(customerFeignClient, times(1)).findCustomerById("customer1");
+    }
+
+    /**
+     * Tests that a missing customer is not cached.
+     */
+    @Test
+    void findById_DoesNotCacheMissingCustomer() {
+        when(customerFeignClient.findCustomerById("customer1")).thenReturn(Optional.empty(), Optional.of(customer));
+
+        assertTrue(customerCache.findById("customer1").isEmpty());
+        assertEquals(Optional.of(customer), customerCache.findById("customer1"));
+
+        verify(customerFeignClient, times(2)).findCustomerById("customer1");
+    }
+
+    /**
+     * Tests that an evicted customer is looked up again.
+     */
+    @Test
+    void evict_ForcesNextLookup() {
+        when(customerFeignClient.findCustomerById("customer1")).thenReturn(Optional.of(customer));
+
+        customerCache.findById("customer1");
+        customerCache.evict("customer1");
+        customerCache.findById("customer1");
+
+        verify(customerFeignClient, times(2)).findCustomerById("customer1");
+    }
+
+    @Configuration
+    @EnableCaching
+    @Import(CustomerCache.class)
+    static class CacheTestConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CustomerCache.CUSTOMERS_CACHE);
+        }
+    }
+}
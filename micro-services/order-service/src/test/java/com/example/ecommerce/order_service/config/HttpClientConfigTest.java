@@ -0,0 +1,92 @@
+package com.example.ecommerce.order_service.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HttpClientConfig class.
+ * This class tests that the shared HTTP client reuses pooled connections and applies the read timeout,
+ * using a local HTTP server.
+ */
+class HttpClientConfigTest {
+
+    private final HttpClientConfig httpClientConfig = new HttpClientConfig();
+
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private String baseUrl;
+
+    /**
+     * Sets up the test environment before each test.
+     * Starts a local server answering /ok immediately and /slow after a delay, and builds the client as configured.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", exchange -> {
+            var body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        connectionManager = httpClientConfig.httpClientConnectionManager(10, 5, 1000, 200, 60000, 2000);
+        httpClient = httpClientConfig.httpClient(connectionManager, 200, 1000, 30000);
+        restTemplate = new RestTemplateConfig().restTemplate(httpClient);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    /**
+     * Tests sending several sequential requests.
+     * Verifies that they share one pooled keep-alive connection instead of opening one per request.
+     */
+    @Test
+    void restTemplate_sequentialRequests_reuseConnection() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("ok", restTemplate.getForObject(baseUrl + "/ok", String.class));
+        }
+
+        var stats = connectionManager.getTotalStats();
+        assertEquals(0, stats.getLeased());
+        assertEquals(1, stats.getAvailable());
+    }
+
+    /**
+     * Tests a request to a server that answers slower than the read timeout.
+     * Verifies that the call fails instead of waiting for the response.
+     */
+    @Test
+    void restTemplate_slowResponse_timesOut() {
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ecommerce.order_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the IdSequenceInitializer class.
+ */
+class IdSequenceInitializerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    /**
+     * Tests that the order line sequence is raised one allocation above the largest stored order line id,
+     * and never lowered.
+     */
+    @Test
+    void afterPropertiesSet_seedsOrderLineSequenceFromMaxId() {
+        new IdSequenceInitializer(jdbcTemplate).afterPropertiesSet();
+
+        verify(jdbcTemplate).update(
+                "UPDATE order_line_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) FROM order_line) + ?)",
+                50
+        );
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ecommerce.order_service.serialization;
+
+import com.example.ecommerce.order_service.models.CustomerResponseDTO;
+import com.example.ecommerce.order_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.order_service.models.PaymentMethod;
+import com.example.ecommerce.order_service.models.ProductPurchaseResponseDTO;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the OrderConfirmationAvroSerializer class.
+ * These tests decode the written bytes with the bundled schema and compare the fields with the serialized DTO.
+ */
+class OrderConfirmationAvroSerializerTest {
+
+    private final OrderConfirmationAvroSerializer serializer = new OrderConfirmationAvroSerializer();
+
+    @Test
+    void serialize_writesSingleObjectEncodedRecord() throws IOException {
+        var orderConfirmation = new OrderConfirmationDTO(
+                "ORD-0001",
+                new BigDecimal("39.985"),
+                PaymentMethod.CREDIT_CARD,
+                new CustomerResponseDTO("customer-1", "John", "Doe", "john.doe@example.com"),
+                List.of(new ProductPurchaseResponseDTO(7, "Product", null, new BigDecimal("19.99"), 2))
+        );
+
+        var bytes = serializer.serialize("order-topic", orderConfirmation);
+
+        // Single-object encoding marker
+        assertEquals((byte) 0xC3, bytes[0]);
+        assertEquals((byte) 0x01, bytes[1]);
+
+        Schema schema;
+        try (var in = getClass().getClassLoader().getResourceAsStream(OrderConfirmationAvroSerializer.SCHEMA)) {
+            schema = new Schema.Parser().parse(in);
+        }
+        var record = new BinaryMessageDecoder<GenericRecord>(GenericData.get(), schema).decode(bytes);
+
+        assertEquals("ORD-0001", record.get("orderReference").toString());
+        assertEquals(new BigDecimal("39.985"), decimal(record.get("totalAmount")));
+        assertEquals("CREDIT_CARD", record.get("paymentMethod").toString());
+        assertEquals("john.doe@example.com", ((GenericRecord) record.get("customer")).get("email").toString());
+
+        var purchase = (GenericRecord) ((List<?>) record.get("purchases")).getFirst();
+        assertEquals(7, purchase.get("productId"));
+        assertNull(purchase.get("description"));
+        assertEquals(new BigDecimal("19.99"), decimal(purchase.get("price")));
+        assertEquals(2.0, purchase.get("quantity"));
+    }
+
+    @Test
+    void serialize_nullPayload_returnsNull() {
+        assertNull(serializer.serialize("order-topic", null));
+    }
+
+    private static BigDecimal decimal(Object value) {
+        var record = (GenericRecord) value;
+        var unscaled = (ByteBuffer) record.get("unscaled");
+        var bytes = new byte[unscaled.remaining()];
+        unscaled.get(bytes);
+        return new BigDecimal(new BigInteger(bytes), (Integer) record.get("scale"));
+    }
+}
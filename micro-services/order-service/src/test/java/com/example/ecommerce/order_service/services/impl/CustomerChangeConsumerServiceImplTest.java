@@ -0,0 +1,54 @@
+package com.example.ecommerce.order_service.services.impl;
+
+import com.example.ecommerce.order_service.cache.CustomerCache;
+import com.example.ecommerce.order_service.models.CustomerChangeDTO;
+import com.example.ecommerce.order_service.models.CustomerChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CustomerChangeConsumerServiceImpl class.
+ * This class tests evicting changed customers from the cache using mocked dependencies.
+ */
+class CustomerChangeConsumerServiceImplTest {
+
+    @Mock
+    private CustomerCache customerCache;
+
+    @InjectMocks
+    private CustomerChangeConsumerServiceImpl customerChangeConsumerService;
+
+    /**
+     * Sets up the test environment before each test.
+     * Initializes mocks.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * Tests that an updated customer is evicted from the cache.
+     */
+    @Test
+    void consumeCustomerChange_Updated_EvictsCustomer() {
+        customerChangeConsumerService.consumeCustomerChange(new CustomerChangeDTO("customer1", CustomerChangeType.UPDATED));
+
+        verify(customerCache).evict("customer1");
+    }
+
+    /**
+     * Tests that a deleted customer is evicted from the cache.
+     */
+    @Test
+    void consumeCustomerChange_Deleted_EvictsCustomer() {
+        customerChangeConsumerService.consumeCustomerChange(new CustomerChangeDTO("customer1", CustomerChangeType.DELETED));
+
+        verify(customerCache).evict("customer1");
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.ecommerce.order_service.services.impl;
+
+import com.example.ecommerce.order_service.entities.IdempotencyRecord;
+import com.example.ecommerce.order_service.exceptions.BusinessException;
+import com.example.ecommerce.order_service.exceptions.IdempotencyConflictException;
+import com.example.ecommerce.order_service.models.OrderRequestDTO;
+import com.example.ecommerce.order_service.models.PaymentMethod;
+import com.example.ecommerce.order_service.models.ProductPurchaseRequestDTO;
+import com.example.ecommerce.order_service.repositories.IdempotencyRecordRepository;
+import com.example.ecommerce.order_service.services.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OrderIdempotencyServiceImpl class.
+ * This class tests the deduplication of order creation requests using mocked dependencies.
+ */
+class OrderIdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private OrderIdempotencyServiceImpl orderIdempotencyService;
+
+    private OrderRequestDTO orderRequestDTO;
+
+    /**
+     * Sets up the test environment before each test.
+     * Initializes mocks, the retention setting and test data.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(orderIdempotencyService, "retentionHours", 24L);
+        orderRequestDTO = new OrderRequestDTO(
+                null,
+                "order123",
+                BigDecimal.valueOf(100.00),
+                PaymentMethod.CREDIT_CARD,
+                "customer123",
+                List.of(new ProductPurchaseRequestDTO(1, 2.0))
+        );
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private IdempotencyRecord storedRecordFor(String key, OrderRequestDTO request, Integer orderId) {
+        // Stores the request through the service once to capture the exact fingerprint it computes
+        when(idempotencyRecordRepository.findById(key)).thenReturn(Optional.empty());
+        when(orderService.createOrder(request)).thenReturn(orderId);
+        orderIdempotencyService.createOrder(key, request);
+        var captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(captor.capture());
+        clearInvocations(idempotencyRecordRepository, orderService);
+        return captor.getValue();
+    }
+
+    /**
+     * Tests creating an order without an idempotency key or reference.
+     * Verifies that the order is created without touching the idempotency records.
+     */
+    @Test
+    void createOrder_noKeyAndNoReference_createsOrderDirectly() {
+        var request = new OrderRequestDTO(
+                null, null, BigDecimal.TEN, PaymentMethod.CREDIT_CARD, "customer123", List.of()
+        );
+        when(orderService.createOrder(request)).thenReturn(7);
+
+        assertEquals(7, orderIdempotencyService.createOrder(null, request));
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    /**
+     * Tests creating an order with a new idempotency key.
+     * Verifies that the record is stored with the created order ID.
+     */
+    @Test
+    void createOrder_newKey_createsOrderAndStoresRecord() {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(orderService.createOrder(orderRequestDTO)).thenReturn(1);
+
+        var result = orderIdempotencyService.createOrder("key-1", orderRequestDTO);
+
+        assertEquals(1, result);
+        var captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(captor.capture());
+        assertEquals("key-1", captor.getValue().getKey());
+        assertEquals(64, captor.getValue().getRequestHash().length());
+        assertEquals(1, captor.getValue().getOrderId());
+    }
+
+    /**
+     * Tests creating an order without a header.
+     * Verifies that the order reference is used as the idempotency key.
+     */
+    @Test
+    void createOrder_noKey_usesReference() {
+        when(idempotencyRecordRepository.findById("order123")).thenReturn(Optional.empty());
+        when(orderService.createOrder(orderRequestDTO)).thenReturn(1);
+
+        orderIdempotencyService.createOrder(null, orderRequestDTO);
+
+        var captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(captor.capture());
+        assertEquals("order123", captor.getValue().getKey());
+    }
+
+    /**
+     * Tests retrying a completed request.
+     * Verifies that the stored order ID is returned and the order is not created again.
+     */
+    @Test
+    void createOrder_completedDuplicate_replaysStoredOrderId() {
+        var record = storedRecordFor("key-1", orderRequestDTO, 1);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(record));
+
+        var result = orderIdempotencyService.createOrder("key-1", orderRequestDTO);
+
+        assertEquals(1, result);
+        verify(orderService, never()).createOrder(any());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Tests reusing a key for a different request body.
+     * Verifies that an IdempotencyConflictException is thrown.
+     */
+    @Test
+    void createOrder_keyReusedWithDifferentBody_throwsConflict() {
+        var record = storedRecordFor("key-1", orderRequestDTO, 1);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(record));
+        var otherRequest = new OrderRequestDTO(
+                null, "order123", BigDecimal.valueOf(999), PaymentMethod.CREDIT_CARD, "customer123", List.of()
+        );
+
+        assertThrows(
+                IdempotencyConflictException.class,
+                () -> orderIdempotencyService.createOrder("key-1", otherRequest)
+        );
+        verify(orderService, never()).createOrder(any());
+    }
+
+    /**
+     * Tests a concurrent duplicate that loses the race for the key.
+     * Verifies that the outcome committed by the winning request is replayed.
+     */
+    @Test
+    void createOrder_concurrentDuplicate_replaysWinnerOutcome() {
+        var record = storedRecordFor("key-1", orderRequestDTO, 1);
+        when(idempotencyRecordRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(record));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        var result = orderIdempotencyService.createOrder("key-1", orderRequestDTO);
+
+        assertEquals(1, result);
+        verify(orderService, never()).createOrder(any());
+    }
+
+    /**
+     * Tests a constraint violation that is not caused by the idempotency key.
+     * Verifies that the original exception is rethrown.
+     */
+    @Test
+    void createOrder_otherConstraintViolation_rethrows() {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(orderService.createOrder(orderRequestDTO))
+                .thenThrow(new DataIntegrityViolationException("Duplicate reference"));
+
+        assertThrows(
+                DataIntegrityViolationException.class,
+                () -> orderIdempotencyService.createOrder("key-1", orderRequestDTO)
+        );
+    }
+
+    /**
+     * Tests creating an order with an idempotency key longer than the key column.
+     * Verifies that a BusinessException is thrown.
+     */
+    @Test
+    void createOrder_keyTooLong_throwsBusinessException() {
+        var key = "k".repeat(256);
+
+        assertThrows(
+                BusinessException.class,
+                () -> orderIdempotencyService.createOrder(key, orderRequestDTO)
+        );
+        verifyNoInteractions(idempotencyRecordRepository, orderService);
+    }
+
+    /**
+     * Tests accepting an order with a new idempotency key.
+     * Verifies that the order is accepted for asynchronous processing and the record is stored.
+     */
+    @Test
+    void acceptOrder_newKey_acceptsOrderAndStoresRecord() {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(orderService.acceptOrder(orderRequestDTO)).thenReturn(1);
+
+        var result = orderIdempotencyService.acceptOrder("key-1", orderRequestDTO);
+
+        assertEquals(1, result);
+        verify(orderService, never()).createOrder(any());
+        var captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(captor.capture());
+        assertEquals(1, captor.getValue().getOrderId());
+    }
+
+    /**
+     * Tests retrying an accepted order without a header.
+     * Verifies that the order stored under its reference is returned and not accepted again.
+     */
+    @Test
+    void acceptOrder_completedDuplicate_replaysStoredOrderId() {
+        var record = storedRecordFor("order123", orderRequestDTO, 1);
+        when(idempotencyRecordRepository.findById("order123")).thenReturn(Optional.of(record));
+
+        var result = orderIdempotencyService.acceptOrder(null, orderRequestDTO);
+
+        assertEquals(1, result);
+        verify(orderService, never()).acceptOrder(any());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Tests purging expired records.
+     * Verifies that records older than the retention period are deleted.
+     */
+    @Test
+    void purgeExpiredRecords_deletesRecordsOlderThanRetention() {
+        when(idempotencyRecordRepository.deleteAllCreatedBefore(any(LocalDateTime.class))).thenReturn(3);
+
+        var deleted = orderIdempotencyService.purgeExpiredRecords();
+
+        assertEquals(3, deleted);
+        var captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(idempotencyRecordRepository).deleteAllCreatedBefore(captor.capture());
+        assertTrue(captor.getValue().isBefore(LocalDateTime.now().minusHours(23)));
+    }
+}
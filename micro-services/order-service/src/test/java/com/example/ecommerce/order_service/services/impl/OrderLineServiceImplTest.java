@@ -4,6 +4,7 @@ import com.example.ecommerce.order_service.entities.OrderLine;
 import com.example.ecommerce.order_service.mappers.OrderLineMapper;
 import com.example.ecommerce.order_service.models.OrderLineRequestDTO;
 import com.example.ecommerce.order_service.models.OrderLineResponseDTO;
+import com.example.ecommerce.order_service.models.ProductPurchaseRequestDTO;
 import com.example.ecommerce.order_service.repositories.OrderLineRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -85,6 +86,45 @@ class OrderLineServiceImplTest {
         ).save(orderLine);
     }
 
+    /**
+     * Tests saving several order lines in one batch.
+     * Verifies that all order lines are passed to a single saveAll call and their IDs are returned in order.
+     */
+    @Test
+    void testSaveAllOrderLines_Success() {
+        var secondRequestDTO = new OrderLineRequestDTO(null, 1, 2, 3.0);
+        var secondOrderLine = new OrderLine();
+        secondOrderLine.setId(2);
+
+        when(orderLineMapper.orderRequestDTOToOrderLine(orderLineRequestDTO)).thenReturn(orderLine);
+        when(orderLineMapper.orderRequestDTOToOrderLine(secondRequestDTO)).thenReturn(secondOrderLine);
+        when(
+                orderLineRepository.saveAll(List.of(orderLine, secondOrderLine))
+        ).thenReturn(List.of(orderLine, secondOrderLine));
+
+        var ids = orderLineServiceImpl.saveAllOrderLines(List.of(orderLineRequestDTO, secondRequestDTO));
+
+        assertEquals(List.of(1, 2), ids);
+
+        verify(
+                orderLineRepository, times(1)
+        ).saveAll(List.of(orderLine, secondOrderLine));
+        verify(orderLineRepository, never()).save(any());
+    }
+
+    /**
+     * Tests saving an empty list of order lines.
+     * Verifies that an empty list is returned without touching the repository.
+     */
+    @Test
+    void testSaveAllOrderLines_EmptyList() {
+        var ids = orderLineServiceImpl.saveAllOrderLines(List.of());
+
+        assertTrue(ids.isEmpty());
+
+        verifyNoInteractions(orderLineRepository);
+    }
+
     /**
      * Tests saving an order line with a null request.
      * Verifies that a NullPointerException is thrown.
@@ -189,4 +229,18 @@ class OrderLineServiceImplTest {
         ).orderLineToOrderLineResponseDTO(any());
     }
 
+    /**
+     * Tests retrieving the purchases of an order.
+     * Verifies that every order line is mapped to a purchase request.
+     */
+    @Test
+    void testFindPurchasesByOrderId_ReturnsMappedPurchases() {
+        var purchase = new ProductPurchaseRequestDTO(1, 2.0);
+        when(orderLineRepository.findAllByOrderId(1)).thenReturn(List.of(orderLine));
+        when(orderLineMapper.orderLineToProductPurchaseRequestDTO(orderLine)).thenReturn(purchase);
+
+        List<ProductPurchaseRequestDTO> result = orderLineServiceImpl.findPurchasesByOrderId(1);
+
+        assertEquals(List.of(purchase), result);
+    }
 }
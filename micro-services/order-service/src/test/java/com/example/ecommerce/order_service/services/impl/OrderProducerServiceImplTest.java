@@ -1,17 +1,21 @@
 package com.example.ecommerce.order_service.services.impl;
 
+import com.example.ecommerce.order_service.entities.OutboxEvent;
 import com.example.ecommerce.order_service.models.CustomerResponseDTO;
 import com.example.ecommerce.order_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.order_service.models.OrderSagaCommand;
 import com.example.ecommerce.order_service.models.PaymentMethod;
 import com.example.ecommerce.order_service.models.ProductPurchaseResponseDTO;
+import com.example.ecommerce.order_service.models.SagaStep;
+import com.example.ecommerce.order_service.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.Message;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -21,12 +25,15 @@ import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for the OrderProducerServiceImpl class.
- * This class tests the functionality of sending order confirmation messages via Kafka.
+ * This class tests the functionality of queueing order confirmation messages and saga commands in the outbox.
  */
 class OrderProducerServiceImplTest {
 
     @Mock
-    private KafkaTemplate<String, OrderConfirmationDTO> kafkaTemplate;
+    private OutboxEventRepository outboxEventRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @InjectMocks
     private OrderProducerServiceImpl orderProducerService;
@@ -53,23 +60,26 @@ class OrderProducerServiceImplTest {
     }
 
     /**
-     * Tests sending an order confirmation message successfully.
-     * Verifies that the message is sent and the payload matches the expected data.
+     * Tests queueing an order confirmation message successfully.
+     * Verifies that an outbox event is stored and its payload matches the expected data.
      */
     @Test
-    void sendOrderConfirmation_sendsMessageSuccessfully() {
+    void sendOrderConfirmation_storesOutboxEvent() throws Exception {
         orderProducerService.sendOrderConfirmation(orderConfirmationDTO);
-        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
-        verify(kafkaTemplate, times(1)).send(captor.capture());
-        Message sentMessage = captor.getValue();
-        assertNotNull(sentMessage);
-        assertEquals(orderConfirmationDTO, sentMessage.getPayload());
-        assertEquals("order-topic", sentMessage.getHeaders().get("kafka_topic"));
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertNotNull(event);
+        assertEquals("order-topic", event.getTopic());
+        assertEquals("order123", event.getAggregateId());
+        assertEquals(orderConfirmationDTO.customer().id(), event.getMessageKey());
+        assertEquals(OrderConfirmationDTO.class.getName(), event.getPayloadType());
+        assertEquals(orderConfirmationDTO, objectMapper.readValue(event.getPayload(), OrderConfirmationDTO.class));
     }
 
     /**
-     * Tests sending an order confirmation message with a null DTO.
-     * Verifies that an IllegalArgumentException is thrown and no message is sent.
+     * Tests queueing an order confirmation message with a null DTO.
+     * Verifies that an IllegalArgumentException is thrown and nothing is stored.
      */
     @Test
     void sendOrderConfirmation_withNullDTO() {
@@ -78,16 +88,36 @@ class OrderProducerServiceImplTest {
                 () -> orderProducerService.sendOrderConfirmation(null)
         );
 
-        verify(kafkaTemplate, never()).send(any(Message.class));
+        verify(outboxEventRepository, never()).save(any());
     }
 
     /**
-     * Tests handling exceptions thrown by the KafkaTemplate during message sending.
-     * Verifies that the exception is propagated correctly.
+     * Tests handling exceptions thrown by the outbox repository.
+     * Verifies that the exception is propagated so the surrounding transaction rolls back.
      */
     @Test
-    void sendOrderConfirmation_kafkaTemplateThrowsException() {
-        doThrow(new RuntimeException("Kafka error")).when(kafkaTemplate).send(any(Message.class));
+    void sendOrderConfirmation_repositoryThrowsException() {
+        doThrow(new RuntimeException("DB error")).when(outboxEventRepository).save(any());
         assertThrows(RuntimeException.class, () -> orderProducerService.sendOrderConfirmation(orderConfirmationDTO));
     }
+
+    /**
+     * Tests queueing an order saga command.
+     * Verifies that an outbox event keyed by the order ID is stored for the saga topic.
+     */
+    @Test
+    void sendSagaCommand_storesOutboxEvent() throws Exception {
+        var command = new OrderSagaCommand(7, SagaStep.REQUEST_PAYMENT);
+
+        orderProducerService.sendSagaCommand(command);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertEquals("order-saga-topic", event.getTopic());
+        assertEquals("7", event.getAggregateId());
+        assertEquals("7", event.getMessageKey());
+        assertEquals(OrderSagaCommand.class.getName(), event.getPayloadType());
+        assertEquals(command, objectMapper.readValue(event.getPayload(), OrderSagaCommand.class));
+    }
 }
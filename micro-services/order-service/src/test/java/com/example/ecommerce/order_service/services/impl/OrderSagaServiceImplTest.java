@@ -0,0 +1,338 @@
+package com.example.ecommerce.order_service.services.impl;
+
+import com.example.ecommerce.order_service.cache.CustomerCache;
+import com.example.ecommerce.order_service.entities.CustomerOrder;
+import com.example.ecommerce.order_service.entities.OrderSaga;
+import com.example.ecommerce.order_service.exceptions.BusinessException;
+import com.example.ecommerce.order_service.feign_client.PaymentFeignClient;
+import com.example.ecommerce.order_service.models.*;
+import com.example.ecommerce.order_service.repositories.OrderRepository;
+import com.example.ecommerce.order_service.repositories.OrderSagaRepository;
+import com.example.ecommerce.order_service.services.OrderLineService;
+import com.example.ecommerce.order_service.services.OrderProducerService;
+import com.example.ecommerce.order_service.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OrderSagaServiceImpl class.
+ * This class tests executing, retrying and compensating the steps of order sagas using mocked dependencies.
+ */
+class OrderSagaServiceImplTest {
+
+    @Mock
+    private OrderSagaRepository orderSagaRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderLineService orderLineService;
+
+    @Mock
+    private CustomerCache customerCache;
+
+    @Mock
+    private PaymentFeignClient paymentFeignClient;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private OrderProducerService orderProducerService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private OrderSagaServiceImpl orderSagaService;
+
+    private CustomerOrder order;
+    private CustomerResponseDTO customer;
+    private List<ProductPurchaseRequestDTO> purchases;
+    private List<ProductPurchaseResponseDTO> purchasedProducts;
+
+    /**
+     * Sets up the test environment before each test.
+     * Initializes mocks, retry settings and test data; saved sagas are returned as they are.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(orderSagaService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(orderSagaService, "maxCompensationAttempts", 5);
+        ReflectionTestUtils.setField(orderSagaService, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(orderSagaService, "maxBackoffMs", 60000L);
+        ReflectionTestUtils.setField(orderSagaService, "leaseMs", 60000L);
+        ReflectionTestUtils.setField(orderSagaService, "redispatchBatchSize", 10);
+        when(orderSagaRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        order = CustomerOrder.builder()
+                .id(1)
+                .reference("REF1")
+                .totalAmount(BigDecimal.TEN)
+                .paymentMethod(PaymentMethod.PAYPAL)
+                .customerId("customer1")
+                .status(OrderStatus.PENDING)
+                .build();
+        customer = new CustomerResponseDTO("customer1", "John", "Doe", "john@doe.com");
+        purchases = List.of(new ProductPurchaseRequestDTO(5, 2));
+        purchasedProducts = List.of(new ProductPurchaseResponseDTO(5, "Product", "Description", BigDecimal.valueOf(5), 2.0));
+        when(orderRepository.findById(1)).thenReturn(Optional.of(order));
+        when(orderLineService.findPurchasesByOrderId(1)).thenReturn(purchases);
+    }
+
+    /**
+     * Tests starting a saga.
+     * Verifies that a RUNNING saga is stored and its first step is queued.
+     */
+    @Test
+    void start_savesSagaAndQueuesFirstStep() {
+        orderSagaService.start(1);
+
+        var captor = ArgumentCaptor.forClass(OrderSaga.class);
+        verify(orderSagaRepository).save(captor.capture());
+        assertEquals(SagaStatus.RUNNING, captor.getValue().getStatus());
+        assertEquals(SagaStep.RESERVE_STOCK, captor.getValue().getStep());
+        assertNotNull(captor.getValue().getNextAttemptAt());
+        verify(orderProducerService).sendSagaCommand(new OrderSagaCommand(1, SagaStep.RESERVE_STOCK));
+    }
+
+    /**
+     * Tests a successful stock reservation.
+     * Verifies that the order is marked PROCESSING, the reservation is stored and the payment step is queued.
+     */
+    @Test
+    void handle_reserveStockSucceeds_queuesPayment() {
+        var saga = givenSaga(SagaStep.RESERVE_STOCK, SagaStatus.RUNNING);
+        when(customerCache.findById("customer1")).thenReturn(Optional.of(customer));
+        when(productService.executeOrderPurchase(1, purchases)).thenReturn(purchasedProducts);
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RESERVE_STOCK));
+
+        verify(orderRepository).updateStatus(1, OrderStatus.PENDING, OrderStatus.PROCESSING, null);
+        assertTrue(saga.isStockReserved());
+        assertNotNull(saga.getReservation());
+        assertEquals(SagaStep.REQUEST_PAYMENT, saga.getStep());
+        assertEquals(0, saga.getAttempts());
+        assertNull(saga.getLeaseUntil());
+        verify(orderProducerService).sendSagaCommand(new OrderSagaCommand(1, SagaStep.REQUEST_PAYMENT));
+    }
+
+    /**
+     * Tests a successful payment request.
+     * Verifies that the order is completed, the confirmation is queued and the saga is COMPLETED.
+     */
+    @Test
+    void handle_requestPaymentSucceeds_completesOrder() throws Exception {
+        var saga = givenSaga(SagaStep.REQUEST_PAYMENT, SagaStatus.RUNNING);
+        saga.setStockReserved(true);
+        saga.setReservation(objectMapper.writeValueAsString(new OrderSagaServiceImpl.SagaReservation(customer, purchasedProducts)));
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.REQUEST_PAYMENT));
+
+        verify(paymentFeignClient).requestOrderPayment(
+                new PaymentRequestDTO(BigDecimal.TEN, PaymentMethod.PAYPAL, 1, "REF1", customer)
+        );
+        verify(orderRepository).updateStatus(1, OrderStatus.PROCESSING, OrderStatus.COMPLETED, null);
+        verify(orderProducerService).sendOrderConfirmation(
+                new OrderConfirmationDTO("REF1", BigDecimal.TEN, PaymentMethod.PAYPAL, customer, purchasedProducts)
+        );
+        assertEquals(SagaStatus.COMPLETED, saga.getStatus());
+        assertNull(saga.getNextAttemptAt());
+        assertNull(saga.getLeaseUntil());
+    }
+
+    /**
+     * Tests a step failing with a transient error.
+     * Verifies that a retry is scheduled with backoff and nothing is compensated.
+     */
+    @Test
+    void handle_transientFailure_schedulesRetry() {
+        var saga = givenSaga(SagaStep.RESERVE_STOCK, SagaStatus.RUNNING);
+        when(customerCache.findById("customer1")).thenReturn(Optional.of(customer));
+        when(productService.executeOrderPurchase(1, purchases)).thenThrow(new RuntimeException("Connection reset"));
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RESERVE_STOCK));
+
+        assertEquals(SagaStatus.RUNNING, saga.getStatus());
+        assertEquals(1, saga.getAttempts());
+        assertEquals("Connection reset", saga.getLastError());
+        assertNull(saga.getLeaseUntil());
+        assertTrue(saga.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(orderProducerService, never()).sendSagaCommand(any());
+        verify(orderRepository, never()).updateStatus(1, OrderStatus.PROCESSING, OrderStatus.FAILED, "Connection reset");
+    }
+
+    /**
+     * Tests a stock reservation failing with a business error.
+     * Verifies that the order fails at once and the stock is released, since the claimed step may have reserved it.
+     */
+    @Test
+    void handle_businessFailure_failsOrderWithoutRetry() {
+        var saga = givenSaga(SagaStep.RESERVE_STOCK, SagaStatus.RUNNING);
+        when(customerCache.findById("customer1")).thenReturn(Optional.empty());
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RESERVE_STOCK));
+
+        verify(orderRepository).updateStatus(
+                1, OrderStatus.PROCESSING, OrderStatus.FAILED, "Cannot create order :: Customer not found with id: customer1"
+        );
+        assertEquals(SagaStatus.COMPENSATING, saga.getStatus());
+        assertEquals(SagaStep.RELEASE_STOCK, saga.getStep());
+        verifyNoInteractions(productService, paymentFeignClient);
+        verify(orderProducerService).sendSagaCommand(new OrderSagaCommand(1, SagaStep.RELEASE_STOCK));
+        verify(orderProducerService, never()).sendSagaCommand(new OrderSagaCommand(1, SagaStep.VOID_PAYMENT));
+    }
+
+    /**
+     * Tests a stock reservation whose response is lost on every attempt.
+     * Verifies that the retries ask for the reservation of the same order, and that the stock is released
+     * once the attempts are used up, although no attempt reported a reservation.
+     */
+    @Test
+    void handle_reserveStockTimesOut_retriesThenReleasesStock() {
+        var saga = givenSaga(SagaStep.RESERVE_STOCK, SagaStatus.RUNNING);
+        when(customerCache.findById("customer1")).thenReturn(Optional.of(customer));
+        when(productService.executeOrderPurchase(1, purchases)).thenThrow(new RuntimeException("Read timed out"));
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RESERVE_STOCK));
+
+        assertTrue(saga.isStockReserved());
+        assertEquals(SagaStatus.RUNNING, saga.getStatus());
+        assertNotNull(saga.getNextAttemptAt());
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RESERVE_STOCK));
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RESERVE_STOCK));
+
+        verify(productService, times(3)).executeOrderPurchase(1, purchases);
+        verify(orderRepository).updateStatus(1, OrderStatus.PROCESSING, OrderStatus.FAILED, "Read timed out");
+        assertEquals(SagaStatus.COMPENSATING, saga.getStatus());
+        assertEquals(SagaStep.RELEASE_STOCK, saga.getStep());
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RELEASE_STOCK));
+
+        verify(productService).releaseOrderPurchase(1, purchases);
+        verifyNoInteractions(paymentFeignClient);
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+        assertFalse(saga.isStockReserved());
+    }
+
+    /**
+     * Tests a payment request failing on its last attempt.
+     * Verifies that the order fails and the payment is voided first, then the stock is released.
+     */
+    @Test
+    void handle_paymentAttemptsExhausted_compensatesPaymentThenStock() throws Exception {
+        var saga = givenSaga(SagaStep.REQUEST_PAYMENT, SagaStatus.RUNNING);
+        saga.setAttempts(2);
+        saga.setStockReserved(true);
+        saga.setReservation(objectMapper.writeValueAsString(new OrderSagaServiceImpl.SagaReservation(customer, purchasedProducts)));
+        when(paymentFeignClient.requestOrderPayment(any())).thenThrow(new RuntimeException("Read timed out"));
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.REQUEST_PAYMENT));
+
+        verify(orderRepository).updateStatus(1, OrderStatus.PROCESSING, OrderStatus.FAILED, "Read timed out");
+        assertEquals(SagaStatus.COMPENSATING, saga.getStatus());
+        assertEquals(SagaStep.VOID_PAYMENT, saga.getStep());
+        verify(orderProducerService).sendSagaCommand(new OrderSagaCommand(1, SagaStep.VOID_PAYMENT));
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.VOID_PAYMENT));
+
+        verify(paymentFeignClient).voidOrderPayments(1);
+        assertEquals(SagaStep.RELEASE_STOCK, saga.getStep());
+        verify(orderProducerService).sendSagaCommand(new OrderSagaCommand(1, SagaStep.RELEASE_STOCK));
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RELEASE_STOCK));
+
+        verify(productService).releaseOrderPurchase(1, purchases);
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+        assertFalse(saga.isStockReserved());
+        assertFalse(saga.isPaymentRequested());
+    }
+
+    /**
+     * Tests a compensating step failing on its last attempt.
+     * Verifies that the saga is marked FAILED for manual cleanup.
+     */
+    @Test
+    void handle_compensationAttemptsExhausted_marksSagaFailed() {
+        var saga = givenSaga(SagaStep.RELEASE_STOCK, SagaStatus.COMPENSATING);
+        saga.setAttempts(4);
+        saga.setStockReserved(true);
+        doThrow(new BusinessException("Product service unavailable")).when(productService).releaseOrderPurchase(1, purchases);
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RELEASE_STOCK));
+
+        assertEquals(SagaStatus.FAILED, saga.getStatus());
+        assertTrue(saga.isStockReserved());
+        assertNull(saga.getNextAttemptAt());
+    }
+
+    /**
+     * Tests receiving a command while the same step is running, or for a step the saga has moved past.
+     * Verifies that the command is ignored.
+     */
+    @Test
+    void handle_duplicateOrStaleCommand_ignored() {
+        var saga = givenSaga(SagaStep.REQUEST_PAYMENT, SagaStatus.RUNNING);
+        saga.setLeaseUntil(LocalDateTime.now().plusMinutes(1));
+
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.REQUEST_PAYMENT));
+        orderSagaService.handle(new OrderSagaCommand(1, SagaStep.RESERVE_STOCK));
+
+        verifyNoInteractions(paymentFeignClient, productService, customerCache);
+        verify(orderSagaRepository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Tests dispatching due steps again.
+     * Verifies that a saga whose retry is due gets its current step queued again.
+     */
+    @Test
+    void redispatchDueSteps_queuesDueSteps() {
+        var saga = givenSaga(SagaStep.REQUEST_PAYMENT, SagaStatus.RUNNING);
+        saga.setAttempts(1);
+        saga.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        when(orderSagaRepository.findDueOrderIds(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(1));
+
+        var dispatched = orderSagaService.redispatchDueSteps();
+
+        assertEquals(1, dispatched);
+        assertEquals(1, saga.getAttempts());
+        assertTrue(saga.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(orderProducerService).sendSagaCommand(new OrderSagaCommand(1, SagaStep.REQUEST_PAYMENT));
+    }
+
+    private OrderSaga givenSaga(SagaStep step, SagaStatus status) {
+        var saga = OrderSaga.builder()
+                .orderId(1)
+                .step(step)
+                .status(status)
+                .build();
+        when(orderSagaRepository.findById(1)).thenReturn(Optional.of(saga));
+        return saga;
+    }
+}
@@ -1,14 +1,15 @@
 package com.example.ecommerce.order_service.services.impl;
 
+import com.example.ecommerce.order_service.cache.CustomerCache;
 import com.example.ecommerce.order_service.entities.CustomerOrder;
 import com.example.ecommerce.order_service.exceptions.BusinessException;
-import com.example.ecommerce.order_service.feign_client.CustomerFeignClient;
 import com.example.ecommerce.order_service.feign_client.PaymentFeignClient;
 import com.example.ecommerce.order_service.mappers.OrderMapper;
 import com.example.ecommerce.order_service.models.*;
 import com.example.ecommerce.order_service.repositories.OrderRepository;
 import com.example.ecommerce.order_service.services.OrderLineService;
 import com.example.ecommerce.order_service.services.OrderProducerService;
+import com.example.ecommerce.order_service.services.OrderSagaService;
 import com.example.ecommerce.order_service.services.ProductService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,11 +17,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,7 +49,7 @@ class OrderServiceImplTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private CustomerFeignClient customerFeignClient;
+    private CustomerCache customerCache;
 
     @Mock
     private PaymentFeignClient paymentFeignClient;
@@ -55,6 +63,12 @@ class OrderServiceImplTest {
     @Mock
     private OrderProducerService orderProducerService;
 
+    @Mock
+    private OrderSagaService orderSagaService;
+
+    @Spy
+    private ExecutorService orderTaskExecutor = new ExecutorServiceAdapter(new SyncTaskExecutor());
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -82,7 +96,7 @@ class OrderServiceImplTest {
     @Test
     void createOrder_success() {
         when(orderRequestDTO.customerId()).thenReturn(String.valueOf(1));
-        when(customerFeignClient.findCustomerById(String.valueOf(1))).thenReturn(Optional.of(customerResponseDTO));
+        when(customerCache.findById(String.valueOf(1))).thenReturn(Optional.of(customerResponseDTO));
         when(productService.executePurchaseProducts(anyList())).thenReturn(purchasedProducts);
         when(orderMapper.orderRequestDTOToOrder(orderRequestDTO)).thenReturn(order);
         when(orderRepository.save(order)).thenReturn(order);
@@ -108,13 +122,47 @@ class OrderServiceImplTest {
     @Test
     void createOrder_customerNotFound_throwsBusinessException() {
         when(orderRequestDTO.customerId()).thenReturn(String.valueOf(2));
-        when(customerFeignClient.findCustomerById(String.valueOf(2))).thenReturn(Optional.empty());
+        when(customerCache.findById(String.valueOf(2))).thenReturn(Optional.empty());
 
         BusinessException ex = assertThrows(BusinessException.class, () -> orderService.createOrder(orderRequestDTO));
 
         assertTrue(ex.getMessage().contains("Customer not found"));
     }
 
+    /**
+     * Tests the creation of an order when the customer is not found but the stock was reserved concurrently.
+     * Verifies that the reserved stock is released.
+     */
+    @Test
+    void createOrder_customerNotFound_releasesReservedStock() {
+        var purchases = List.of(mock(ProductPurchaseRequestDTO.class));
+        when(orderRequestDTO.customerId()).thenReturn(String.valueOf(2));
+        when(orderRequestDTO.purchases()).thenReturn(purchases);
+        when(customerCache.findById(String.valueOf(2))).thenReturn(Optional.empty());
+        when(productService.executePurchaseProducts(purchases)).thenReturn(purchasedProducts);
+
+        assertThrows(BusinessException.class, () -> orderService.createOrder(orderRequestDTO));
+
+        verify(productService).releasePurchasedProducts(purchases);
+        verify(orderRepository, never()).save(any());
+    }
+
+    /**
+     * Tests the creation of an order when the stock reservation fails.
+     * Verifies that the failure is propagated and nothing is released.
+     */
+    @Test
+    void createOrder_purchaseFails_doesNotReleaseStock() {
+        when(orderRequestDTO.customerId()).thenReturn(String.valueOf(1));
+        when(customerCache.findById(String.valueOf(1))).thenReturn(Optional.of(customerResponseDTO));
+        when(productService.executePurchaseProducts(anyList())).thenThrow(new BusinessException("Not enough stock"));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> orderService.createOrder(orderRequestDTO));
+
+        assertEquals("Not enough stock", ex.getMessage());
+        verify(productService, never()).releasePurchasedProducts(anyList());
+    }
+
     /**
      * Tests retrieving all orders.
      * Verifies that the returned list is correctly mapped.
@@ -137,6 +185,53 @@ class OrderServiceImplTest {
         assertTrue(result.contains(dto2));
     }
 
+    /**
+     * Tests retrieving a full keyset page.
+     * Verifies that the ID of the last order is returned as the next cursor.
+     */
+    @Test
+    void findOrdersPage_fullPage_returnsNextCursor() {
+        var dto1 = new OrderResponseDTO(11, "ref-11", BigDecimal.TEN, PaymentMethod.PAYPAL, "cust1");
+        var dto2 = new OrderResponseDTO(12, "ref-12", BigDecimal.TEN, PaymentMethod.PAYPAL, "cust1");
+        when(orderRepository.findPageAfter(10, Limit.of(2))).thenReturn(List.of(dto1, dto2));
+
+        var page = orderService.findOrdersPage(10, 2);
+
+        assertEquals(List.of(dto1, dto2), page.content());
+        assertEquals(12, page.nextCursor());
+    }
+
+    /**
+     * Tests retrieving the last keyset page with an oversized page size.
+     * Verifies that the size is clamped, the first page starts at the beginning and no next cursor is returned.
+     */
+    @Test
+    void findOrdersPage_lastPage_returnsNullCursor() {
+        var dto = new OrderResponseDTO(1, "ref-1", BigDecimal.TEN, PaymentMethod.PAYPAL, "cust1");
+        when(orderRepository.findPageAfter(0, Limit.of(500))).thenReturn(List.of(dto));
+
+        var page = orderService.findOrdersPage(null, 10_000);
+
+        assertEquals(List.of(dto), page.content());
+        assertNull(page.nextCursor());
+    }
+
+    /**
+     * Tests streaming all orders.
+     * Verifies that every streamed order reaches the consumer in order.
+     */
+    @Test
+    void streamAllOrders_passesEachOrderToConsumer() {
+        var dto1 = mock(OrderResponseDTO.class);
+        var dto2 = mock(OrderResponseDTO.class);
+        when(orderRepository.streamAll()).thenReturn(Stream.of(dto1, dto2));
+
+        var received = new ArrayList<OrderResponseDTO>();
+        orderService.streamAllOrders(received::add);
+
+        assertEquals(List.of(dto1, dto2), received);
+    }
+
     /**
      * Tests retrieving an order by its ID when the order is found.
      * Verifies that the correct DTO is returned.
@@ -171,7 +266,7 @@ class OrderServiceImplTest {
     @Test
     void createOrder_handlesEmptyPurchases() {
         when(orderRequestDTO.customerId()).thenReturn(String.valueOf(1));
-        when(customerFeignClient.findCustomerById(String.valueOf(1))).thenReturn(Optional.of(customerResponseDTO));
+        when(customerCache.findById(String.valueOf(1))).thenReturn(Optional.of(customerResponseDTO));
         when(orderRequestDTO.purchases()).thenReturn(List.of());
         when(productService.executePurchaseProducts(anyList())).thenReturn(List.of());
         when(orderMapper.orderRequestDTOToOrder(orderRequestDTO)).thenReturn(order);
@@ -186,7 +281,7 @@ class OrderServiceImplTest {
 
         assertEquals(101, orderId);
 
-        verify(orderLineService, never()).saveOrderLine(any());
+        verify(orderLineService, never()).saveAllOrderLines(any());
     }
 
     /**
@@ -196,7 +291,7 @@ class OrderServiceImplTest {
     @Test
     void createOrder_paymentFeignThrowsException_propagates() {
         when(orderRequestDTO.customerId()).thenReturn(String.valueOf(1));
-        when(customerFeignClient.findCustomerById(String.valueOf(1))).thenReturn(Optional.of(customerResponseDTO));
+        when(customerCache.findById(String.valueOf(1))).thenReturn(Optional.of(customerResponseDTO));
         when(productService.executePurchaseProducts(anyList())).thenReturn(purchasedProducts);
         when(orderMapper.orderRequestDTOToOrder(orderRequestDTO)).thenReturn(order);
         when(orderRepository.save(order)).thenReturn(order);
@@ -208,5 +303,107 @@ class OrderServiceImplTest {
         doThrow(new RuntimeException("Payment failed")).when(paymentFeignClient).requestOrderPayment(any());
 
         assertThrows(RuntimeException.class, () -> orderService.createOrder(orderRequestDTO));
+
+        verify(productService).releasePurchasedProducts(anyList());
+        // The request may have been captured before it failed, so the payments are voided as well
+        verify(paymentFeignClient).voidOrderPayments(102);
+    }
+
+    /**
+     * Tests the creation of an order when publishing the confirmation fails after the payment was captured.
+     * Verifies that the payment is voided and the reserved stock is released.
+     */
+    @Test
+    void createOrder_confirmationFails_voidsPaymentAndReleasesStock() {
+        when(orderRequestDTO.customerId()).thenReturn(String.valueOf(1));
+        when(customerCache.findById(String.valueOf(1))).thenReturn(Optional.of(customerResponseDTO));
+        when(productService.executePurchaseProducts(anyList())).thenReturn(purchasedProducts);
+        when(orderMapper.orderRequestDTOToOrder(orderRequestDTO)).thenReturn(order);
+        when(orderRepository.save(order)).thenReturn(order);
+        when(order.getId()).thenReturn(103);
+        when(orderRequestDTO.purchases()).thenReturn(List.of(mock(ProductPurchaseRequestDTO.class)));
+        when(orderRequestDTO.amount()).thenReturn(BigDecimal.valueOf(100.0));
+        when(orderRequestDTO.paymentMethod()).thenReturn(PaymentMethod.CREDIT_CARD);
+        when(order.getReference()).thenReturn("REFCONF");
+        when(orderRequestDTO.reference()).thenReturn("REFCONF");
+        doThrow(new RuntimeException("Outbox unavailable")).when(orderProducerService).sendOrderConfirmation(any());
+
+        assertThrows(RuntimeException.class, () -> orderService.createOrder(orderRequestDTO));
+
+        var compensations = inOrder(paymentFeignClient, productService);
+        compensations.verify(paymentFeignClient).voidOrderPayments(103);
+        compensations.verify(productService).releasePurchasedProducts(anyList());
+    }
+
+    /**
+     * Tests the creation of an order when saving it fails before the payment was requested.
+     * Verifies that only the reserved stock is released.
+     */
+    @Test
+    void createOrder_saveFails_releasesStockWithoutVoidingPayment() {
+        when(orderRequestDTO.customerId()).thenReturn(String.valueOf(1));
+        when(customerCache.findById(String.valueOf(1))).thenReturn(Optional.of(customerResponseDTO));
+        when(productService.executePurchaseProducts(anyList())).thenReturn(purchasedProducts);
+        when(orderMapper.orderRequestDTOToOrder(orderRequestDTO)).thenReturn(order);
+        when(orderRequestDTO.purchases()).thenReturn(List.of(mock(ProductPurchaseRequestDTO.class)));
+        when(orderRepository.save(order)).thenThrow(new RuntimeException("Database unavailable"));
+
+        assertThrows(RuntimeException.class, () -> orderService.createOrder(orderRequestDTO));
+
+        verify(productService).releasePurchasedProducts(anyList());
+        verifyNoInteractions(paymentFeignClient);
+    }
+
+    /**
+     * Tests accepting an order.
+     * Verifies that the order is stored as PENDING with its order lines, its saga is started and no remote service is called.
+     */
+    @Test
+    void acceptOrder_savesPendingOrderWithoutRemoteCalls() {
+        var pendingOrder = new CustomerOrder();
+        when(orderRequestDTO.purchases()).thenReturn(List.of(new ProductPurchaseRequestDTO(1, 2)));
+        when(orderMapper.orderRequestDTOToOrder(orderRequestDTO)).thenReturn(pendingOrder);
+        when(orderRepository.save(pendingOrder)).thenAnswer(invocation -> {
+            pendingOrder.setId(200);
+            return pendingOrder;
+        });
+
+        var orderId = orderService.acceptOrder(orderRequestDTO);
+
+        assertEquals(200, orderId);
+        assertEquals(OrderStatus.PENDING, pendingOrder.getStatus());
+        verify(orderLineService).saveAllOrderLines(List.of(new OrderLineRequestDTO(null, 200, 1, 2.0)));
+        verify(orderSagaService).start(200);
+        verifyNoInteractions(customerCache, productService, paymentFeignClient, orderProducerService);
+    }
+
+    /**
+     * Tests retrieving the status of an order.
+     * Verifies that the status and failure reason are returned.
+     */
+    @Test
+    void findOrderStatus_found() {
+        var failedOrder = CustomerOrder.builder()
+                .id(3)
+                .reference("REF3")
+                .status(OrderStatus.FAILED)
+                .failureReason("Not enough stock")
+                .build();
+        when(orderRepository.findById(3)).thenReturn(Optional.of(failedOrder));
+
+        var result = orderService.findOrderStatus(3);
+
+        assertEquals(new OrderStatusResponseDTO(3, "REF3", OrderStatus.FAILED, "Not enough stock"), result);
+    }
+
+    /**
+     * Tests retrieving the status of an order that does not exist.
+     * Verifies that an EntityNotFoundException is thrown.
+     */
+    @Test
+    void findOrderStatus_notFound_throwsEntityNotFoundException() {
+        when(orderRepository.findById(99)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> orderService.findOrderStatus(99));
     }
 }
@@ -0,0 +1,237 @@
+package com.example.ecommerce.order_service.services.impl;
+
+import com.example.ecommerce.order_service.entities.OutboxEvent;
+import com.example.ecommerce.order_service.models.CustomerResponseDTO;
+import com.example.ecommerce.order_service.models.OrderConfirmationDTO;
+import com.example.ecommerce.order_service.models.PaymentMethod;
+import com.example.ecommerce.order_service.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OutboxRelayServiceImpl class.
+ * This class tests draining outbox events to Kafka using mocked dependencies.
+ */
+class OutboxRelayServiceImplTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private OutboxRelayServiceImpl outboxRelayService;
+
+    private OrderConfirmationDTO orderConfirmationDTO;
+
+    /**
+     * Sets up the test environment before each test.
+     * Initializes mocks, relay settings and test data.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(outboxRelayService, "batchSize", 10);
+        ReflectionTestUtils.setField(outboxRelayService, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(outboxRelayService, "claimTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(outboxRelayService, "maxAttempts", 3);
+        orderConfirmationDTO = new OrderConfirmationDTO(
+                "order123",
+                BigDecimal.valueOf(100.00),
+                PaymentMethod.CREDIT_CARD,
+                new CustomerResponseDTO("customer123", "John", "Doe", "john@doe.com"),
+                List.of()
+        );
+    }
+
+    private OutboxEvent outboxEvent(long id) throws Exception {
+        return outboxEvent(id, "customer123");
+    }
+
+    private OutboxEvent outboxEvent(long id, String messageKey) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("order-topic")
+                .aggregateId("order123")
+                .messageKey(messageKey)
+                .payloadType(OrderConfirmationDTO.class.getName())
+                .payload(objectMapper.writeValueAsString(orderConfirmationDTO))
+                .build();
+    }
+
+    /**
+     * Tests relaying when no events are pending.
+     * Verifies that nothing is sent or deleted.
+     */
+    @Test
+    void relayPendingEvents_emptyOutbox() {
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of());
+
+        assertEquals(0, outboxRelayService.relayPendingEvents());
+
+        verifyNoInteractions(kafkaTemplate);
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+    }
+
+    /**
+     * Tests relaying pending events successfully.
+     * Verifies that the restored payload is sent to the stored topic with the stored key and the event is deleted.
+     */
+    @Test
+    void relayPendingEvents_sendsAndDeletesEvents() throws Exception {
+        var event = outboxEvent(1);
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), eq(Limit.of(10)))).thenReturn(List.of(event));
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, outboxRelayService.relayPendingEvents());
+
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(kafkaTemplate).send(captor.capture());
+        assertEquals(orderConfirmationDTO, captor.getValue().getPayload());
+        assertEquals("order-topic", captor.getValue().getHeaders().get("kafka_topic"));
+        assertEquals("customer123", captor.getValue().getHeaders().get("kafka_messageKey"));
+        verify(outboxEventRepository).claim(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).deleteAllInBatch(List.of(event));
+        assertEquals(1, meterRegistry.get("outbox.relay.send").tags("topic", "order-topic", "result", "success").timer().count());
+    }
+
+    /**
+     * Tests relaying when Kafka rejects one of the events.
+     * Verifies that only the acknowledged event is deleted and the failed one is counted and released for a retry.
+     */
+    @Test
+    void relayPendingEvents_keepsFailedEvents() throws Exception {
+        var sent = outboxEvent(1, "customer1");
+        var failed = outboxEvent(2, "customer2");
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), eq(Limit.of(10)))).thenReturn(List.of(sent, failed));
+        when(kafkaTemplate.send(any(Message.class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Kafka error")));
+
+        assertEquals(1, outboxRelayService.relayPendingEvents());
+
+        verify(outboxEventRepository).deleteAllInBatch(List.of(sent));
+        verify(outboxEventRepository).saveAll(List.of(failed));
+        assertEquals(1, failed.getAttempts());
+        assertNull(failed.getClaimedUntil());
+        assertNull(failed.getParkedDate());
+        assertEquals(1, meterRegistry.get("outbox.relay.send").tags("result", "failure").timer().count());
+    }
+
+    /**
+     * Tests relaying an event that failed the maximum number of times.
+     * Verifies that it is parked and counted instead of being retried.
+     */
+    @Test
+    void relayPendingEvents_parksEventsAfterMaxAttempts() throws Exception {
+        var failed = outboxEvent(1);
+        failed.setAttempts(2);
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), eq(Limit.of(10)))).thenReturn(List.of(failed));
+        when(kafkaTemplate.send(any(Message.class))).thenThrow(new RuntimeException("Serialization error"));
+
+        assertEquals(0, outboxRelayService.relayPendingEvents());
+
+        verify(outboxEventRepository).saveAll(List.of(failed));
+        assertEquals(3, failed.getAttempts());
+        assertNotNull(failed.getParkedDate());
+        assertTrue(failed.getFailureReason().contains("Serialization error"));
+        assertEquals(1, meterRegistry.get("outbox.relay.parked").tags("topic", "order-topic").counter().count());
+    }
+
+    /**
+     * Tests relaying several events of the same key when the first one fails.
+     * Verifies that the later event of the key is not sent, and released without counting a failure.
+     */
+    @Test
+    void relayPendingEvents_stopsKeyAfterFailure() throws Exception {
+        var failed = outboxEvent(1);
+        var later = outboxEvent(2);
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), eq(Limit.of(10)))).thenReturn(List.of(failed, later));
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Kafka error")));
+
+        assertEquals(0, outboxRelayService.relayPendingEvents());
+
+        verify(kafkaTemplate, times(1)).send(any(Message.class));
+        verify(outboxEventRepository).saveAll(List.of(failed, later));
+        assertEquals(1, failed.getAttempts());
+        assertEquals(0, later.getAttempts());
+        assertNull(later.getClaimedUntil());
+    }
+
+    /**
+     * Tests relaying an event whose key has an earlier pending event outside of the batch.
+     * Verifies that the event is neither claimed nor sent, so it cannot overtake the earlier event.
+     */
+    @Test
+    void relayPendingEvents_skipsKeysWithEarlierPendingEvents() throws Exception {
+        var blocked = outboxEvent(5, "customer1");
+        var sent = outboxEvent(6, "customer2");
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), eq(Limit.of(10)))).thenReturn(List.of(blocked, sent));
+        when(outboxEventRepository.findKeysWithEarlierPendingEvents(anyCollection(), anyCollection(), eq(6L)))
+                .thenReturn(List.of("customer1"));
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, outboxRelayService.relayPendingEvents());
+
+        verify(outboxEventRepository).claim(eq(List.of(6L)), any(LocalDateTime.class));
+        verify(kafkaTemplate, times(1)).send(any(Message.class));
+        verify(outboxEventRepository).deleteAllInBatch(List.of(sent));
+    }
+
+    /**
+     * Tests relaying an event whose payload cannot be restored.
+     * Verifies that it is parked and counted, and the other events are still sent.
+     */
+    @Test
+    void relayPendingEvents_parksUnreadableEvents() throws Exception {
+        var sent = outboxEvent(1);
+        var unreadable = outboxEvent(2);
+        unreadable.setPayloadType("com.example.Missing");
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), eq(Limit.of(10)))).thenReturn(List.of(sent, unreadable));
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, outboxRelayService.relayPendingEvents());
+
+        verify(kafkaTemplate, times(1)).send(any(Message.class));
+        verify(outboxEventRepository).saveAll(List.of(unreadable));
+        verify(outboxEventRepository).deleteAllInBatch(List.of(sent));
+        assertNotNull(unreadable.getParkedDate());
+        assertTrue(unreadable.getFailureReason().contains("com.example.Missing"));
+        assertEquals(1, meterRegistry.get("outbox.relay.parked").tags("topic", "order-topic").counter().count());
+    }
+}
@@ -3,8 +3,10 @@ package com.example.ecommerce.payment_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableJpaAuditing // Enables JPA auditing features such as createdBy, createdDate, lastModifiedBy, and lastModifiedDate
+@EnableScheduling // Enables scheduled tasks such as the outbox relay
 @SpringBootApplication
 public class PaymentServiceApplication {
 
@@ -0,0 +1,46 @@
+package com.example.ecommerce.payment_service.config;
+
+import com.example.ecommerce.payment_service.entities.OutboxEvent;
+import com.example.ecommerce.payment_service.entities.Payment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Raises the id sequences of the payments and outbox events above the ids already stored.
+ * Both tables used IDENTITY ids before, and ddl-auto creates the tables emulating payment_seq and outbox_event_seq
+ * with next_val 1, so on an existing database new payments and unsent outbox events would collide with stored rows.
+ * Runs once Hibernate has updated the schema and before the web server and the outbox relay start.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate; // JdbcTemplate for updating the sequence tables
+
+    @Override
+    public void afterPropertiesSet() {
+        seed("payment_seq", "payment", Payment.ID_ALLOCATION_SIZE);
+        seed("outbox_event_seq", "outbox_event", OutboxEvent.ID_ALLOCATION_SIZE);
+    }
+
+    /**
+     * Raises the next value of a table-emulated sequence, never lowering it.
+     * The pooled optimizer hands out the block ending at the value it reads, so the value is kept at least one
+     * allocation above the largest stored id.
+     *
+     * @param sequenceTable  The table emulating the sequence.
+     * @param entityTable    The table whose ids come from the sequence.
+     * @param allocationSize The allocation size of the sequence.
+     */
+    void seed(String sequenceTable, String entityTable, int allocationSize) {
+        jdbcTemplate.update(
+                "UPDATE " + sequenceTable + " SET next_val = GREATEST(next_val, "
+                        + "(SELECT COALESCE(MAX(id), 0) FROM " + entityTable + ") + ?)",
+                allocationSize
+        );
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.ecommerce.payment_service.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
@@ -8,6 +10,8 @@ import org.springframework.kafka.config.TopicBuilder;
 /**
  * Configuration class for Kafka topics related to the Payment Service.
  * Defines the topics used for payment notifications.
+ * The partition and replica counts default to the shared `application.kafka.topics` settings and can be overridden
+ * per topic.
  */
 @Configuration
 public class KafkaPaymentTopicConfig {
@@ -15,13 +19,22 @@ public class KafkaPaymentTopicConfig {
     /**
      * Creates a Kafka topic named "payment-topic".
      * This topic is used for sending payment notifications.
+     * Messages are keyed by customer ID, so the partition count bounds the consumer threads of the notification service.
      *
+     * @param partitions the number of partitions of the topic
+     * @param replicas   the number of replicas of each partition; acks=all writes must reach all but one of them
      * @return a {@link NewTopic} object representing the "payment-topic".
      */
     @Bean
-    public NewTopic paymentNotificationTopic() {
+    public NewTopic paymentNotificationTopic(
+            @Value("${application.kafka.topics.payment-topic.partitions:${application.kafka.topics.partitions:6}}") int partitions,
+            @Value("${application.kafka.topics.payment-topic.replicas:${application.kafka.topics.replicas:1}}") int replicas
+    ) {
         return TopicBuilder
                 .name("payment-topic")
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(Math.max(1, replicas - 1)))
                 .build();
     }
 }
@@ -0,0 +1,48 @@
+package com.example.ecommerce.payment_service.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings payments written before the status and the unique order ID existed in line with them.
+ * ddl-auto adds the status column empty, so those payments are marked as captured, which they are.
+ * ddl-auto only logs a warning when the unique index on the order ID cannot be created, in which case a retried
+ * payment request could charge an order twice; the service therefore refuses to start while an order has several
+ * payments, since which of them to keep is a decision for a person.
+ * Runs once Hibernate has updated the schema and before the web server starts.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+@RequiredArgsConstructor
+public class LegacyPaymentInitializer implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate; // JdbcTemplate for checking and updating the payment table
+
+    /**
+     * Marks the payments without a status as captured and checks that no order has several payments.
+     *
+     * @throws IllegalStateException if an order has several payments.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        var backfilled = jdbcTemplate.update("UPDATE payment SET status = 'CAPTURED' WHERE status IS NULL");
+        if (backfilled > 0) {
+            log.info("Marked {} payments without a status as captured", backfilled);
+        }
+
+        var duplicateOrderIds = jdbcTemplate.queryForList(
+                "SELECT order_id FROM payment WHERE order_id IS NOT NULL GROUP BY order_id HAVING COUNT(*) > 1 LIMIT 10",
+                Integer.class
+        );
+        if (!duplicateOrderIds.isEmpty()) {
+            throw new IllegalStateException(
+                    "Orders with several payments, remove the duplicates before starting: " + duplicateOrderIds
+            );
+        }
+    }
+}
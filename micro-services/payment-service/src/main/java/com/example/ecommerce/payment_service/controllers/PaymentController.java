@@ -1,14 +1,16 @@
 package com.example.ecommerce.payment_service.controllers;
 
 import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
+import com.example.ecommerce.payment_service.services.PaymentBatchWriter;
 import com.example.ecommerce.payment_service.services.PaymentService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/payments")
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentBatchWriter paymentBatchWriter;
 
     @PostMapping
     public ResponseEntity<Integer> createPayment(
@@ -24,7 +27,22 @@ public class PaymentController {
         if (paymentRequestDTO == null) {
             throw new IllegalArgumentException("Payment request cannot be null");
         }
-        return ResponseEntity.ok(paymentService.createPayment(paymentRequestDTO));
+        // Concurrent single payments are grouped into batched transactions by the writer
+        return ResponseEntity.ok(paymentBatchWriter.write(paymentRequestDTO));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<Integer>> createPayments(
+            @RequestBody @NotEmpty @Size(max = 1000) List<@Valid PaymentRequestDTO> paymentRequestDTOs
+    ) {
+        return ResponseEntity.ok(paymentService.createPayments(paymentRequestDTOs));
+    }
+
+    @PostMapping("/order/{order-id}/void")
+    public ResponseEntity<Integer> voidOrderPayments(
+            @PathVariable("order-id") Integer orderId
+    ) {
+        return ResponseEntity.ok(paymentService.voidOrderPayments(orderId));
     }
 
 }
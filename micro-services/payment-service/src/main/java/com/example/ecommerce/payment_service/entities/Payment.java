@@ -1,6 +1,7 @@
 package com.example.ecommerce.payment_service.entities;
 
 import com.example.ecommerce.payment_service.models.PaymentMethod;
+import com.example.ecommerce.payment_service.models.PaymentStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
@@ -19,17 +20,27 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class Payment {
 
+    // The number of ids taken from payment_seq at once, see IdSequenceInitializer.
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Ids are allocated in blocks of 50, so a chunk of the PaymentBatchWriter is inserted in one JDBC batch.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Integer id;
 
     private BigDecimal amount;
 
+    // At most one payment per order, so a retried payment request cannot charge the order twice.
+    @Column(unique = true)
     private Integer orderId;
 
     @Enumerated(EnumType.STRING)
     private PaymentMethod paymentMethod;
 
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdDate;
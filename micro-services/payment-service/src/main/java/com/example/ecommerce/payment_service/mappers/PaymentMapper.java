@@ -2,6 +2,7 @@ package com.example.ecommerce.payment_service.mappers;
 
 import com.example.ecommerce.payment_service.entities.Payment;
 import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
+import com.example.ecommerce.payment_service.models.PaymentStatus;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,6 +17,7 @@ public class PaymentMapper {
                 .paymentMethod(paymentRequestDTO.paymentMethod())
                 .amount(paymentRequestDTO.amount())
                 .orderId(paymentRequestDTO.orderId())
+                .status(PaymentStatus.CAPTURED)
                 .build();
     }
 }
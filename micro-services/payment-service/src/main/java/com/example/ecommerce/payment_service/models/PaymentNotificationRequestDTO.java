@@ -8,6 +8,7 @@ public record PaymentNotificationRequestDTO(
         PaymentMethod paymentMethod,
         String customerFirstName,
         String customerLastName,
-        String customerEmail
+        String customerEmail,
+        String customerId
 ) {
 }
@@ -0,0 +1,6 @@
+package com.example.ecommerce.payment_service.models;
+
+public enum PaymentStatus {
+    CAPTURED,
+    VOIDED
+}
@@ -1,7 +1,29 @@
 package com.example.ecommerce.payment_service.repositories;
 
 import com.example.ecommerce.payment_service.entities.Payment;
+import com.example.ecommerce.payment_service.models.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    Optional<Payment> findByOrderId(Integer orderId);
+
+    List<Payment> findAllByOrderIdIn(Collection<Integer> orderIds);
+
+    // Moves all payments of an order from one status to another in a single statement; returns the number of payments changed.
+    // Payments written before the status existed have none and count as captured.
+    @Modifying
+    @Query("""
+            update Payment p
+            set p.status = :to, p.lastModifiedDate = local datetime
+            where p.orderId = :orderId
+            and coalesce(p.status, com.example.ecommerce.payment_service.models.PaymentStatus.CAPTURED) = :from""")
+    int updateStatusByOrderId(Integer orderId, PaymentStatus from, PaymentStatus to);
+
 }
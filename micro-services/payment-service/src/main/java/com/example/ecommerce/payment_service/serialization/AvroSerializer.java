@@ -0,0 +1,170 @@
+package com.example.ecommerce.payment_service.serialization;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Base class for Kafka serializers writing a payload as Avro binary.
+ * Messages use the Avro single-object encoding: a two-byte marker and the 64-bit fingerprint of the writer schema
+ * precede the record, so consumers can pick the matching schema version without a schema registry.
+ * Subclasses write the fields straight to the encoder in schema order, so neither reflection nor intermediate
+ * generic records are involved per message; the .avsc file is the contract those writers follow.
+ * The order and payment services keep identical copies of this class; AvroSerializerTest fails if they drift apart.
+ *
+ * @param <T> The payload type.
+ */
+public abstract class AvroSerializer<T> implements Serializer<T> {
+
+    // Encoders buffer small records in one chunk before copying them to the output stream.
+    private static final EncoderFactory ENCODER_FACTORY = new EncoderFactory().configureBufferSize(1024);
+
+    // The schema the payloads are written with.
+    private final Schema schema;
+
+    // The single-object header: the marker bytes 0xC3 0x01 and the little-endian schema fingerprint.
+    private final byte[] header;
+
+    /**
+     * Creates a serializer for the schema stored in a classpath resource.
+     *
+     * @param schemaResource The classpath location of the .avsc file.
+     */
+    protected AvroSerializer(String schemaResource) {
+        this.schema = loadSchema(schemaResource);
+        this.header = ByteBuffer.allocate(10)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .put((byte) 0xC3)
+                .put((byte) 0x01)
+                .putLong(SchemaNormalization.parsingFingerprint64(schema))
+                .array();
+    }
+
+    /**
+     * Writes the fields of the payload in the order of the writer schema.
+     *
+     * @param schema  The writer schema.
+     * @param payload The payload to write; never null.
+     * @param encoder The encoder to write to.
+     * @throws IOException if the encoder fails.
+     */
+    protected abstract void write(Schema schema, T payload, Encoder encoder) throws IOException;
+
+    @Override
+    public byte[] serialize(String topic, T payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            var out = new ByteArrayOutputStream(256);
+            out.writeBytes(header);
+            var encoder = ENCODER_FACTORY.binaryEncoder(out, null);
+            write(schema, payload, encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException | RuntimeException ex) {
+            throw new SerializationException("Cannot serialize payload for topic " + topic, ex);
+        }
+    }
+
+    /**
+     * Writes a value of a ["null", "string"] union.
+     *
+     * @param encoder The encoder to write to.
+     * @param value   The string, may be null.
+     * @throws IOException if the encoder fails.
+     */
+    protected static void writeNullableString(Encoder encoder, String value) throws IOException {
+        if (writeNullIndex(encoder, value)) {
+            encoder.writeString(value);
+        }
+    }
+
+    /**
+     * Writes a value of a ["null", "int"] union.
+     *
+     * @param encoder The encoder to write to.
+     * @param value   The integer, may be null.
+     * @throws IOException if the encoder fails.
+     */
+    protected static void writeNullableInt(Encoder encoder, Integer value) throws IOException {
+        if (writeNullIndex(encoder, value)) {
+            encoder.writeInt(value);
+        }
+    }
+
+    /**
+     * Writes a value of a ["null", "Decimal"] union, keeping the scale of the amount.
+     *
+     * @param encoder The encoder to write to.
+     * @param value   The amount, may be null.
+     * @throws IOException if the encoder fails.
+     */
+    protected static void writeNullableDecimal(Encoder encoder, BigDecimal value) throws IOException {
+        if (writeNullIndex(encoder, value)) {
+            encoder.writeBytes(value.unscaledValue().toByteArray());
+            encoder.writeInt(value.scale());
+        }
+    }
+
+    /**
+     * Writes a value of a ["null", enum] union; the constant is matched to the Avro symbol by name.
+     *
+     * @param encoder     The encoder to write to.
+     * @param unionSchema The schema of the union field.
+     * @param value       The enum constant, may be null.
+     * @throws IOException if the encoder fails.
+     */
+    protected static void writeNullableEnum(Encoder encoder, Schema unionSchema, Enum<?> value) throws IOException {
+        if (writeNullIndex(encoder, value)) {
+            encoder.writeEnum(unionSchema.getTypes().get(1).getEnumOrdinal(value.name()));
+        }
+    }
+
+    /**
+     * Writes the branch index of a union whose first branch is "null".
+     *
+     * @param encoder The encoder to write to.
+     * @param value   The value, may be null.
+     * @return true if the value is not null and must be written next.
+     * @throws IOException if the encoder fails.
+     */
+    protected static boolean writeNullIndex(Encoder encoder, Object value) throws IOException {
+        if (value == null) {
+            encoder.writeIndex(0);
+            encoder.writeNull();
+            return false;
+        }
+        encoder.writeIndex(1);
+        return true;
+    }
+
+    /**
+     * Parses a schema stored in a classpath resource.
+     *
+     * @param schemaResource The classpath location of the .avsc file.
+     * @return The parsed schema.
+     * @throws IllegalStateException if the resource is missing.
+     */
+    private static Schema loadSchema(String schemaResource) {
+        try (InputStream in = AvroSerializer.class.getClassLoader().getResourceAsStream(schemaResource)) {
+            if (in == null) {
+                throw new IllegalStateException("Avro schema " + schemaResource + " not found");
+            }
+            return new Schema.Parser().parse(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read Avro schema " + schemaResource, ex);
+        }
+    }
+}
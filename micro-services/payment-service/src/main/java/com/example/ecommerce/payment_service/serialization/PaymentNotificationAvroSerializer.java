@@ -0,0 +1,34 @@
+package com.example.ecommerce.payment_service.serialization;
+
+import com.example.ecommerce.payment_service.models.PaymentNotificationRequestDTO;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Encoder;
+
+import java.io.IOException;
+
+/**
+ * Kafka serializer writing payment notifications for the "payment-topic" topic with the PaymentNotification Avro schema.
+ * The fields are written in the order of avro/payment-notification-v2.avsc.
+ */
+public class PaymentNotificationAvroSerializer extends AvroSerializer<PaymentNotificationRequestDTO> {
+
+    /**
+     * The current version of the PaymentNotification schema, shared with the notification service.
+     */
+    public static final String SCHEMA = "avro/payment-notification-v2.avsc";
+
+    public PaymentNotificationAvroSerializer() {
+        super(SCHEMA);
+    }
+
+    @Override
+    protected void write(Schema schema, PaymentNotificationRequestDTO payload, Encoder encoder) throws IOException {
+        encoder.writeString(payload.orderReference());
+        writeNullableDecimal(encoder, payload.amount());
+        writeNullableEnum(encoder, schema.getField("paymentMethod").schema(), payload.paymentMethod());
+        writeNullableString(encoder, payload.customerFirstName());
+        writeNullableString(encoder, payload.customerLastName());
+        writeNullableString(encoder, payload.customerEmail());
+        writeNullableString(encoder, payload.customerId());
+    }
+}
@@ -2,6 +2,10 @@ package com.example.ecommerce.payment_service.services;
 
 import com.example.ecommerce.payment_service.models.PaymentNotificationRequestDTO;
 
+import java.util.List;
+
 public interface NotificationProducerService {
     void sendNotification(PaymentNotificationRequestDTO paymentNotificationRequestDTO);
+
+    void sendNotifications(List<PaymentNotificationRequestDTO> paymentNotificationRequestDTOs);
 }
@@ -0,0 +1,7 @@
+package com.example.ecommerce.payment_service.services;
+
+public interface OutboxRelayService {
+
+    int relayPendingEvents();
+
+}
@@ -0,0 +1,8 @@
+package com.example.ecommerce.payment_service.services;
+
+import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
+
+public interface PaymentBatchWriter {
+
+    Integer write(PaymentRequestDTO paymentRequestDTO);
+}
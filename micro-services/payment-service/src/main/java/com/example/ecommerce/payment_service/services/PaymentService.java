@@ -2,7 +2,13 @@ package com.example.ecommerce.payment_service.services;
 
 import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
 
+import java.util.List;
+
 public interface PaymentService {
 
     Integer createPayment(PaymentRequestDTO paymentRequestDTO);
+
+    List<Integer> createPayments(List<PaymentRequestDTO> paymentRequestDTOs);
+
+    int voidOrderPayments(Integer orderId);
 }
@@ -1,18 +1,24 @@
 package com.example.ecommerce.payment_service.services.impl;
 
+import com.example.ecommerce.payment_service.entities.OutboxEvent;
 import com.example.ecommerce.payment_service.models.PaymentNotificationRequestDTO;
+import com.example.ecommerce.payment_service.repositories.OutboxEventRepository;
 import com.example.ecommerce.payment_service.services.NotificationProducerService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 /**
  * Implementation of the NotificationProducerService interface.
- * Responsible for sending payment notifications to a Kafka topic.
+ * Responsible for queueing payment notifications for a Kafka topic.
+ * Notifications are written to the transactional outbox and published by the outbox relay.
+ * Notifications are keyed by customer ID, like the order confirmations, so the notifications of one customer
+ * land on the same partition and are consumed in order.
  */
 @Service
 @RequiredArgsConstructor
@@ -20,28 +26,80 @@ import org.springframework.stereotype.Service;
 public class NotificationProducerServiceImpl implements NotificationProducerService {
 
     /**
-     * KafkaTemplate for sending messages to Kafka.
-     * Configured to send messages with a payload of type PaymentNotificationRequestDTO.
+     * Repository for the transactional outbox.
      */
-    private final KafkaTemplate<String, PaymentNotificationRequestDTO> paymentKafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
 
     /**
-     * Sends a payment notification to the Kafka topic "payment-topic".
-     * Constructs a message with the provided payload and sends it using KafkaTemplate.
+     * ObjectMapper for serializing the payload into the outbox.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Queues a payment notification for the Kafka topic "payment-topic".
+     * Joins the caller's transaction, so the notification is only published if the payment is committed.
      *
      * @param paymentNotificationRequestDTO the payload containing payment notification details
      */
+    @Transactional
     @Override
     public void sendNotification(PaymentNotificationRequestDTO paymentNotificationRequestDTO) {
-        log.info("Sending notification with body <{}>", paymentNotificationRequestDTO);
+        log.info("Queueing notification with body <{}>", paymentNotificationRequestDTO);
+
+        // Store the message in the outbox; the relay sends it to the topic after commit
+        outboxEventRepository.save(toOutboxEvent(paymentNotificationRequestDTO));
+    }
+
+    /**
+     * Queues several payment notifications for the Kafka topic "payment-topic".
+     * Joins the caller's transaction; the outbox rows are written with batched inserts.
+     *
+     * @param paymentNotificationRequestDTOs the payloads containing payment notification details
+     */
+    @Transactional
+    @Override
+    public void sendNotifications(List<PaymentNotificationRequestDTO> paymentNotificationRequestDTOs) {
+        log.info("Queueing {} notifications", paymentNotificationRequestDTOs.size());
+
+        outboxEventRepository.saveAll(
+                paymentNotificationRequestDTOs.stream()
+                        .map(this::toOutboxEvent)
+                        .toList()
+        );
+    }
 
-        // Build a Kafka message with the payload and topic header
-        Message<PaymentNotificationRequestDTO> message = MessageBuilder
-                .withPayload(paymentNotificationRequestDTO)
-                .setHeader(KafkaHeaders.TOPIC, "payment-topic")
+    /**
+     * Builds the outbox event carrying a payment notification.
+     *
+     * @param paymentNotificationRequestDTO the payload to store
+     * @return the outbox event for the topic "payment-topic", keyed by customer ID
+     */
+    private OutboxEvent toOutboxEvent(PaymentNotificationRequestDTO paymentNotificationRequestDTO) {
+        return OutboxEvent.builder()
+                .topic("payment-topic")
+                .aggregateId(paymentNotificationRequestDTO.orderReference())
+                .messageKey(
+                        paymentNotificationRequestDTO.customerId() != null
+                                ? paymentNotificationRequestDTO.customerId()
+                                : paymentNotificationRequestDTO.orderReference()
+                )
+                .payloadType(PaymentNotificationRequestDTO.class.getName())
+                .payload(writePayload(paymentNotificationRequestDTO))
                 .build();
+    }
 
-        // Send the message to the Kafka topic
-        paymentKafkaTemplate.send(message);
+    /**
+     * Serializes the payload for storage in the outbox.
+     *
+     * @param paymentNotificationRequestDTO the payload to serialize
+     * @return the JSON representation of the payload
+     * @throws IllegalArgumentException if the payload cannot be serialized
+     */
+    private String writePayload(PaymentNotificationRequestDTO paymentNotificationRequestDTO) {
+        try {
+            return objectMapper.writeValueAsString(paymentNotificationRequestDTO);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Payload cannot be serialized", ex);
+        }
     }
 }
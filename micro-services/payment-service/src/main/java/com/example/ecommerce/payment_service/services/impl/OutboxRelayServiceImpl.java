@@ -0,0 +1,337 @@
+package com.example.ecommerce.payment_service.services.impl;
+
+import com.example.ecommerce.payment_service.entities.OutboxEvent;
+import com.example.ecommerce.payment_service.repositories.OutboxEventRepository;
+import com.example.ecommerce.payment_service.services.OutboxRelayService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the OutboxRelayService interface.
+ * Periodically drains pending outbox events to Kafka in batches, outside of any request thread.
+ * A relay run claims its events in a short transaction and commits before sending, so no row lock or database
+ * connection is held while it waits for Kafka; the claim expires, so the events of a crashed run are sent again.
+ * Each event is sent with its stored message key, and the time until Kafka acknowledges it is recorded
+ * in the "outbox.relay.send" timer, whose count also gives the publishing throughput per topic.
+ * Events of the same key are sent one after the other, and a key's events stop at its first failure, so they
+ * reach Kafka in the order they were written.
+ * Events whose payload cannot be restored, and events whose sends failed too often, are parked instead of being
+ * retried on every run, and counted in the "outbox.relay.parked" counter.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+
+    /**
+     * Repository for reading and removing pending outbox events.
+     */
+    private final OutboxEventRepository outboxEventRepository;
+
+    /**
+     * KafkaTemplate for publishing the stored payloads.
+     */
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    /**
+     * ObjectMapper for restoring the stored payloads.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Registry for the send latency timers.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Runs the claim and the completion of a relay run in their own short transactions.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The maximum number of events drained per relay run.
+     */
+    @Value("${application.outbox.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * The maximum time to wait for Kafka to acknowledge a batch.
+     */
+    @Value("${application.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    /**
+     * How long the events of a relay run are skipped by other runs; must exceed the send timeout.
+     */
+    @Value("${application.outbox.claim-timeout-ms:60000}")
+    private long claimTimeoutMs;
+
+    /**
+     * The number of failed sends after which an event is parked.
+     */
+    @Value("${application.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    /**
+     * Publishes the oldest pending outbox events and removes the ones Kafka acknowledged.
+     * The events of different keys are handed to the producer before waiting, so the sends share producer batches;
+     * an event is only handed over once the previous event of its key is acknowledged.
+     * Events that fail stay in the outbox and are retried on the next run (at-least-once delivery), together with the
+     * later events of their key, until they failed the maximum number of times and are parked.
+     * Events whose payload cannot be restored would fail on every run, so they are parked right away.
+     *
+     * @return The number of events published.
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.relay-interval-ms:500}")
+    @Override
+    public int relayPendingEvents() {
+        var events = transactionTemplate.execute(status -> claimPendingEvents());
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        var sends = new LinkedHashMap<OutboxEvent, CompletableFuture<?>>();
+        var lastSendByKey = new HashMap<String, CompletableFuture<?>>();
+        var attempted = ConcurrentHashMap.<OutboxEvent>newKeySet();
+        var finished = new AtomicBoolean();
+        var changed = new ArrayList<OutboxEvent>();
+        for (var event : events) {
+            Object payload;
+            try {
+                payload = readPayload(event);
+            } catch (IllegalStateException ex) {
+                park(event, "its payload cannot be restored", ex.getCause());
+                changed.add(event);
+                continue;
+            }
+            Supplier<CompletableFuture<?>> attempt = () -> {
+                // Events not handed over before the run stopped waiting are left for the next run
+                if (finished.get()) {
+                    return CompletableFuture.failedFuture(new CancellationException("Relay run finished"));
+                }
+                attempted.add(event);
+                return send(event, payload);
+            };
+            var previous = event.getMessageKey() == null ? null : lastSendByKey.get(event.getMessageKey());
+            CompletableFuture<?> future = previous == null
+                    ? attempt.get()
+                    : previous.thenComposeAsync(result -> attempt.get());
+            if (event.getMessageKey() != null) {
+                lastSendByKey.put(event.getMessageKey(), future);
+            }
+            sends.put(event, future);
+        }
+
+        var published = new ArrayList<OutboxEvent>();
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        var interrupted = false;
+        for (var entry : sends.entrySet()) {
+            var event = entry.getKey();
+            if (interrupted) {
+                release(event, changed);
+                continue;
+            }
+            try {
+                entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(event);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                finished.set(true);
+                release(event, changed);
+            } catch (ExecutionException | TimeoutException | CancellationException ex) {
+                finished.set(true);
+                if (attempted.contains(event)) {
+                    fail(event, ex, changed);
+                } else {
+                    release(event, changed);
+                }
+            }
+        }
+        finished.set(true);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllInBatch(published);
+            if (!changed.isEmpty()) {
+                outboxEventRepository.saveAll(changed);
+            }
+        });
+        log.debug("Relayed {} of {} outbox events", published.size(), events.size());
+        return published.size();
+    }
+
+    /**
+     * Claims the oldest pending events for this run until the claim timeout.
+     * Events whose key has an earlier pending event outside of the batch, e.g. one another run is sending, are left
+     * for a later run, so the events of a key are never sent by two runs at once.
+     *
+     * @return The claimed events, oldest first.
+     */
+    private List<OutboxEvent> claimPendingEvents() {
+        var now = LocalDateTime.now();
+        var events = outboxEventRepository.findClaimable(now, Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return events;
+        }
+
+        var keys = events.stream()
+                .map(OutboxEvent::getMessageKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!keys.isEmpty()) {
+            var blockedKeys = Set.copyOf(outboxEventRepository.findKeysWithEarlierPendingEvents(
+                    keys,
+                    events.stream().map(OutboxEvent::getId).toList(),
+                    events.getLast().getId()
+            ));
+            if (!blockedKeys.isEmpty()) {
+                events = events.stream()
+                        .filter(event -> !blockedKeys.contains(event.getMessageKey()))
+                        .toList();
+            }
+        }
+
+        if (!events.isEmpty()) {
+            var claimedUntil = now.plus(Duration.ofMillis(claimTimeoutMs));
+            outboxEventRepository.claim(events.stream().map(OutboxEvent::getId).toList(), claimedUntil);
+            events.forEach(event -> event.setClaimedUntil(claimedUntil));
+        }
+        return events;
+    }
+
+    /**
+     * Counts a failed send of an event and parks the event once it failed the maximum number of times.
+     * Otherwise the claim is released, so the next run retries the event.
+     *
+     * @param event   The event that could not be sent.
+     * @param cause   The failure of the send.
+     * @param changed Collects the events to update.
+     */
+    private void fail(OutboxEvent event, Exception cause, List<OutboxEvent> changed) {
+        event.setAttempts(event.getAttempts() + 1);
+        if (event.getAttempts() >= maxAttempts) {
+            park(event, "it failed " + event.getAttempts() + " times", cause);
+        } else {
+            log.warn("Failed to publish outbox event {} to {}, it will be retried", event.getId(), event.getTopic(), cause);
+            event.setClaimedUntil(null);
+        }
+        changed.add(event);
+    }
+
+    /**
+     * Releases the claim of an event that was not sent, so the next run sends it without counting a failure.
+     *
+     * @param event   The event to release.
+     * @param changed Collects the events to update.
+     */
+    private static void release(OutboxEvent event, List<OutboxEvent> changed) {
+        event.setClaimedUntil(null);
+        changed.add(event);
+    }
+
+    /**
+     * Marks an event that cannot be sent as parked, so later runs skip it.
+     *
+     * @param event  The event to park.
+     * @param reason Why the event is parked.
+     * @param cause  The last failure of the event.
+     */
+    private void park(OutboxEvent event, String reason, Throwable cause) {
+        log.error("Parking outbox event {} to {}, {}", event.getId(), event.getTopic(), reason, cause);
+        event.setParkedDate(LocalDateTime.now());
+        event.setFailureReason(String.valueOf(cause instanceof ExecutionException ? cause.getCause() : cause));
+        Counter.builder("outbox.relay.parked")
+                .description("Outbox events parked because their payload cannot be restored or every send failed")
+                .tag("topic", event.getTopic())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Sends a single outbox event to its topic, keyed by its message key.
+     * The time until Kafka acknowledges or rejects the event is recorded per topic and result.
+     *
+     * @param event   The event to send.
+     * @param payload The restored payload of the event.
+     * @return A future completed when Kafka acknowledges the event.
+     */
+    private CompletableFuture<?> send(OutboxEvent event, Object payload) {
+        var start = System.nanoTime();
+        CompletableFuture<?> future;
+        try {
+            Message<Object> message = MessageBuilder
+                    .withPayload(payload)
+                    .setHeader(KafkaHeaders.TOPIC, event.getTopic())
+                    .setHeader(KafkaHeaders.KEY, event.getMessageKey())
+                    .build();
+            future = kafkaTemplate.send(message);
+        } catch (RuntimeException ex) {
+            future = CompletableFuture.failedFuture(ex);
+        }
+        return future.whenComplete((result, ex) ->
+                sendTimer(event.getTopic(), ex == null).record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+        );
+    }
+
+    /**
+     * Returns the timer of the sends to a topic with the given result.
+     *
+     * @param topic   The topic the events are sent to.
+     * @param success Whether Kafka acknowledged the events.
+     * @return The timer, registered on first use.
+     */
+    private Timer sendTimer(String topic, boolean success) {
+        return Timer.builder("outbox.relay.send")
+                .description("Time from handing an outbox event to the producer until Kafka acknowledges it")
+                .tag("topic", topic)
+                .tag("result", success ? "success" : "failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restores the typed payload of an outbox event, so it is serialized like a directly sent message.
+     *
+     * @param event The event whose payload should be restored.
+     * @return The payload object.
+     * @throws IllegalStateException if the payload cannot be restored.
+     */
+    private Object readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (ClassNotFoundException | JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot restore payload of outbox event " + event.getId(), ex);
+        }
+    }
+}
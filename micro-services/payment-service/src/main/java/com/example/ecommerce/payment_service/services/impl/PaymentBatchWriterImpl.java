@@ -0,0 +1,192 @@
+package com.example.ecommerce.payment_service.services.impl;
+
+import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
+import com.example.ecommerce.payment_service.services.PaymentBatchWriter;
+import com.example.ecommerce.payment_service.services.PaymentService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Implementation of the PaymentBatchWriter interface.
+ * Groups payments submitted concurrently by request threads into batches that are written by a few writer threads,
+ * each batch in one transaction with batched inserts. Throughput then grows with the batch size instead of
+ * with the number of database connections.
+ */
+@Service
+@Slf4j
+public class PaymentBatchWriterImpl implements PaymentBatchWriter {
+
+    /**
+     * Service writing a batch of payments in one transaction.
+     */
+    private final PaymentService paymentService;
+
+    /**
+     * The maximum number of payments written in one transaction.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * How long a writer waits for more payments after the first one of a batch, in nanoseconds.
+     */
+    private final long maxWaitNanos;
+
+    /**
+     * The number of writer threads, i.e. of batches written concurrently.
+     */
+    private final int writerThreads;
+
+    /**
+     * Payments waiting to be written; bounded, so an overloaded database pushes back on the callers.
+     */
+    private final BlockingQueue<PendingPayment> queue;
+
+    private final List<Thread> writers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public PaymentBatchWriterImpl(
+            PaymentService paymentService,
+            @Value("${application.payment-writer.max-batch-size:100}") int maxBatchSize,
+            @Value("${application.payment-writer.max-wait-ms:5}") long maxWaitMs,
+            @Value("${application.payment-writer.threads:2}") int writerThreads,
+            @Value("${application.payment-writer.queue-capacity:10000}") int queueCapacity
+    ) {
+        this.paymentService = paymentService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.writerThreads = writerThreads;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Starts the writer threads.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            writers.add(Thread.ofPlatform().name("payment-writer-" + i).start(this::drain));
+        }
+    }
+
+    /**
+     * Stops accepting payments and lets the writer threads finish the payments already queued.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writers
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (var writer : writers) {
+            writer.join();
+        }
+    }
+
+    /**
+     * Writes a payment together with the payments submitted concurrently by other callers and waits for the result.
+     * The payment is committed when this method returns.
+     *
+     * @param paymentRequestDTO the payment request
+     * @return the ID of the created payment record
+     * @throws RejectedExecutionException if the writer is stopped or too many payments are waiting
+     */
+    @Override
+    public Integer write(PaymentRequestDTO paymentRequestDTO) {
+        var pending = new PendingPayment(paymentRequestDTO, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new RejectedExecutionException("Payment writer is not accepting payments, please retry later");
+        }
+        try {
+            return pending.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Loop of a writer thread: collects a batch and writes it, until stopped and the queue is empty.
+     * A batch is closed when it is full or when no further payment arrives within the maximum wait.
+     */
+    private void drain() {
+        var batch = new ArrayList<PendingPayment>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                var deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result().completeExceptionally(
+                        new RejectedExecutionException("Payment writer was interrupted")
+                ));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch in one transaction and hands every caller its payment ID.
+     * If the batch fails, its payments are written one by one, so one invalid payment only fails its own caller.
+     *
+     * @param batch the payments to write
+     */
+    private void writeBatch(List<PendingPayment> batch) {
+        try {
+            var ids = paymentService.createPayments(
+                    batch.stream()
+                            .map(PendingPayment::request)
+                            .toList()
+            );
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(ids.get(i));
+            }
+            log.debug("Wrote a batch of {} payments", batch.size());
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                batch.getFirst().result().completeExceptionally(ex);
+                return;
+            }
+            log.warn("Writing a batch of {} payments failed, writing them one by one", batch.size(), ex);
+            for (var pending : batch) {
+                try {
+                    pending.result().complete(paymentService.createPayment(pending.request()));
+                } catch (RuntimeException paymentEx) {
+                    pending.result().completeExceptionally(paymentEx);
+                }
+            }
+        }
+    }
+
+    /**
+     * A payment waiting to be written and the future its caller waits on.
+     *
+     * @param request the payment request
+     * @param result  completed with the payment ID, or exceptionally if the payment could not be written
+     */
+    private record PendingPayment(PaymentRequestDTO request, CompletableFuture<Integer> result) {
+    }
+}
@@ -3,17 +3,28 @@ package com.example.ecommerce.payment_service.services.impl;
 import com.example.ecommerce.payment_service.mappers.PaymentMapper;
 import com.example.ecommerce.payment_service.models.PaymentNotificationRequestDTO;
 import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
+import com.example.ecommerce.payment_service.models.PaymentStatus;
 import com.example.ecommerce.payment_service.repositories.PaymentRepository;
 import com.example.ecommerce.payment_service.services.NotificationProducerService;
 import com.example.ecommerce.payment_service.services.PaymentService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the PaymentService interface.
  * Handles payment creation and notification sending.
  */
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
 
@@ -34,32 +45,135 @@ public class PaymentServiceImpl implements PaymentService {
 
     /**
      * Creates a payment record and sends a notification.
-     * Saves the payment details to the database and sends a notification to the Kafka topic.
+     * Saves the payment details and queues the notification in one transaction, so neither is kept without the other.
+     * A retried request for an order that already has a payment, e.g. after the first response was lost,
+     * returns the existing payment without creating or announcing it again.
      *
      * @param paymentRequestDTO the payment request containing details such as order reference, amount, payment method, and customer information
-     * @return the ID of the created payment record
+     * @return the ID of the created payment record, or of the existing payment of the order
      */
+    @Transactional
     @Override
     public Integer createPayment(PaymentRequestDTO paymentRequestDTO) {
 
+        // Return the payment of a retried request; the unique order ID rejects a concurrent duplicate
+        if (paymentRequestDTO.orderId() != null) {
+            var existing = paymentRepository.findByOrderId(paymentRequestDTO.orderId());
+            if (existing.isPresent()) {
+                log.info("Payment {} already exists for order {}", existing.get().getId(), paymentRequestDTO.orderId());
+                return existing.get().getId();
+            }
+        }
+
         // Save the payment entity to the database
         var payment = paymentRepository.save(
                 paymentMapper.paymentRequestDTOToPayment(paymentRequestDTO)
         );
 
-        // Send a payment notification to Kafka
+        // Queue a payment notification for Kafka
         notificationProducerService.sendNotification(
-                new PaymentNotificationRequestDTO(
-                        paymentRequestDTO.orderReference(),
-                        paymentRequestDTO.amount(),
-                        paymentRequestDTO.paymentMethod(),
-                        paymentRequestDTO.customerDTO().firstName(),
-                        paymentRequestDTO.customerDTO().lastName(),
-                        paymentRequestDTO.customerDTO().email()
-                )
+                toPaymentNotification(paymentRequestDTO)
         );
 
         // Return the ID of the saved payment entity
         return payment.getId();
     }
+
+    /**
+     * Creates several payment records and queues their notifications in one transaction.
+     * Payments and outbox rows are written with batched inserts, so the cost per payment shrinks with the batch size.
+     * Like createPayment, a request for an order that already has a payment returns the existing payment, and so does
+     * a second request for the same order within the batch; the existing payments are looked up with one query.
+     * If any payment fails, none of them is kept.
+     *
+     * @param paymentRequestDTOs the payment requests to create
+     * @return the IDs of the created or existing payment records, in request order
+     */
+    @Transactional
+    @Override
+    public List<Integer> createPayments(List<PaymentRequestDTO> paymentRequestDTOs) {
+
+        // Find the payments of retried requests; the unique order ID rejects a concurrent duplicate
+        var orderIds = paymentRequestDTOs.stream()
+                .map(PaymentRequestDTO::orderId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        var paymentIdsByOrderId = new HashMap<Integer, Integer>();
+        if (!orderIds.isEmpty()) {
+            paymentRepository.findAllByOrderIdIn(orderIds)
+                    .forEach(payment -> paymentIdsByOrderId.put(payment.getOrderId(), payment.getId()));
+        }
+
+        // Only the first request of each order without a payment is created
+        var pendingOrderIds = new HashSet<>(paymentIdsByOrderId.keySet());
+        var newRequests = paymentRequestDTOs.stream()
+                .filter(request -> request.orderId() == null || pendingOrderIds.add(request.orderId()))
+                .toList();
+        if (newRequests.size() < paymentRequestDTOs.size()) {
+            log.info("{} of {} payments already exist for their order", paymentRequestDTOs.size() - newRequests.size(), paymentRequestDTOs.size());
+        }
+
+        var newPayments = paymentRepository.saveAll(
+                newRequests.stream()
+                        .map(paymentMapper::paymentRequestDTOToPayment)
+                        .toList()
+        ).iterator();
+
+        if (!newRequests.isEmpty()) {
+            notificationProducerService.sendNotifications(
+                    newRequests.stream()
+                            .map(this::toPaymentNotification)
+                            .toList()
+            );
+        }
+
+        // Hand out the IDs in request order, the same way the new requests were selected
+        var paymentIds = new ArrayList<Integer>(paymentRequestDTOs.size());
+        for (var request : paymentRequestDTOs) {
+            var existingId = request.orderId() == null ? null : paymentIdsByOrderId.get(request.orderId());
+            if (existingId != null) {
+                paymentIds.add(existingId);
+                continue;
+            }
+            var paymentId = newPayments.next().getId();
+            if (request.orderId() != null) {
+                paymentIdsByOrderId.put(request.orderId(), paymentId);
+            }
+            paymentIds.add(paymentId);
+        }
+        return paymentIds;
+    }
+
+    /**
+     * Voids the captured payments of an order, e.g. when the order service compensates a failed order.
+     * Calling it again for the same order is harmless: already voided payments are left untouched.
+     *
+     * @param orderId the ID of the order whose payments should be voided
+     * @return the number of payments voided by this call
+     */
+    @Transactional
+    @Override
+    public int voidOrderPayments(Integer orderId) {
+        var voided = paymentRepository.updateStatusByOrderId(orderId, PaymentStatus.CAPTURED, PaymentStatus.VOIDED);
+        log.info("Voided {} payments of order {}", voided, orderId);
+        return voided;
+    }
+
+    /**
+     * Builds the notification announcing a payment.
+     *
+     * @param paymentRequestDTO the payment request
+     * @return the notification for the customer of the payment
+     */
+    private PaymentNotificationRequestDTO toPaymentNotification(PaymentRequestDTO paymentRequestDTO) {
+        return new PaymentNotificationRequestDTO(
+                paymentRequestDTO.orderReference(),
+                paymentRequestDTO.amount(),
+                paymentRequestDTO.paymentMethod(),
+                paymentRequestDTO.customerDTO().firstName(),
+                paymentRequestDTO.customerDTO().lastName(),
+                paymentRequestDTO.customerDTO().email(),
+                paymentRequestDTO.customerDTO().id()
+        );
+    }
 }
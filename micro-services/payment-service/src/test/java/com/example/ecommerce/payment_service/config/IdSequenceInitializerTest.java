@@ -0,0 +1,32 @@
+package com.example.ecommerce.payment_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the IdSequenceInitializer class.
+ */
+class IdSequenceInitializerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    /**
+     * Tests that the payment and outbox event sequences are raised one allocation above the largest stored id,
+     * and never lowered.
+     */
+    @Test
+    void afterPropertiesSet_seedsSequencesFromMaxId() {
+        new IdSequenceInitializer(jdbcTemplate).afterPropertiesSet();
+
+        verify(jdbcTemplate).update(
+                "UPDATE payment_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) FROM payment) + ?)",
+                50
+        );
+        verify(jdbcTemplate).update(
+                "UPDATE outbox_event_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) FROM outbox_event) + ?)",
+                50
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ecommerce.payment_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the LegacyPaymentInitializer class.
+ */
+class LegacyPaymentInitializerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    /**
+     * Tests that payments without a status are marked as captured.
+     */
+    @Test
+    void afterPropertiesSet_backfillsStatus() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class))).thenReturn(List.of());
+
+        new LegacyPaymentInitializer(jdbcTemplate).afterPropertiesSet();
+
+        verify(jdbcTemplate).update("UPDATE payment SET status = 'CAPTURED' WHERE status IS NULL");
+    }
+
+    /**
+     * Tests that the service does not start while an order has several payments.
+     */
+    @Test
+    void afterPropertiesSet_duplicateOrderPayments_throwsException() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class))).thenReturn(List.of(42));
+
+        var initializer = new LegacyPaymentInitializer(jdbcTemplate);
+
+        assertThrows(IllegalStateException.class, initializer::afterPropertiesSet);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.ecommerce.payment_service.controllers;
 import com.example.ecommerce.payment_service.models.CustomerDTO;
 import com.example.ecommerce.payment_service.models.PaymentMethod;
 import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
+import com.example.ecommerce.payment_service.services.PaymentBatchWriter;
 import com.example.ecommerce.payment_service.services.PaymentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -21,7 +23,7 @@ import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for the PaymentController class.
- * Verifies the behavior of the createPayment method under various conditions.
+ * Verifies the behavior of the createPayment and createPayments methods under various conditions.
  */
 class PaymentControllerTest {
 
@@ -31,6 +33,12 @@ class PaymentControllerTest {
     @Mock
     private PaymentService paymentService;
 
+    /**
+     * Mocked instance of PaymentBatchWriter used for testing.
+     */
+    @Mock
+    private PaymentBatchWriter paymentBatchWriter;
+
     /**
      * Injected instance of PaymentController being tested.
      */
@@ -60,14 +68,14 @@ class PaymentControllerTest {
                 new CustomerDTO(null, "John", "Doe", "sdlkdjfl@sdfjl.sdf")
         );
 
-        when(paymentService.createPayment(any())).thenReturn(1);
+        when(paymentBatchWriter.write(any())).thenReturn(1);
 
         ResponseEntity<Integer> response = paymentController.createPayment(request);
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(1, response.getBody());
 
-        verify(paymentService).createPayment(request);
+        verify(paymentBatchWriter).write(request);
     }
 
     /**
@@ -85,7 +93,7 @@ class PaymentControllerTest {
                 new CustomerDTO(null, "John", "Doe", "sdlkdjfl@sdfjl.sdf")
         );
 
-        when(paymentService.createPayment(any())).thenThrow(new RuntimeException("Service error"));
+        when(paymentBatchWriter.write(any())).thenThrow(new RuntimeException("Service error"));
 
         assertThrows(
                 RuntimeException.class,
@@ -120,7 +128,7 @@ class PaymentControllerTest {
                 null
         );
 
-        when(paymentService.createPayment(any())).thenThrow(new NullPointerException("CustomerDTO is null"));
+        when(paymentBatchWriter.write(any())).thenThrow(new NullPointerException("CustomerDTO is null"));
 
         assertThrows(
                 NullPointerException.class,
@@ -142,7 +150,7 @@ class PaymentControllerTest {
                 "orderRef123",
                 new CustomerDTO(null, "John", "Doe", "sdlkdjfl@sdfjl.sdf")
         );
-        when(paymentService.createPayment(any())).thenReturn(2);
+        when(paymentBatchWriter.write(any())).thenReturn(2);
 
         ResponseEntity<Integer> response = paymentController.createPayment(request);
 
@@ -165,12 +173,46 @@ class PaymentControllerTest {
                 new CustomerDTO(null, "John", "Doe", "sdlkdjfl@sdfjl.sdf")
         );
 
-        when(paymentService.createPayment(any())).thenReturn(3);
+        when(paymentBatchWriter.write(any())).thenReturn(3);
 
         ResponseEntity<Integer> response = paymentController.createPayment(request);
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(3, response.getBody());
     }
-}
 
+    /**
+     * Tests the creation of a batch of payments.
+     * Verifies that the whole batch is passed to the service and the IDs are returned in request order.
+     */
+    @Test
+    void createPayments_success() {
+        var requests = List.of(
+                new PaymentRequestDTO(null, BigDecimal.TEN, 1, PaymentMethod.CREDIT_CARD, "orderRef1",
+                        new CustomerDTO(null, "John", "Doe", "john@example.com")),
+                new PaymentRequestDTO(null, BigDecimal.ONE, 2, PaymentMethod.PAYPAL, "orderRef2",
+                        new CustomerDTO(null, "Jane", "Doe", "jane@example.com"))
+        );
+
+        when(paymentService.createPayments(requests)).thenReturn(List.of(7, 8));
+
+        ResponseEntity<List<Integer>> response = paymentController.createPayments(requests);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(7, 8), response.getBody());
+    }
+
+    /**
+     * Tests voiding the payments of an order.
+     * Verifies that the response contains the number of voided payments.
+     */
+    @Test
+    void voidOrderPayments_success() {
+        when(paymentService.voidOrderPayments(1)).thenReturn(1);
+
+        ResponseEntity<Integer> response = paymentController.voidOrderPayments(1);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, response.getBody());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.ecommerce.payment_service.serialization;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for the AvroSerializer base class.
+ * The order and payment services each have a copy of the class; this test is identical in both and also checks that
+ * the copies have not drifted apart while both are in the working tree.
+ */
+class AvroSerializerTest {
+
+    private static final String SCHEMA = "avro/avro-serializer-test.avsc";
+
+    // The copies of the serializer, relative to the directory of either service.
+    private static final Path[] COPIES = {
+            Path.of("..", "order-service", "src", "main", "java",
+                    "com", "example", "ecommerce", "order_service", "serialization", "AvroSerializer.java"),
+            Path.of("..", "payment-service", "src", "main", "java",
+                    "com", "example", "ecommerce", "payment_service", "serialization", "AvroSerializer.java")
+    };
+
+    private record TestPayload(String text, Integer number, BigDecimal amount, TimeUnit unit) {
+    }
+
+    private static final class TestSerializer extends AvroSerializer<TestPayload> {
+
+        TestSerializer() {
+            super(SCHEMA);
+        }
+
+        @Override
+        protected void write(Schema schema, TestPayload payload, Encoder encoder) throws IOException {
+            writeNullableString(encoder, payload.text());
+            writeNullableInt(encoder, payload.number());
+            writeNullableDecimal(encoder, payload.amount());
+            writeNullableEnum(encoder, schema.getField("unit").schema(), payload.unit());
+        }
+    }
+
+    private final TestSerializer serializer = new TestSerializer();
+
+    @Test
+    void serialize_writesSchemaFingerprintHeader() throws IOException {
+        var bytes = serializer.serialize("test-topic", new TestPayload(null, null, null, null));
+
+        var header = ByteBuffer.wrap(bytes, 0, 10).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals((byte) 0xC3, header.get());
+        assertEquals((byte) 0x01, header.get());
+        assertEquals(SchemaNormalization.parsingFingerprint64(schema()), header.getLong());
+    }
+
+    @Test
+    void serialize_writesNullableUnions() throws IOException {
+        var decoder = new BinaryMessageDecoder<GenericRecord>(GenericData.get(), schema());
+
+        var values = decoder.decode(
+                serializer.serialize("test-topic", new TestPayload("text", -7, new BigDecimal("-12.340"), TimeUnit.MINUTES))
+        );
+        assertEquals("text", values.get("text").toString());
+        assertEquals(-7, values.get("number"));
+        assertEquals(new BigDecimal("-12.340"), decimal(values.get("amount")));
+        assertEquals("MINUTES", values.get("unit").toString());
+
+        var nulls = decoder.decode(serializer.serialize("test-topic", new TestPayload(null, null, null, null)));
+        assertNull(nulls.get("text"));
+        assertNull(nulls.get("number"));
+        assertNull(nulls.get("amount"));
+        assertNull(nulls.get("unit"));
+    }
+
+    @Test
+    void serialize_enumConstantMissingFromSchema_throwsSerializationException() {
+        var payload = new TestPayload(null, null, null, TimeUnit.DAYS);
+
+        assertThrows(SerializationException.class, () -> serializer.serialize("test-topic", payload));
+    }
+
+    @Test
+    void serialize_nullPayload_returnsNull() {
+        assertNull(serializer.serialize("test-topic", null));
+    }
+
+    @Test
+    void copies_areIdenticalApartFromPackage() throws IOException {
+        assumeTrue(Arrays.stream(COPIES).allMatch(Files::exists), "Not all copies are in the working tree");
+
+        var expected = withoutPackage(COPIES[0]);
+        for (var copy : COPIES) {
+            assertEquals(expected, withoutPackage(copy), copy + " differs from " + COPIES[0]);
+        }
+    }
+
+    private static Schema schema() throws IOException {
+        try (var in = AvroSerializerTest.class.getClassLoader().getResourceAsStream(SCHEMA)) {
+            return new Schema.Parser().parse(in);
+        }
+    }
+
+    private static String withoutPackage(Path copy) throws IOException {
+        return Files.readString(copy).replaceFirst("package [\\w.]+;", "");
+    }
+
+    private static BigDecimal decimal(Object value) {
+        var record = (GenericRecord) value;
+        var unscaled = (ByteBuffer) record.get("unscaled");
+        var bytes = new byte[unscaled.remaining()];
+        unscaled.get(bytes);
+        return new BigDecimal(new BigInteger(bytes), (Integer) record.get("scale"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ecommerce.payment_service.serialization;
+
+import com.example.ecommerce.payment_service.models.PaymentMethod;
+import com.example.ecommerce.payment_service.models.PaymentNotificationRequestDTO;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for the PaymentNotificationAvroSerializer class.
+ * These tests decode the written bytes with the bundled schema and compare the fields with the serialized DTO.
+ */
+class PaymentNotificationAvroSerializerTest {
+
+    private final PaymentNotificationAvroSerializer serializer = new PaymentNotificationAvroSerializer();
+
+    @Test
+    void serialize_writesSingleObjectEncodedRecord() throws IOException {
+        var notification = new PaymentNotificationRequestDTO(
+                "ORD-0001", new BigDecimal("100.50"), PaymentMethod.PAYPAL, "John", null, "john.doe@example.com", "customer-1"
+        );
+
+        var bytes = serializer.serialize("payment-topic", notification);
+
+        Schema schema;
+        try (var in = getClass().getClassLoader().getResourceAsStream(PaymentNotificationAvroSerializer.SCHEMA)) {
+            schema = new Schema.Parser().parse(in);
+        }
+        var record = new BinaryMessageDecoder<GenericRecord>(GenericData.get(), schema).decode(bytes);
+
+        assertEquals("ORD-0001", record.get("orderReference").toString());
+        var amount = (GenericRecord) record.get("amount");
+        var unscaled = (ByteBuffer) amount.get("unscaled");
+        var unscaledBytes = new byte[unscaled.remaining()];
+        unscaled.get(unscaledBytes);
+        assertEquals(new BigDecimal("100.50"), new BigDecimal(new BigInteger(unscaledBytes), (Integer) amount.get("scale")));
+        assertEquals("PAYPAL", record.get("paymentMethod").toString());
+        assertEquals("John", record.get("customerFirstName").toString());
+        assertNull(record.get("customerLastName"));
+        assertEquals("john.doe@example.com", record.get("customerEmail").toString());
+        assertEquals("customer-1", record.get("customerId").toString());
+    }
+
+    @Test
+    void serialize_nullPayload_returnsNull() {
+        assertNull(serializer.serialize("payment-topic", null));
+    }
+}
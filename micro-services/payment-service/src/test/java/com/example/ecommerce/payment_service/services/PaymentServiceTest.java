@@ -6,6 +6,7 @@ import com.example.ecommerce.payment_service.models.CustomerDTO;
 import com.example.ecommerce.payment_service.models.PaymentMethod;
 import com.example.ecommerce.payment_service.models.PaymentNotificationRequestDTO;
 import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
+import com.example.ecommerce.payment_service.models.PaymentStatus;
 import com.example.ecommerce.payment_service.repositories.PaymentRepository;
 import com.example.ecommerce.payment_service.services.impl.PaymentServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +17,8 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -24,7 +27,7 @@ import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for the PaymentService class.
- * Verifies the behavior of the createPayment method under various conditions.
+ * Verifies the behavior of the createPayment and createPayments methods under various conditions.
  */
 class PaymentServiceTest {
 
@@ -88,6 +91,28 @@ class PaymentServiceTest {
         verify(notificationProducerService).sendNotification(any(PaymentNotificationRequestDTO.class));
     }
 
+    /**
+     * Tests a retried payment request for an order that already has a payment.
+     * Verifies that the existing payment is returned and neither saved nor announced again.
+     */
+    @Test
+    void createPayment_existingPaymentForOrder_returnsExistingPayment() {
+        var request = new PaymentRequestDTO(
+                null,
+                BigDecimal.TEN,
+                1,
+                PaymentMethod.CREDIT_CARD,
+                "orderRef123",
+                new CustomerDTO(null, "John", "Doe", "sdlkdjfl@sdfjl.sdf")
+        );
+        when(paymentRepository.findByOrderId(1)).thenReturn(Optional.of(Payment.builder().id(7).orderId(1).build()));
+
+        assertEquals(7, paymentService.createPayment(request));
+
+        verify(paymentRepository, never()).save(any());
+        verifyNoInteractions(paymentMapper, notificationProducerService);
+    }
+
     /**
      * Tests the behavior when the CustomerDTO in the request is null.
      * Verifies that a NullPointerException is thrown.
@@ -171,7 +196,7 @@ class PaymentServiceTest {
                 1,
                 PaymentMethod.CREDIT_CARD,
                 "orderRef123",
-                new CustomerDTO(null, "John", "Doe", "alice@example.com")
+                new CustomerDTO("customer-1", "John", "Doe", "alice@example.com")
         );
         var paymentEntity = mock(com.example.ecommerce.payment_service.entities.Payment.class);
 
@@ -193,6 +218,99 @@ class PaymentServiceTest {
         assertEquals("John", notification.customerFirstName());
         assertEquals("Doe", notification.customerLastName());
         assertEquals("alice@example.com", notification.customerEmail());
+        assertEquals("customer-1", notification.customerId());
+    }
+
+    /**
+     * Tests the creation of a batch of payments.
+     * Verifies that the payments and their notifications are saved together and the IDs are returned in order.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void createPayments_success() {
+        var requests = List.of(
+                new PaymentRequestDTO(null, BigDecimal.TEN, 1, PaymentMethod.CREDIT_CARD, "orderRef1",
+                        new CustomerDTO(null, "John", "Doe", "john@example.com")),
+                new PaymentRequestDTO(null, BigDecimal.ONE, 2, PaymentMethod.PAYPAL, "orderRef2",
+                        new CustomerDTO(null, "Jane", "Doe", "jane@example.com"))
+        );
+        var first = Payment.builder().id(7).build();
+        var second = Payment.builder().id(8).build();
+
+        when(paymentMapper.paymentRequestDTOToPayment(requests.get(0))).thenReturn(first);
+        when(paymentMapper.paymentRequestDTOToPayment(requests.get(1))).thenReturn(second);
+        when(paymentRepository.saveAll(List.of(first, second))).thenReturn(List.of(first, second));
+
+        List<Integer> result = paymentService.createPayments(requests);
+
+        assertEquals(List.of(7, 8), result);
+
+        ArgumentCaptor<List<PaymentNotificationRequestDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationProducerService).sendNotifications(captor.capture());
+        assertEquals(
+                List.of("orderRef1", "orderRef2"),
+                captor.getValue().stream().map(PaymentNotificationRequestDTO::orderReference).toList()
+        );
+        verify(paymentRepository, never()).save(any());
+    }
+
+    /**
+     * Tests the creation of a batch containing a retried payment and two requests for the same new order.
+     * Verifies that only one payment is created and announced, and that every request gets the payment of its order.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void createPayments_existingAndDuplicateOrders_createsEachOrderOnce() {
+        var retried = new PaymentRequestDTO(null, BigDecimal.TEN, 1, PaymentMethod.CREDIT_CARD, "orderRef1",
+                new CustomerDTO(null, "John", "Doe", "john@example.com"));
+        var request = new PaymentRequestDTO(null, BigDecimal.ONE, 2, PaymentMethod.PAYPAL, "orderRef2",
+                new CustomerDTO(null, "Jane", "Doe", "jane@example.com"));
+        var duplicate = new PaymentRequestDTO(null, BigDecimal.ONE, 2, PaymentMethod.PAYPAL, "orderRef2",
+                new CustomerDTO(null, "Jane", "Doe", "jane@example.com"));
+        var created = Payment.builder().id(8).build();
+
+        when(paymentRepository.findAllByOrderIdIn(any()))
+                .thenReturn(List.of(Payment.builder().id(7).orderId(1).build()));
+        when(paymentMapper.paymentRequestDTOToPayment(request)).thenReturn(created);
+        when(paymentRepository.saveAll(List.of(created))).thenReturn(List.of(created));
+
+        List<Integer> result = paymentService.createPayments(List.of(retried, request, duplicate));
+
+        assertEquals(List.of(7, 8, 8), result);
+        verify(paymentMapper, times(1)).paymentRequestDTOToPayment(any());
+        ArgumentCaptor<List<PaymentNotificationRequestDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationProducerService).sendNotifications(captor.capture());
+        assertEquals(1, captor.getValue().size());
     }
 
-}
\ No newline at end of file
+    /**
+     * Tests the creation of a batch in which every payment already exists.
+     * Verifies that the existing IDs are returned and no notification is queued.
+     */
+    @Test
+    void createPayments_allExisting_returnsExistingPayments() {
+        var retried = new PaymentRequestDTO(null, BigDecimal.TEN, 1, PaymentMethod.CREDIT_CARD, "orderRef1",
+                new CustomerDTO(null, "John", "Doe", "john@example.com"));
+
+        when(paymentRepository.findAllByOrderIdIn(any()))
+                .thenReturn(List.of(Payment.builder().id(7).orderId(1).build()));
+        when(paymentRepository.saveAll(List.of())).thenReturn(List.of());
+
+        assertEquals(List.of(7), paymentService.createPayments(List.of(retried)));
+        verifyNoInteractions(notificationProducerService);
+    }
+
+    /**
+     * Tests voiding the payments of an order.
+     * Verifies that only captured payments are moved to the voided status.
+     */
+    @Test
+    void voidOrderPayments_voidsCapturedPayments() {
+        when(paymentRepository.updateStatusByOrderId(1, PaymentStatus.CAPTURED, PaymentStatus.VOIDED)).thenReturn(2);
+
+        int result = paymentService.voidOrderPayments(1);
+
+        assertEquals(2, result);
+        verify(paymentRepository).updateStatusByOrderId(1, PaymentStatus.CAPTURED, PaymentStatus.VOIDED);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.ecommerce.payment_service.services.impl;
+
+import com.example.ecommerce.payment_service.models.CustomerDTO;
+import com.example.ecommerce.payment_service.models.PaymentMethod;
+import com.example.ecommerce.payment_service.models.PaymentRequestDTO;
+import com.example.ecommerce.payment_service.services.PaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PaymentBatchWriterImpl class.
+ * Verifies that concurrently submitted payments are written in batches and that failures stay with their caller.
+ */
+class PaymentBatchWriterImplTest {
+
+    /**
+     * Mocked instance of PaymentService used for testing.
+     */
+    private final PaymentService paymentService = mock(PaymentService.class);
+
+    private PaymentBatchWriterImpl paymentBatchWriter;
+
+    /**
+     * Stops the writer threads after each test.
+     *
+     * @throws InterruptedException if interrupted while stopping
+     */
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (paymentBatchWriter != null) {
+            paymentBatchWriter.stop();
+        }
+    }
+
+    /**
+     * Tests that payments submitted concurrently are written in one batch.
+     * Verifies that every caller receives the ID of its own payment.
+     *
+     * @throws Exception if a caller fails
+     */
+    @Test
+    void write_concurrentPayments_writtenInOneBatch() throws Exception {
+        var batchStarted = new CountDownLatch(1);
+        var releaseBatch = new CountDownLatch(1);
+        when(paymentService.createPayments(anyList())).thenAnswer(invocation -> {
+            List<PaymentRequestDTO> requests = invocation.getArgument(0);
+            if (requests.size() == 1 && requests.getFirst().orderId() == 0) {
+                // Holds the writer on the first payment until the others are queued
+                batchStarted.countDown();
+                releaseBatch.await();
+            }
+            return requests.stream().map(request -> request.orderId() + 100).toList();
+        });
+        paymentBatchWriter = startWriter(100, 1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> paymentBatchWriter.write(request(0)));
+            assertTrue(batchStarted.await(5, TimeUnit.SECONDS));
+
+            var results = new ArrayList<CompletableFuture<Integer>>();
+            for (int orderId = 1; orderId <= 10; orderId++) {
+                var request = request(orderId);
+                results.add(CompletableFuture.supplyAsync(() -> paymentBatchWriter.write(request), executor));
+            }
+            // Lets the queued payments pile up before the writer is released
+            Thread.sleep(200);
+            releaseBatch.countDown();
+
+            assertEquals(100, first.get(5, TimeUnit.SECONDS));
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(101 + i, results.get(i).get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        // The first payment alone, then the ten queued ones together
+        verify(paymentService, times(2)).createPayments(anyList());
+        verify(paymentService, never()).createPayment(any());
+    }
+
+    /**
+     * Tests that a failing batch is retried payment by payment.
+     * Verifies that only the invalid payment fails and the others still get their IDs.
+     *
+     * @throws Exception if a caller fails unexpectedly
+     */
+    @Test
+    void write_failingBatch_fallsBackToSinglePayments() throws Exception {
+        var batchStarted = new CountDownLatch(1);
+        var releaseBatch = new CountDownLatch(1);
+        when(paymentService.createPayments(anyList())).thenAnswer(invocation -> {
+            List<PaymentRequestDTO> requests = invocation.getArgument(0);
+            if (requests.size() == 1) {
+                batchStarted.countDown();
+                releaseBatch.await();
+                return List.of(100);
+            }
+            throw new IllegalArgumentException("Invalid payment in batch");
+        });
+        when(paymentService.createPayment(any())).thenAnswer(invocation -> {
+            PaymentRequestDTO request = invocation.getArgument(0);
+            if (request.orderId() == 2) {
+                throw new IllegalArgumentException("Invalid payment");
+            }
+            return request.orderId() + 100;
+        });
+        paymentBatchWriter = startWriter(100, 1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> paymentBatchWriter.write(request(0)));
+            assertTrue(batchStarted.await(5, TimeUnit.SECONDS));
+
+            var valid = CompletableFuture.supplyAsync(() -> paymentBatchWriter.write(request(1)), executor);
+            var invalid = CompletableFuture.supplyAsync(() -> paymentBatchWriter.write(request(2)), executor);
+            Thread.sleep(200);
+            releaseBatch.countDown();
+
+            assertEquals(101, valid.get(5, TimeUnit.SECONDS));
+            var ex = assertThrows(Exception.class, () -> invalid.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+        }
+    }
+
+    /**
+     * Tests that payments are rejected once the writer is stopped.
+     * Verifies that a RejectedExecutionException is thrown.
+     *
+     * @throws InterruptedException if interrupted while stopping
+     */
+    @Test
+    void write_stoppedWriter_rejectsPayment() throws InterruptedException {
+        paymentBatchWriter = startWriter(100, 1);
+        paymentBatchWriter.stop();
+
+        assertThrows(RejectedExecutionException.class, () -> paymentBatchWriter.write(request(1)));
+        verifyNoInteractions(paymentService);
+    }
+
+    private PaymentBatchWriterImpl startWriter(int maxBatchSize, int threads) {
+        var writer = new PaymentBatchWriterImpl(paymentService, maxBatchSize, 5, threads, 1000);
+        writer.start();
+        return writer;
+    }
+
+    private static PaymentRequestDTO request(int orderId) {
+        return new PaymentRequestDTO(
+                null,
+                BigDecimal.TEN,
+                orderId,
+                PaymentMethod.CREDIT_CARD,
+                "orderRef" + orderId,
+                new CustomerDTO(null, "John", "Doe", "john@example.com")
+        );
+    }
+}
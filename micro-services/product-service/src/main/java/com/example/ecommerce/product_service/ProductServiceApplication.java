@@ -2,7 +2,9 @@ package com.example.ecommerce.product_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
+@EnableCaching // Enables the in-process product catalog cache.
 @SpringBootApplication
 public class ProductServiceApplication {
 
@@ -0,0 +1,61 @@
+package com.example.ecommerce.product_service.cache;
+
+import com.example.ecommerce.product_service.model.ProductMetadataDTO;
+import com.example.ecommerce.product_service.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache of product and category metadata, backed by the bounded Caffeine caches "products" and "productCatalog".
+ * Stock is deliberately not part of the cached values, so purchases never make an entry stale.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogCache {
+
+    public static final String PRODUCTS_CACHE = "products";
+    public static final String CATALOG_CACHE = "productCatalog";
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Retrieves the metadata of a product, loading it on a cache miss.
+     * Missing products are not cached, so a product created later is found immediately.
+     *
+     * @param id The ID of the product.
+     * @return The product metadata, or an empty Optional if the product does not exist.
+     */
+    @Cacheable(cacheNames = PRODUCTS_CACHE, unless = "#result == null")
+    public Optional<ProductMetadataDTO> findById(Integer id) {
+        return productRepository.findMetadataById(id);
+    }
+
+    /**
+     * Retrieves the metadata of all products, loading it on a cache miss.
+     *
+     * @return The metadata of all products, ordered by ID.
+     */
+    @Cacheable(cacheNames = CATALOG_CACHE, key = "'all'")
+    public List<ProductMetadataDTO> findAll() {
+        return productRepository.findAllMetadata();
+    }
+
+    /**
+     * Invalidates the cached metadata of a product and the cached catalog.
+     *
+     * @param id The ID of the product that was created or changed.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CATALOG_CACHE, allEntries = true)
+    })
+    public void evict(Integer id) {
+        // Eviction is performed by the cache annotations.
+    }
+}
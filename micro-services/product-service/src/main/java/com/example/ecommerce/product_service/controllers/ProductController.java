@@ -1,15 +1,22 @@
 package com.example.ecommerce.product_service.controllers;
 
+import com.example.ecommerce.product_service.model.CursorPageResponseDTO;
+import com.example.ecommerce.product_service.model.ProductFilterDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseRequestDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseResponseDTO;
 import com.example.ecommerce.product_service.model.ProductRequestDTO;
 import com.example.ecommerce.product_service.model.ProductResponseDTO;
 import com.example.ecommerce.product_service.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -22,6 +29,7 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Retrieves all products.
@@ -35,6 +43,47 @@ public class ProductController {
         );
     }
 
+    /**
+     * Retrieves a page of products, optionally filtered by category and price range.
+     * Pages are ordered by product ID and the ID of the last product seen is used as the cursor.
+     *
+     * @param filter The optional categoryId, minPrice and maxPrice filters.
+     * @param after  The ID of the last product of the previous page; omit for the first page.
+     * @param size   The maximum number of products to return.
+     * @return ResponseEntity containing the page and the cursor for the next page (null on the last page).
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponseDTO<ProductResponseDTO>> findProductsPage(
+            ProductFilterDTO filter,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "size", defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(
+                productService.getProductsPage(filter, after, size)
+        );
+    }
+
+    /**
+     * Streams all products matching the filter as newline-delimited JSON, writing each product as soon as it is read.
+     *
+     * @param filter The optional categoryId, minPrice and maxPrice filters.
+     * @return ResponseEntity whose body streams one ProductResponseDTO per line.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts(ProductFilterDTO filter) {
+        StreamingResponseBody body = outputStream -> productService.streamProducts(filter, product -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(product));
+                outputStream.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Retrieves a product by its ID.
      *
@@ -79,4 +128,54 @@ public class ProductController {
                 productService.performPurchaseProducts(productPurchaseRequestDTOs)
         );
     }
+
+    /**
+     * Releases stock previously reserved by a purchase.
+     * Used by callers to compensate a purchase when a later step of their workflow fails.
+     *
+     * @param productPurchaseRequestDTOs A list of ProductPurchaseRequestDTO objects representing the quantities to release.
+     * @return ResponseEntity indicating the stock was released.
+     */
+    @PostMapping("/purchase/release")
+    public ResponseEntity<Void> releaseProducts(
+            @Valid @RequestBody List<@Valid ProductPurchaseRequestDTO> productPurchaseRequestDTOs
+    ) {
+        productService.performReleaseProducts(productPurchaseRequestDTOs);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Purchases the products of an order.
+     * Safe to retry: the stock is only reserved by the first request for the order.
+     *
+     * @param orderId                    The ID of the order.
+     * @param productPurchaseRequestDTOs A list of ProductPurchaseRequestDTO objects representing the products to purchase.
+     * @return ResponseEntity containing a list of ProductPurchaseResponseDTO objects.
+     */
+    @PostMapping("/purchase/orders/{order-id}")
+    public ResponseEntity<List<ProductPurchaseResponseDTO>> purchaseOrderProducts(
+            @PathVariable("order-id") Integer orderId,
+            @Valid @RequestBody List<@Valid ProductPurchaseRequestDTO> productPurchaseRequestDTOs
+    ) {
+        return ResponseEntity.ok(
+                productService.performOrderPurchase(orderId, productPurchaseRequestDTOs)
+        );
+    }
+
+    /**
+     * Releases the stock reserved for an order.
+     * Safe to retry, and safe to call when the purchase never reached this service.
+     *
+     * @param orderId                    The ID of the order.
+     * @param productPurchaseRequestDTOs A list of ProductPurchaseRequestDTO objects representing the quantities to release.
+     * @return ResponseEntity indicating the stock was released.
+     */
+    @PostMapping("/purchase/orders/{order-id}/release")
+    public ResponseEntity<Void> releaseOrderProducts(
+            @PathVariable("order-id") Integer orderId,
+            @Valid @RequestBody List<@Valid ProductPurchaseRequestDTO> productPurchaseRequestDTOs
+    ) {
+        productService.performOrderRelease(orderId, productPurchaseRequestDTOs);
+        return ResponseEntity.noContent().build();
+    }
 }
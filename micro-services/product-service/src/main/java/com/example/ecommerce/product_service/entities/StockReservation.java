@@ -0,0 +1,45 @@
+package com.example.ecommerce.product_service.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Marks the stock of an order as reserved, so a retried purchase for the same order does not take the stock twice
+ * and a retried release does not give it back twice.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class StockReservation implements Persistable<Integer> {
+
+    @Id
+    private Integer orderId;
+
+    // Set once the stock is given back, or when the order is released before anything was reserved for it
+    private boolean released;
+
+    // The order ID is assigned by the caller, so new reservations are flagged explicitly to be inserted without a prior select
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public Integer getId() {
+        return orderId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.ecommerce.product_service.mapper;
 
 import com.example.ecommerce.product_service.entities.Category;
 import com.example.ecommerce.product_service.entities.Product;
+import com.example.ecommerce.product_service.model.ProductMetadataDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseResponseDTO;
 import com.example.ecommerce.product_service.model.ProductRequestDTO;
 import com.example.ecommerce.product_service.model.ProductResponseDTO;
@@ -42,6 +43,19 @@ public class ProductMapper {
         );
     }
 
+    public ProductResponseDTO productMetadataToProductResponseDTO(ProductMetadataDTO metadata, double availableQuantity) {
+        return new ProductResponseDTO(
+                metadata.id(),
+                metadata.name(),
+                metadata.description(),
+                availableQuantity,
+                metadata.price(),
+                metadata.categoryId(),
+                metadata.categoryName(),
+                metadata.categoryDescription()
+        );
+    }
+
     public ProductPurchaseResponseDTO productToProductPurchaseResponseDTO(Product product, double quantity) {
         return new ProductPurchaseResponseDTO(
                 product.getId(),
@@ -0,0 +1,9 @@
+package com.example.ecommerce.product_service.model;
+
+import java.util.List;
+
+public record CursorPageResponseDTO<T>(
+        List<T> content,
+        Integer nextCursor
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.ecommerce.product_service.model;
+
+import java.math.BigDecimal;
+
+public record ProductFilterDTO(
+        Integer categoryId,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.ecommerce.product_service.model;
+
+import java.math.BigDecimal;
+
+public record ProductMetadataDTO(
+        Integer id,
+        String name,
+        String description,
+        BigDecimal price,
+        Integer categoryId,
+        String categoryName,
+        String categoryDescription
+) {
+}
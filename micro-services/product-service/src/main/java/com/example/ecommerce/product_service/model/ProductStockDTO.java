@@ -0,0 +1,7 @@
+package com.example.ecommerce.product_service.model;
+
+public record ProductStockDTO(
+        Integer id,
+        double availableQuantity
+) {
+}
@@ -1,11 +1,94 @@
 package com.example.ecommerce.product_service.repository;
 
 import com.example.ecommerce.product_service.entities.Product;
+import com.example.ecommerce.product_service.model.ProductMetadataDTO;
+import com.example.ecommerce.product_service.model.ProductResponseDTO;
+import com.example.ecommerce.product_service.model.ProductStockDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
     List<Product> findAllByIdInOrderById(List<Integer> ids);
+
+    // Atomically takes stock only if enough is left; returns 0 when the product is missing or the stock is insufficient.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Product p
+            set p.availableQuantity = p.availableQuantity - :quantity
+            where p.id = :id and p.availableQuantity >= :quantity""")
+    int reserveStock(Integer id, double quantity);
+
+    // Atomically gives stock back; returns 0 when the product is missing.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.availableQuantity = p.availableQuantity + :quantity where p.id = :id")
+    int releaseStock(Integer id, double quantity);
+
+    // Fetches the category in the same query, since every product response includes it.
+    @EntityGraph(attributePaths = "category")
+    @Override
+    List<Product> findAll();
+
+    @EntityGraph(attributePaths = "category")
+    @Override
+    Optional<Product> findById(Integer id);
+
+    // Product metadata without stock, joined with the category; safe to cache because purchases do not change it.
+    @Query("""
+            select new com.example.ecommerce.product_service.model.ProductMetadataDTO(
+                p.id, p.name, p.description, p.price, c.id, c.name, c.description)
+            from Product p left join p.category c
+            where p.id = :id""")
+    Optional<ProductMetadataDTO> findMetadataById(Integer id);
+
+    @Query("""
+            select new com.example.ecommerce.product_service.model.ProductMetadataDTO(
+                p.id, p.name, p.description, p.price, c.id, c.name, c.description)
+            from Product p left join p.category c
+            order by p.id asc""")
+    List<ProductMetadataDTO> findAllMetadata();
+
+    // Current stock, read separately from the cached metadata so it is never stale.
+    @Query("select p.availableQuantity from Product p where p.id = :id")
+    Optional<Double> findAvailableQuantityById(Integer id);
+
+    @Query("select new com.example.ecommerce.product_service.model.ProductStockDTO(p.id, p.availableQuantity) from Product p")
+    List<ProductStockDTO> findAllStock();
+
+    // Keyset page of the catalog as DTOs, joined with the category in a single query; null filters are ignored.
+    @Query("""
+            select new com.example.ecommerce.product_service.model.ProductResponseDTO(
+                p.id, p.name, p.description, p.availableQuantity, p.price, c.id, c.name, c.description)
+            from Product p left join p.category c
+            where p.id > :after
+              and (:categoryId is null or c.id = :categoryId)
+              and (:minPrice is null or p.price >= :minPrice)
+              and (:maxPrice is null or p.price <= :maxPrice)
+            order by p.id asc""")
+    List<ProductResponseDTO> findPageAfter(
+            Integer after, Integer categoryId, BigDecimal minPrice, BigDecimal maxPrice, Limit limit
+    );
+
+    // Streams the filtered catalog as DTOs; the fetch size makes the driver read rows in chunks (needs useCursorFetch on MySQL).
+    @Query("""
+            select new com.example.ecommerce.product_service.model.ProductResponseDTO(
+                p.id, p.name, p.description, p.availableQuantity, p.price, c.id, c.name, c.description)
+            from Product p left join p.category c
+            where (:categoryId is null or c.id = :categoryId)
+              and (:minPrice is null or p.price >= :minPrice)
+              and (:maxPrice is null or p.price <= :maxPrice)
+            order by p.id asc""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ProductResponseDTO> streamAll(Integer categoryId, BigDecimal minPrice, BigDecimal maxPrice);
 }
@@ -0,0 +1,18 @@
+package com.example.ecommerce.product_service.repository;
+
+import com.example.ecommerce.product_service.entities.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Integer> {
+
+    // Locks the reservation of an order, so a purchase and a release for the same order run one after the other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockReservation r where r.orderId = :orderId")
+    Optional<StockReservation> findForUpdate(Integer orderId);
+
+}
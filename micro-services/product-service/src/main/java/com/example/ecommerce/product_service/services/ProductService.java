@@ -1,11 +1,14 @@
 package com.example.ecommerce.product_service.services;
 
+import com.example.ecommerce.product_service.model.CursorPageResponseDTO;
+import com.example.ecommerce.product_service.model.ProductFilterDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseRequestDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseResponseDTO;
 import com.example.ecommerce.product_service.model.ProductRequestDTO;
 import com.example.ecommerce.product_service.model.ProductResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
@@ -13,8 +16,18 @@ public interface ProductService {
 
     List<ProductResponseDTO> getAllProducts();
 
+    CursorPageResponseDTO<ProductResponseDTO> getProductsPage(ProductFilterDTO filter, Integer after, int size);
+
+    void streamProducts(ProductFilterDTO filter, Consumer<ProductResponseDTO> consumer);
+
     Integer createProduct(ProductRequestDTO productRequestDTO);
 
     List<ProductPurchaseResponseDTO> performPurchaseProducts(List<ProductPurchaseRequestDTO> productRequestDTOs);
 
+    void performReleaseProducts(List<ProductPurchaseRequestDTO> productRequestDTOs);
+
+    List<ProductPurchaseResponseDTO> performOrderPurchase(Integer orderId, List<ProductPurchaseRequestDTO> productRequestDTOs);
+
+    void performOrderRelease(Integer orderId, List<ProductPurchaseRequestDTO> productRequestDTOs);
+
 }
@@ -1,22 +1,31 @@
 package com.example.ecommerce.product_service.services.impl;
 
-import com.example.ecommerce.product_service.entities.Product;
+import com.example.ecommerce.product_service.cache.ProductCatalogCache;
+import com.example.ecommerce.product_service.entities.StockReservation;
 import com.example.ecommerce.product_service.exceptions.ProductPurchaseException;
 import com.example.ecommerce.product_service.mapper.ProductMapper;
+import com.example.ecommerce.product_service.model.CursorPageResponseDTO;
+import com.example.ecommerce.product_service.model.ProductFilterDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseRequestDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseResponseDTO;
 import com.example.ecommerce.product_service.model.ProductRequestDTO;
 import com.example.ecommerce.product_service.model.ProductResponseDTO;
+import com.example.ecommerce.product_service.model.ProductStockDTO;
 import com.example.ecommerce.product_service.repository.ProductRepository;
+import com.example.ecommerce.product_service.repository.StockReservationRepository;
 import com.example.ecommerce.product_service.services.ProductService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -29,9 +38,15 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductCatalogCache productCatalogCache;
+    private final StockReservationRepository stockReservationRepository;
+
+    // Upper bound for the size of a keyset page.
+    private static final int MAX_PAGE_SIZE = 500;
 
     /**
      * Retrieves a product by its ID.
+     * The product and category metadata come from the catalog cache; only the current stock is read from the database.
      *
      * @param id The ID of the product to retrieve.
      * @return ProductResponseDTO containing the product details.
@@ -39,10 +54,12 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     public ProductResponseDTO getProductById(Integer id) {
-        return productRepository
+        return productCatalogCache
                 .findById(id)
-                .map(
-                        productMapper::productToProductResponseDTO
+                .flatMap(
+                        metadata -> productRepository
+                                .findAvailableQuantityById(id)
+                                .map(quantity -> productMapper.productMetadataToProductResponseDTO(metadata, quantity))
                 )
                 .orElseThrow(
                         () -> new EntityNotFoundException("Product with ID: " + id + " not found")
@@ -51,18 +68,66 @@ public class ProductServiceImpl implements ProductService {
 
     /**
      * Retrieves all products.
+     * The product and category metadata come from the catalog cache and are combined with the current stock.
      *
      * @return A list of ProductResponseDTO objects containing details of all products.
      */
     @Override
     public List<ProductResponseDTO> getAllProducts() {
-        return productRepository
+        Map<Integer, Double> stock = productRepository
+                .findAllStock()
+                .stream()
+                .collect(
+                        Collectors.toMap(ProductStockDTO::id, ProductStockDTO::availableQuantity)
+                );
+
+        return productCatalogCache
                 .findAll()
                 .stream()
-                .map(productMapper::productToProductResponseDTO)
+                .filter(metadata -> stock.containsKey(metadata.id()))
+                .map(metadata -> productMapper.productMetadataToProductResponseDTO(metadata, stock.get(metadata.id())))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a page of products matching the filter, using keyset pagination on the product ID.
+     * Products and their categories are read with a single projection query, and the cost of a page
+     * does not depend on how deep the client has paged.
+     *
+     * @param filter The optional category and price range filter; null fields are ignored.
+     * @param after  The ID of the last product of the previous page, or null for the first page.
+     * @param size   The requested page size, clamped to between 1 and {@value #MAX_PAGE_SIZE}.
+     * @return The page content and the cursor for the next page, or a null cursor if this is the last page.
+     */
+    @Override
+    public CursorPageResponseDTO<ProductResponseDTO> getProductsPage(ProductFilterDTO filter, Integer after, int size) {
+        var pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        var content = productRepository.findPageAfter(
+                after == null ? 0 : after,
+                filter.categoryId(),
+                filter.minPrice(),
+                filter.maxPrice(),
+                Limit.of(pageSize)
+        );
+        var nextCursor = content.size() < pageSize ? null : content.getLast().id();
+        return new CursorPageResponseDTO<>(content, nextCursor);
+    }
+
+    /**
+     * Streams all products matching the filter to the given consumer, one at a time.
+     * Rows are read from a database cursor in chunks and never collected, so memory use does not grow with the catalog.
+     *
+     * @param filter   The optional category and price range filter; null fields are ignored.
+     * @param consumer The consumer receiving each product.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void streamProducts(ProductFilterDTO filter, Consumer<ProductResponseDTO> consumer) {
+        try (var products = productRepository.streamAll(filter.categoryId(), filter.minPrice(), filter.maxPrice())) {
+            products.forEach(consumer);
+        }
+    }
+
     /**
      * Creates a new product.
      *
@@ -71,16 +136,22 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     public Integer createProduct(ProductRequestDTO productRequestDTO) {
-        return productRepository
+        var id = productRepository
                 .save(
                         productMapper.productRequestDTOtoProduct(productRequestDTO)
                 )
                 .getId();
+
+        // The catalog changed, so the cached metadata must be reloaded.
+        productCatalogCache.evict(id);
+        return id;
     }
 
     /**
-     * Handles the purchase of multiple products by updating their stock quantities and returning the purchase details.
-     * This method is transactional and will roll back if a `ProductPurchaseException` occurs.
+     * Handles the purchase of multiple products by reserving their stock and returning the purchase details.
+     * Each product is reserved with a single conditional update, so concurrent purchases can never oversell.
+     * Products are reserved in ascending ID order, so carts sharing products lock rows in the same order and cannot deadlock.
+     * This method is transactional and will roll back all reservations if a `ProductPurchaseException` occurs.
      *
      * @param productRequestDTOs A list of `ProductPurchaseRequestDTO` objects containing product IDs and quantities to purchase.
      * @return A list of `ProductPurchaseResponseDTO` objects containing details of the purchased products.
@@ -91,7 +162,51 @@ public class ProductServiceImpl implements ProductService {
     public List<ProductPurchaseResponseDTO> performPurchaseProducts(
             List<ProductPurchaseRequestDTO> productRequestDTOs
     ) {
+        return purchase(productRequestDTOs, true);
+    }
 
+    /**
+     * Handles the purchase of the products of an order at most once.
+     * A retried request for the same order, e.g. after the first response was lost, returns the purchase details
+     * without taking the stock again.
+     *
+     * @param orderId            The ID of the order the stock is reserved for.
+     * @param productRequestDTOs A list of `ProductPurchaseRequestDTO` objects containing product IDs and quantities to purchase.
+     * @return A list of `ProductPurchaseResponseDTO` objects containing details of the purchased products.
+     * @throws ProductPurchaseException If the stock of the order was already released, any product is not found,
+     *                                  or there is insufficient stock for a product.
+     */
+    @Transactional(rollbackFor = ProductPurchaseException.class)
+    @Override
+    public List<ProductPurchaseResponseDTO> performOrderPurchase(
+            Integer orderId,
+            List<ProductPurchaseRequestDTO> productRequestDTOs
+    ) {
+        var reservation = stockReservationRepository.findForUpdate(orderId);
+        if (reservation.isPresent()) {
+            if (reservation.get().isReleased()) {
+                throw new ProductPurchaseException("Stock of order " + orderId + " was already released");
+            }
+            return purchase(productRequestDTOs, false);
+        }
+
+        var purchasedProducts = purchase(productRequestDTOs, true);
+        stockReservationRepository.save(StockReservation.builder().orderId(orderId).build());
+        return purchasedProducts;
+    }
+
+    /**
+     * Validates a purchase and builds its details, reserving the stock if requested.
+     *
+     * @param productRequestDTOs The products and quantities to purchase.
+     * @param reserveStock       Whether to take the quantities from the stock, false if an earlier request already did.
+     * @return The details of the purchased products.
+     * @throws ProductPurchaseException If any product is not found or if there is insufficient stock for a product.
+     */
+    private List<ProductPurchaseResponseDTO> purchase(
+            List<ProductPurchaseRequestDTO> productRequestDTOs,
+            boolean reserveStock
+    ) {
         if (productRequestDTOs == null || productRequestDTOs.isEmpty()) {
             throw new ProductPurchaseException("Product purchase request list cannot be null or empty");
         }
@@ -103,42 +218,96 @@ public class ProductServiceImpl implements ProductService {
             }
         }
 
-        // Map productId to request for quick lookup
-        Map<Integer, ProductPurchaseRequestDTO> requestMap = productRequestDTOs
-                .stream()
-                .collect(
-                        Collectors.toMap(ProductPurchaseRequestDTO::productId, dto -> dto)
-                );
+        // Sum the quantities per product, sorted by product ID for a deterministic lock order
+        SortedMap<Integer, Double> purchaseMap = sumQuantitiesByProductId(productRequestDTOs);
 
         // Fetch all products in a single query
-        List<Integer> productIds = new ArrayList<>(requestMap.keySet());
-        var storedProducts = productRepository.findAllByIdInOrderById(productIds);
+        var storedProducts = productRepository.findAllByIdInOrderById(new ArrayList<>(purchaseMap.keySet()));
 
         // Validate all products are found
-        if (storedProducts.size() != productIds.size()) {
+        if (storedProducts.size() != purchaseMap.size()) {
             throw new ProductPurchaseException("Some products not found for purchase");
         }
 
-        // Validate stock and update quantities
-        for (Product product : storedProducts) {
-            ProductPurchaseRequestDTO request = requestMap.get(product.getId());
-            if (product.getAvailableQuantity() < request.quantity()) {
-                throw new ProductPurchaseException(
-                        "Not enough stock for product ID: " + product.getId()
-                );
-            }
-            product.setAvailableQuantity(product.getAvailableQuantity() - request.quantity());
+        // Reserve the stock atomically, one conditional update per product
+        if (reserveStock) {
+            purchaseMap.forEach((productId, quantity) -> {
+                if (productRepository.reserveStock(productId, quantity) == 0) {
+                    throw new ProductPurchaseException(
+                            "Not enough stock for product ID: " + productId
+                    );
+                }
+            });
         }
 
-        // Batch save all updated products
-        productRepository.saveAll(storedProducts);
-
         // Map to response DTOs
         return storedProducts.stream()
-                .map(product -> {
-                    var quantity = requestMap.get(product.getId()).quantity();
-                    return productMapper.productToProductPurchaseResponseDTO(product, quantity);
-                })
+                .map(product -> productMapper.productToProductPurchaseResponseDTO(product, purchaseMap.get(product.getId())))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Releases stock previously reserved by `performPurchaseProducts` by adding the quantities back.
+     * Quantities for the same product ID are summed, and each product is updated atomically in ascending ID order.
+     *
+     * @param productRequestDTOs A list of `ProductPurchaseRequestDTO` objects containing product IDs and quantities to release.
+     * @throws ProductPurchaseException If the list is empty or any product is not found.
+     */
+    @Transactional(rollbackFor = ProductPurchaseException.class)
+    @Override
+    public void performReleaseProducts(List<ProductPurchaseRequestDTO> productRequestDTOs) {
+
+        if (productRequestDTOs == null || productRequestDTOs.isEmpty()) {
+            throw new ProductPurchaseException("Product release request list cannot be null or empty");
+        }
+
+        sumQuantitiesByProductId(productRequestDTOs).forEach((productId, quantity) -> {
+            if (productRepository.releaseStock(productId, quantity) == 0) {
+                throw new ProductPurchaseException("Some products not found for release");
+            }
+        });
+    }
+
+    /**
+     * Releases the stock reserved for an order at most once.
+     * Releasing an order without a reservation only records the release, so a purchase request for the order
+     * that arrives late cannot take the stock anymore.
+     *
+     * @param orderId            The ID of the order whose stock is released.
+     * @param productRequestDTOs A list of `ProductPurchaseRequestDTO` objects containing product IDs and quantities to release.
+     * @throws ProductPurchaseException If the list is empty or any product is not found.
+     */
+    @Transactional(rollbackFor = ProductPurchaseException.class)
+    @Override
+    public void performOrderRelease(Integer orderId, List<ProductPurchaseRequestDTO> productRequestDTOs) {
+        var reservation = stockReservationRepository.findForUpdate(orderId).orElse(null);
+        if (reservation == null) {
+            stockReservationRepository.save(StockReservation.builder().orderId(orderId).released(true).build());
+            return;
+        }
+        if (reservation.isReleased()) {
+            return;
+        }
+
+        performReleaseProducts(productRequestDTOs);
+        reservation.setReleased(true);
+    }
+
+    /**
+     * Sums the requested quantities per product ID.
+     *
+     * @param productRequestDTOs The purchase or release requests.
+     * @return The summed quantities, sorted by product ID.
+     */
+    private static SortedMap<Integer, Double> sumQuantitiesByProductId(List<ProductPurchaseRequestDTO> productRequestDTOs) {
+        return productRequestDTOs
+                .stream()
+                .collect(
+                        Collectors.groupingBy(
+                                ProductPurchaseRequestDTO::productId,
+                                TreeMap::new,
+                                Collectors.summingDouble(ProductPurchaseRequestDTO::quantity)
+                        )
+                );
+    }
 }
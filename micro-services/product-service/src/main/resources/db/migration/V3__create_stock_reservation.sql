@@ -0,0 +1,6 @@
+CREATE TABLE stock_reservation
+(
+    order_id INT    NOT NULL,
+    released BIT(1) NOT NULL,
+    CONSTRAINT pk_stock_reservation PRIMARY KEY (order_id)
+);
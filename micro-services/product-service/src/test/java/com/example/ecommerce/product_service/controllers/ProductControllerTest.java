@@ -1,6 +1,8 @@
 package com.example.ecommerce.product_service.controllers;
 
 import com.example.ecommerce.product_service.exceptions.ProductPurchaseException;
+import com.example.ecommerce.product_service.model.CursorPageResponseDTO;
+import com.example.ecommerce.product_service.model.ProductFilterDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseRequestDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseResponseDTO;
 import com.example.ecommerce.product_service.model.ProductRequestDTO;
@@ -73,6 +75,25 @@ class ProductControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("GET /api/v1/products/page - Success")
+    void findProductsPage_success() throws Exception {
+        Mockito.when(
+                productService.getProductsPage(new ProductFilterDTO(1, BigDecimal.ONE, null), 10, 20)
+        ).thenReturn(new CursorPageResponseDTO<>(List.of(responseDTO), null));
+
+        mockMvc.perform(
+                        get("/api/v1/products/page")
+                                .param("categoryId", "1")
+                                .param("minPrice", "1")
+                                .param("after", "10")
+                                .param("size", "20")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(responseDTO.id()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
     @Test
     @DisplayName("GET /api/v1/products/{product-id} - Not Found")
     void getProductById_notFound() throws Exception {
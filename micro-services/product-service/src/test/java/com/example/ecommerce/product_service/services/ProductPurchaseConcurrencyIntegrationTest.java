@@ -0,0 +1,143 @@
+package com.example.ecommerce.product_service.services;
+
+import com.example.ecommerce.product_service.entities.Category;
+import com.example.ecommerce.product_service.exceptions.ProductPurchaseException;
+import com.example.ecommerce.product_service.model.ProductPurchaseRequestDTO;
+import com.example.ecommerce.product_service.model.ProductRequestDTO;
+import com.example.ecommerce.product_service.repository.CategoryRepository;
+import com.example.ecommerce.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs purchases from many threads at once against a real database.
+ * Not transactional on purpose: every purchase has to commit in its own transaction to compete for the same rows.
+ */
+@SpringBootTest
+class ProductPurchaseConcurrencyIntegrationTest {
+
+    private static final int THREADS = 64;
+    private static final int PURCHASES = 500;
+    private static final int STOCK = 100;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setup() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        category = categoryRepository.save(
+                Category.builder()
+                        .name("cat")
+                        .description("desc")
+                        .build()
+        );
+    }
+
+    @AfterEach
+    void cleanup() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should never oversell a hot product under concurrent purchases")
+    void performPurchaseProducts_concurrent_noOversell() throws Exception {
+        var id = productService.createProduct(
+                new ProductRequestDTO(null, "hot", "d", STOCK, BigDecimal.ONE, category.getId())
+        );
+
+        var succeeded = new AtomicInteger();
+        var rejected = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<?>>();
+
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < PURCHASES; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        productService.performPurchaseProducts(List.of(new ProductPurchaseRequestDTO(id, 1)));
+                        succeeded.incrementAndGet();
+                    } catch (ProductPurchaseException ex) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(STOCK, succeeded.get());
+        assertEquals(PURCHASES - STOCK, rejected.get());
+        assertEquals(0, productRepository.findById(id).orElseThrow().getAvailableQuantity());
+    }
+
+    @Test
+    @DisplayName("Should not deadlock or oversell when carts share products in different orders")
+    void performPurchaseProducts_concurrentMultiProductCarts_noOversell() throws Exception {
+        var first = productService.createProduct(
+                new ProductRequestDTO(null, "p1", "d", STOCK, BigDecimal.ONE, category.getId())
+        );
+        var second = productService.createProduct(
+                new ProductRequestDTO(null, "p2", "d", STOCK, BigDecimal.ONE, category.getId())
+        );
+
+        var succeeded = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<?>>();
+
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < PURCHASES; i++) {
+                // Alternate the order of the cart lines; the service must still lock rows in one order
+                var cart = i % 2 == 0
+                        ? List.of(new ProductPurchaseRequestDTO(first, 1), new ProductPurchaseRequestDTO(second, 1))
+                        : List.of(new ProductPurchaseRequestDTO(second, 1), new ProductPurchaseRequestDTO(first, 1));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        productService.performPurchaseProducts(cart);
+                        succeeded.incrementAndGet();
+                    } catch (ProductPurchaseException ex) {
+                        // Sold out
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(STOCK, succeeded.get());
+        assertEquals(0, productRepository.findById(first).orElseThrow().getAvailableQuantity());
+        assertEquals(0, productRepository.findById(second).orElseThrow().getAvailableQuantity());
+    }
+}
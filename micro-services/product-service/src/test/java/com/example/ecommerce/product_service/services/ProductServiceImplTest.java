@@ -1,14 +1,20 @@
 package com.example.ecommerce.product_service.services;
 
+import com.example.ecommerce.product_service.cache.ProductCatalogCache;
 import com.example.ecommerce.product_service.entities.Category;
 import com.example.ecommerce.product_service.entities.Product;
+import com.example.ecommerce.product_service.entities.StockReservation;
 import com.example.ecommerce.product_service.exceptions.ProductPurchaseException;
 import com.example.ecommerce.product_service.mapper.ProductMapper;
+import com.example.ecommerce.product_service.model.ProductFilterDTO;
+import com.example.ecommerce.product_service.model.ProductMetadataDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseRequestDTO;
 import com.example.ecommerce.product_service.model.ProductPurchaseResponseDTO;
 import com.example.ecommerce.product_service.model.ProductRequestDTO;
 import com.example.ecommerce.product_service.model.ProductResponseDTO;
+import com.example.ecommerce.product_service.model.ProductStockDTO;
 import com.example.ecommerce.product_service.repository.ProductRepository;
+import com.example.ecommerce.product_service.repository.StockReservationRepository;
 import com.example.ecommerce.product_service.services.impl.ProductServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,16 +23,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.*;
 
 class ProductServiceImplTest {
 
@@ -36,6 +45,12 @@ class ProductServiceImplTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductCatalogCache productCatalogCache;
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -45,30 +60,23 @@ class ProductServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should return product by id")
+    @DisplayName("Should return product by id with cached metadata and current stock")
     void getProductById_found() {
-        var product = Product.builder()
-                .id(1)
-                .name("Test")
-                .description("desc")
-                .availableQuantity(10)
-                .price(BigDecimal.TEN)
-                .category(
-                        Category.builder()
-                                .id(2)
-                                .name("cat")
-                                .description("catdesc")
-                                .build()
-                ).build();
+        var metadata = new ProductMetadataDTO(1, "Test", "desc", BigDecimal.TEN, 2, "cat", "catdesc");
         var dto = new ProductResponseDTO(1, "Test", "desc", 10, BigDecimal.TEN, 2, "cat", "catdesc");
 
         when(
-                productRepository.findById(1)
+                productCatalogCache.findById(1)
+        ).thenReturn(
+                Optional.of(metadata)
+        );
+        when(
+                productRepository.findAvailableQuantityById(1)
         ).thenReturn(
-                Optional.of(product)
+                Optional.of(10.0)
         );
         when(
-                productMapper.productToProductResponseDTO(product)
+                productMapper.productMetadataToProductResponseDTO(metadata, 10.0)
         ).thenReturn(dto);
 
         var result = productService.getProductById(1);
@@ -76,13 +84,14 @@ class ProductServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.id());
         assertEquals("Test", result.name());
+        assertEquals(10, result.availableQuantity());
     }
 
     @Test
     @DisplayName("Should throw when product not found by id")
     void getProductById_notFound() {
         when(
-                productRepository.findById(99)
+                productCatalogCache.findById(99)
         ).thenReturn(
                 Optional.empty()
         );
@@ -90,51 +99,84 @@ class ProductServiceImplTest {
         assertThrows(
                 EntityNotFoundException.class, () -> productService.getProductById(99)
         );
+        verify(productRepository, never()).findAvailableQuantityById(any());
     }
 
     @Test
-    @DisplayName("Should return all products")
+    @DisplayName("Should return all products with cached metadata and current stock")
     void getAllProducts() {
-        var p1 = Product.builder()
-                .id(1)
-                .name("A")
-                .description("d")
-                .availableQuantity(1)
-                .price(BigDecimal.ONE)
-                .category(
-                        Category.builder()
-                                .id(1)
-                                .name("c")
-                                .description("cd")
-                                .build()
-                ).build();
-        var p2 = Product.builder()
-                .id(2)
-                .name("B")
-                .description("d2")
-                .availableQuantity(2)
-                .price(BigDecimal.TEN)
-                .category(
-                        Category.builder()
-                                .id(2)
-                                .name("c2")
-                                .description("cd2")
-                                .build()
-                ).build();
-        var products = Arrays.asList(p1, p2);
+        var m1 = new ProductMetadataDTO(1, "A", "d", BigDecimal.ONE, 1, "c", "cd");
+        var m2 = new ProductMetadataDTO(2, "B", "d2", BigDecimal.TEN, 2, "c2", "cd2");
 
         when(
-                productRepository.findAll()
-        ).thenReturn(products);
+                productCatalogCache.findAll()
+        ).thenReturn(List.of(m1, m2));
         when(
-                productMapper.productToProductResponseDTO(any(Product.class))
-        ).thenReturn(
-                new ProductResponseDTO(0, "", "", 0, BigDecimal.ZERO, 0, "", "")
+                productRepository.findAllStock()
+        ).thenReturn(List.of(new ProductStockDTO(1, 1), new ProductStockDTO(2, 2)));
+        when(
+                productMapper.productMetadataToProductResponseDTO(any(ProductMetadataDTO.class), anyDouble())
+        ).thenAnswer(
+                invocation -> new ProductMapper().productMetadataToProductResponseDTO(
+                        invocation.getArgument(0), invocation.getArgument(1)
+                )
         );
 
         var result = productService.getAllProducts();
 
         assertEquals(2, result.size());
+        assertEquals(1, result.get(0).availableQuantity());
+        assertEquals(2, result.get(1).availableQuantity());
+    }
+
+    @Test
+    @DisplayName("Should return a filtered keyset page with the next cursor")
+    void getProductsPage_fullPage() {
+        var filter = new ProductFilterDTO(1, BigDecimal.ONE, BigDecimal.TEN);
+        var dto1 = new ProductResponseDTO(5, "A", "d", 1, BigDecimal.ONE, 1, "c", "cd");
+        var dto2 = new ProductResponseDTO(7, "B", "d", 1, BigDecimal.TEN, 1, "c", "cd");
+
+        when(
+                productRepository.findPageAfter(4, 1, BigDecimal.ONE, BigDecimal.TEN, Limit.of(2))
+        ).thenReturn(List.of(dto1, dto2));
+
+        var page = productService.getProductsPage(filter, 4, 2);
+
+        assertEquals(List.of(dto1, dto2), page.content());
+        assertEquals(7, page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should clamp the page size and return no cursor on the last page")
+    void getProductsPage_lastPage() {
+        var filter = new ProductFilterDTO(null, null, null);
+        var dto = new ProductResponseDTO(1, "A", "d", 1, BigDecimal.ONE, 1, "c", "cd");
+
+        when(
+                productRepository.findPageAfter(0, null, null, null, Limit.of(500))
+        ).thenReturn(List.of(dto));
+
+        var page = productService.getProductsPage(filter, null, 10_000);
+
+        assertEquals(List.of(dto), page.content());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should pass every streamed product to the consumer")
+    void streamProducts() {
+        var filter = new ProductFilterDTO(2, null, null);
+        var dto1 = new ProductResponseDTO(1, "A", "d", 1, BigDecimal.ONE, 2, "c", "cd");
+        var dto2 = new ProductResponseDTO(2, "B", "d", 1, BigDecimal.ONE, 2, "c", "cd");
+
+        when(
+                productRepository.streamAll(2, null, null)
+        ).thenReturn(Stream.of(dto1, dto2));
+
+        var received = new ArrayList<ProductResponseDTO>();
+        productService.streamProducts(filter, received::add);
+
+        assertEquals(List.of(dto1, dto2), received);
     }
 
     @Test
@@ -153,6 +195,7 @@ class ProductServiceImplTest {
         ).thenReturn(product);
 
         assertEquals(10, productService.createProduct(req));
+        verify(productCatalogCache).evict(10);
     }
 
     @Test
@@ -175,8 +218,8 @@ class ProductServiceImplTest {
                 productRepository.findAllByIdInOrderById(List.of(1))
         ).thenReturn(products);
         when(
-                productRepository.saveAll(products)
-        ).thenReturn(products);
+                productRepository.reserveStock(1, 2)
+        ).thenReturn(1);
 
         var resp = new ProductPurchaseResponseDTO(1, "n", "d", BigDecimal.ONE, 2);
 
@@ -189,6 +232,33 @@ class ProductServiceImplTest {
         assertEquals(1, result.size());
         assertEquals(1, result.get(0).productId());
         assertEquals(2, result.get(0).quantity());
+        verify(productRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should reserve stock in ascending product id order with summed quantities")
+    void performPurchaseProducts_reservesInProductIdOrder() {
+        var product1 = Product.builder().id(1).build();
+        var product3 = Product.builder().id(3).build();
+
+        when(
+                productRepository.findAllByIdInOrderById(List.of(1, 3))
+        ).thenReturn(List.of(product1, product3));
+        when(
+                productRepository.reserveStock(any(), anyDouble())
+        ).thenReturn(1);
+
+        productService.performPurchaseProducts(
+                List.of(
+                        new ProductPurchaseRequestDTO(3, 1),
+                        new ProductPurchaseRequestDTO(1, 2),
+                        new ProductPurchaseRequestDTO(3, 4)
+                )
+        );
+
+        var inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).reserveStock(1, 2);
+        inOrder.verify(productRepository).reserveStock(3, 5);
     }
 
     @Test
@@ -205,6 +275,7 @@ class ProductServiceImplTest {
         assertThrows(
                 ProductPurchaseException.class, () -> productService.performPurchaseProducts(List.of(req))
         );
+        verify(productRepository, never()).reserveStock(any(), anyDouble());
     }
 
     @Test
@@ -221,6 +292,9 @@ class ProductServiceImplTest {
         ).thenReturn(
                 List.of(product)
         );
+        when(
+                productRepository.reserveStock(1, 10)
+        ).thenReturn(0);
 
         assertThrows(
                 ProductPurchaseException.class, () -> productService.performPurchaseProducts(List.of(req))
@@ -252,4 +326,84 @@ class ProductServiceImplTest {
         );
     }
 
+    @Test
+    @DisplayName("Should add summed released quantities back to stock")
+    void performReleaseProducts_success() {
+        when(
+                productRepository.releaseStock(1, 3)
+        ).thenReturn(1);
+
+        productService.performReleaseProducts(
+                List.of(new ProductPurchaseRequestDTO(1, 2), new ProductPurchaseRequestDTO(1, 1))
+        );
+
+        verify(productRepository).releaseStock(1, 3);
+    }
+
+    @Test
+    @DisplayName("Should throw if any released product not found")
+    void performReleaseProducts_productNotFound() {
+        when(
+                productRepository.releaseStock(99, 1)
+        ).thenReturn(0);
+
+        assertThrows(
+                ProductPurchaseException.class,
+                () -> productService.performReleaseProducts(List.of(new ProductPurchaseRequestDTO(99, 1)))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reserve the stock of an order once and replay the purchase on a retry")
+    void performOrderPurchase_retried_reservesOnce() {
+        var req = new ProductPurchaseRequestDTO(1, 2);
+        var product = Product.builder().id(1).build();
+        var resp = new ProductPurchaseResponseDTO(1, "n", "d", BigDecimal.ONE, 2);
+        when(productRepository.findAllByIdInOrderById(List.of(1))).thenReturn(List.of(product));
+        when(productRepository.reserveStock(1, 2)).thenReturn(1);
+        when(productMapper.productToProductPurchaseResponseDTO(product, 2)).thenReturn(resp);
+        when(stockReservationRepository.findForUpdate(7))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(StockReservation.builder().orderId(7).build()));
+
+        assertEquals(List.of(resp), productService.performOrderPurchase(7, List.of(req)));
+        assertEquals(List.of(resp), productService.performOrderPurchase(7, List.of(req)));
+
+        verify(productRepository, times(1)).reserveStock(1, 2);
+        verify(stockReservationRepository, times(1)).save(any(StockReservation.class));
+    }
+
+    @Test
+    @DisplayName("Should release the stock of an order once")
+    void performOrderRelease_retried_releasesOnce() {
+        var reservation = StockReservation.builder().orderId(7).build();
+        when(stockReservationRepository.findForUpdate(7)).thenReturn(Optional.of(reservation));
+        when(productRepository.releaseStock(1, 2)).thenReturn(1);
+
+        productService.performOrderRelease(7, List.of(new ProductPurchaseRequestDTO(1, 2)));
+        productService.performOrderRelease(7, List.of(new ProductPurchaseRequestDTO(1, 2)));
+
+        assertTrue(reservation.isReleased());
+        verify(productRepository, times(1)).releaseStock(1, 2);
+    }
+
+    @Test
+    @DisplayName("Should record the release of an order without reservation and reject its late purchase")
+    void performOrderRelease_noReservation_blocksLatePurchase() {
+        when(stockReservationRepository.findForUpdate(7)).thenReturn(Optional.empty());
+
+        productService.performOrderRelease(7, List.of(new ProductPurchaseRequestDTO(1, 2)));
+
+        verify(stockReservationRepository).save(argThat(reservation -> reservation.getOrderId() == 7 && reservation.isReleased()));
+        verify(productRepository, never()).releaseStock(any(), anyDouble());
+
+        when(stockReservationRepository.findForUpdate(7))
+                .thenReturn(Optional.of(StockReservation.builder().orderId(7).released(true).build()));
+        assertThrows(
+                ProductPurchaseException.class,
+                () -> productService.performOrderPurchase(7, List.of(new ProductPurchaseRequestDTO(1, 2)))
+        );
+        verify(productRepository, never()).reserveStock(any(), anyDouble());
+    }
+
 }